@@ -25,23 +25,36 @@
 SRCDIR=geode-core/src/main/java/org/apache/geode/internal/cache/entries
 SRCFILE=$SRCDIR/LeafRegionEntry.cpp
 
-for VERTYPE in VM Versioned
+for VERTYPE in VM Versioned VersionedCompact
 do
   for RETYPE in Thin Stats ThinLRU StatsLRU ThinDisk StatsDisk ThinDiskLRU StatsDiskLRU
   do
-    for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2'
+    for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2' 'SerializedKey KEY_SERIALIZED'
     do
       for MEMTYPE in Heap OffHeap
       do
       declare -a KEY_ARRAY=($KEY_INFO)
       KEY_CLASS=${KEY_ARRAY[0]}
       KEY_TYPE=${KEY_ARRAY[1]}
-      BASE=${VERTYPE}${RETYPE}RegionEntry${MEMTYPE}
-      OUT=${BASE}${KEY_CLASS}
+      if [ "$KEY_TYPE" = "KEY_SERIALIZED" -a "$MEMTYPE" = "Heap" ]; then
+        # serialized keys are only stored off-heap
+        continue
+      fi
+      if [ "$VERTYPE" = "VersionedCompact" ]; then
+        # compact entries share the base classes of the versioned entries
+        BASE=Versioned${RETYPE}RegionEntry${MEMTYPE}
+        OUT=${BASE}Compact${KEY_CLASS}
+      else
+        BASE=${VERTYPE}${RETYPE}RegionEntry${MEMTYPE}
+        OUT=${BASE}${KEY_CLASS}
+      fi
       WP_ARGS=-Wp,-C,-P,-D${KEY_TYPE},-DPARENT_CLASS=$BASE,-DLEAF_CLASS=$OUT
       if [ "$VERTYPE" = "Versioned" ]; then
         WP_ARGS=${WP_ARGS},-DVERSIONED
       fi
+      if [ "$VERTYPE" = "VersionedCompact" ]; then
+        WP_ARGS=${WP_ARGS},-DVERSIONED,-DCOMPACT_VERSION
+      fi
       if [[ "$RETYPE" = *Stats* ]]; then
         WP_ARGS=${WP_ARGS},-DSTATS
       fi
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares the hit ratio and throughput of LRU and W-TinyLFU entry eviction. Every
+ * operation gets a key and puts it on a miss, like a look-aside cache in front of a slower store.
+ * The hits and misses counters reported by JMH give the hit ratio of each workload.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class EvictionHitRatioBenchmark {
+  private static final int MAX_ENTRIES = 100_000;
+
+  /** The number of distinct keys the Zipfian distribution draws from */
+  private static final int KEY_SPACE = 10 * MAX_ENTRIES;
+
+  private static final double ZIPF_EXPONENT = 0.99;
+
+  @Param({"lru", "tinylfu"})
+  public String algorithm;
+
+  Cache cache;
+  Region<Integer, String> region;
+  double[] zipfCumulativeProbabilities;
+  AtomicInteger nextScanKey = new AtomicInteger(KEY_SPACE);
+
+  @Setup(Level.Trial)
+  public void setup() {
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = createRegion(cache);
+    zipfCumulativeProbabilities = zipfCumulativeProbabilities();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class HitCounters {
+    public long hits;
+    public long misses;
+    Random random = new Random();
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      hits = 0;
+      misses = 0;
+    }
+  }
+
+  @Benchmark
+  @Measurement(time = 5, iterations = 10)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(4)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String zipfian(HitCounters counters) {
+    return getOrLoad(nextZipfKey(counters.random), counters);
+  }
+
+  /**
+   * Half of the operations read a Zipfian hot set while the other half stream through keys that
+   * are never read again, like a full-region query or a bulk load.
+   */
+  @Benchmark
+  @Measurement(time = 5, iterations = 10)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @Threads(4)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String zipfianWithScan(HitCounters counters) {
+    if (counters.random.nextBoolean()) {
+      return getOrLoad(nextScanKey.incrementAndGet(), counters);
+    }
+    return getOrLoad(nextZipfKey(counters.random), counters);
+  }
+
+  private String getOrLoad(Integer key, HitCounters counters) {
+    String value = region.get(key);
+    if (value != null) {
+      counters.hits++;
+      return value;
+    }
+    counters.misses++;
+    region.put(key, "value");
+    return "value";
+  }
+
+  private Integer nextZipfKey(Random random) {
+    int index = Arrays.binarySearch(zipfCumulativeProbabilities, random.nextDouble());
+    return index >= 0 ? index : -index - 1;
+  }
+
+  private static double[] zipfCumulativeProbabilities() {
+    double[] cumulative = new double[KEY_SPACE];
+    double sum = 0;
+    for (int i = 0; i < KEY_SPACE; i++) {
+      sum += 1.0 / Math.pow(i + 1, ZIPF_EXPONENT);
+      cumulative[i] = sum;
+    }
+    for (int i = 0; i < KEY_SPACE; i++) {
+      cumulative[i] /= sum;
+    }
+    return cumulative;
+  }
+
+  private Region<Integer, String> createRegion(Cache cache) {
+    EvictionAttributes evictionAttributes = "tinylfu".equals(algorithm)
+        ? EvictionAttributes.createTinyLFUEntryAttributes(MAX_ENTRIES, EvictionAction.LOCAL_DESTROY)
+        : EvictionAttributes.createLRUEntryAttributes(MAX_ENTRIES, EvictionAction.LOCAL_DESTROY);
+    return cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(evictionAttributes).create("testRegion");
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.internal.size.ReflectionObjectSizer;
+
+/**
+ * This benchmark measures the put throughput of a memory LRU region holding variable sized domain
+ * objects. The "reflection" sizer walks each value with {@link ReflectionObjectSizer}. The
+ * "compiled" sizer is {@link ObjectSizer#REFLECTION_SIZE}, which memory LRU regions replace with
+ * the compiled sizer. The "sizeClassOnce" sizer is the default that only sizes the first instance
+ * of each class.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class MemoryLRUPutBenchmark {
+  private static final int MAX_MEGABYTES = 100;
+
+  private static final int KEY_SPACE = 100_000;
+
+  @Param({"reflection", "compiled", "sizeClassOnce"})
+  public String sizer;
+
+  Cache cache;
+  Region<Integer, Order> region;
+  Random random = new Random();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").create();
+    region = cache.<Integer, Order>createRegionFactory(RegionShortcut.LOCAL)
+        .setEvictionAttributes(EvictionAttributes.createLRUMemoryAttributes(MAX_MEGABYTES,
+            createSizer(), EvictionAction.LOCAL_DESTROY))
+        .create("testRegion");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Order put() {
+    int key = random.nextInt(KEY_SPACE);
+    return region.put(key, new Order(key, random.nextInt(20)));
+  }
+
+  private ObjectSizer createSizer() {
+    switch (sizer) {
+      case "reflection":
+        // a sizer other than REFLECTION_SIZE itself so the region does not compile it
+        return object -> ReflectionObjectSizer.getInstance().sizeof(object);
+      case "compiled":
+        return ObjectSizer.REFLECTION_SIZE;
+      default:
+        return ObjectSizer.SIZE_CLASS_ONCE;
+    }
+  }
+
+  public static class Order {
+    private final int id;
+    private final String customer;
+    private final List<String> lines = new ArrayList<>();
+    private final Map<String, Double> prices = new HashMap<>();
+
+    Order(int id, int lineCount) {
+      this.id = id;
+      this.customer = "customer-" + id;
+      for (int i = 0; i < lineCount; i++) {
+        String item = "item-" + i;
+        lines.add(item);
+        prices.put(item, (double) i);
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures puts of large values to a persistent region, on or off heap. Off-heap
+ * values larger than the oplog write buffer are written with one gathering write instead of being
+ * copied into the write buffer.
+ */
+@State(Scope.Thread)
+@Fork(1)
+public class PersistentLargeValuePutBenchmark {
+  private static final int ENTRIES = 100;
+
+  @Param({"102400", "1048576"})
+  public int valueSize;
+
+  @Param({"true", "false"})
+  public boolean offHeap;
+
+  File diskDir;
+  Cache cache;
+  Region<Integer, byte[]> region;
+  byte[] value;
+  int key;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    diskDir = Files.createTempDirectory("PersistentLargeValuePutBenchmark").toFile();
+    cache = new CacheFactory().set(LOG_LEVEL, "warn").set(OFF_HEAP_MEMORY_SIZE, "512m").create();
+    cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir}).create("testDiskStore");
+    region = cache.<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName("testDiskStore").setOffHeap(offHeap).create("testRegion");
+    value = new byte[valueSize];
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    cache.close();
+    FileUtils.deleteDirectory(diskDir);
+  }
+
+  @Benchmark
+  @Measurement(iterations = 10)
+  @Warmup(iterations = 5)
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void put() {
+    if (++key == ENTRIES) {
+      key = 0;
+    }
+    region.put(key, value);
+  }
+}
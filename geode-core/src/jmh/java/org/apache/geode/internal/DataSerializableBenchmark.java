@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+
+/**
+ * Compares the deserialization of a DataSerializable that is not registered, looking its
+ * constructor up for every object as before, with a cached constructor.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DataSerializableBenchmark {
+  private byte[] serialized;
+
+  private final ByteArrayDataInput in = new ByteArrayDataInput();
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(new Message(1, 2L, "region"), out);
+    serialized = out.toByteArray();
+  }
+
+  @Benchmark
+  public Object lookupConstructor() throws Exception {
+    in.initialize(serialized, Version.CURRENT);
+    // the header byte and class name, read the way they were before constructors were cached
+    in.readByte();
+    Class<?> c = DataSerializer.readClass(in);
+    Object o = c.getConstructor().newInstance();
+    InternalDataSerializer.invokeFromData(o, in);
+    return o;
+  }
+
+  @Benchmark
+  public Object cachedConstructor() throws Exception {
+    in.initialize(serialized, Version.CURRENT);
+    return DataSerializer.readObject(in);
+  }
+
+  public static class Message implements DataSerializable {
+    private int processorId;
+    private long sequence;
+    private String regionPath;
+
+    public Message() {}
+
+    Message(int processorId, long sequence, String regionPath) {
+      this.processorId = processorId;
+      this.sequence = sequence;
+      this.regionPath = regionPath;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeInt(processorId);
+      out.writeLong(sequence);
+      DataSerializer.writeString(regionPath, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+      processorId = in.readInt();
+      sequence = in.readLong();
+      regionPath = DataSerializer.readString(in);
+    }
+  }
+}
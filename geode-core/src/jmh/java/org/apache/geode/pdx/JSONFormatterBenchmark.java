@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+
+/**
+ * Compares converting JSON documents of a repeated shape into PdxInstances by streaming them with
+ * building a PdxInstance for every object and a list for every array, and measures converting
+ * them back to JSON.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JSONFormatterBenchmark {
+  private static final String DOCUMENT = "{\"id\": 1234, \"name\": \"Order 1234\","
+      + " \"total\": 99.95, \"paid\": true, \"notes\": null,"
+      + " \"customer\": {\"id\": 42, \"name\": \"Jane Doe\", \"email\": \"jane@example.com\","
+      + " \"address\": {\"street\": \"Main Street\", \"number\": 12, \"zip\": \"97201\"}},"
+      + " \"items\": [{\"sku\": \"A-1\", \"quantity\": 2, \"price\": 10.5},"
+      + " {\"sku\": \"B-2\", \"quantity\": 1, \"price\": 78.95}],"
+      + " \"tags\": [\"express\", \"gift\", \"priority\"], \"ratings\": [5, 4, 300, 70000]}";
+
+  @Param({"true", "false"})
+  public boolean streaming;
+
+  private Cache cache;
+
+  private byte[] json;
+
+  private PdxInstance pdx;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    System.setProperty(JSONFormatter.DISABLE_STREAMING_PROPERTY, Boolean.toString(!streaming));
+    cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "").set(LOG_LEVEL, "warn")
+        .create();
+    json = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+    pdx = JSONFormatter.fromJSON(json);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+    System.clearProperty(JSONFormatter.DISABLE_STREAMING_PROPERTY);
+  }
+
+  @Benchmark
+  public PdxInstance fromJSON() {
+    return JSONFormatter.fromJSON(json);
+  }
+
+  @Benchmark
+  public byte[] toJSON() {
+    return JSONFormatter.toJSONByteArray(pdx);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.PdxSerializerObject;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+
+/**
+ * Compares writing and reading an auto serialized object field by field with writing and reading
+ * it with the method handles of {@link AutoClassAccessor}.
+ */
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = AutoSerializerBenchmark.NO_HARDCODED_EXCLUDES)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AutoSerializerBenchmark {
+  static final String NO_HARDCODED_EXCLUDES =
+      "-D" + DistributionConfig.GEMFIRE_PREFIX + "auto.serialization.no.hardcoded.excludes=true";
+
+  private static final String GENERATE_ACCESSORS =
+      "-D" + DistributionConfig.GEMFIRE_PREFIX + "AutoSerializer.generateAccessors=true";
+
+  private Cache cache;
+
+  private Order order;
+
+  private byte[] serialized;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    cache = new CacheFactory().set(LOG_LEVEL, "warn")
+        .setPdxSerializer(new ReflectionBasedAutoSerializer(".*\\$Order")).create();
+    order = new Order(1);
+    // defines the type so that the benchmarks write in order
+    serialized = BlobHelper.serializeToBlob(order);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Benchmark
+  public byte[] writeFieldByField() throws Exception {
+    return BlobHelper.serializeToBlob(order);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {NO_HARDCODED_EXCLUDES, GENERATE_ACCESSORS})
+  public byte[] writeGenerated() throws Exception {
+    return BlobHelper.serializeToBlob(order);
+  }
+
+  @Benchmark
+  public Object readFieldByField() throws Exception {
+    return BlobHelper.deserializeBlob(serialized);
+  }
+
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = {NO_HARDCODED_EXCLUDES, GENERATE_ACCESSORS})
+  public Object readGenerated() throws Exception {
+    return BlobHelper.deserializeBlob(serialized);
+  }
+
+  public static class Order implements PdxSerializerObject {
+    private int id;
+    private long timestamp;
+    private double price;
+    private int quantity;
+    private boolean open;
+    private String symbol;
+    private String account;
+    private Date date;
+    private long[] fills;
+
+    public Order() {}
+
+    Order(int id) {
+      this.id = id;
+      this.timestamp = System.currentTimeMillis();
+      this.price = 10.5;
+      this.quantity = 100;
+      this.open = true;
+      this.symbol = "GEODE";
+      this.account = "account-" + id;
+      this.date = new Date(timestamp);
+      this.fills = new long[] {25, 25, 50};
+    }
+  }
+}
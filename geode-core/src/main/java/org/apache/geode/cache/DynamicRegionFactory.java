@@ -587,7 +587,7 @@ public abstract class DynamicRegionFactory {
 
     AttributesFactory af = new AttributesFactory(rra);
     EvictionAttributes ev = rra.getEvictionAttributes();
-    if (ev != null && ev.getAlgorithm().isLRU()) {
+    if (ev != null && (ev.getAlgorithm().isLRU() || ev.getAlgorithm().isTinyLFU())) {
       EvictionAttributes rev = new EvictionAttributesImpl(ev);
       af.setEvictionAttributes(rev);
     }
@@ -64,12 +64,31 @@ public final class EvictionAlgorithm extends EnumSyntax {
    */
   public static final EvictionAlgorithm LIFO_MEMORY = new EvictionAlgorithm(5);
 
+  /**
+   * An algorithm that considers the number of Entries in the Region before invoking its
+   * {@link EvictionAction} on an entry chosen by the W-TinyLFU policy, which favors entries whose
+   * keys are used frequently over entries that were only touched once, for example by a scan.
+   *
+   * @since Geode 1.5
+   */
+  public static final EvictionAlgorithm TINYLFU_ENTRY = new EvictionAlgorithm(6);
+
+  /**
+   * An algorithm that considers the amount of bytes consumed by the Region before invoking its
+   * {@link EvictionAction} on an entry chosen by the W-TinyLFU policy, which favors entries whose
+   * keys are used frequently over entries that were only touched once, for example by a scan.
+   *
+   * @since Geode 1.5
+   */
+  public static final EvictionAlgorithm TINYLFU_MEMORY = new EvictionAlgorithm(7);
+
   private EvictionAlgorithm(int val) {
     super(val);
   }
 
   private static final String[] stringTable = {"none", "lru-entry-count", "lru-heap-percentage",
-      "lru-memory-size", "lifo-entry-count", "lifo-memory-size"};
+      "lru-memory-size", "lifo-entry-count", "lifo-memory-size", "tinylfu-entry-count",
+      "tinylfu-memory-size"};
 
   @Override
   protected String[] getStringTable() {
@@ -77,7 +96,8 @@ public final class EvictionAlgorithm extends EnumSyntax {
   }
 
   private static final EvictionAlgorithm[] enumValueTable =
-      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY,};
+      {NONE, LRU_ENTRY, LRU_HEAP, LRU_MEMORY, LIFO_ENTRY, LIFO_MEMORY, TINYLFU_ENTRY,
+          TINYLFU_MEMORY,};
 
   @Override
   protected EnumSyntax[] getEnumValueTable() {
@@ -138,4 +158,23 @@ public final class EvictionAlgorithm extends EnumSyntax {
   public boolean isLIFO() {
     return this == LIFO_ENTRY || this == LIFO_MEMORY;
   }
+
+  /**
+   * Returns true if this object uses the W-TinyLFU eviction policy.
+   *
+   * @since Geode 1.5
+   */
+  public boolean isTinyLFU() {
+    return this == TINYLFU_ENTRY || this == TINYLFU_MEMORY;
+  }
+
+  /**
+   * Returns true if this object limits the memory used by the entries, whether it evicts them with
+   * the LRU or the W-TinyLFU policy.
+   *
+   * @since Geode 1.5
+   */
+  public boolean isMemoryEviction() {
+    return this == LRU_MEMORY || this == TINYLFU_MEMORY;
+  }
 }
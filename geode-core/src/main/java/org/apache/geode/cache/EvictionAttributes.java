@@ -497,4 +497,37 @@ public abstract class EvictionAttributes implements DataSerializable {
         .setAction(evictionAction).setMaximum(maximumMegabytes).setObjectSizer(null);
   }
 
+  /**
+   * Creates and returns entry count eviction attributes that choose the entry to evict with the
+   * W-TinyLFU policy instead of LRU. The policy keeps entries whose keys are used frequently when
+   * a scan or bulk load streams through the region.
+   *
+   * @param maximumEntries the number of entries to keep in the Region
+   * @param evictionAction the action to perform when evicting an entry
+   * @return {@linkplain EvictionAlgorithm#TINYLFU_ENTRY entry TinyLFU} eviction attributes
+   * @since Geode 1.5
+   */
+  public static EvictionAttributes createTinyLFUEntryAttributes(int maximumEntries,
+      EvictionAction evictionAction) {
+    return new EvictionAttributesImpl().setAlgorithm(EvictionAlgorithm.TINYLFU_ENTRY)
+        .setAction(evictionAction).setMaximum(maximumEntries);
+  }
+
+  /**
+   * Creates and returns memory size eviction attributes that choose the entry to evict with the
+   * W-TinyLFU policy instead of LRU. The policy keeps entries whose keys are used frequently when
+   * a scan or bulk load streams through the region.
+   *
+   * @param maximumMegabytes the maximum allowed bytes in the Region
+   * @param sizer calculates the size in bytes of the key and value for an entry; if null the
+   *        default sizer is used
+   * @param evictionAction the action to perform when evicting an entry
+   * @return {@linkplain EvictionAlgorithm#TINYLFU_MEMORY memory TinyLFU} eviction attributes
+   * @since Geode 1.5
+   */
+  public static EvictionAttributes createTinyLFUMemoryAttributes(int maximumMegabytes,
+      ObjectSizer sizer, EvictionAction evictionAction) {
+    return new EvictionAttributesImpl().setAlgorithm(EvictionAlgorithm.TINYLFU_MEMORY)
+        .setAction(evictionAction).setMaximum(maximumMegabytes).setObjectSizer(sizer);
+  }
 }
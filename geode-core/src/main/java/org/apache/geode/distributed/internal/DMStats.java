@@ -538,6 +538,10 @@ public interface DMStats {
    */
   void incSenderBufferSize(int inc, boolean direct);
 
+  void incHeapBufferPoolHits();
+
+  void incHeapBufferPoolMisses();
+
   /**
    * @since GemFire 5.0.2.4
    */
@@ -21,6 +21,7 @@ import org.apache.geode.Statistics;
 import org.apache.geode.StatisticsFactory;
 import org.apache.geode.StatisticsType;
 import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.internal.HeapBufferPool;
 import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
@@ -187,6 +188,8 @@ public class DistributionStats implements DMStats {
   private static final int receiverHeapBufferSizeId;
   private static final int senderDirectBufferSizeId;
   private static final int senderHeapBufferSizeId;
+  private static final int heapBufferPoolHitsId;
+  private static final int heapBufferPoolMissesId;
 
   private static final int messagesBeingReceivedId;
   private static final int messageBytesBeingReceivedId;
@@ -647,6 +650,12 @@ public class DistributionStats implements DMStats {
         f.createLongGauge("receiverHeapBufferSize", receiverHeapBufferSizeDesc, "bytes"),
         f.createLongGauge("senderDirectBufferSize", senderDirectBufferSizeDesc, "bytes"),
         f.createLongGauge("senderHeapBufferSize", senderHeapBufferSizeDesc, "bytes"),
+        f.createLongCounter("heapBufferPoolHits",
+            "Total number of times a pooled output stream got its buffer from the pool.",
+            "operations"),
+        f.createLongCounter("heapBufferPoolMisses",
+            "Total number of times a pooled output stream had to allocate its buffer.",
+            "operations"),
         f.createIntGauge("socketLocksInProgress",
             "Current number of threads waiting to lock a socket", "threads", false),
         f.createIntCounter("socketLocks", "Total number of times a socket has been locked.",
@@ -874,6 +883,8 @@ public class DistributionStats implements DMStats {
     receiverHeapBufferSizeId = type.nameToId("receiverHeapBufferSize");
     senderDirectBufferSizeId = type.nameToId("senderDirectBufferSize");
     senderHeapBufferSizeId = type.nameToId("senderHeapBufferSize");
+    heapBufferPoolHitsId = type.nameToId("heapBufferPoolHits");
+    heapBufferPoolMissesId = type.nameToId("heapBufferPoolMisses");
 
     socketLocksInProgressId = type.nameToId("socketLocksInProgress");
     socketLocksId = type.nameToId("socketLocks");
@@ -951,6 +962,7 @@ public class DistributionStats implements DMStats {
     // new long[] {100000, 200000, 300000, 400000, 500000, 600000, 700000, 800000, 900000, 1000000},
     // false);
     Buffers.initBufferStats(this);
+    HeapBufferPool.initStats(this);
   }
 
   /**
@@ -2113,6 +2125,22 @@ public class DistributionStats implements DMStats {
     }
   }
 
+  public void incHeapBufferPoolHits() {
+    stats.incLong(heapBufferPoolHitsId, 1);
+  }
+
+  public long getHeapBufferPoolHits() {
+    return stats.getLong(heapBufferPoolHitsId);
+  }
+
+  public void incHeapBufferPoolMisses() {
+    stats.incLong(heapBufferPoolMissesId, 1);
+  }
+
+  public long getHeapBufferPoolMisses() {
+    return stats.getLong(heapBufferPoolMissesId);
+  }
+
   public void incMessagesBeingReceived(boolean newMsg, int bytes) {
     if (newMsg) {
       stats.incInt(messagesBeingReceivedId, 1);
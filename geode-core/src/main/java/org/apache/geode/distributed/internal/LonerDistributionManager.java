@@ -804,6 +804,12 @@ public class LonerDistributionManager implements DistributionManager {
     @Override
     public void incSenderBufferSize(int inc, boolean direct) {}
 
+    @Override
+    public void incHeapBufferPoolHits() {}
+
+    @Override
+    public void incHeapBufferPoolMisses() {}
+
     @Override
     public long startSocketLock() {
       return 0;
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link DataInput} implementation that reads a given {@link ByteBuffer}, for example a memory
+ * mapped file, without copying it to the heap. Unlike {@link ByteArrayDataInput} the buffer is read
+ * through its own position and limit. Reading past the limit throws {@link EOFException}, so this
+ * class can replace a {@link DataInputStream} over the same bytes. It also implements
+ * {@link VersionedDataStream} for a stream coming from a different product version.
+ */
+public class ByteBufferDataInput extends InputStream implements DataInput, VersionedDataStream {
+
+  private ByteBuffer buffer;
+  private Version version;
+
+  /**
+   * Create a {@link DataInput} whose contents are empty.
+   */
+  public ByteBufferDataInput() {}
+
+  /**
+   * Initialize this stream with given buffer and version.
+   *
+   * @param buffer the content of this stream, read from its current position to its limit. The
+   *        position and limit of the buffer are changed by this class.
+   * @param version the product version that serialized the objects in the buffer
+   */
+  public void initialize(ByteBuffer buffer, Version version) {
+    this.buffer = buffer;
+    this.version = version;
+  }
+
+  @Override
+  public Version getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Get the current position in the buffer.
+   */
+  public int position() {
+    return this.buffer.position();
+  }
+
+  /**
+   * Set the current position in the buffer.
+   */
+  public void setPosition(int pos) {
+    this.buffer.position(pos);
+  }
+
+  /**
+   * Get the position past which this stream will not read.
+   */
+  public int limit() {
+    return this.buffer.limit();
+  }
+
+  /**
+   * Set the position past which this stream will not read.
+   */
+  public void setLimit(int limit) {
+    this.buffer.limit(limit);
+  }
+
+  private void require(int n) throws EOFException {
+    if (this.buffer.remaining() < n) {
+      throw new EOFException();
+    }
+  }
+
+  private int skipOver(long n) {
+    final int skipped = (int) Math.max(0, Math.min(n, this.buffer.remaining()));
+    this.buffer.position(this.buffer.position() + skipped);
+    return skipped;
+  }
+
+  @Override
+  public int read() {
+    if (this.buffer.hasRemaining()) {
+      return this.buffer.get() & 0xff;
+    } else {
+      return -1;
+    }
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    if (off < 0 || len < 0 || b.length < (off + len)) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (len == 0) {
+      return 0;
+    }
+    final int remaining = this.buffer.remaining();
+    if (remaining == 0) {
+      return -1;
+    }
+    len = Math.min(len, remaining);
+    this.buffer.get(b, off, len);
+    return len;
+  }
+
+  @Override
+  public long skip(long n) {
+    return skipOver(n);
+  }
+
+  @Override
+  public int available() {
+    return this.buffer.remaining();
+  }
+
+  @Override
+  public void readFully(byte[] b) throws IOException {
+    readFully(b, 0, b.length);
+  }
+
+  @Override
+  public void readFully(byte[] b, int off, int len) throws IOException {
+    if (len < 0) {
+      throw new IndexOutOfBoundsException();
+    }
+    require(len);
+    this.buffer.get(b, off, len);
+  }
+
+  @Override
+  public int skipBytes(int n) {
+    return skipOver(n);
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    return readByte() != 0;
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    require(1);
+    return this.buffer.get();
+  }
+
+  @Override
+  public int readUnsignedByte() throws IOException {
+    return readByte() & 0xff;
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    require(2);
+    return this.buffer.getShort();
+  }
+
+  @Override
+  public int readUnsignedShort() throws IOException {
+    return readShort() & 0xffff;
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    require(2);
+    return this.buffer.getChar();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    require(4);
+    return this.buffer.getInt();
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    require(8);
+    return this.buffer.getLong();
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    return Float.intBitsToFloat(readInt());
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    return Double.longBitsToDouble(readLong());
+  }
+
+  @Override
+  public String readUTF() throws IOException {
+    return DataInputStream.readUTF(this);
+  }
+
+  @Override
+  public String readLine() throws IOException {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void close() {
+    this.buffer = null;
+    this.version = null;
+  }
+
+  @Override
+  public String toString() {
+    return this.version == null ? super.toString() : (super.toString() + " (" + this.version + ')');
+  }
+}
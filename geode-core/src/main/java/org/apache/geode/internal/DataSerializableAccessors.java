@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caches, per class, the zero-argument constructor used to create {@link DataSerializableFixedID}
+ * and {@link org.apache.geode.DataSerializable} instances when they are deserialized, and the
+ * toDataPre_/fromDataPre_ methods used to serialize them for older versions, so that they are not
+ * looked up again for every object.
+ * <p>
+ * The cached constructors and methods are only softly reachable: they refer to their class, and a
+ * strong reference from a {@link ClassValue} value back to its class would keep the class loader of
+ * a redeployed jar from ever being collected. A cleared entry is simply looked up again.
+ */
+public class DataSerializableAccessors {
+
+  private static final ClassValue<Instantiation> instantiations =
+      new ClassValue<Instantiation>() {
+        @Override
+        protected Instantiation computeValue(Class<?> c) {
+          return new Instantiation(c);
+        }
+      };
+
+  private static final ClassValue<ConcurrentMap<String, SoftReference<Method>>> versionMethods =
+      new ClassValue<ConcurrentMap<String, SoftReference<Method>>>() {
+        @Override
+        protected ConcurrentMap<String, SoftReference<Method>> computeValue(Class<?> c) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private DataSerializableAccessors() {}
+
+  /**
+   * Creates an instance of the given class with its public zero-argument constructor.
+   *
+   * @throws NoSuchMethodException if the class does not have a public zero-argument constructor
+   * @throws InvocationTargetException if the constructor throws an exception
+   */
+  public static Object newInstance(Class<?> c) throws NoSuchMethodException,
+      InstantiationException, IllegalAccessException, InvocationTargetException {
+    return instantiations.get(c).newInstance(c);
+  }
+
+  /**
+   * Returns the public method of the given class with the given name and parameter type, such as
+   * toDataPre_GFE_7_1_0_0.
+   */
+  public static Method getVersionMethod(Class<?> c, String name, Class<?> parameterType)
+      throws NoSuchMethodException {
+    ConcurrentMap<String, SoftReference<Method>> methods = versionMethods.get(c);
+    SoftReference<Method> ref = methods.get(name);
+    Method method = ref == null ? null : ref.get();
+    if (method == null) {
+      method = c.getMethod(name, parameterType);
+      methods.put(name, new SoftReference<>(method));
+    }
+    return method;
+  }
+
+  /**
+   * How instances of a class are created. Only the message of a failed lookup is kept, since the
+   * exception's backtrace would refer to the class as well.
+   */
+  private static class Instantiation {
+    private volatile SoftReference<Constructor<?>> constructor;
+
+    private final String noSuchMethod;
+
+    Instantiation(Class<?> c) {
+      String failure = null;
+      try {
+        this.constructor = new SoftReference<>(lookup(c));
+      } catch (NoSuchMethodException e) {
+        failure = e.getMessage();
+      }
+      this.noSuchMethod = failure;
+    }
+
+    private static Constructor<?> lookup(Class<?> c) throws NoSuchMethodException {
+      Constructor<?> init = c.getConstructor();
+      init.setAccessible(true);
+      return init;
+    }
+
+    Object newInstance(Class<?> c) throws NoSuchMethodException, InstantiationException,
+        IllegalAccessException, InvocationTargetException {
+      if (this.noSuchMethod != null) {
+        throw new NoSuchMethodException(this.noSuchMethod);
+      }
+      Constructor<?> init = this.constructor.get();
+      if (init == null) {
+        init = lookup(c);
+        this.constructor = new SoftReference<>(init);
+      }
+      return init.newInstance((Object[]) null);
+    }
+  }
+}
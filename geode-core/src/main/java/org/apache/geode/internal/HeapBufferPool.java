@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * A pool of heap byte buffers, kept in power of two size classes, that {@link HeapDataOutputStream}
+ * borrows from when it is created as pooled and returns its buffers to when it is closed. This
+ * saves allocating and zeroing a new buffer for every message part serialized by a sender.
+ * <p>
+ * The buffers are shared by all threads since a stream may be closed by another thread than the
+ * one that created it. The number of bytes kept in the pool is bounded, buffers released when the
+ * pool is full are left to the garbage collector.
+ *
+ * @see HeapDataOutputStream#HeapDataOutputStream(int, Version, boolean, boolean)
+ */
+public class HeapBufferPool {
+  /**
+   * Whether the streams of client messages and the overflow streams of peer messages are pooled.
+   */
+  public static final boolean ENABLED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "HeapDataOutputStream.pooled");
+
+  /**
+   * The number of bytes the pool keeps at most.
+   */
+  static final long MAX_POOLED_BYTES = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "HeapDataOutputStream.maxPooledBytes", 16 * 1024 * 1024);
+
+  /**
+   * The size of the smallest size class.
+   */
+  static final int MIN_SIZE = 1024;
+
+  /**
+   * The size of the largest size class. Larger buffers are always allocated.
+   */
+  static final int MAX_SIZE = 1024 * 1024;
+
+  private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+
+  @SuppressWarnings("unchecked")
+  private static final ConcurrentLinkedQueue<ByteBuffer>[] pools =
+      new ConcurrentLinkedQueue[Integer.numberOfTrailingZeros(MAX_SIZE) - MIN_SHIFT + 1];
+
+  static {
+    for (int i = 0; i < pools.length; i++) {
+      pools[i] = new ConcurrentLinkedQueue<>();
+    }
+  }
+
+  private static final AtomicLong pooledBytes = new AtomicLong();
+
+  private static volatile DMStats stats;
+
+  private HeapBufferPool() {
+    // no instances
+  }
+
+  /**
+   * Sets the statistics the hits and misses of the pool are counted in.
+   */
+  public static void initStats(DMStats dmStats) {
+    stats = dmStats;
+  }
+
+  /**
+   * Returns a cleared buffer with a capacity of at least the given size.
+   */
+  public static ByteBuffer acquire(int size) {
+    if (size > MAX_SIZE) {
+      countMiss();
+      return ByteBuffer.allocate(size);
+    }
+    int sizeClass = getSizeClass(size);
+    ByteBuffer result = pools[sizeClass].poll();
+    if (result == null) {
+      countMiss();
+      return ByteBuffer.allocate(MIN_SIZE << sizeClass);
+    }
+    pooledBytes.addAndGet(-result.capacity());
+    DMStats dmStats = stats;
+    if (dmStats != null) {
+      dmStats.incHeapBufferPoolHits();
+    }
+    return result;
+  }
+
+  /**
+   * Returns a buffer acquired from this pool to it. The caller must not use the buffer, or any
+   * slice of it, afterwards.
+   */
+  public static void release(ByteBuffer bb) {
+    int capacity = bb.capacity();
+    if (capacity < MIN_SIZE || capacity > MAX_SIZE || Integer.bitCount(capacity) != 1
+        || bb.isDirect() || bb.isReadOnly() || bb.arrayOffset() != 0) {
+      // not one of ours
+      return;
+    }
+    if (pooledBytes.addAndGet(capacity) > MAX_POOLED_BYTES) {
+      pooledBytes.addAndGet(-capacity);
+      return;
+    }
+    bb.clear();
+    pools[getSizeClass(capacity)].offer(bb);
+  }
+
+  /**
+   * Returns the number of bytes currently kept in the pool.
+   */
+  static long getPooledBytes() {
+    return pooledBytes.get();
+  }
+
+  /**
+   * Empties the pool.
+   */
+  static void clear() {
+    for (ConcurrentLinkedQueue<ByteBuffer> pool : pools) {
+      ByteBuffer bb = pool.poll();
+      while (bb != null) {
+        pooledBytes.addAndGet(-bb.capacity());
+        bb = pool.poll();
+      }
+    }
+  }
+
+  private static int getSizeClass(int size) {
+    if (size <= MIN_SIZE) {
+      return 0;
+    }
+    return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+  }
+
+  private static void countMiss() {
+    DMStats dmStats = stats;
+    if (dmStats != null) {
+      dmStats.incHeapBufferPoolMisses();
+    }
+  }
+}
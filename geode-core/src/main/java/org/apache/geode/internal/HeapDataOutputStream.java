@@ -22,6 +22,7 @@ import java.io.UTFDataFormatException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 
@@ -70,6 +71,16 @@ public class HeapDataOutputStream extends OutputStream
   private int memoPosition;
   private Version version;
   private boolean doNotCopy;
+  /**
+   * The buffers this stream borrowed from the {@link HeapBufferPool}, to be released when it is
+   * closed. Null if this stream is not pooled or its buffers have been handed out.
+   */
+  private LinkedList<ByteBuffer> pooledBuffers;
+  /**
+   * The LongUpdaters reserved in the pooled buffers of this stream, to be invalidated when the
+   * buffers are returned to the pool. Null if none were reserved.
+   */
+  private ArrayList<LongUpdater> pooledLongUpdaters;
 
   private static final int INITIAL_CAPACITY = 1024;
 
@@ -103,12 +114,27 @@ public class HeapDataOutputStream extends OutputStream
    *        instead referenced.
    */
   public HeapDataOutputStream(int allocSize, Version version, boolean doNotCopy) {
+    this(allocSize, version, doNotCopy, false);
+  }
+
+  /**
+   * @param doNotCopy if true then byte arrays/buffers/sources will not be copied to this hdos but
+   *        instead referenced.
+   * @param pooled if true then the buffers of this hdos are borrowed from the
+   *        {@link HeapBufferPool} and returned to it by {@link #close()}. The contents must have
+   *        been sent before the stream is closed. Buffers handed out by methods like
+   *        {@link #toByteArray()} are not returned.
+   */
+  public HeapDataOutputStream(int allocSize, Version version, boolean doNotCopy, boolean pooled) {
     if (allocSize < 32) {
       this.MIN_CHUNK_SIZE = 32;
     } else {
       this.MIN_CHUNK_SIZE = allocSize;
     }
-    this.buffer = ByteBuffer.allocate(allocSize);
+    if (pooled) {
+      this.pooledBuffers = new LinkedList<ByteBuffer>();
+    }
+    this.buffer = allocate(allocSize);
     this.version = version;
     this.doNotCopy = doNotCopy;
   }
@@ -219,7 +245,25 @@ public class HeapDataOutputStream extends OutputStream
     if (amount < MIN_CHUNK_SIZE) {
       amount = MIN_CHUNK_SIZE;
     }
-    this.buffer = ByteBuffer.allocate(amount);
+    this.buffer = allocate(amount);
+  }
+
+  private ByteBuffer allocate(int amount) {
+    if (this.pooledBuffers == null) {
+      return ByteBuffer.allocate(amount);
+    }
+    ByteBuffer result = HeapBufferPool.acquire(amount);
+    this.pooledBuffers.add(result);
+    return result;
+  }
+
+  /**
+   * Called before the buffers of this stream are referenced outside of it, after which they can no
+   * longer be returned to the pool.
+   */
+  private void unpoolBuffers() {
+    this.pooledBuffers = null;
+    this.pooledLongUpdaters = null;
   }
 
   private void checkIfWritable() {
@@ -282,6 +326,7 @@ public class HeapDataOutputStream extends OutputStream
   }
 
   public void fillByteBufferArray(ByteBuffer[] bbArray, int offset) {
+    unpoolBuffers();
     if (this.chunks != null) {
       for (ByteBuffer bb : this.chunks) {
         bbArray[offset++] = bb;
@@ -308,7 +353,7 @@ public class HeapDataOutputStream extends OutputStream
     this.chunks.add(bufToAdd);
     int newPos = oldBuffer.limit();
     if ((oldBuffer.capacity() - newPos) <= 0) {
-      this.buffer = ByteBuffer.allocate(MIN_CHUNK_SIZE);
+      this.buffer = allocate(MIN_CHUNK_SIZE);
     } else {
       oldBuffer.limit(oldBuffer.capacity());
       oldBuffer.position(newPos);
@@ -404,6 +449,7 @@ public class HeapDataOutputStream extends OutputStream
    * Returns a ByteBuffer of the unused buffer; returns null if the buffer was completely used.
    */
   public ByteBuffer finishWritingAndReturnUnusedBuffer() {
+    unpoolBuffers();
     finishWriting();
     ByteBuffer result = this.buffer.duplicate();
     if (result.remaining() == 0) {
@@ -421,9 +467,27 @@ public class HeapDataOutputStream extends OutputStream
     }
   }
 
+  /**
+   * Resets this stream. If it is pooled then its buffers are returned to the pool and it must not
+   * be used afterwards.
+   */
   @Override
   public void close() {
     reset();
+    if (this.pooledBuffers != null && !this.pooledBuffers.isEmpty()) {
+      // the current buffer is one of the pooled ones or a slice of one
+      this.buffer = ByteBuffer.allocate(0);
+      if (this.pooledLongUpdaters != null) {
+        for (LongUpdater updater : this.pooledLongUpdaters) {
+          updater.invalidate();
+        }
+        this.pooledLongUpdaters = null;
+      }
+      for (ByteBuffer bb : this.pooledBuffers) {
+        HeapBufferPool.release(bb);
+      }
+      this.pooledBuffers.clear();
+    }
   }
 
   /**
@@ -431,6 +495,7 @@ public class HeapDataOutputStream extends OutputStream
    * written to past this point until it has been reset.
    */
   public ByteBuffer toByteBuffer() {
+    unpoolBuffers();
     finishWriting();
     consolidateChunks();
     return this.buffer;
@@ -682,6 +747,7 @@ public class HeapDataOutputStream extends OutputStream
    * stream.
    */
   public InputStream getInputStream() {
+    unpoolBuffers();
     return new HDInputStream();
   }
 
@@ -980,7 +1046,8 @@ public class HeapDataOutputStream extends OutputStream
 
   /**
    * Reserves space in the output for a long and returns a LongUpdater than can be used to update
-   * this particular long.
+   * this particular long. If this stream is pooled then the LongUpdater can not be used once the
+   * stream is closed.
    *
    * @return the LongUpdater that allows the long to be updated
    */
@@ -990,12 +1057,18 @@ public class HeapDataOutputStream extends OutputStream
     checkIfWritable();
     ensureCapacity(8);
     LongUpdater result = new LongUpdater(this.buffer);
+    if (this.pooledBuffers != null) {
+      if (this.pooledLongUpdaters == null) {
+        this.pooledLongUpdaters = new ArrayList<LongUpdater>();
+      }
+      this.pooledLongUpdaters.add(result);
+    }
     buffer.putLong(0L);
     return result;
   }
 
   public static class LongUpdater {
-    private final ByteBuffer bb;
+    private ByteBuffer bb;
     private final int pos;
 
     public LongUpdater(ByteBuffer bb) {
@@ -1004,8 +1077,16 @@ public class HeapDataOutputStream extends OutputStream
     }
 
     public void update(long v) {
+      if (this.bb == null) {
+        throw new IllegalStateException("The buffer of this long was returned to the pool");
+      }
       this.bb.putLong(this.pos, v);
     }
+
+    /** Called when the buffer of the long is returned to the pool */
+    void invalidate() {
+      this.bb = null;
+    }
   }
 
   /**
@@ -2377,8 +2377,8 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
           for (Version version : versions) {
             // if peer version is less than the greatest upgraded version
             if (v.compareTo(version) < 0) {
-              ds.getClass().getMethod("toDataPre_" + version.getMethodSuffix(),
-                  new Class[] {DataOutput.class}).invoke(ds, out);
+              DataSerializableAccessors.getVersionMethod(ds.getClass(),
+                  "toDataPre_" + version.getMethodSuffix(), DataOutput.class).invoke(ds, out);
               invoked = true;
               break;
             }
@@ -2449,8 +2449,8 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
           for (Version version : versions) {
             // if peer version is less than the greatest upgraded version
             if (v.compareTo(version) < 0) {
-              ds.getClass().getMethod("fromDataPre" + '_' + version.getMethodSuffix(),
-                  new Class[] {DataInput.class}).invoke(ds, in);
+              DataSerializableAccessors.getVersionMethod(ds.getClass(),
+                  "fromDataPre" + '_' + version.getMethodSuffix(), DataInput.class).invoke(ds, in);
               invoked = true;
               break;
             }
@@ -2480,9 +2480,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       throws IOException, ClassNotFoundException {
     Class c = readClass(in);
     try {
-      Constructor init = c.getConstructor(new Class[0]);
-      init.setAccessible(true);
-      Object o = init.newInstance(new Object[0]);
+      Object o = DataSerializableAccessors.newInstance(c);
       Assert.assertTrue(o instanceof DataSerializable);
       invokeFromData(o, in);
 
@@ -2507,9 +2505,7 @@ public abstract class InternalDataSerializer extends DataSerializer implements D
       throws IOException, ClassNotFoundException {
     Class c = readClass(in);
     try {
-      Constructor init = c.getConstructor(new Class[0]);
-      init.setAccessible(true);
-      Object o = init.newInstance(new Object[0]);
+      Object o = DataSerializableAccessors.newInstance(c);
 
       invokeFromData(o, in);
 
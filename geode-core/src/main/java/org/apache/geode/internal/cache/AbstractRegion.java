@@ -1558,7 +1558,7 @@ public abstract class AbstractRegion implements InternalRegion, AttributesMutato
 
     this.evictionAttributes = new EvictionAttributesImpl(attrs.getEvictionAttributes());
     if (attrs.getPartitionAttributes() != null && this.evictionAttributes != null
-        && this.evictionAttributes.getAlgorithm().isLRUMemory()
+        && this.evictionAttributes.getAlgorithm().isMemoryEviction()
         && attrs.getPartitionAttributes().getLocalMaxMemory() != 0 && this.evictionAttributes
             .getMaximum() != attrs.getPartitionAttributes().getLocalMaxMemory()) {
       logger.warn(LocalizedMessage.create(LocalizedStrings.Mem_LRU_Eviction_Attribute_Reset,
@@ -89,6 +89,7 @@ import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
 import org.apache.geode.internal.util.BlobHelper;
 import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
 
 /**
  * Abstract implementation of {@link RegionMap}that has all the common behavior.
@@ -123,8 +124,15 @@ public abstract class AbstractRegionMap
       InternalRegionArguments internalRegionArgs, boolean isLRU) {
     _setAttributes(attr);
     setOwner(owner);
-    setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
-        attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
+    if (attr.primitiveKeyType != null) {
+      setEntryMap(
+          new PrimitiveKeyConcurrentHashMap(attr.primitiveKeyType, attr.initialCapacity,
+              attr.loadFactor, attr.concurrencyLevel,
+              new AbstractRegionEntry.HashRegionEntryCreator()));
+    } else {
+      setEntryMap(createConcurrentMapWithReusableEntries(attr.initialCapacity, attr.loadFactor,
+          attr.concurrencyLevel, false, new AbstractRegionEntry.HashRegionEntryCreator()));
+    }
 
     boolean isDisk;
     boolean withVersioning;
@@ -128,6 +128,8 @@ public class CachePerfStats {
   protected static final int tombstoneGCCountId;
   protected static final int tombstoneOverhead1Id;
   protected static final int tombstoneOverhead2Id;
+  protected static final int tombstoneSweepsId;
+  protected static final int tombstoneSweepTimeId;
   protected static final int clearTimeoutsId;
 
   protected static final int deltaUpdatesId;
@@ -292,6 +294,10 @@ public class CachePerfStats {
         "Amount of memory consumed by destroyed entries in replicated or partitioned regions";
     final String tombstoneOverhead2Desc =
         "Amount of memory consumed by destroyed entries in non-replicated regions";
+    final String tombstoneSweepsDesc =
+        "Number of passes made by the destroyed entry sweepers over their regions";
+    final String tombstoneSweepTimeDesc =
+        "Total time spent by the destroyed entry sweepers expiring, purging and garbage-collecting destroyed entries";
     final String clearTimeoutsDesc =
         "Number of timeouts waiting for events concurrent to a clear() operation to be received and applied before performing the clear()";
     final String deltaUpdatesDesc =
@@ -461,6 +467,9 @@ public class CachePerfStats {
             f.createIntCounter("tombstoneGCs", tombstoneGCCountDesc, "operations"),
             f.createLongGauge("replicatedTombstonesSize", tombstoneOverhead1Desc, "bytes"),
             f.createLongGauge("nonReplicatedTombstonesSize", tombstoneOverhead2Desc, "bytes"),
+            f.createLongCounter("tombstoneSweeps", tombstoneSweepsDesc, "operations"),
+            f.createLongCounter("tombstoneSweepTime", tombstoneSweepTimeDesc, "nanoseconds",
+                false),
             f.createIntCounter("clearTimeouts", clearTimeoutsDesc, "timeouts"),
             f.createIntGauge("evictorJobsStarted", "Number of evictor jobs started", "jobs"),
             f.createIntGauge("evictorJobsCompleted", "Number of evictor jobs completed", "jobs"),
@@ -602,6 +611,8 @@ public class CachePerfStats {
     tombstoneGCCountId = type.nameToId("tombstoneGCs");
     tombstoneOverhead1Id = type.nameToId("replicatedTombstonesSize");
     tombstoneOverhead2Id = type.nameToId("nonReplicatedTombstonesSize");
+    tombstoneSweepsId = type.nameToId("tombstoneSweeps");
+    tombstoneSweepTimeId = type.nameToId("tombstoneSweepTime");
     clearTimeoutsId = type.nameToId("clearTimeouts");
 
     deltaUpdatesId = type.nameToId("deltaUpdates");
@@ -1466,6 +1477,22 @@ public class CachePerfStats {
     return this.stats.getLong(tombstoneOverhead2Id);
   }
 
+  /**
+   * @param start the {@link System#nanoTime()} at which the sweep started
+   */
+  public void endTombstoneSweep(long start) {
+    this.stats.incLong(tombstoneSweepsId, 1);
+    this.stats.incLong(tombstoneSweepTimeId, System.nanoTime() - start);
+  }
+
+  public long getTombstoneSweeps() {
+    return this.stats.getLong(tombstoneSweepsId);
+  }
+
+  public long getTombstoneSweepTime() {
+    return this.stats.getLong(tombstoneSweepTimeId);
+  }
+
   public int getClearTimeouts() {
     return this.stats.getInt(clearTimeoutsId);
   }
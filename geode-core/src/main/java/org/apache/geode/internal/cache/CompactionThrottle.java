@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps online compaction within an I/O budget. The compactor copies live entries forward in
+ * batches and, at the end of each batch, pauses until the bytes it has copied fit in the budget.
+ * Time the compactor spends idle is not saved up, so a compaction that starts after a quiet period
+ * copies at most one batch above the budget. The {@link ValueWarmer} paces its reads the same way.
+ *
+ * This class is used by a single thread.
+ *
+ * @see DiskStoreImpl#COMPACTION_BYTES_PER_SECOND
+ * @see DiskStoreImpl#WARM_VALUES_BYTES_PER_SECOND
+ */
+class CompactionThrottle {
+  private final long bytesPerSecond;
+
+  private final int batchSize;
+
+  private int batchEntries;
+
+  private long batchBytes;
+
+  /** The time at which the bytes copied so far are within the budget */
+  private long budgetTime = Long.MIN_VALUE;
+
+  /**
+   * @param bytesPerSecond the budget, zero or less for none
+   * @param batchSize the number of entries copied forward between pauses
+   */
+  CompactionThrottle(long bytesPerSecond, int batchSize) {
+    this.bytesPerSecond = bytesPerSecond;
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  boolean isEnabled() {
+    return this.bytesPerSecond > 0;
+  }
+
+  /**
+   * Records an entry copied forward. Returns true if it ends a batch, in which case
+   * {@link #endBatch} should be called once the compactor can pause.
+   */
+  boolean entryCopied(long bytes) {
+    this.batchBytes += bytes;
+    return isEnabled() && ++this.batchEntries >= this.batchSize;
+  }
+
+  /**
+   * Ends the current batch and returns how many nanoseconds the compactor should pause so that it
+   * stays within the budget.
+   *
+   * @param now the current time in nanoseconds
+   */
+  long endBatch(long now) {
+    long cost = (long) ((double) this.batchBytes * TimeUnit.SECONDS.toNanos(1)
+        / this.bytesPerSecond);
+    this.batchEntries = 0;
+    this.batchBytes = 0;
+    // the batch started when the last pause ended, or at most its cost ago if the compactor was
+    // idle since
+    this.budgetTime = Math.max(this.budgetTime, now - cost) + cost;
+    return Math.max(this.budgetTime - now, 0);
+  }
+}
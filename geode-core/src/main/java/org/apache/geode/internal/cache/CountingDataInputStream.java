@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache;
 
 import java.io.*;
 
+import org.apache.geode.internal.ByteBufferDataInput;
+
 /**
  * A data input stream that counts the bytes it plans on reading.
  *
@@ -26,13 +28,21 @@ import java.io.*;
 public class CountingDataInputStream implements DataInput {
   private final long fileLength;
   private long count;
-  private final DataInputStream dis;
+  private final DataInput dis;
 
   public CountingDataInputStream(InputStream is, long fileLength) {
     this.fileLength = fileLength;
     this.dis = new DataInputStream(is);
   }
 
+  /**
+   * Counts the bytes read from a file of the given length that has been mapped into memory.
+   */
+  public CountingDataInputStream(ByteBufferDataInput in, long fileLength) {
+    this.fileLength = fileLength;
+    this.dis = in;
+  }
+
   public long getCount() {
     return this.count;
   }
@@ -134,6 +144,8 @@ public class CountingDataInputStream implements DataInput {
   }
 
   public void close() throws IOException {
-    this.dis.close();
+    if (this.dis instanceof Closeable) {
+      ((Closeable) this.dis).close();
+    }
   }
 }
@@ -249,6 +249,9 @@ public class DiskRegion extends AbstractDiskRegion {
         destroyOldTomstones(drs);
       }
       releaseRecoveryData();
+      if (!GIIStatus.didFullGII(giiStatus)) {
+        getDiskStore().scheduleValueWarming(drs);
+      }
     }
     if (isBackup() && !this.isRegionClosed() && !this.getRVVTrusted()) {
       if (!GIIStatus.didGII(giiStatus)) {
@@ -695,6 +698,7 @@ public class DiskRegion extends AbstractDiskRegion {
 
   void prepareForClose(LocalRegion region) {
     getDiskStore().prepareForClose(region, this);
+    getDiskStore().saveHotKeys(region, this);
   }
 
   public boolean isRegionClosed() {
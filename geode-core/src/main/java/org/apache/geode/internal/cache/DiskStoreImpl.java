@@ -47,6 +47,8 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
@@ -56,6 +58,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
@@ -63,6 +66,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
@@ -71,6 +75,7 @@ import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.CancelException;
+import org.apache.geode.InternalGemFireError;
 import org.apache.geode.StatisticsFactory;
 import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.Cache;
@@ -219,6 +224,41 @@ public class DiskStoreImpl implements DiskStore {
       DistributionConfig.GEMFIRE_PREFIX + "MAX_CONCURRENT_COMPACTIONS",
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_CONCURRENT_ROLLS", 1).intValue());
 
+  /**
+   * The most value bytes per second that online compaction copies forward, so that it does not
+   * compete with foreground writes for the disk. Zero, the default, lets compaction run as fast as
+   * it can.
+   */
+  static final long COMPACTION_BYTES_PER_SECOND =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.compactionBytesPerSecond", 0);
+
+  /**
+   * The number of live entries compaction copies forward between pauses when it has an I/O budget.
+   * The compactor does not hold its locks while it pauses.
+   */
+  static final int COMPACTION_BATCH_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.compactionBatchSize", 1000);
+
+  /**
+   * Set to true to compress the values written to crf files. Values are compressed one at a time,
+   * and are inflated as they are read back, so values in memory are not compressed. Older versions
+   * cannot read oplogs with compressed values.
+   */
+  static final boolean COMPRESS_VALUES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.compressValues");
+
+  /**
+   * Values smaller than this many bytes are not compressed.
+   */
+  static final int COMPRESS_VALUES_MIN_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.compressValuesMinSize", 128);
+
+  /**
+   * The {@link Deflater} level values are compressed with. Defaults to the fastest.
+   */
+  static final int COMPRESSION_LEVEL = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "disk.compressionLevel", Deflater.BEST_SPEED);
+
   /**
    * This system property indicates that maximum number of delayed write tasks that can be pending
    * before submitting the tasks start blocking. These tasks are things like unpreblow oplogs,
@@ -255,6 +295,78 @@ public class DiskStoreImpl implements DiskStore {
   static final boolean SYNC_IF_WRITES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "syncMetaDataWrites");
 
+  /**
+   * This system property makes the synchronous writes to oplogs durable with a group commit. The
+   * writes are buffered and the writer waits while a single thread forces the oplog files to disk
+   * for every write buffered so far, so concurrent writers share one force.
+   */
+  static final boolean GROUP_COMMIT =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommit");
+
+  /**
+   * The number of microseconds the thread doing a group commit waits for more writers to join the
+   * group before it forces the oplog files. Defaults to 0, in which case a group holds the writes
+   * buffered while the previous group was being forced.
+   */
+  static final long GROUP_COMMIT_MAX_WAIT_MICROS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommitMaxWaitMicros", 0);
+
+  /**
+   * This system property makes recovery memory map the krf and crf files instead of reading them
+   * through buffered streams, and deserialize krf keys where they are in the mapping. A mapping is
+   * released when it is garbage collected, which on Windows keeps the file from being deleted
+   * until then. Files larger than 2GB are always read through streams.
+   */
+  static final boolean RECOVER_MAPPED =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.recoverMapped");
+
+  /**
+   * The number of threads each disk store uses to read krf files ahead of recovery and to recover
+   * values from several oplogs at once. Defaults to one thread per disk directory. Zero recovers
+   * everything on the recovering thread, one oplog at a time.
+   */
+  static final int RECOVERY_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads", -1);
+
+  /**
+   * The most bytes of krf files that are read into memory ahead of recovery at any time. A krf
+   * larger than this is read by the recovering thread. Defaults to a sixteenth of the maximum heap
+   * size, and at most 256MB, since the krfs are read onto the heap while recovery is filling it.
+   */
+  static final long RECOVERY_READ_AHEAD_BYTES =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryReadAheadBytes",
+          Math.min(256L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 16));
+
+  /**
+   * This system property makes the disk store read the values of recovered entries into memory in
+   * the background once their region is online, for the regions whose values recovery leaves on
+   * disk: regions with LRU eviction, or every region if values are not recovered. When the disk
+   * store is closed it saves which entries had their value in memory, and those are read first.
+   */
+  static final boolean WARM_VALUES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.warmValues");
+
+  /**
+   * The most value bytes per second read by {@link #WARM_VALUES}. Zero, the default, reads them as
+   * fast as the disk allows.
+   */
+  static final long WARM_VALUES_BYTES_PER_SECOND =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.warmValuesBytesPerSecond", 0);
+
+  /**
+   * The most keys of a region saved at close to have their values read first by
+   * {@link #WARM_VALUES}.
+   */
+  static final int WARM_VALUES_MAX_HOT_KEYS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.warmValuesMaxHotKeys", 1000000);
+
+  /**
+   * The number of bytes of direct memory used to write overflow oplogs behind the evicting threads.
+   * Zero, the default, has each evicting thread write the oplog buffer itself when it fills.
+   */
+  static final long OVERFLOW_WRITE_BEHIND_BYTES =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.overflowWriteBehindBytes", 0);
+
   /**
    * For testing - to keep track of files for which fallocate happened
    */
@@ -340,10 +452,16 @@ public class DiskStoreImpl implements DiskStore {
    * Contains all of the disk recovery stores for which we are recovering values asnynchronously.
    */
   private final Map<Long, DiskRecoveryStore> currentAsyncValueRecoveryMap =
-      new HashMap<Long, DiskRecoveryStore>();
+      new ConcurrentHashMap<Long, DiskRecoveryStore>();
 
   private final Object asyncValueRecoveryLock = new Object();
 
+  /**
+   * Held shared while a value is recovered asynchronously, and exclusively while a recovered region
+   * map is copied to the region being created. Values can be recovered from several oplogs at once.
+   */
+  private final ReentrantReadWriteLock asyncValueRecoveryMapLock = new ReentrantReadWriteLock();
+
   /**
    * The unique id for this disk store.
    *
@@ -359,6 +477,29 @@ public class DiskStoreImpl implements DiskStore {
 
   private final ThreadPoolExecutor delayedWritePool;
 
+  /**
+   * Reads krf files ahead of recovery and recovers values. Null if {@link #RECOVERY_THREADS} is
+   * zero.
+   */
+  private final ThreadPoolExecutor recoveryPool;
+
+  /**
+   * Reads values into memory in the background. Null unless {@link #WARM_VALUES} is set.
+   */
+  private final ThreadPoolExecutor valueWarmingPool;
+
+  /**
+   * The key ids whose values to read first, by disk region id, for the regions that have not been
+   * recovered yet. Read from the hot keys file when the first region is recovered.
+   */
+  private Map<Long, long[]> recoveredHotKeyIds;
+
+  /**
+   * The key ids whose values were in memory, by disk region id, for the regions closed since the
+   * disk store was opened.
+   */
+  private final Map<Long, long[]> closedHotKeyIds = new ConcurrentHashMap<Long, long[]>();
+
   private volatile Future lastDelayedWrite;
 
   private static int calcCompactionThreshold(int ct) {
@@ -500,6 +641,31 @@ public class DiskStoreImpl implements DiskStore {
         new LinkedBlockingQueue(MAX_PENDING_TASKS), deleteThreadFactory,
         new ThreadPoolExecutor.CallerRunsPolicy());
     this.delayedWritePool.allowCoreThreadTimeOut(true);
+
+    int recoveryThreads = RECOVERY_THREADS < 0 ? this.directories.length : RECOVERY_THREADS;
+    if (recoveryThreads > 0) {
+      final ThreadGroup recoveryThreadGroup =
+          LoggingThreadGroup.createThreadGroup("Oplog Recovery Thread Group", logger);
+      final ThreadFactory recoveryThreadFactory =
+          GemfireCacheHelper.CreateThreadFactory(recoveryThreadGroup, "Oplog Recovery Task");
+      this.recoveryPool = new ThreadPoolExecutor(recoveryThreads, recoveryThreads, 10,
+          TimeUnit.SECONDS, new LinkedBlockingQueue(), recoveryThreadFactory);
+      this.recoveryPool.allowCoreThreadTimeOut(true);
+    } else {
+      this.recoveryPool = null;
+    }
+
+    if (WARM_VALUES) {
+      final ThreadGroup warmingThreadGroup =
+          LoggingThreadGroup.createThreadGroup("Oplog Value Warming Thread Group", logger);
+      final ThreadFactory warmingThreadFactory =
+          GemfireCacheHelper.CreateThreadFactory(warmingThreadGroup, "Oplog Value Warming Task");
+      this.valueWarmingPool = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+          new LinkedBlockingQueue(), warmingThreadFactory);
+      this.valueWarmingPool.allowCoreThreadTimeOut(true);
+    } else {
+      this.valueWarmingPool = null;
+    }
   }
 
   // //////////////////// Instance Methods //////////////////////
@@ -608,28 +774,33 @@ public class DiskStoreImpl implements DiskStore {
       if (drv.getRecoveredEntryMap() != null) {
         PersistentOplogSet oplogSet = getPersistentOplogSet(drv);
 
-        // acquire CompactorWriteLock only if the region attributes for the
-        // real region are different from the place holder region's
-        boolean releaseCompactorWriteLock = false;
-        if (drv.isEntriesMapIncompatible()) {
-          acquireCompactorWriteLock(); // fix bug #51097 to prevent concurrent compaction
-          releaseCompactorWriteLock = true;
-        }
+        asyncValueRecoveryMapLock.writeLock().lock();
         try {
-          drv.copyExistingRegionMap(lr);
-          getStats().incUncreatedRecoveredRegions(-1);
-          for (Oplog oplog : oplogSet.getAllOplogs()) {
-            if (oplog != null) {
-              oplog.updateDiskRegion(lr.getDiskRegionView());
+          // acquire CompactorWriteLock only if the region attributes for the
+          // real region are different from the place holder region's
+          boolean releaseCompactorWriteLock = false;
+          if (drv.isEntriesMapIncompatible()) {
+            acquireCompactorWriteLock(); // fix bug #51097 to prevent concurrent compaction
+            releaseCompactorWriteLock = true;
+          }
+          try {
+            drv.copyExistingRegionMap(lr);
+            getStats().incUncreatedRecoveredRegions(-1);
+            for (Oplog oplog : oplogSet.getAllOplogs()) {
+              if (oplog != null) {
+                oplog.updateDiskRegion(lr.getDiskRegionView());
+              }
+            }
+          } finally {
+            if (releaseCompactorWriteLock) {
+              releaseCompactorWriteLock();
             }
           }
-        } finally {
-          if (releaseCompactorWriteLock) {
-            releaseCompactorWriteLock();
+          if (currentAsyncValueRecoveryMap.containsKey(drv.getId())) {
+            currentAsyncValueRecoveryMap.put(drv.getId(), lr);
           }
-        }
-        if (currentAsyncValueRecoveryMap.containsKey(drv.getId())) {
-          currentAsyncValueRecoveryMap.put(drv.getId(), lr);
+        } finally {
+          asyncValueRecoveryMapLock.writeLock().unlock();
         }
         return;
       }
@@ -2087,6 +2258,60 @@ public class DiskStoreImpl implements DiskStore {
     executeDiskStoreTask(task);
   }
 
+  /**
+   * Schedules reading the values of the given recovered region into memory, if
+   * {@link #WARM_VALUES} is set and recovery leaves its values on disk. Called once the region has
+   * taken over the entries recovered for it, so that the values are never given to the
+   * {@link PlaceHolderDiskRegion} that held them until then.
+   */
+  void scheduleValueWarming(LocalRegion region) {
+    if (this.valueWarmingPool == null) {
+      return;
+    }
+    if (RECOVER_VALUES
+        && (RECOVER_LRU_VALUES || region.getEvictionAttributes().getAlgorithm().isNone())) {
+      return;
+    }
+    Long drId = region.getDiskRegion().getId();
+    Map<Long, long[]> hotKeyIds = new HashMap<Long, long[]>();
+    synchronized (this.closedHotKeyIds) {
+      if (this.recoveredHotKeyIds == null) {
+        this.recoveredHotKeyIds = ValueWarmer.readHotKeys(getHotKeysFile());
+      }
+      long[] keyIds = this.recoveredHotKeyIds.remove(drId);
+      if (keyIds != null) {
+        hotKeyIds.put(drId, keyIds);
+      }
+    }
+    executeDiskStoreTask(new ValueWarmer(this,
+        Collections.<Long, DiskRecoveryStore>singletonMap(drId, region), hotKeyIds,
+        WARM_VALUES_BYTES_PER_SECOND), this.valueWarmingPool);
+  }
+
+  private File getHotKeysFile() {
+    return new File(getInfoFileDir().getDir(), "BACKUP" + name + ValueWarmer.HOT_KEYS_FILE_EXT);
+  }
+
+  /**
+   * Saves which entries had their values in memory when the regions were closed, along with those
+   * of the regions that were not recovered since the disk store was opened.
+   */
+  private void writeHotKeys() {
+    Map<Long, long[]> hotKeyIds = new HashMap<Long, long[]>();
+    synchronized (this.closedHotKeyIds) {
+      if (this.recoveredHotKeyIds == null) {
+        this.recoveredHotKeyIds = ValueWarmer.readHotKeys(getHotKeysFile());
+      }
+      hotKeyIds.putAll(this.recoveredHotKeyIds);
+      hotKeyIds.putAll(this.closedHotKeyIds);
+    }
+    try {
+      ValueWarmer.writeHotKeys(getHotKeysFile(), hotKeyIds);
+    } catch (IOException e) {
+      logger.warn("Could not save the hot keys of disk store {}: {}", getName(), e.toString());
+    }
+  }
+
   /**
    * get the directory which has the info file
    *
@@ -2338,6 +2563,9 @@ public class DiskStoreImpl implements DiskStore {
       if (Thread.currentThread() != InternalDistributedSystem.shutdownHook) {
         waitForBackgroundTasks();
       }
+      if (this.recoveryPool != null) {
+        this.recoveryPool.shutdown();
+      }
       try {
         overflowOplogs.closeOverflow();
       } catch (RuntimeException e) {
@@ -2347,6 +2575,9 @@ public class DiskStoreImpl implements DiskStore {
       }
 
       if ((!destroy && getDiskInitFile().hasLiveRegions()) || isValidating()) {
+        if (WARM_VALUES && !isOffline()) {
+          writeHotKeys();
+        }
         RuntimeException exception = getPersistentOplogs().close();
         if (exception != null && rte != null) {
           rte = exception;
@@ -2464,6 +2695,17 @@ public class DiskStoreImpl implements DiskStore {
     }
   }
 
+  /**
+   * Remembers which entries of the given closing region have their value in memory, if
+   * {@link #WARM_VALUES} is set. Must be called before the region's entries are cleared.
+   */
+  void saveHotKeys(LocalRegion region, DiskRegion dr) {
+    if (WARM_VALUES && dr.isBackup() && region != null) {
+      this.closedHotKeyIds.put(dr.getId(),
+          ValueWarmer.getHotKeyIds(region, WARM_VALUES_MAX_HOT_KEYS));
+    }
+  }
+
   public void prepareForClose() {
     forceFlush();
     getPersistentOplogs().prepareForClose();
@@ -2655,6 +2897,7 @@ public class DiskStoreImpl implements DiskStore {
    */
   private void basicDestroy(LocalRegion region, DiskRegion dr) {
     if (dr.isBackup()) {
+      this.closedHotKeyIds.remove(dr.getId());
       if (region != null) {
         region.closeEntries();
       }
@@ -2674,6 +2917,7 @@ public class DiskStoreImpl implements DiskStore {
    */
   private void destroyAllOplogs() {
     getPersistentOplogs().destroyAllOplogs();
+    getHotKeysFile().delete();
 
     // Need to also remove all oplogs that logically belong to this DiskStore
     // even if we were not using them.
@@ -2801,6 +3045,9 @@ public class DiskStoreImpl implements DiskStore {
 
     private final boolean compactionCompletionRequired;
 
+    private final CompactionThrottle throttle =
+        new CompactionThrottle(COMPACTION_BYTES_PER_SECOND, COMPACTION_BATCH_SIZE);
+
     OplogCompactor() {
       this.compactionCompletionRequired =
           Boolean.getBoolean(COMPLETE_COMPACTION_BEFORE_TERMINATION_PROPERTY_NAME);
@@ -2820,6 +3067,8 @@ public class DiskStoreImpl implements DiskStore {
           CacheObserverHolder.getInstance().beforeStoppingCompactor();
         }
         this.compactorEnabled = false;
+        // wake the compactor if it is paused
+        notifyAll();
         if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
           CacheObserverHolder.getInstance().afterSignallingCompactor();
         }
@@ -3000,6 +3249,40 @@ public class DiskStoreImpl implements DiskStore {
     boolean keepCompactorRunning() {
       return this.compactorEnabled || this.compactionCompletionRequired;
     }
+
+    /**
+     * Records a live entry copied forward. Returns true if the compactor should call
+     * {@link #pause} once it has released its locks.
+     */
+    boolean copiedForward(long bytes) {
+      getStats().incCompactedBytes(bytes);
+      return this.throttle.entryCopied(bytes);
+    }
+
+    /**
+     * Pauses long enough to keep compaction within {@link #COMPACTION_BYTES_PER_SECOND}. Returns
+     * early if the compactor is stopped.
+     */
+    void pause() {
+      long start = System.nanoTime();
+      long end = start + this.throttle.endBatch(start);
+      boolean interrupted = false;
+      synchronized (this) {
+        long remaining;
+        while (this.compactorEnabled && (remaining = end - System.nanoTime()) > 0) {
+          try {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+          } catch (InterruptedException ignore) {
+            interrupted = true;
+            break;
+          }
+        }
+      }
+      getStats().incCompactionThrottleTime(System.nanoTime() - start);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
   }
 
   /**
@@ -4323,8 +4606,12 @@ public class DiskStoreImpl implements DiskStore {
       synchronized (asyncValueRecoveryLock) {
         DiskStoreObserver.startAsyncValueRecovery(DiskStoreImpl.this);
         try {
-          for (Oplog oplog : oplogSet) {
-            oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap);
+          if (recoveryPool == null || oplogSet.size() < 2) {
+            for (Oplog oplog : oplogSet) {
+              oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap);
+            }
+          } else {
+            recoverValuesConcurrently();
           }
         } catch (CancelException ignore) {
           // do nothing
@@ -4338,6 +4625,61 @@ public class DiskStoreImpl implements DiskStore {
         }
       }
     }
+
+    /**
+     * Recovers the values of each oplog on the recovery pool. The live entries of an oplog are
+     * recovered in the order they are in the crf, and different oplogs do not share entries. Waits
+     * for all of the oplogs before throwing the first failure.
+     */
+    private void recoverValuesConcurrently() {
+      List<Future<?>> recoveries = new ArrayList<Future<?>>(oplogSet.size());
+      for (final Oplog oplog : oplogSet) {
+        recoveries.add(recoveryPool
+            .submit(() -> oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap)));
+      }
+      Throwable failure = null;
+      boolean interrupted = false;
+      for (Future<?> recovery : recoveries) {
+        while (true) {
+          try {
+            recovery.get();
+            break;
+          } catch (InterruptedException ignore) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            if (failure == null) {
+              failure = e.getCause();
+            }
+            break;
+          }
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure instanceof Error) {
+        throw (Error) failure;
+      } else if (failure != null) {
+        throw new InternalGemFireError(failure);
+      }
+    }
+  }
+
+  /**
+   * Held while a value is recovered asynchronously, so that the recovered region map is not copied
+   * at the same time.
+   */
+  Lock getAsyncValueRecoveryReadLock() {
+    return asyncValueRecoveryMapLock.readLock();
+  }
+
+  /**
+   * Returns the pool that reads krf files ahead of recovery, or null if there is none.
+   */
+  ExecutorService getRecoveryPool() {
+    return this.recoveryPool;
   }
 
   public void waitForAsyncRecovery(DiskRegion diskRegion) {
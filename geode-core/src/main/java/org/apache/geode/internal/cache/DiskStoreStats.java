@@ -14,8 +14,11 @@
  */
 package org.apache.geode.internal.cache;
 
+import java.util.concurrent.TimeUnit;
+
 import org.apache.geode.*;
 import org.apache.geode.distributed.internal.DistributionStats;
+import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
 
 /**
@@ -46,6 +49,8 @@ public class DiskStoreStats {
   private static final int recoveredEntryDestroysId;
   private static final int recoveredValuesSkippedDueToLRUId;
   private static final int recoveryRecordsSkippedId;
+  private static final int recoveryBytesPerSecondId;
+  private static final int recoveryEntriesPerSecondId;
   private static final int compactsInProgressId;
   private static final int writesInProgressId;
   private static final int flushesInProgressId;
@@ -69,6 +74,17 @@ public class DiskStoreStats {
   private static final int openOplogsId;
   private static final int inactiveOplogsId;
   private static final int compactableOplogsId;
+  private static final int compactionDebtId;
+  private static final int compactedBytesId;
+  private static final int compactionThrottleTimeId;
+  private static final int compressedValuesId;
+  private static final int compressionSavedBytesId;
+  private static final int valuesToWarmId;
+  private static final int valuesWarmedId;
+  private static final int warmedBytesId;
+  private static final int overflowWriteBehindBytesId;
+  private static final int overflowWriteBehindStallsId;
+  private static final int overflowWriteBehindStallTimeId;
 
   private static final int oplogReadsId;
   private static final int oplogSeeksId;
@@ -77,6 +93,10 @@ public class DiskStoreStats {
   private static final int backupsInProgress;
   private static final int backupsCompleted;
 
+  private static final int groupCommitsId;
+  private static final int groupCommitWritesId;
+  private static final int groupCommitTimeId;
+
   static {
     String statName = "DiskStoreStatistics";
     String statDescription = "Statistics about a Region's use of the disk";
@@ -110,6 +130,13 @@ public class DiskStoreStats {
     final String backupsCompletedDesc =
         "The number of backups of this disk store that have been taking while this VM was alive";
 
+    final String groupCommitsDesc =
+        "The total number of times the oplogs were forced to disk for a group of synchronous writes";
+    final String groupCommitWritesDesc =
+        "The total number of synchronous writes forced to disk by group commits. Divide by groupCommits for the average group size.";
+    final String groupCommitTimeDesc =
+        "The total amount of time spent forcing groups of synchronous writes to disk. Divide by groupCommits for the average commit latency.";
+
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
 
     type = f.createType(statName, statDescription,
@@ -141,6 +168,11 @@ public class DiskStoreStats {
 
             f.createLongCounter("recoveryRecordsSkipped",
                 "The total number of oplog records skipped during recovery.", "ops"),
+            f.createLongGauge("recoveryBytesPerSecond",
+                "The rate at which the most recent recovery read bytes from disk.", "bytes/sec"),
+            f.createLongGauge("recoveryEntriesPerSecond",
+                "The rate at which the most recent recovery created entries from oplog records.",
+                "entries/sec"),
 
             f.createIntCounter("oplogRecoveries", oplogRecoveriesDesc, "ops"),
             f.createLongCounter("oplogRecoveryTime", oplogRecoveryTimeDesc, "nanoseconds"),
@@ -176,6 +208,31 @@ public class DiskStoreStats {
                 "oplogs"),
             f.createIntGauge("compactableOplogs", "Current number of oplogs ready to be compacted",
                 "oplogs"),
+            f.createLongGauge("compactionDebt",
+                "Estimated number of garbage bytes in the oplogs ready to be compacted", "bytes"),
+            f.createLongCounter("compactedBytes",
+                "Total number of value bytes copied forward by oplog compaction", "bytes"),
+            f.createLongCounter("compactionThrottleTime",
+                "Total time, in nanoseconds, that compaction paused to stay within its I/O budget",
+                "nanoseconds", false),
+            f.createLongCounter("compressedValues",
+                "Total number of values compressed before being written to an oplog", "values"),
+            f.createLongCounter("compressionSavedBytes",
+                "Total number of bytes that compressing values saved writing to oplogs", "bytes"),
+            f.createLongGauge("valuesToWarm",
+                "Current number of recovered entries the value warmer has yet to visit", "entries"),
+            f.createLongCounter("valuesWarmed",
+                "Total number of values read into memory by the value warmer", "values"),
+            f.createLongCounter("warmedBytes",
+                "Total number of value bytes read into memory by the value warmer", "bytes"),
+            f.createLongGauge("overflowWriteBehindBytes",
+                "Current number of overflow bytes queued in the write-behind buffers", "bytes"),
+            f.createLongCounter("overflowWriteBehindStalls",
+                "Total number of times an overflow write waited for a free write-behind buffer",
+                "stalls"),
+            f.createLongCounter("overflowWriteBehindStallTime",
+                "Total time, in nanoseconds, overflow writes waited for a free write-behind buffer",
+                "nanoseconds", false),
             f.createIntGauge("inactiveOplogs",
                 "Current number of oplogs that are no longer being written but are not ready ready to compact",
                 "oplogs"),
@@ -185,7 +242,10 @@ public class DiskStoreStats {
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
             f.createIntGauge("backupsInProgress", backupsInProgressDesc, "backups"),
-            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),});
+            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),
+            f.createLongCounter("groupCommits", groupCommitsDesc, "ops"),
+            f.createLongCounter("groupCommitWrites", groupCommitWritesDesc, "ops"),
+            f.createLongCounter("groupCommitTime", groupCommitTimeDesc, "nanoseconds", false),});
 
     // Initialize id fields
     writesId = type.nameToId("writes");
@@ -205,6 +265,8 @@ public class DiskStoreStats {
     recoveredEntryDestroysId = type.nameToId("recoveredEntryDestroys");
     recoveredValuesSkippedDueToLRUId = type.nameToId("recoveredValuesSkippedDueToLRU");
     recoveryRecordsSkippedId = type.nameToId("recoveryRecordsSkipped");
+    recoveryBytesPerSecondId = type.nameToId("recoveryBytesPerSecond");
+    recoveryEntriesPerSecondId = type.nameToId("recoveryEntriesPerSecond");
 
     compactsInProgressId = type.nameToId("compactsInProgress");
     writesInProgressId = type.nameToId("writesInProgress");
@@ -230,9 +292,23 @@ public class DiskStoreStats {
     openOplogsId = type.nameToId("openOplogs");
     inactiveOplogsId = type.nameToId("inactiveOplogs");
     compactableOplogsId = type.nameToId("compactableOplogs");
+    compactionDebtId = type.nameToId("compactionDebt");
+    compactedBytesId = type.nameToId("compactedBytes");
+    compactionThrottleTimeId = type.nameToId("compactionThrottleTime");
+    compressedValuesId = type.nameToId("compressedValues");
+    compressionSavedBytesId = type.nameToId("compressionSavedBytes");
+    valuesToWarmId = type.nameToId("valuesToWarm");
+    valuesWarmedId = type.nameToId("valuesWarmed");
+    warmedBytesId = type.nameToId("warmedBytes");
+    overflowWriteBehindBytesId = type.nameToId("overflowWriteBehindBytes");
+    overflowWriteBehindStallsId = type.nameToId("overflowWriteBehindStalls");
+    overflowWriteBehindStallTimeId = type.nameToId("overflowWriteBehindStallTime");
     uncreatedRecoveredRegionsId = type.nameToId("uncreatedRecoveredRegions");
     backupsInProgress = type.nameToId("backupsInProgress");
     backupsCompleted = type.nameToId("backupsCompleted");
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommitWritesId = type.nameToId("groupCommitWrites");
+    groupCommitTimeId = type.nameToId("groupCommitTime");
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -375,6 +451,30 @@ public class DiskStoreStats {
     return this.stats.getLong(flushesId);
   }
 
+  public long startGroupCommit() {
+    return DistributionStats.getStatTime();
+  }
+
+  /**
+   * Invoked after a group of synchronous writes has been forced to disk
+   *
+   * @param start The time at which the group commit started
+   * @param writes The number of synchronous writes in the group
+   */
+  public void endGroupCommit(long start, long writes) {
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommitWritesId, writes);
+    this.stats.incLong(groupCommitTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommitWrites() {
+    return this.stats.getLong(groupCommitWritesId);
+  }
+
   /**
    * Invoked before data is read from disk.
    *
@@ -401,14 +501,15 @@ public class DiskStoreStats {
   }
 
   /**
-   * Invoked before data is recovered from disk.
+   * Invoked before data is recovered from disk. Recoveries are rare so they are timed even when
+   * time statistics are disabled, which lets {@link #endRecovery} record their rates.
    *
    * @return The timestamp that marks the start of the operation
    *
    */
   public long startRecovery() {
     this.stats.incInt(recoveriesInProgressId, 1);
-    return DistributionStats.getStatTime();
+    return NanoTimer.getTime();
   }
 
   public long startCompaction() {
@@ -425,12 +526,21 @@ public class DiskStoreStats {
    *
    * @param start The time at which the recovery operation started
    * @param bytesRead The number of bytes that were recovered
+   * @param entriesRecovered The number of entries that were created from oplog records
    */
-  public void endRecovery(long start, long bytesRead) {
+  public void endRecovery(long start, long bytesRead, long entriesRecovered) {
     this.stats.incInt(recoveriesInProgressId, -1);
-    long end = DistributionStats.getStatTime();
+    long end = NanoTimer.getTime();
     this.stats.incLong(recoveryTimeId, end - start);
     this.stats.incLong(recoveredBytesId, bytesRead);
+    long elapsed = end - start;
+    if (elapsed > 0) {
+      long perSecond = TimeUnit.SECONDS.toNanos(1);
+      this.stats.setLong(recoveryBytesPerSecondId,
+          (long) ((double) bytesRead * perSecond / elapsed));
+      this.stats.setLong(recoveryEntriesPerSecondId,
+          (long) ((double) entriesRecovered * perSecond / elapsed));
+    }
   }
 
   public void endCompaction(long start) {
@@ -447,6 +557,18 @@ public class DiskStoreStats {
     this.stats.incLong(oplogRecoveredBytesId, bytesRead);
   }
 
+  public long getRecoveredEntryCreates() {
+    return this.stats.getLong(recoveredEntryCreatesId);
+  }
+
+  public long getRecoveryBytesPerSecond() {
+    return this.stats.getLong(recoveryBytesPerSecondId);
+  }
+
+  public long getRecoveryEntriesPerSecond() {
+    return this.stats.getLong(recoveryEntriesPerSecondId);
+  }
+
   public void incRecoveredEntryCreates() {
     this.stats.incLong(recoveredEntryCreatesId, 1);
   }
@@ -506,6 +628,81 @@ public class DiskStoreStats {
     this.stats.incInt(compactableOplogsId, delta);
   }
 
+  public void setCompactionDebt(long bytes) {
+    this.stats.setLong(compactionDebtId, bytes);
+  }
+
+  public long getCompactionDebt() {
+    return this.stats.getLong(compactionDebtId);
+  }
+
+  public void incCompactedBytes(long bytes) {
+    this.stats.incLong(compactedBytesId, bytes);
+  }
+
+  public long getCompactedBytes() {
+    return this.stats.getLong(compactedBytesId);
+  }
+
+  public void incCompactionThrottleTime(long nanos) {
+    this.stats.incLong(compactionThrottleTimeId, nanos);
+  }
+
+  public long getCompactionThrottleTime() {
+    return this.stats.getLong(compactionThrottleTimeId);
+  }
+
+  public void incCompressedValues(long savedBytes) {
+    this.stats.incLong(compressedValuesId, 1);
+    this.stats.incLong(compressionSavedBytesId, savedBytes);
+  }
+
+  public long getCompressedValues() {
+    return this.stats.getLong(compressedValuesId);
+  }
+
+  public long getCompressionSavedBytes() {
+    return this.stats.getLong(compressionSavedBytesId);
+  }
+
+  public void incValuesToWarm(long delta) {
+    this.stats.incLong(valuesToWarmId, delta);
+  }
+
+  public long getValuesToWarm() {
+    return this.stats.getLong(valuesToWarmId);
+  }
+
+  public void incValuesWarmed(long bytes) {
+    this.stats.incLong(valuesWarmedId, 1);
+    this.stats.incLong(warmedBytesId, bytes);
+  }
+
+  public long getValuesWarmed() {
+    return this.stats.getLong(valuesWarmedId);
+  }
+
+  public long getWarmedBytes() {
+    return this.stats.getLong(warmedBytesId);
+  }
+
+  public void incOverflowWriteBehindBytes(long delta) {
+    this.stats.incLong(overflowWriteBehindBytesId, delta);
+  }
+
+  public long getOverflowWriteBehindBytes() {
+    return this.stats.getLong(overflowWriteBehindBytesId);
+  }
+
+  public void incOverflowWriteBehindStalls(long nanos) {
+    this.stats.incLong(overflowWriteBehindStallsId, 1);
+    this.stats.incLong(overflowWriteBehindStallTimeId, nanos);
+  }
+
+  public long getOverflowWriteBehindStalls() {
+    return this.stats.getLong(overflowWriteBehindStallsId);
+  }
+
   public void endCompactionDeletes(int count, long delta) {
     this.stats.incLong(compactDeletesId, count);
     this.stats.incLong(compactDeleteTimeId, delta);
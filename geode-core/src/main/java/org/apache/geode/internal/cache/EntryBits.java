@@ -25,6 +25,7 @@ public abstract class EntryBits {
   private static final byte LOCAL_INVALID = 0x4; // persistent bit
   private static final byte RECOVERED_FROM_DISK = 0x8; // used by DiskId; transient bit
   private static final byte PENDING_ASYNC = 0x10; // used by DiskId; transient bit
+  private static final byte COMPRESSED = 0x20; // value is compressed in the oplog; persistent bit
   private static final byte TOMBSTONE = 0x40;
   private static final byte WITH_VERSIONS = (byte) 0x80; // oplog entry contains versions
 
@@ -48,6 +49,10 @@ public abstract class EntryBits {
     return (b & WITH_VERSIONS) != 0;
   }
 
+  public static boolean isCompressed(byte b) {
+    return (b & COMPRESSED) != 0;
+  }
+
   public static boolean isRecoveredFromDisk(byte b) {
     return (b & RECOVERED_FROM_DISK) != 0;
   }
@@ -87,6 +92,10 @@ public abstract class EntryBits {
     return isWithVersions ? (byte) (b | WITH_VERSIONS) : (byte) (b & ~WITH_VERSIONS);
   }
 
+  public static byte setCompressed(byte b, boolean isCompressed) {
+    return isCompressed ? (byte) (b | COMPRESSED) : (byte) (b & ~COMPRESSED);
+  }
+
   public static byte setRecoveredFromDisk(byte b, boolean isRecoveredFromDisk) {
     return isRecoveredFromDisk ? (byte) (b | RECOVERED_FROM_DISK)
         : (byte) (b & ~RECOVERED_FROM_DISK);
@@ -100,6 +109,7 @@ public abstract class EntryBits {
    * Returns a byte whose bits are those that need to be written to disk
    */
   public static byte getPersistentBits(byte b) {
-    return (byte) (b & (SERIALIZED | INVALID | LOCAL_INVALID | TOMBSTONE | WITH_VERSIONS));
+    return (byte) (b
+        & (SERIALIZED | INVALID | LOCAL_INVALID | TOMBSTONE | WITH_VERSIONS | COMPRESSED));
   }
 }
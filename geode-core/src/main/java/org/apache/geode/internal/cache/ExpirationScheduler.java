@@ -29,21 +29,48 @@ import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 /**
  * ExpirationScheduler uses a single instance of java.util.Timer (and therefore a single thread) per
  * VM to schedule and execute region and entry expiration tasks.
+ *
+ * <p>
+ * If the <code>EXPIRY_TIMING_WHEEL</code> system property is set, an {@link ExpirationTimerWheel}
+ * replaces the timer. It schedules and cancels in constant time and never needs to be purged.
  */
 
 public class ExpirationScheduler {
   private static final Logger logger = LogService.getLogger();
 
   private final SystemTimer timer;
+  private final ExpirationTimerWheel wheel;
+  private final ExpirationTimerWheelStats wheelStats;
   private final AtomicInteger pendingCancels = new AtomicInteger();
   private static final int MAX_PENDING_CANCELS = Integer
       .getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_PENDING_CANCELS", 10000).intValue();
 
+  /** If true expiration tasks are scheduled on an {@link ExpirationTimerWheel} */
+  static final boolean USE_TIMING_WHEEL =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL");
+
+  /** The length in milliseconds of one tick of the timing wheel */
+  static final long TIMING_WHEEL_TICK_MILLIS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_TIMING_WHEEL_TICK_MS", 10L);
+
   public ExpirationScheduler(InternalDistributedSystem ds) {
-    this.timer = new SystemTimer(ds, true);
+    if (USE_TIMING_WHEEL) {
+      this.timer = null;
+      this.wheelStats = new ExpirationTimerWheelStats(ds, "expirationTimerWheel");
+      this.wheel = new ExpirationTimerWheel(this.wheelStats, TIMING_WHEEL_TICK_MILLIS,
+          "Expiration Timer Wheel");
+    } else {
+      this.timer = new SystemTimer(ds, true);
+      this.wheelStats = null;
+      this.wheel = null;
+    }
   }
 
   public void forcePurge() {
+    if (this.wheel != null) {
+      // cancelled tasks are unlinked from the wheel as they are cancelled
+      return;
+    }
     pendingCancels.getAndSet(0);
     this.timer.timerPurge();
   }
@@ -52,6 +79,9 @@ public class ExpirationScheduler {
    * Called when we have cancelled a scheduled timer task. Do work, if possible to fix bug 37574.
    */
   public void incCancels() {
+    if (this.wheel != null) {
+      return;
+    }
     int pc = pendingCancels.incrementAndGet();
     if (pc > MAX_PENDING_CANCELS) {
       pc = pendingCancels.getAndSet(0);
@@ -79,6 +109,13 @@ public class ExpirationScheduler {
             LocalizedStrings.ExpirationScheduler_SCHEDULING__0__TO_FIRE_IN__1__MS,
             new Object[] {task, Long.valueOf(task.getExpiryMillis())}));
       }
+      if (this.wheel != null) {
+        if (!this.wheel.schedule(task, task.getExpiryMillis())) {
+          // task must have been cancelled by another thread so don't schedule it
+          return null;
+        }
+        return task;
+      }
       // To fix bug 52267 do not create a Date here; instead calculate the relative duration.
       timer.schedule(task, task.getExpiryMillis());
     } catch (EntryNotFoundException e) {
@@ -99,6 +136,11 @@ public class ExpirationScheduler {
 
   /** @see java.util.Timer#cancel() */
   public void cancel() {
-    timer.cancel();
+    if (this.wheel != null) {
+      this.wheel.stop();
+      this.wheelStats.close();
+    } else {
+      timer.cancel();
+    }
   }
 }
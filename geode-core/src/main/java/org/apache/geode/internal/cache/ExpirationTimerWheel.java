@@ -0,0 +1,375 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * A hashed hierarchical timing wheel that schedules {@link ExpiryTask}s in O(1).
+ *
+ * <p>
+ * Time is divided into ticks of a fixed length. The wheel has {@link #LEVELS} levels of
+ * {@link #SLOTS} slots; a slot of level <code>n</code> spans <code>SLOTS^n</code> ticks. A task is
+ * linked into the slot of the highest level at which its deadline tick differs from the current
+ * tick, and is cascaded to lower levels as the current tick reaches that slot, so every task is
+ * moved at most {@link #LEVELS} times.
+ *
+ * <p>
+ * Only the wheel thread touches the slots. {@link #schedule} and {@link #cancel} push the task on a
+ * lock-free stack that the wheel thread drains at the start of every pass, so neither blocks and
+ * cancelled tasks are unlinked within one tick instead of accumulating until a purge. All tasks
+ * due in a tick are fired together by the wheel thread.
+ *
+ * <p>
+ * The per-task state lives in fields of {@link ExpiryTask} so scheduling allocates nothing.
+ */
+class ExpirationTimerWheel implements Runnable {
+  private static final Logger logger = LogService.getLogger();
+
+  /** The number of bits of the tick consumed by each level */
+  static final int SLOT_BITS = 8;
+
+  /** The number of slots in each level */
+  static final int SLOTS = 1 << SLOT_BITS;
+
+  /** The number of levels. With 10ms ticks the wheel spans about 497 days. */
+  static final int LEVELS = 4;
+
+  private static final int SLOT_MASK = SLOTS - 1;
+
+  /** Task states held in {@link ExpiryTask#wheelState} */
+  static final int NOT_SCHEDULED = 0;
+  static final int PENDING = 1;
+  static final int CANCELLED = 2;
+  static final int EXPIRED = 3;
+
+  private static final AtomicIntegerFieldUpdater<ExpiryTask> stateUpdater =
+      AtomicIntegerFieldUpdater.newUpdater(ExpiryTask.class, "wheelState");
+
+  /** Index in {@link #lists} of the tasks due at or before the current tick */
+  private static final int DUE = LEVELS * SLOTS;
+
+  /** Index in {@link #lists} of the tasks beyond what the top level can address */
+  private static final int OVERFLOW = DUE + 1;
+
+  private final long tickNanos;
+
+  private final long startNanos;
+
+  private final ExpirationTimerWheelStats stats;
+
+  /**
+   * Heads of doubly linked task lists: slot <code>s</code> of level <code>l</code> is at
+   * <code>l * SLOTS + s</code>, followed by the {@link #DUE} and {@link #OVERFLOW} lists.
+   */
+  private final ExpiryTask[] lists = new ExpiryTask[OVERFLOW + 1];
+
+  /** Newly scheduled tasks, linked through {@link ExpiryTask#wheelNext} */
+  private final AtomicReference<ExpiryTask> scheduled = new AtomicReference<>();
+
+  /** Cancelled tasks, linked through {@link ExpiryTask#wheelCancelNext} */
+  private final AtomicReference<ExpiryTask> cancelled = new AtomicReference<>();
+
+  /** The next tick to process; only accessed by the wheel thread */
+  private long currentTick;
+
+  private final Thread thread;
+
+  private volatile boolean stopped;
+
+  ExpirationTimerWheel(ExpirationTimerWheelStats stats, long tickMillis, String threadName) {
+    this(stats, tickMillis, System.nanoTime(), threadName);
+  }
+
+  /**
+   * @param threadName the name of the wheel thread or null to not start one, in which case the
+   *        owner must call {@link #processTicks(long)}
+   */
+  ExpirationTimerWheel(ExpirationTimerWheelStats stats, long tickMillis, long startNanos,
+      String threadName) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+    }
+    this.stats = stats;
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+    this.startNanos = startNanos;
+    if (threadName != null) {
+      ThreadGroup group = LoggingThreadGroup.createThreadGroup(threadName, logger);
+      this.thread = new Thread(group, this, threadName);
+      this.thread.setDaemon(true);
+      this.thread.start();
+    } else {
+      this.thread = null;
+    }
+  }
+
+  /**
+   * Schedules the task to run once after the given delay.
+   *
+   * @return false if the task was already scheduled or cancelled, or the wheel is stopped
+   */
+  boolean schedule(ExpiryTask task, long delayMillis) {
+    return schedule(task, delayMillis, System.nanoTime());
+  }
+
+  boolean schedule(ExpiryTask task, long delayMillis, long nowNanos) {
+    if (this.stopped || task.wheelState != NOT_SCHEDULED) {
+      return false;
+    }
+    long deadlineNanos = nowNanos - this.startNanos + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+    // round up so that a task never fires early
+    task.wheelDeadline = Math.max(0L, (deadlineNanos + this.tickNanos - 1) / this.tickNanos);
+    task.wheel = this;
+    if (!stateUpdater.compareAndSet(task, NOT_SCHEDULED, PENDING)) {
+      return false;
+    }
+    ExpiryTask head;
+    do {
+      head = this.scheduled.get();
+      task.wheelNext = head;
+    } while (!this.scheduled.compareAndSet(head, task));
+    this.stats.incTasksScheduled();
+    return true;
+  }
+
+  /**
+   * Cancels the task if it is scheduled on a wheel and has not fired yet. A task that was never
+   * scheduled is marked so that it can no longer be.
+   *
+   * @return true if the task was pending on a wheel and will now not fire
+   */
+  static boolean cancel(ExpiryTask task) {
+    while (true) {
+      int state = task.wheelState;
+      if (state == PENDING) {
+        if (stateUpdater.compareAndSet(task, PENDING, CANCELLED)) {
+          task.wheel.enqueueCancelled(task);
+          return true;
+        }
+      } else if (state == NOT_SCHEDULED) {
+        if (stateUpdater.compareAndSet(task, NOT_SCHEDULED, CANCELLED)) {
+          return false;
+        }
+      } else {
+        return false;
+      }
+    }
+  }
+
+  private void enqueueCancelled(ExpiryTask task) {
+    ExpiryTask head;
+    do {
+      head = this.cancelled.get();
+      task.wheelCancelNext = head;
+    } while (!this.cancelled.compareAndSet(head, task));
+    this.stats.incTasksCancelled();
+  }
+
+  /**
+   * Stops the wheel thread. Tasks that have not fired are dropped.
+   */
+  void stop() {
+    this.stopped = true;
+    if (this.thread != null) {
+      LockSupport.unpark(this.thread);
+    }
+  }
+
+  boolean isStopped() {
+    return this.stopped;
+  }
+
+  @Override
+  public void run() {
+    while (!this.stopped) {
+      try {
+        long nextTickNanos = processTicks(System.nanoTime());
+        long sleepNanos = nextTickNanos - System.nanoTime();
+        if (sleepNanos > 0 && !this.stopped) {
+          LockSupport.parkNanos(this, sleepNanos);
+        }
+      } catch (VirtualMachineError err) {
+        SystemFailure.initiateFailure(err);
+        // If this ever returns, rethrow the error. We're poisoned
+        // now, so don't let this thread continue.
+        throw err;
+      } catch (Throwable t) {
+        // Whenever you catch Error or Throwable, you must also
+        // catch VirtualMachineError (see above). However, there is
+        // _still_ a possibility that you are dealing with a cascading
+        // error condition, so you also need to check to see if the JVM
+        // is still usable:
+        SystemFailure.checkFailure();
+        logger.warn("Unexpected exception in expiration timer wheel", t);
+      }
+    }
+  }
+
+  /**
+   * Links newly scheduled tasks, unlinks cancelled ones and fires every task due up to the given
+   * time. Must only be called by one thread at a time.
+   *
+   * @return the {@link System#nanoTime()} at which the next tick starts
+   */
+  long processTicks(long nowNanos) {
+    final long start = System.nanoTime();
+    final long nowTick = (nowNanos - this.startNanos) / this.tickNanos;
+    drainScheduled();
+    drainCancelled();
+
+    long ticks = 0;
+    int expired = 0;
+    long totalLag = 0;
+    long maxLag = 0;
+    while (this.currentTick <= nowTick || this.lists[DUE] != null) {
+      if (this.currentTick <= nowTick) {
+        advance();
+        ticks++;
+      }
+      // fire everything that is due in this tick
+      ExpiryTask task;
+      while ((task = this.lists[DUE]) != null) {
+        unlink(task);
+        if (!stateUpdater.compareAndSet(task, PENDING, EXPIRED)) {
+          continue;
+        }
+        long lag = TimeUnit.NANOSECONDS
+            .toMillis(nowNanos - this.startNanos - task.wheelDeadline * this.tickNanos);
+        if (lag > 0) {
+          totalLag += lag;
+          maxLag = Math.max(maxLag, lag);
+        }
+        expired++;
+        task.run();
+      }
+      // tasks fired by this tick may have scheduled or cancelled others
+      drainScheduled();
+      drainCancelled();
+    }
+    this.stats.endTicks(start, ticks, expired, totalLag, maxLag);
+    return this.startNanos + this.currentTick * this.tickNanos;
+  }
+
+  /**
+   * Processes {@link #currentTick}: cascades the higher levels whose slot starts at this tick and
+   * moves the tasks of this tick to the due list.
+   */
+  private void advance() {
+    final long tick = this.currentTick;
+    if ((tick & ((1L << (SLOT_BITS * (LEVELS - 1))) - 1)) == 0) {
+      relink(OVERFLOW);
+    }
+    for (int level = LEVELS - 1; level > 0; level--) {
+      if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+        relink(level * SLOTS + ((int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+      }
+    }
+    this.currentTick = tick + 1;
+    // everything in the level 0 slot is due now so relinking moves it to the due list
+    relink((int) tick & SLOT_MASK);
+  }
+
+  /** Detaches the given list and links each of its tasks where its deadline now belongs. */
+  private void relink(int list) {
+    ExpiryTask task = this.lists[list];
+    this.lists[list] = null;
+    while (task != null) {
+      ExpiryTask next = task.wheelNext;
+      link(task);
+      task = next;
+    }
+  }
+
+  private void drainScheduled() {
+    ExpiryTask task = this.scheduled.getAndSet(null);
+    while (task != null) {
+      ExpiryTask next = task.wheelNext;
+      if (task.wheelState == PENDING) {
+        link(task);
+        this.stats.incPendingTasks(1);
+      } else {
+        task.wheelNext = null;
+      }
+      task = next;
+    }
+  }
+
+  private void drainCancelled() {
+    ExpiryTask task = this.cancelled.getAndSet(null);
+    while (task != null) {
+      ExpiryTask next = task.wheelCancelNext;
+      task.wheelCancelNext = null;
+      unlink(task);
+      task = next;
+    }
+  }
+
+  /** Pushes the task on the list matching its deadline. */
+  private void link(ExpiryTask task) {
+    final long deadline = task.wheelDeadline;
+    final long current = this.currentTick;
+    final int list;
+    if (deadline < current) {
+      list = DUE;
+    } else {
+      long diff = deadline ^ current;
+      int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+      if (level >= LEVELS) {
+        list = OVERFLOW;
+      } else {
+        list = level * SLOTS + ((int) (deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+      }
+    }
+    ExpiryTask head = this.lists[list];
+    this.lists[list] = task;
+    task.wheelList = list + 1;
+    task.wheelPrev = null;
+    task.wheelNext = head;
+    if (head != null) {
+      head.wheelPrev = task;
+    }
+  }
+
+  /** Removes the task from the list it is linked in, if any. */
+  private void unlink(ExpiryTask task) {
+    final int list = task.wheelList - 1;
+    if (list < 0) {
+      return;
+    }
+    final ExpiryTask prev = task.wheelPrev;
+    final ExpiryTask next = task.wheelNext;
+    if (next != null) {
+      next.wheelPrev = prev;
+    }
+    if (prev != null) {
+      prev.wheelNext = next;
+    } else {
+      this.lists[list] = next;
+    }
+    task.wheelList = 0;
+    task.wheelPrev = null;
+    task.wheelNext = null;
+    this.stats.incPendingTasks(-1);
+  }
+}
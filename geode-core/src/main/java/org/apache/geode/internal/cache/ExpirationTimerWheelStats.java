@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import org.apache.geode.StatisticDescriptor;
+import org.apache.geode.Statistics;
+import org.apache.geode.StatisticsFactory;
+import org.apache.geode.StatisticsType;
+import org.apache.geode.StatisticsTypeFactory;
+import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
+
+/**
+ * Statistics about the {@link ExpirationTimerWheel} used to schedule expiration tasks.
+ */
+public class ExpirationTimerWheelStats {
+
+  private static final StatisticsType type;
+
+  private static final int pendingTasksId;
+  private static final int tasksScheduledId;
+  private static final int tasksCancelledId;
+  private static final int tasksExpiredId;
+  private static final int expiryLagId;
+  private static final int maxExpiryLagId;
+  private static final int ticksId;
+  private static final int tickTimeId;
+
+  static {
+    StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
+
+    type = f.createType("ExpirationTimerWheelStats",
+        "Statistics about the timing wheel that schedules region and entry expiration",
+        new StatisticDescriptor[] {
+            f.createLongGauge("pendingTasks",
+                "The number of expiration tasks currently held in the wheel", "tasks"),
+            f.createLongCounter("tasksScheduled",
+                "The total number of expiration tasks scheduled on the wheel", "tasks"),
+            f.createLongCounter("tasksCancelled",
+                "The total number of scheduled expiration tasks cancelled before they fired",
+                "tasks"),
+            f.createLongCounter("tasksExpired", "The total number of expiration tasks fired",
+                "tasks"),
+            f.createLongCounter("expiryLag",
+                "The total time between when expiration tasks were due and when they fired",
+                "milliseconds"),
+            f.createLongGauge("maxExpiryLag",
+                "The largest expiry lag of the tasks fired by the last pass of the wheel thread",
+                "milliseconds"),
+            f.createLongCounter("ticks", "The total number of wheel ticks processed", "ticks"),
+            f.createLongCounter("tickTime",
+                "The total time spent processing wheel ticks, including running expired tasks",
+                "nanoseconds")});
+
+    pendingTasksId = type.nameToId("pendingTasks");
+    tasksScheduledId = type.nameToId("tasksScheduled");
+    tasksCancelledId = type.nameToId("tasksCancelled");
+    tasksExpiredId = type.nameToId("tasksExpired");
+    expiryLagId = type.nameToId("expiryLag");
+    maxExpiryLagId = type.nameToId("maxExpiryLag");
+    ticksId = type.nameToId("ticks");
+    tickTimeId = type.nameToId("tickTime");
+  }
+
+  private final Statistics stats;
+
+  public ExpirationTimerWheelStats(StatisticsFactory f, String name) {
+    this.stats = f.createAtomicStatistics(type, name);
+  }
+
+  public void close() {
+    this.stats.close();
+  }
+
+  public long getPendingTasks() {
+    return this.stats.getLong(pendingTasksId);
+  }
+
+  public void incPendingTasks(long delta) {
+    this.stats.incLong(pendingTasksId, delta);
+  }
+
+  public long getTasksScheduled() {
+    return this.stats.getLong(tasksScheduledId);
+  }
+
+  public void incTasksScheduled() {
+    this.stats.incLong(tasksScheduledId, 1);
+  }
+
+  public long getTasksCancelled() {
+    return this.stats.getLong(tasksCancelledId);
+  }
+
+  public void incTasksCancelled() {
+    this.stats.incLong(tasksCancelledId, 1);
+  }
+
+  public long getTasksExpired() {
+    return this.stats.getLong(tasksExpiredId);
+  }
+
+  public long getExpiryLag() {
+    return this.stats.getLong(expiryLagId);
+  }
+
+  /**
+   * Records one pass of the wheel thread.
+   *
+   * @param start the {@link System#nanoTime()} at which the pass started
+   * @param ticks the number of ticks processed by the pass
+   * @param expired the number of tasks fired
+   * @param totalLag the sum of the lag of the fired tasks in milliseconds
+   * @param maxLag the largest lag of the fired tasks in milliseconds
+   */
+  public void endTicks(long start, long ticks, int expired, long totalLag, long maxLag) {
+    if (expired > 0) {
+      this.stats.incLong(tasksExpiredId, expired);
+      this.stats.incLong(expiryLagId, totalLag);
+      this.stats.setLong(maxExpiryLagId, maxLag);
+    }
+    this.stats.incLong(ticksId, ticks);
+    this.stats.incLong(tickTimeId, System.nanoTime() - start);
+  }
+
+  public Statistics getStats() {
+    return this.stats;
+  }
+}
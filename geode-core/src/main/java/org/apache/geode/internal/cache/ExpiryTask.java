@@ -50,6 +50,28 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
 
   private static final ThreadPoolExecutor executor;
 
+  // The following fields are only used when this task is scheduled on an ExpirationTimerWheel.
+  // wheelState is changed atomically by the scheduling and cancelling threads; the others are
+  // only read and written by the wheel thread once the task has been handed to it.
+
+  /** One of the ExpirationTimerWheel task states */
+  volatile int wheelState;
+
+  /** The wheel this task was scheduled on */
+  ExpirationTimerWheel wheel;
+
+  /** The tick at which this task is due */
+  long wheelDeadline;
+
+  /** One plus the index of the wheel list this task is linked in, or zero */
+  int wheelList;
+
+  ExpiryTask wheelNext;
+
+  ExpiryTask wheelPrev;
+
+  ExpiryTask wheelCancelNext;
+
   static {
     // default to inline expiry to fix bug 37115
     int nThreads = Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "EXPIRY_THREADS", 0);
@@ -318,6 +340,9 @@ public abstract class ExpiryTask extends SystemTimer.SystemTimerTask {
   @Override
   public boolean cancel() {
     boolean superCancel = super.cancel();
+    if (ExpirationTimerWheel.cancel(this)) {
+      superCancel = true;
+    }
     LocalRegion lr = getLocalRegion();
     if (lr != null) {
       if (superCancel) {
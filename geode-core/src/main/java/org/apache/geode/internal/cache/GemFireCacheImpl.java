@@ -198,6 +198,7 @@ import org.apache.geode.internal.cache.tier.sockets.CacheClientProxy;
 import org.apache.geode.internal.cache.tier.sockets.ClientHealthMonitor;
 import org.apache.geode.internal.cache.tier.sockets.ClientProxyMembershipID;
 import org.apache.geode.internal.cache.tier.sockets.ServerConnection;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
 import org.apache.geode.internal.cache.wan.AbstractGatewaySender;
 import org.apache.geode.internal.cache.wan.GatewaySenderAdvisor;
 import org.apache.geode.internal.cache.wan.GatewaySenderQueueEntrySynchronizationListener;
@@ -2398,6 +2399,8 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
         }
       }
       TypeRegistry.close();
+      // the regions whose entries referred to these members are gone
+      VersionSourceTable.clear();
       // do this late to prevent 43412
       TypeRegistry.setPdxSerializer(null);
 
@@ -70,6 +70,8 @@ public class InternalRegionArguments {
 
   private Set<String> internalAsyncEventQueueIds;
 
+  private boolean primitiveKeyRegionMap = RegionMapFactory.PRIMITIVE_KEY_REGION_MAP;
+
   /* methods that set and retrieve internal state used to configure a Region */
 
   public InternalRegionArguments setIsUsedForPartitionedRegionAdmin(boolean adminFlag) {
@@ -320,6 +322,19 @@ public class InternalRegionArguments {
     return this.internalAsyncEventQueueIds;
   }
 
+  /**
+   * Whether the region keeps Integer, Long or UUID keys unboxed if its key constraint is one of
+   * those classes. Defaults to the gemfire.PRIMITIVE_KEY_REGION_MAP system property.
+   */
+  public InternalRegionArguments setPrimitiveKeyRegionMap(boolean primitiveKeyRegionMap) {
+    this.primitiveKeyRegionMap = primitiveKeyRegionMap;
+    return this;
+  }
+
+  public boolean isPrimitiveKeyRegionMap() {
+    return this.primitiveKeyRegionMap;
+  }
+
   public boolean isInternalRegion() {
     return isInternalRegion;
   }
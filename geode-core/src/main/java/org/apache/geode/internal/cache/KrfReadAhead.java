@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * Reads the krf files of the oplogs being recovered into memory ahead of the recovering thread, on
+ * the disk store's recovery pool. The oplogs are still recovered one at a time, in the order they
+ * were added, so a key keeps being recovered from the newest oplog that has it. Oplogs are created
+ * in each disk directory in turn, so the krf files being read ahead at the same time are usually on
+ * different disks.
+ *
+ * This class is used by the recovering thread only.
+ *
+ * @see DiskStoreImpl#RECOVERY_THREADS
+ */
+class KrfReadAhead {
+  private static final Logger logger = LogService.getLogger();
+
+  private final ExecutorService pool;
+
+  private final long maxBytes;
+
+  /** The reads not taken yet, in recovery order. The first ones have been submitted to the pool */
+  private final LinkedHashMap<Oplog, Read> reads = new LinkedHashMap<Oplog, Read>();
+
+  private long bytesSubmitted;
+
+  /**
+   * @param maxBytes the most bytes read into memory and not taken yet at any time
+   */
+  KrfReadAhead(ExecutorService pool, long maxBytes) {
+    this.pool = pool;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Adds the next oplog to recover. Its krf is not read ahead if it is larger than the limit.
+   */
+  void add(Oplog oplog, File krf) {
+    long size = krf.length();
+    if (size > 0 && size <= this.maxBytes) {
+      this.reads.put(oplog, new Read(krf, size));
+    }
+  }
+
+  /**
+   * Starts reading the krf files that fit in the limit.
+   */
+  void start() {
+    submitReads();
+  }
+
+  /**
+   * Returns the krf of the given oplog read into memory, waiting for it if it is still being read.
+   * Returns null if it was not read ahead, in which case it should be read as usual. The krfs of
+   * earlier oplogs that have not been taken are dropped since recovery has passed them.
+   */
+  ByteBuffer take(Oplog oplog) {
+    if (!this.reads.containsKey(oplog)) {
+      return null;
+    }
+    Read read = null;
+    for (Iterator<Map.Entry<Oplog, Read>> it = this.reads.entrySet().iterator(); read == null;) {
+      Map.Entry<Oplog, Read> next = it.next();
+      it.remove();
+      if (next.getKey() == oplog) {
+        read = next.getValue();
+      } else {
+        drop(next.getValue());
+      }
+    }
+    if (read.future == null) {
+      // the oplogs before it were dropped
+      submit(read);
+    }
+    try {
+      return read.future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      // recovery reads the file itself and reports the failure
+      if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY)) {
+        logger.trace(LogMarker.PERSIST_RECOVERY, "Could not read ahead {}", read.file,
+            e.getCause());
+      }
+      return null;
+    } finally {
+      this.bytesSubmitted -= read.size;
+      submitReads();
+    }
+  }
+
+  /**
+   * Stops reading ahead and drops the krf files that have not been taken.
+   */
+  void close() {
+    for (Read read : this.reads.values()) {
+      drop(read);
+    }
+    this.reads.clear();
+  }
+
+  private void submitReads() {
+    for (Read read : this.reads.values()) {
+      if (read.future == null) {
+        if (this.bytesSubmitted + read.size > this.maxBytes) {
+          return;
+        }
+        submit(read);
+      }
+    }
+  }
+
+  private void submit(Read read) {
+    read.future = this.pool.submit(read);
+    this.bytesSubmitted += read.size;
+  }
+
+  private void drop(Read read) {
+    if (read.future != null) {
+      read.future.cancel(false);
+      this.bytesSubmitted -= read.size;
+    }
+  }
+
+  private static class Read implements Callable<ByteBuffer> {
+    private final File file;
+    private final long size;
+    private Future<ByteBuffer> future;
+
+    Read(File file, long size) {
+      this.file = file;
+      this.size = size;
+    }
+
+    @Override
+    public ByteBuffer call() throws IOException {
+      try (FileInputStream fis = new FileInputStream(this.file)) {
+        FileChannel channel = fis.getChannel();
+        if (DiskStoreImpl.RECOVER_MAPPED) {
+          return channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size).load();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) this.size);
+        while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+        }
+        buffer.flip();
+        return buffer;
+      }
+    }
+  }
+}
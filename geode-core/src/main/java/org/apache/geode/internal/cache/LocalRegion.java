@@ -334,6 +334,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   private final boolean supportsTX;
 
+  /**
+   * Set to true if local hits can be read directly from the region map by {@link #getLocalHit}:
+   * the values are kept uncompressed on heap, and are neither evicted nor written to disk.
+   */
+  private final boolean localGetFastPath;
+
   /**
    * tracks region-level version information for members
    */
@@ -659,6 +665,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     this.supportsTX = !isSecret() && !isUsedForPartitionedRegionAdmin() && !isUsedForMetaRegion()
         || isMetaRegionWithTransactions();
 
+    this.localGetFastPath = !getDataPolicy().withPartitioning() && this.diskRegion == null
+        && !getOffHeap() && getCompressor() == null && getEvictionController() == null;
+
     this.testCallable = internalRegionArgs.getTestCallable();
     eventTracker = createEventTracker();
   }
@@ -1349,6 +1358,13 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     long start = stats.startGet();
     boolean isMiss = true;
     try {
+      if (clientEvent == null && !preferCD) {
+        Object value = getLocalHit(key);
+        if (value != null) {
+          isMiss = false;
+          return value;
+        }
+      }
       KeyInfo keyInfo = getKeyInfo(key, aCallbackArgument);
       Object value = getDataView().getDeserializedValue(keyInfo, this, true, disableCopyOnRead,
           preferCD, clientEvent, returnTombstones, retainResult);
@@ -1384,6 +1400,39 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
   }
 
+  /**
+   * Returns the value of a key that is a hit in the region map of this region, if the hit can be
+   * returned without a transaction, a copy or an expiration task. Unlike the data view path this
+   * does not allocate a {@link KeyInfo}, so a hit on a deserialized value does not allocate at all.
+   *
+   * @return the value, or null if the get needs to go through the data view
+   */
+  private Object getLocalHit(Object key) {
+    if (!this.localGetFastPath || isCopyOnRead() || isEntryIdleExpiryPossible()
+        || getTXState() != null) {
+      return null;
+    }
+    RegionEntry regionEntry = this.entries.getEntry(key);
+    if (regionEntry == null) {
+      return null;
+    }
+    Object value = regionEntry.getValue(this);
+    if (value == null || value instanceof Token) {
+      // misses, invalid entries and tombstones need the full path
+      return null;
+    }
+    if (value instanceof CachedDeserializable) {
+      try {
+        value = ((CachedDeserializable) value).getDeserializedValue(this, regionEntry);
+      } catch (IllegalArgumentException i) {
+        throw new IllegalArgumentException(LocalizedStrings.DONT_RELEASE
+            .toLocalizedString("Error while deserializing value for key=" + key), i);
+      }
+    }
+    updateStatsForGet(regionEntry, true);
+    return value;
+  }
+
   /**
    * Update region and potentially entry stats for the miss case
    *
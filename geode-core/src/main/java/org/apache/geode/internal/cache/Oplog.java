@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -42,10 +43,12 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
@@ -72,6 +75,7 @@ import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.ByteArrayDataInput;
+import org.apache.geode.internal.ByteBufferDataInput;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.InternalStatisticsDisabledException;
@@ -84,8 +88,10 @@ import org.apache.geode.internal.cache.DistributedRegion.DiskPosition;
 import org.apache.geode.internal.cache.backup.BackupService;
 import org.apache.geode.internal.cache.entries.DiskEntry;
 import org.apache.geode.internal.cache.entries.DiskEntry.Helper.Flushable;
+import org.apache.geode.internal.cache.entries.DiskEntry.Helper.OffHeapValueWrapper;
 import org.apache.geode.internal.cache.entries.DiskEntry.Helper.ValueWrapper;
 import org.apache.geode.internal.cache.eviction.EvictionController;
+import org.apache.geode.internal.cache.eviction.EvictionCounters;
 import org.apache.geode.internal.cache.eviction.EvictionList;
 import org.apache.geode.internal.cache.persistence.BytesAndBits;
 import org.apache.geode.internal.cache.persistence.DiskRecoveryStore;
@@ -183,6 +189,34 @@ public class Oplog implements CompactableOplog, Flushable {
   private static final boolean SYNC_WRITES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "syncWrites");
 
+  /**
+   * The mode the crf and drf are opened with. A group commit forces the files itself so they are
+   * not opened with rwd even if SYNC_WRITES is set.
+   */
+  private static final String OPLOG_FILE_MODE =
+      SYNC_WRITES && !DiskStoreImpl.GROUP_COMMIT ? "rwd" : "rw";
+
+  /**
+   * The number of synchronous writes buffered in this oplog for a group commit. Only incremented
+   * while synchronized on {@link #lock}.
+   */
+  private volatile long groupCommitAppended;
+
+  /** Guards {@link #groupCommitted} and {@link #groupCommitting} */
+  private final Object groupCommitLock = new Object();
+
+  /** The number of buffered synchronous writes that have been forced to disk */
+  private long groupCommitted;
+
+  /** True while a thread is forcing the oplog files for a group of synchronous writes */
+  private boolean groupCommitting;
+
+  /** The crf bytes flushed when the crf was last forced by a group commit */
+  private long crfBytesForced;
+
+  /** The drf bytes flushed when the drf was last forced by a group commit */
+  private long drfBytesForced;
+
   /**
    * The HighWaterMark of recentValues.
    */
@@ -1097,7 +1131,7 @@ public class Oplog implements CompactableOplog, Flushable {
     }
     this.crf.f = f;
     preblow(this.crf, getMaxCrfSize());
-    this.crf.raf = new UninterruptibleRandomAccessFile(f, SYNC_WRITES ? "rwd" : "rw");
+    this.crf.raf = new UninterruptibleRandomAccessFile(f, OPLOG_FILE_MODE);
     this.crf.RAFClosed = false;
     oplogSet.crfCreate(this.oplogId);
     this.crf.writeBuf = allocateWriteBuf(prevOlf);
@@ -1137,7 +1171,7 @@ public class Oplog implements CompactableOplog, Flushable {
       logger.debug("Creating operation log file {}", f);
     }
     preblow(this.drf, getMaxDrfSize());
-    this.drf.raf = new UninterruptibleRandomAccessFile(f, SYNC_WRITES ? "rwd" : "rw");
+    this.drf.raf = new UninterruptibleRandomAccessFile(f, OPLOG_FILE_MODE);
     this.drf.RAFClosed = false;
     this.oplogSet.drfCreate(this.oplogId);
     this.drf.writeBuf = allocateWriteBuf(prevOlf);
@@ -1711,10 +1745,12 @@ public class Oplog implements CompactableOplog, Flushable {
       this.recoverModEntryIdHWM = DiskStoreImpl.INVALID_ID;
       long oplogKeyIdHWM = DiskStoreImpl.INVALID_ID;
       int krfEntryCount = 0;
-      DataInputStream dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
       final Version version = getProductVersionIfOld();
       final ByteArrayDataInput in = new ByteArrayDataInput();
       try {
+        ByteBufferDataInput inMemory = getInMemoryKrf(fis);
+        DataInput dis = inMemory != null ? inMemory
+            : new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
         try {
           validateOpcode(dis, OPLOG_MAGIC_SEQ_ID);
           readOplogMagicSeqRecord(dis, f, OPLOG_TYPE.KRF);
@@ -1726,17 +1762,25 @@ public class Oplog implements CompactableOplog, Flushable {
           // file is in old format which does not have a magic seq in the
           // beginning or this is not a valid file at all. Try reading it as a
           // file in old format
-          fis.close();
-          fis = new FileInputStream(f);
-          dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
+          if (inMemory != null) {
+            inMemory.setPosition(0);
+          } else {
+            fis.close();
+            fis = new FileInputStream(f);
+            dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
+          }
           readDiskStoreRecord(dis, f);
         } catch (IllegalStateException ignore) {
           // Failed to read the file. There are two possibilities. Either this
           // is in new format which has a magic seq in the beginning or this is
           // not a valid file at all
-          fis.close();
-          fis = new FileInputStream(f);
-          dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
+          if (inMemory != null) {
+            inMemory.setPosition(0);
+          } else {
+            fis.close();
+            fis = new FileInputStream(f);
+            dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
+          }
           readDiskStoreRecord(dis, f);
         }
 
@@ -1744,8 +1788,20 @@ public class Oplog implements CompactableOplog, Flushable {
         readTotalCountRecord(dis, f);
         readRVVRecord(dis, f, false, latestOplog);
         long lastOffset = 0;
-        byte[] keyBytes = DataSerializer.readByteArray(dis);
-        while (keyBytes != null) {
+        int keyLength = InternalDataSerializer.readArrayLength(dis);
+        while (keyLength != -1) {
+          // the keys of a krf in memory are not copied, they are deserialized where they are
+          byte[] keyBytes = null;
+          int keyPosition = -1;
+          if (inMemory != null) {
+            keyPosition = inMemory.position();
+            if (inMemory.skipBytes(keyLength) != keyLength) {
+              throw new EOFException();
+            }
+          } else {
+            keyBytes = new byte[keyLength];
+            dis.readFully(keyBytes);
+          }
           byte userBits = dis.readByte();
           int valueLength = InternalDataSerializer.readArrayLength(dis);
           byte[] valueBytes = null;
@@ -1800,7 +1856,8 @@ public class Oplog implements CompactableOplog, Flushable {
             } else if (EntryBits.isTombstone(userBits)) {
               valueBytes = DiskEntry.TOMBSTONE_BYTES;
             }
-            Object key = deserializeKey(keyBytes, version, in);
+            Object key = keyBytes != null ? deserializeKey(keyBytes, version, in)
+                : deserializeKey(inMemory, keyPosition, keyLength, version, in);
             {
               Object oldValue = getRecoveryMap().put(oplogKeyId, key);
               if (oldValue != null) {
@@ -1834,7 +1891,7 @@ public class Oplog implements CompactableOplog, Flushable {
               }
             }
           }
-          keyBytes = DataSerializer.readByteArray(dis);
+          keyLength = InternalDataSerializer.readArrayLength(dis);
         } // while
         setRecoverNewEntryId(oplogKeyIdHWM);
       } catch (IOException ex) {
@@ -1875,7 +1932,56 @@ public class Oplog implements CompactableOplog, Flushable {
     return true;
   }
 
-  private void validateOpcode(DataInputStream dis, byte expect) throws IOException {
+  /**
+   * Returns the krf file that {@link #readKrf} will read, or null if this oplog will be recovered
+   * from its crf.
+   */
+  File getKrfFileToRecover(boolean recoverValuesSync) {
+    if (recoverValuesSync || this.crf.f == null
+        || getParent().isOffline() && !getParent().FORCE_KRF_RECOVERY
+        || !getParent().getDiskInitFile().hasKrf(this.oplogId)) {
+      return null;
+    }
+    File f = new File(this.drf.f.getParentFile(),
+        oplogSet.getPrefix() + getParent().getName() + "_" + this.oplogId + KRF_FILE_EXT);
+    return f.exists() ? f : null;
+  }
+
+  /**
+   * Returns this oplog's krf if it was read ahead of recovery or can be memory mapped, or null if
+   * it should be read through the given stream.
+   */
+  private ByteBufferDataInput getInMemoryKrf(FileInputStream fis) throws IOException {
+    ByteBuffer readAhead = getOplogSet().takeReadAheadKrf(this);
+    if (readAhead == null) {
+      return mapForRecovery(fis);
+    }
+    ByteBufferDataInput inMemory = new ByteBufferDataInput();
+    inMemory.initialize(readAhead, null);
+    return inMemory;
+  }
+
+  /**
+   * Returns the file read by the given stream memory mapped, or null if it should be read through
+   * the stream.
+   *
+   * @see DiskStoreImpl#RECOVER_MAPPED
+   */
+  private static ByteBufferDataInput mapForRecovery(FileInputStream fis) throws IOException {
+    if (!DiskStoreImpl.RECOVER_MAPPED) {
+      return null;
+    }
+    FileChannel channel = fis.getChannel();
+    long size = channel.size();
+    if (size > Integer.MAX_VALUE) {
+      return null;
+    }
+    ByteBufferDataInput mapped = new ByteBufferDataInput();
+    mapped.initialize(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), null);
+    return mapped;
+  }
+
+  private void validateOpcode(DataInput dis, byte expect) throws IOException {
     byte opCode = dis.readByte();
     if (opCode != expect) {
       if (logger.isTraceEnabled(LogMarker.PERSIST_RECOVERY)) {
@@ -1904,8 +2010,13 @@ public class Oplog implements CompactableOplog, Flushable {
       FileInputStream fis = null;
       try {
         fis = new FileInputStream(this.crf.f);
-        dis = new CountingDataInputStream(new BufferedInputStream(fis, 1024 * 1024),
-            this.crf.f.length());
+        ByteBufferDataInput mapped = mapForRecovery(fis);
+        if (mapped != null) {
+          dis = new CountingDataInputStream(mapped, mapped.available());
+        } else {
+          dis = new CountingDataInputStream(new BufferedInputStream(fis, 1024 * 1024),
+              this.crf.f.length());
+        }
         boolean endOfLog = false;
         while (!endOfLog) {
           // long startPosition = byteCount;
@@ -2355,13 +2466,22 @@ public class Oplog implements CompactableOplog, Flushable {
       } else if (EntryBits.isInvalid(userBits)) {
         value = Token.INVALID;
         valueLength = 0;
-      } else if (EntryBits.isSerialized(userBits)) {
-        value = DiskEntry.Helper.readSerializedValue(valueBytes, version, in, false,
-            getParent().getCache());
       } else if (EntryBits.isTombstone(userBits)) {
         value = Token.TOMBSTONE;
       } else {
-        value = valueBytes;
+        try {
+          valueBytes = decompressIfNeeded(valueBytes, userBits);
+        } catch (IOException e) {
+          throw new DiskAccessException(
+              "Could not recover the value at offset " + offsetInOplog + " of " + toString(), e,
+              getParent());
+        }
+        if (EntryBits.isSerialized(userBits)) {
+          value = DiskEntry.Helper.readSerializedValue(valueBytes, version, in, false,
+              getParent().getCache());
+        } else {
+          value = valueBytes;
+        }
       }
       re = new DiskEntry.RecoveredEntry(oplogKeyId, oplogId, offsetInOplog, userBits, valueLength,
           value);
@@ -2853,8 +2973,9 @@ public class Oplog implements CompactableOplog, Flushable {
   }
 
   private void validateValue(byte[] valueBytes, byte userBits, Version version,
-      ByteArrayDataInput in) {
+      ByteArrayDataInput in) throws IOException {
     if (getParent().isValidating()) {
+      valueBytes = decompressIfNeeded(valueBytes, userBits);
       if (EntryBits.isSerialized(userBits)) {
         // make sure values are deserializable
         if (!PdxWriterImpl.isPdx(valueBytes)) { // fix bug 43011
@@ -3483,6 +3604,34 @@ public class Oplog implements CompactableOplog, Flushable {
     return vw.getUserBits();
   }
 
+  /**
+   * Returns the value compressed if the disk store compresses values and it gets smaller, otherwise
+   * the value itself. This is done before taking the oplog lock so that writers compress their
+   * values concurrently.
+   */
+  private ValueWrapper compressIfEnabled(ValueWrapper value, byte userBits) {
+    if (!DiskStoreImpl.COMPRESS_VALUES) {
+      return value;
+    }
+    ValueWrapper compressed = OplogCompressor.compress(value, userBits);
+    if (compressed == null) {
+      return value;
+    }
+    this.stats.incCompressedValues(value.getLength() - compressed.getLength());
+    return compressed;
+  }
+
+  /**
+   * Returns the value of a record read from a crf, inflated if it was compressed.
+   */
+  private byte[] decompressIfNeeded(byte[] valueBytes, byte userBits) throws IOException {
+    if (valueBytes == null || !EntryBits.isCompressed(userBits)
+        || !EntryBits.isNeedsValue(userBits)) {
+      return valueBytes;
+    }
+    return OplogCompressor.decompress(valueBytes);
+  }
+
   /**
    * Returns true if the given entry has not yet been written to this oplog.
    */
@@ -3530,7 +3679,11 @@ public class Oplog implements CompactableOplog, Flushable {
           // pdx and tx will not use version
           userBits = EntryBits.setWithVersions(userBits, true);
         }
-        basicCreate(region.getDiskRegion(), entry, value, userBits, async);
+        ValueWrapper toWrite = compressIfEnabled(value, userBits);
+        if (toWrite != value) {
+          userBits = EntryBits.setCompressed(userBits, true);
+        }
+        basicCreate(region.getDiskRegion(), entry, toWrite, userBits, async);
       } catch (IOException ex) {
         exceptionOccurred = true;
         region.getCancelCriterion().checkCancelInProgress(ex);
@@ -3643,7 +3796,7 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOperationBytes(this.crf, async);
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3706,6 +3859,7 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(this != getOplogSet().getChild());
       getOplogSet().getChild().basicCreate(dr, entry, value, userBits, async);
     } else {
+      groupCommitIfSync(async);
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -3885,7 +4039,7 @@ public class Oplog implements CompactableOplog, Flushable {
   /**
    * Used when creating a KRF to keep track of what DiskRegionView a DiskEntry belongs to.
    */
-  private static class KRFEntry {
+  static class KRFEntry {
     private final DiskEntry de;
     private final DiskRegionView drv;
     /**
@@ -4451,7 +4605,11 @@ public class Oplog implements CompactableOplog, Flushable {
           // pdx and tx will not use version
           userBits = EntryBits.setWithVersions(userBits, true);
         }
-        basicModify(region.getDiskRegion(), entry, value, userBits, async, false);
+        ValueWrapper toWrite = compressIfEnabled(value, userBits);
+        if (toWrite != value) {
+          userBits = EntryBits.setCompressed(userBits, true);
+        }
+        basicModify(region.getDiskRegion(), entry, toWrite, userBits, async, false);
       } catch (IOException ex) {
         exceptionOccurred = true;
         region.getCancelCriterion().checkCancelInProgress(ex);
@@ -4496,7 +4654,11 @@ public class Oplog implements CompactableOplog, Flushable {
         vs.setVersions(vt);
         userBits = EntryBits.setWithVersions(userBits, true);
       }
-      basicModify(drv, entry, vw, userBits, false, false);
+      ValueWrapper toWrite = compressIfEnabled(vw, userBits);
+      if (toWrite != vw) {
+        userBits = EntryBits.setCompressed(userBits, true);
+      }
+      basicModify(drv, entry, toWrite, userBits, false, false);
     } catch (IOException ex) {
       throw new DiskAccessException(
           LocalizedStrings.Oplog_FAILED_WRITING_KEY_TO_0.toLocalizedString(this.diskFile.getPath()),
@@ -4639,7 +4801,7 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            startPosForSynchOp = writeOperationBytes(this.crf, async);
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
@@ -4717,6 +4879,7 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicModify(dr, entry, value, userBits, async, calledByCompactor);
     } else {
+      groupCommitIfSync(async);
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -4764,7 +4927,7 @@ public class Oplog implements CompactableOplog, Flushable {
               throw cce;
             }
             this.firstRecord = false;
-            writeOpLogBytes(this.crf, async, true);
+            writeOperationBytes(this.crf, async);
             this.crf.currSize = temp;
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
               logger.trace(LogMarker.PERSIST_WRITES,
@@ -4792,6 +4955,8 @@ public class Oplog implements CompactableOplog, Flushable {
       }
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicSaveConflictVersionTag(dr, tag, async);
+    } else {
+      groupCommitIfSync(async);
     }
   }
 
@@ -5109,7 +5274,7 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            startPosForSynchOp = writeOperationBytes(this.drf, async);
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5148,6 +5313,7 @@ public class Oplog implements CompactableOplog, Flushable {
       Assert.assertTrue(getOplogSet().getChild() != this);
       getOplogSet().getChild().basicRemove(dr, entry, async, isClear);
     } else {
+      groupCommitIfSync(async);
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSettingOplogOffSet(startPosForSynchOp);
       }
@@ -5189,6 +5355,116 @@ public class Oplog implements CompactableOplog, Flushable {
     flushAll(false);
   }
 
+  /**
+   * If group commit is enabled, waits until the synchronous writes this thread has buffered in this
+   * oplog have been forced to disk. The first writer that finds no group commit in progress flushes
+   * the write buffers and forces the files for every write buffered so far. Writers that buffer
+   * while it does so wait and are committed together by the next group commit.
+   * <p>
+   * Must be called without holding {@link #lock} or the backup lock.
+   */
+  private void groupCommitIfSync(boolean async) {
+    if (async || !DiskStoreImpl.GROUP_COMMIT) {
+      return;
+    }
+    long ticket = this.groupCommitAppended;
+    boolean interrupted = false;
+    try {
+      synchronized (this.groupCommitLock) {
+        while (this.groupCommitted < ticket) {
+          if (!this.groupCommitting) {
+            this.groupCommitting = true;
+            break;
+          }
+          try {
+            this.groupCommitLock.wait();
+          } catch (InterruptedException ignore) {
+            interrupted = true;
+          }
+        }
+        if (this.groupCommitted >= ticket) {
+          return;
+        }
+      }
+      long committed = -1;
+      try {
+        committed = commitGroup();
+      } finally {
+        synchronized (this.groupCommitLock) {
+          if (committed > this.groupCommitted) {
+            this.groupCommitted = committed;
+          }
+          this.groupCommitting = false;
+          this.groupCommitLock.notifyAll();
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Flushes the write buffers and forces the files that were written to since they were last
+   * forced. Only called by the thread doing the group commit.
+   *
+   * @return the number of buffered synchronous writes that are now on disk
+   */
+  private long commitGroup() {
+    long start = getStats().startGroupCommit();
+    if (DiskStoreImpl.GROUP_COMMIT_MAX_WAIT_MICROS > 0) {
+      LockSupport
+          .parkNanos(TimeUnit.MICROSECONDS.toNanos(DiskStoreImpl.GROUP_COMMIT_MAX_WAIT_MICROS));
+    }
+    long appended;
+    long committed;
+    UninterruptibleFileChannel drfChannel = null;
+    UninterruptibleFileChannel crfChannel = null;
+    long drfBytes;
+    long crfBytes;
+    // No need to get the backup lock prior to synchronizing (correct lock order) since the
+    // synchronized block does not attempt to get the backup lock (incorrect lock order)
+    synchronized (this.lock) {
+      appended = this.groupCommitAppended;
+      flushAllNoSync(false);
+      drfBytes = this.drf.bytesFlushed;
+      crfBytes = this.crf.bytesFlushed;
+      // switching to the next oplog forced the files before it set doneAppending
+      if (!this.doneAppending) {
+        if (!this.drf.RAFClosed && drfBytes != this.drfBytesForced) {
+          drfChannel = this.drf.channel;
+        }
+        if (!this.crf.RAFClosed && crfBytes != this.crfBytesForced) {
+          crfChannel = this.crf.channel;
+        }
+      }
+    }
+    synchronized (this.groupCommitLock) {
+      committed = this.groupCommitted;
+    }
+    try {
+      // the drf is forced first for the same reason it is flushed first
+      if (drfChannel != null) {
+        drfChannel.force(true);
+      }
+      this.drfBytesForced = drfBytes;
+      if (crfChannel != null) {
+        crfChannel.force(true);
+      }
+      this.crfBytesForced = crfBytes;
+    } catch (ClosedChannelException ignore) {
+      // The oplog was closed or switched, which forced the files before closing them.
+    } catch (IOException ex) {
+      getParent().getCancelCriterion().checkCancelInProgress(ex);
+      throw new DiskAccessException(
+          LocalizedStrings.Oplog_FAILED_WRITING_KEY_TO_0.toLocalizedString(this.diskFile.getPath()),
+          ex, getParent());
+    }
+    getStats().endGroupCommit(start, appended - committed);
+    return appended;
+  }
+
   private static final int MAX_CHANNEL_RETRIES = 5;
 
   private void flush(OplogFile olf, boolean doSync) throws IOException {
@@ -5235,7 +5511,8 @@ public class Oplog implements CompactableOplog, Flushable {
           bb.clear();
         }
         if (doSync) {
-          if (SYNC_WRITES) {
+          // once an oplog is done appending its crf may have been reopened read only
+          if (SYNC_WRITES || DiskStoreImpl.GROUP_COMMIT && !this.doneAppending) {
             // Synch Meta Data as well as content
             olf.channel.force(true);
           }
@@ -5280,6 +5557,40 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Writes the buffered bytes of the given file with the value bytes inserted at the given position
+   * of the write buffer, using one gathering write.
+   */
+  private void flush(OplogFile olf, int valuePosition, ByteBuffer value) throws IOException {
+    try {
+      // No need to get the backup lock prior to synchronizing (correct lock order) since the
+      // synchronized block does not attempt to get the backup lock (incorrect lock order)
+      synchronized (this.lock/* olf */) {
+        if (olf.RAFClosed) {
+          return;
+        }
+        ByteBuffer bb = olf.writeBuf;
+        ByteBuffer tail = bb.duplicate();
+        tail.flip().position(valuePosition);
+        bb.flip().limit(valuePosition);
+        ByteBuffer[] buffers = new ByteBuffer[] {bb, value, tail};
+        long flushed = 0;
+        do {
+          flushed += olf.channel.write(buffers);
+        } while (tail.hasRemaining());
+        // update bytesFlushed after entire writeBuffer is flushed to fix bug 41201
+        olf.bytesFlushed += flushed;
+        bb.clear();
+      }
+    } catch (ClosedChannelException ignore) {
+      // It is possible for a channel to be closed when our code does not
+      // explicitly call channel.close (when we will set RAFclosed).
+      // This can happen when a thread is doing an io op and is interrupted.
+      // That thread will see ClosedByInterruptException but it will also
+      // close the channel and then we will see ClosedChannelException.
+    }
+  }
+
   public void flushAll() {
     flushAll(false);
   }
@@ -5305,6 +5616,14 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Writes the record of a region operation. With group commit a synchronous write is only buffered
+   * here, and is forced to disk by {@link #groupCommitIfSync} once the locks have been released.
+   */
+  private long writeOperationBytes(OplogFile olf, boolean async) throws IOException {
+    return writeOpLogBytes(olf, async, !DiskStoreImpl.GROUP_COMMIT);
+  }
+
   /**
    * Since the ByteBuffer being writen to can have additional bytes which are used for extending the
    * size of the file, it is necessary that the ByteBuffer provided should have limit which is set
@@ -5344,8 +5663,13 @@ public class Oplog implements CompactableOplog, Flushable {
         // "startPos=" + startPos +
         // " was not > lastWritePos=" + lastWritePos);
         long bytesWritten = this.opState.write(olf);
-        if (!async && doFlushIfSync) {
-          flushAndSync(olf);
+        if (!async) {
+          if (doFlushIfSync) {
+            flushAndSync(olf);
+          } else if (DiskStoreImpl.GROUP_COMMIT) {
+            // the writer waits in groupCommitIfSync once it has released the lock
+            this.groupCommitAppended++;
+          }
         }
         getStats().incWrittenBytes(bytesWritten, async);
 
@@ -5552,6 +5876,13 @@ public class Oplog implements CompactableOplog, Flushable {
             }
           }
         } // for
+        if (EntryBits.isCompressed(userBits)) {
+          // inflated outside of the oplog lock
+          Version version = bb.getVersion();
+          bb = new BytesAndBits(OplogCompressor.decompress(bb.getBytes()),
+              EntryBits.setCompressed(userBits, false));
+          bb.setVersion(version);
+        }
       } catch (IOException ex) {
         getParent().getCancelCriterion().checkCancelInProgress(ex);
         throw new DiskAccessException(
@@ -6099,10 +6430,14 @@ public class Oplog implements CompactableOplog, Flushable {
                                  */!compactor.keepCompactorRunning();
         int totalCount = 0;
         for (DiskRegionInfo dri : this.regionMap.values()) {
+          if (compactFailed) {
+            break;
+          }
           final DiskRegionView dr = dri.getDiskRegion();
           if (dr == null)
             continue;
           boolean didCompact = false;
+          int valueLength = 0;
           while ((de = dri.getNextLiveEntry()) != null) {
             if (/*
                  * getParent().getOwner().isDestroyed ||
@@ -6139,6 +6474,7 @@ public class Oplog implements CompactableOplog, Flushable {
                     continue;
                   }
                   // write it to the current oplog
+                  valueLength = did.getValueLength();
                   getOplogSet().getChild().copyForwardModifyForCompact(dr, de, wrapper);
                   // the did's oplogId will now be set to the current active oplog
                   didCompact = true;
@@ -6159,6 +6495,10 @@ public class Oplog implements CompactableOplog, Flushable {
               if (!wrapper.isReusable()) {
                 wrapper = new BytesAndBitsForCompactor();
               }
+              if (compactor.copiedForward(valueLength) && !pauseCompaction(compactor)) {
+                compactFailed = true;
+                break;
+              }
             }
           }
         }
@@ -6182,6 +6522,37 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Pauses the compaction of this oplog to keep it within its I/O budget. Foreground operations
+   * and krf creation can have the compaction locks while it is paused, and the live entries left
+   * are picked up where compaction stopped. Returns false if compaction should not go on.
+   */
+  private boolean pauseCompaction(OplogCompactor compactor) {
+    unlockCompactor();
+    getParent().releaseCompactorReadLock();
+    try {
+      compactor.pause();
+    } finally {
+      getParent().acquireCompactorReadLock();
+      lockCompactor();
+    }
+    return !this.closed && this.unrecoveredRegionCount.get() == 0
+        && compactor.keepCompactorRunning();
+  }
+
+  /**
+   * Returns an estimate of the bytes compacting this oplog would free, assuming its dead records
+   * are the size of its live ones.
+   */
+  long getGarbageSize() {
+    long total = this.totalCount.get();
+    if (total <= 0) {
+      return 0;
+    }
+    long live = Math.min(Math.max(this.totalLiveCount.get(), 0), total);
+    return (long) ((double) this.crf.currSize * (total - live) / total);
+  }
+
   public static boolean isCRFFile(String filename) {
     return filename.endsWith(Oplog.CRF_FILE_EXT);
   }
@@ -6258,7 +6629,10 @@ public class Oplog implements CompactableOplog, Flushable {
       // from
       // disk is still valid. That is going to be something like
 
-      synchronized (diskRecoveryStores) {
+      // other oplogs may be recovering values at the same time
+      Lock recoveryLock = getParent().getAsyncValueRecoveryReadLock();
+      recoveryLock.lock();
+      try {
         DiskRecoveryStore diskRecoveryStore = diskRecoveryStores.get(diskRegionId);
         if (diskRecoveryStore == null) {
           continue;
@@ -6313,10 +6687,92 @@ public class Oplog implements CompactableOplog, Flushable {
             }
           }
         }
+      } finally {
+        recoveryLock.unlock();
       }
     }
   }
 
+  /**
+   * Returns the live entries of the given regions in this oplog, in the order they are in the crf,
+   * or null if there are none.
+   */
+  List<KRFEntry> getSortedLiveEntries(Set<Long> diskRegionIds) {
+    HashMap<Long, DiskRegionInfo> targetRegions = new HashMap<Long, DiskRegionInfo>(this.regionMap);
+    targetRegions.keySet().retainAll(diskRegionIds);
+    if (targetRegions.isEmpty()) {
+      return null;
+    }
+    return getSortedLiveEntries(targetRegions.values());
+  }
+
+  /**
+   * Reads the value of a live entry of this oplog into memory unless it is already there, the same
+   * way as {@link #recoverValuesIfNeeded}. Used by the {@link ValueWarmer}.
+   *
+   * @return the number of value bytes read, or -1 if the region should not be given more values
+   *         because it reached its LRU limit or was destroyed
+   */
+  long warmValue(KRFEntry entry, DiskRecoveryStore diskRecoveryStore, ByteArrayDataInput in) {
+    Lock recoveryLock = getParent().getAsyncValueRecoveryReadLock();
+    recoveryLock.lock();
+    try {
+      DiskRegionView diskRegionView = diskRecoveryStore.getDiskRegionView();
+      if (diskRegionView == null) {
+        return 0;
+      }
+      if (isEvictionLimitReached(diskRecoveryStore)) {
+        return -1;
+      }
+      RegionMap regionMap = diskRecoveryStore.getRegionMap();
+      DiskEntry diskEntry = entry.getDiskEntry();
+      if (diskRegionView.isEntriesMapIncompatible()) {
+        diskEntry = (DiskEntry) regionMap.getEntryInVM(diskEntry.getKey());
+        if (diskEntry == null) {
+          return 0;
+        }
+      }
+      long evictions = regionMap.getEvictions();
+      synchronized (diskEntry) {
+        DiskId did = diskEntry.getDiskId();
+        if (did == null || did.getOplogId() != this.oplogId || !diskEntry.isValueNull()) {
+          return 0;
+        }
+        int valueLength = did.getValueLength();
+        try {
+          DiskEntry.Helper.recoverValue(diskEntry, getOplogId(), diskRecoveryStore, in);
+        } catch (RegionDestroyedException ignore) {
+          return -1;
+        }
+        if (regionMap.getEvictions() != evictions) {
+          // the region made room for this value, so warming more would push out warmer values
+          return -1;
+        }
+        return diskEntry.isValueNull() ? 0 : valueLength;
+      }
+    } finally {
+      recoveryLock.unlock();
+    }
+  }
+
+  /**
+   * Returns true if faulting in another value would make the given region evict. Unlike during
+   * recovery, an online region evicts as soon as its limit is reached, so lruLimitExceeded alone
+   * never stops the warming.
+   */
+  private static boolean isEvictionLimitReached(DiskRecoveryStore diskRecoveryStore) {
+    if (diskRecoveryStore.lruLimitExceeded()) {
+      return true;
+    }
+    EvictionController controller = diskRecoveryStore.getRegionMap().getEvictionController();
+    if (controller == null || controller.getEvictionAlgorithm().isLRUHeap()) {
+      // the heap limit is not kept in the counters
+      return false;
+    }
+    EvictionCounters counters = controller.getCounters();
+    return counters != null && counters.getCounter() >= counters.getLimit();
+  }
+
   private byte[] serializeRVVs(Map<Long, AbstractDiskRegion> drMap, boolean gcRVV)
       throws IOException {
     HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
@@ -6807,6 +7263,8 @@ public class Oplog implements CompactableOplog, Flushable {
 
     public long write(OplogFile olf) throws IOException {
       long bytesWritten = 0;
+      ByteBuffer valueBuffer = null;
+      int valuePosition = 0;
       writeByte(olf, this.opCode);
       bytesWritten++;
       if (this.opCode == OPLOG_NEW_ENTRY_BASE_ID) {
@@ -6834,6 +7292,7 @@ public class Oplog implements CompactableOplog, Flushable {
         write(olf, this.versionsBytes, this.versionsBytes.length);
         bytesWritten += this.versionsBytes.length;
       } else {
+        valueBuffer = getGatheringValueBuffer(olf);
         if (this.notToUseUserBits == false) {
           writeByte(olf, this.userBits);
           bytesWritten++;
@@ -6857,7 +7316,11 @@ public class Oplog implements CompactableOplog, Flushable {
           writeInt(olf, len);
           bytesWritten += 4;
           if (len > 0) {
-            write(olf, this.value);
+            if (valueBuffer != null) {
+              valuePosition = olf.writeBuf.position();
+            } else {
+              write(olf, this.value);
+            }
             bytesWritten += len;
           }
         }
@@ -6873,9 +7336,36 @@ public class Oplog implements CompactableOplog, Flushable {
 
       writeByte(olf, END_OF_RECORD_ID);
       bytesWritten++;
+      if (valueBuffer != null) {
+        flush(olf, valuePosition, valueBuffer);
+      }
       return bytesWritten;
     }
 
+    /**
+     * Returns a direct buffer over the value of this entry record if it is an off-heap value too
+     * large for the write buffer. The rest of the record is then buffered around the value's
+     * position and the whole record is written with one gathering write, so the value is never
+     * copied. Makes room in the write buffer for the rest of the record.
+     */
+    private ByteBuffer getGatheringValueBuffer(OplogFile olf) throws IOException {
+      if (!this.needsValue || !(this.value instanceof OffHeapValueWrapper)) {
+        return null;
+      }
+      final int len = this.value.getLength();
+      // the opcode is already buffered
+      final int recordBytes = this.size - len - 1;
+      ByteBuffer bb = olf.writeBuf;
+      if (len <= bb.capacity() || recordBytes > bb.capacity()) {
+        return null;
+      }
+      ByteBuffer valueBuffer = ((OffHeapValueWrapper) this.value).createDirectByteBuffer();
+      if (valueBuffer != null && recordBytes > bb.remaining()) {
+        flushNoSync(olf);
+      }
+      return valueBuffer;
+    }
+
     /**
      * Free up any references to possibly large data.
      */
@@ -7765,6 +8255,40 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Deserializes a key of a krf in memory without copying it. The key is copied if it was written
+   * by an older version or is read by an offline disk store, which may need its bytes. The position
+   * of the krf is left where it was.
+   */
+  private Object deserializeKey(ByteBufferDataInput krf, int keyPosition, int keyLength,
+      final Version version, final ByteArrayDataInput in) {
+    final int position = krf.position();
+    final int limit = krf.limit();
+    krf.setPosition(keyPosition);
+    try {
+      if (version != null || getParent().isOffline()) {
+        byte[] keyBytes = new byte[keyLength];
+        krf.readFully(keyBytes);
+        return deserializeKey(keyBytes, version, in);
+      }
+      krf.setLimit(keyPosition + keyLength);
+      return DataSerializer.readObject(krf);
+    } catch (IOException e) {
+      throw new SerializationException(
+          LocalizedStrings.EntryEventImpl_AN_IOEXCEPTION_WAS_THROWN_WHILE_DESERIALIZING
+              .toLocalizedString(),
+          e);
+    } catch (ClassNotFoundException e) {
+      throw new SerializationException(
+          LocalizedStrings.EntryEventImpl_A_CLASSNOTFOUNDEXCEPTION_WAS_THROWN_WHILE_TRYING_TO_DESERIALIZE_CACHED_VALUE
+              .toLocalizedString(),
+          e);
+    } finally {
+      krf.setLimit(limit);
+      krf.setPosition(position);
+    }
+  }
+
   private Object deserializeKey(byte[] keyBytes, final Version version,
       final ByteArrayDataInput in) {
     if (!getParent().isOffline() || !PdxWriterImpl.isPdx(keyBytes)) {
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.geode.internal.cache.entries.DiskEntry.Helper.ByteArrayValueWrapper;
+import org.apache.geode.internal.cache.entries.DiskEntry.Helper.CompactorValueWrapper;
+import org.apache.geode.internal.cache.entries.DiskEntry.Helper.ValueWrapper;
+
+/**
+ * Compresses the values written to crf files when {@link DiskStoreImpl#COMPRESS_VALUES} is set.
+ * Each value is deflated on its own, so the offset and length of an entry in its oplog still
+ * address only its value, and faulting it in reads and inflates only that value. A compressed value
+ * is the length of the value as an int followed by the deflated bytes, and its record has the
+ * {@link EntryBits#isCompressed} bit set. Oplog inflates values as it reads them, so values in
+ * memory are never compressed.
+ */
+final class OplogCompressor {
+
+  private static final ThreadLocal<Deflater> deflater =
+      ThreadLocal.withInitial(() -> new Deflater(DiskStoreImpl.COMPRESSION_LEVEL, true));
+
+  private static final ThreadLocal<Inflater> inflater =
+      ThreadLocal.withInitial(() -> new Inflater(true));
+
+  private OplogCompressor() {}
+
+  /**
+   * Returns the given value compressed, or null if it should be written as is because it is not a
+   * heap value, is smaller than {@link DiskStoreImpl#COMPRESS_VALUES_MIN_SIZE} or does not get
+   * smaller.
+   */
+  static ValueWrapper compress(ValueWrapper value, byte userBits) {
+    if (!(value instanceof ByteArrayValueWrapper) || value instanceof CompactorValueWrapper
+        || !EntryBits.isNeedsValue(userBits) || EntryBits.isCompressed(userBits)) {
+      return null;
+    }
+    final byte[] bytes = ((ByteArrayValueWrapper) value).bytes;
+    final int length = value.getLength();
+    if (length < DiskStoreImpl.COMPRESS_VALUES_MIN_SIZE || length <= 5) {
+      return null;
+    }
+    Deflater deflater = OplogCompressor.deflater.get();
+    deflater.reset();
+    deflater.setInput(bytes, 0, length);
+    deflater.finish();
+    // the compressed value has to fit in less than the value
+    byte[] compressed = new byte[length - 1];
+    compressed[0] = (byte) (length >>> 24);
+    compressed[1] = (byte) (length >>> 16);
+    compressed[2] = (byte) (length >>> 8);
+    compressed[3] = (byte) length;
+    int compressedLength = 4;
+    while (!deflater.finished() && compressedLength < compressed.length) {
+      compressedLength +=
+          deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+    }
+    if (!deflater.finished()) {
+      return null;
+    }
+    return new CompactorValueWrapper(compressed, compressedLength);
+  }
+
+  /**
+   * Returns the value that was compressed into the given bytes.
+   *
+   * @throws IOException if the bytes are not a compressed value
+   */
+  static byte[] decompress(byte[] compressed) throws IOException {
+    if (compressed.length < 4) {
+      throw new IOException("Compressed value of " + compressed.length + " bytes has no length");
+    }
+    int length = ((compressed[0] & 0xff) << 24) | ((compressed[1] & 0xff) << 16)
+        | ((compressed[2] & 0xff) << 8) | (compressed[3] & 0xff);
+    if (length < 0) {
+      throw new IOException("Compressed value has a negative length " + length);
+    }
+    byte[] value = new byte[length];
+    Inflater inflater = OplogCompressor.inflater.get();
+    inflater.reset();
+    inflater.setInput(compressed, 4, compressed.length - 4);
+    try {
+      int valueLength = 0;
+      while (valueLength < length) {
+        int count = inflater.inflate(value, valueLength, length - valueLength);
+        if (count == 0) {
+          break;
+        }
+        valueLength += count;
+      }
+      if (valueLength != length) {
+        throw new IOException("Compressed value inflated to " + valueLength
+            + " bytes instead of " + length);
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Could not inflate compressed value", e);
+    }
+    return value;
+  }
+}
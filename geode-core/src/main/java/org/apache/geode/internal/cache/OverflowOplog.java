@@ -99,6 +99,16 @@ class OverflowOplog implements CompactableOplog, Flushable {
 
   private final OplogDiskEntry liveEntries = new OplogDiskEntry();
 
+  /**
+   * Writes the write buffer behind the evicting threads. Null if
+   * {@link DiskStoreImpl#OVERFLOW_WRITE_BEHIND_BYTES} is not set. When set, crf.bytesFlushed is the
+   * number of bytes handed to it rather than the number written.
+   */
+  private final OverflowWriteBehind writeBehind;
+
+  /** Set if writing behind failed, and thrown by the next flush or read */
+  private volatile IOException writeBehindFailure;
+
   /**
    * A copy constructor used for creating a new oplog based on the previous Oplog. This constructor
    * is invoked only from the function switchOplog
@@ -112,6 +122,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
     this.oplogSet = parent;
     this.dirHolder = dirHolder;
     this.opState = new OpState();
+    this.writeBehind = parent.getWriteBehind();
     long maxOplogSizeParam = this.parent.getMaxOplogSizeInBytes();
     if (maxOplogSizeParam < minSize) {
       maxOplogSizeParam = minSize;
@@ -191,11 +202,15 @@ class OverflowOplog implements CompactableOplog, Flushable {
       result = previous.consumeWriteBuf();
     }
     if (result == null) {
-      result = ByteBuffer.allocateDirect(Integer.getInteger("WRITE_BUF_SIZE", 32768));
+      result = ByteBuffer.allocateDirect(getWriteBufSize());
     }
     return result;
   }
 
+  static int getWriteBufSize() {
+    return Integer.getInteger("WRITE_BUF_SIZE", 32768);
+  }
+
   private ByteBuffer consumeWriteBuf() {
     synchronized (this.crf) {
       ByteBuffer result = this.crf.writeBuf;
@@ -631,6 +646,15 @@ class OverflowOplog implements CompactableOplog, Flushable {
       if (olf.RAFClosed) {
         return;
       }
+      if (this.writeBehind != null) {
+        ByteBuffer bb = olf.writeBuf;
+        if (bb != null && bb.position() != 0) {
+          bb.flip();
+          queueWrite(olf, bb);
+          bb.clear();
+        }
+        return;
+      }
       try {
         ByteBuffer bb = olf.writeBuf;
         if (bb != null && bb.position() != 0) {
@@ -695,6 +719,13 @@ class OverflowOplog implements CompactableOplog, Flushable {
       if (olf.RAFClosed) {
         return;
       }
+      if (this.writeBehind != null) {
+        b1.flip();
+        queueWrite(olf, b1);
+        queueWrite(olf, b2);
+        b1.clear();
+        return;
+      }
       try {
         this.bbArray[0] = b1;
         this.bbArray[1] = b2;
@@ -718,6 +749,38 @@ class OverflowOplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Writes the given buffer at the given position of the crf. Called by the write behind thread.
+   */
+  void writeBehind(ByteBuffer bb, long position) throws IOException {
+    FileChannel channel = this.crf.channel;
+    while (bb.hasRemaining()) {
+      position += channel.write(bb, position);
+    }
+  }
+
+  /**
+   * Queues the remaining bytes of the given buffer to be written after those already queued. The
+   * bytes are copied, so the buffer can be reused once this returns.
+   */
+  private void queueWrite(OplogFile olf, ByteBuffer bb) throws IOException {
+    checkWriteBehindFailure();
+    int length = bb.remaining();
+    this.writeBehind.write(this, bb, olf.bytesFlushed);
+    olf.bytesFlushed += length;
+  }
+
+  void setWriteBehindFailure(IOException failure) {
+    this.writeBehindFailure = failure;
+  }
+
+  private void checkWriteBehindFailure() throws IOException {
+    IOException failure = this.writeBehindFailure;
+    if (failure != null) {
+      throw new IOException("Failed to write behind to " + this.crf.f.getName(), failure);
+    }
+  }
+
   public void flushAll() {
     try {
       flush();
@@ -758,7 +821,17 @@ class OverflowOplog implements CompactableOplog, Flushable {
       // Also it is only in case of synch writing, we are writing more
       // than what is actually needed, we will have to reset the pointer.
       // Also need to add in offset in writeBuf in case we are not flushing writeBuf
-      long curFileOffset = olf.channel.position() + olf.writeBuf.position();
+      long curFileOffset;
+      if (this.writeBehind != null) {
+        // fail this write, like the channel would, if an earlier one failed behind our back
+        checkWriteBehindFailure();
+        if (!olf.channel.isOpen()) {
+          throw new ClosedChannelException();
+        }
+        curFileOffset = olf.bytesFlushed + olf.writeBuf.position();
+      } else {
+        curFileOffset = olf.channel.position() + olf.writeBuf.position();
+      }
       startPos = allocate(curFileOffset, getOpStateSize());
       if (startPos != -1) {
         if (startPos != curFileOffset) {
@@ -781,7 +854,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
               "writeOpLogBytes bytesWritten={} oldBytesFlushed={} byteFlushed={} oplog#{}",
               bytesWritten, oldBytesFlushed, olf.bytesFlushed, getOplogId());
         }
-        if (oldBytesFlushed != olf.bytesFlushed) {
+        if (oldBytesFlushed != olf.bytesFlushed && this.writeBehind == null) {
           // opState.write must have done an implicit flush
           // so we need to do an explicit flush so the value
           // can be read back in entirely from disk.
@@ -805,7 +878,9 @@ class OverflowOplog implements CompactableOplog, Flushable {
       RandomAccessFile myRAF = this.crf.raf;
       BytesAndBits bb = null;
       long writePosition = 0;
-      if (!this.doneAppending) {
+      if (this.writeBehind != null) {
+        bb = attemptWriteBehindGet(offsetInOplog, valueLength, userBits);
+      } else if (!this.doneAppending) {
         writePosition = myRAF.getFilePointer();
         bb = attemptWriteBufferGet(writePosition, offsetInOplog, valueLength, userBits);
         if (bb == null) {
@@ -837,7 +912,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
           bb = new BytesAndBits(valueBytes, userBits);
         } finally {
           // if this oplog is no longer being appended to then don't waste disk io
-          if (!this.doneAppending) {
+          if (!this.doneAppending && this.writeBehind == null) {
             myRAF.seek(writePosition);
             this.stats.incOplogSeeks();
           }
@@ -847,6 +922,28 @@ class OverflowOplog implements CompactableOplog, Flushable {
     } // sync
   }
 
+  /**
+   * Returns the value if it is still in the write buffer. Otherwise waits until it is written, so
+   * that it can be read from the crf, and returns null.
+   */
+  private BytesAndBits attemptWriteBehindGet(long offsetInOplog, int valueLength, byte userBits)
+      throws IOException {
+    final OplogFile olf = this.crf;
+    if (!this.doneAppending) {
+      BytesAndBits bb =
+          attemptWriteBufferGet(olf.bytesFlushed, offsetInOplog, valueLength, userBits);
+      if (bb != null) {
+        return bb;
+      }
+      if (offsetInOplog + valueLength > olf.bytesFlushed) {
+        flush();
+      }
+    }
+    this.writeBehind.awaitWritten(this, offsetInOplog + valueLength);
+    checkWriteBehindFailure();
+    return null;
+  }
+
   private BytesAndBits attemptWriteBufferGet(long writePosition, long readPosition, int valueLength,
       byte userBits) {
     BytesAndBits bb = null;
@@ -1434,8 +1531,16 @@ class OverflowOplog implements CompactableOplog, Flushable {
                */ (offsetInOplog + valueLength) > this.crf.bytesFlushed && !this.closed) {
             flushAll(); // fix for bug 41205
           }
-          final long writePosition =
-              (this.doneAppending) ? this.crf.bytesFlushed : this.crf.raf.getFilePointer();
+          final long writePosition;
+          if (this.writeBehind != null) {
+            // the value may still be queued, and the crf is not written at its file pointer
+            this.writeBehind.awaitWritten(this, offsetInOplog + valueLength);
+            checkWriteBehindFailure();
+            writePosition = this.crf.bytesFlushed;
+          } else {
+            writePosition =
+                (this.doneAppending) ? this.crf.bytesFlushed : this.crf.raf.getFilePointer();
+          }
           if ((offsetInOplog + valueLength) > writePosition) {
             throw new DiskAccessException(
                 LocalizedStrings.Oplog_TRIED_TO_SEEK_TO_0_BUT_THE_FILE_LENGTH_IS_1_OPLOG_FILE_OBJECT_USED_FOR_READING_2
@@ -1462,7 +1567,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
             wrapper.setData(valueBytes, userBits, valueLength, true);
           } finally {
             // if this oplog is no longer being appended to then don't waste disk io
-            if (!this.doneAppending) {
+            if (!this.doneAppending && this.writeBehind == null) {
               this.crf.raf.seek(writePosition);
               this.stats.incOplogSeeks();
             }
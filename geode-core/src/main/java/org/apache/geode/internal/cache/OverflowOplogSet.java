@@ -46,6 +46,9 @@ public class OverflowOplogSet implements OplogSet {
 
   private DiskStoreImpl parent;
 
+  /** Created with the first overflow oplog if write behind is enabled */
+  private OverflowWriteBehind writeBehind;
+
   public OverflowOplogSet(DiskStoreImpl parent) {
     this.parent = parent;
   }
@@ -72,6 +75,10 @@ public class OverflowOplogSet implements OplogSet {
     }
   }
 
+  OverflowWriteBehind getWriteBehind() {
+    return this.writeBehind;
+  }
+
   private long getMaxOplogSizeInBytes() {
     return parent.getMaxOplogSizeInBytes();
   }
@@ -149,6 +156,10 @@ public class OverflowOplogSet implements OplogSet {
             parent);
       }
     }
+    if (this.writeBehind == null && DiskStoreImpl.OVERFLOW_WRITE_BEHIND_BYTES > 0) {
+      this.writeBehind = new OverflowWriteBehind(parent, DiskStoreImpl.OVERFLOW_WRITE_BEHIND_BYTES,
+          OverflowOplog.getWriteBufSize());
+    }
     int id = this.overflowOplogId.incrementAndGet();
     lastOverflowDir = idx;
     return new OverflowOplog(id, this, getDirectories()[idx], minSize);
@@ -182,6 +193,12 @@ public class OverflowOplogSet implements OplogSet {
         oo.destroy();
       }
     }
+    synchronized (this.overflowMap) {
+      if (this.writeBehind != null) {
+        this.writeBehind.close();
+        this.writeBehind = null;
+      }
+    }
   }
 
   private void removeOverflow(DiskRegion dr, DiskEntry entry) {
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Writes the buffers of the overflow oplogs of a disk store on a background thread, so that an
+ * evicting thread whose oplog write buffer fills only copies it into a free direct buffer instead
+ * of writing it to disk. The buffers are allocated once and shared by every overflow oplog of the
+ * disk store. An evicting thread only waits when every buffer is queued for the writer.
+ *
+ * @see DiskStoreImpl#OVERFLOW_WRITE_BEHIND_BYTES
+ */
+class OverflowWriteBehind {
+  private static final Logger logger = LogService.getLogger();
+
+  private final DiskStoreImpl parent;
+
+  private final DiskStoreStats stats;
+
+  /** The buffers not queued for the writer. Also the lock for {@link #pending}. */
+  private final ArrayDeque<ByteBuffer> freeBuffers;
+
+  /** The writes queued for the writer, in the order it does them */
+  private final ArrayDeque<PendingWrite> pending = new ArrayDeque<PendingWrite>();
+
+  private final ThreadPoolExecutor writer;
+
+  OverflowWriteBehind(DiskStoreImpl parent, long bytes, int bufferSize) {
+    this.parent = parent;
+    this.stats = parent.getStats();
+    int buffers = (int) Math.max(2, Math.min(Integer.MAX_VALUE, bytes / bufferSize));
+    this.freeBuffers = new ArrayDeque<ByteBuffer>(buffers);
+    for (int i = 0; i < buffers; i++) {
+      this.freeBuffers.add(ByteBuffer.allocateDirect(bufferSize));
+    }
+    final ThreadGroup writerThreadGroup =
+        LoggingThreadGroup.createThreadGroup("Overflow Write Behind Thread Group", logger);
+    final ThreadFactory writerThreadFactory =
+        GemfireCacheHelper.CreateThreadFactory(writerThreadGroup, "Overflow Write Behind Task");
+    // a single thread so that the writes of an oplog are done in the order they were queued
+    this.writer = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), writerThreadFactory);
+    this.writer.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Queues the remaining bytes of the given buffer to be written at the given position of the given
+   * oplog. The bytes are copied, so the buffer can be reused once this returns.
+   */
+  void write(OverflowOplog oplog, ByteBuffer bb, long position) throws InterruptedIOException {
+    while (bb.hasRemaining()) {
+      ByteBuffer buffer = takeBuffer();
+      int limit = bb.limit();
+      int length = Math.min(bb.remaining(), buffer.remaining());
+      bb.limit(bb.position() + length);
+      buffer.put(bb);
+      bb.limit(limit);
+      buffer.flip();
+      PendingWrite write = new PendingWrite(oplog, buffer, position);
+      position += length;
+      synchronized (this.freeBuffers) {
+        this.pending.add(write);
+      }
+      this.stats.incOverflowWriteBehindBytes(length);
+      try {
+        this.writer.execute(write);
+      } catch (RejectedExecutionException ignore) {
+        // the disk store is closing
+        write.run();
+      }
+    }
+  }
+
+  private ByteBuffer takeBuffer() throws InterruptedIOException {
+    synchronized (this.freeBuffers) {
+      ByteBuffer buffer = this.freeBuffers.poll();
+      if (buffer != null) {
+        return buffer;
+      }
+      long start = System.nanoTime();
+      try {
+        while ((buffer = this.freeBuffers.poll()) == null) {
+          this.parent.getCancelCriterion().checkCancelInProgress(null);
+          this.freeBuffers.wait(1000);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      } finally {
+        this.stats.incOverflowWriteBehindStalls(System.nanoTime() - start);
+      }
+      return buffer;
+    }
+  }
+
+  /**
+   * Waits until the queued writes of the given oplog that start before the given position are done.
+   */
+  void awaitWritten(OverflowOplog oplog, long position) throws InterruptedIOException {
+    synchronized (this.freeBuffers) {
+      try {
+        while (isPending(oplog, position)) {
+          this.freeBuffers.wait(1000);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+    }
+  }
+
+  private boolean isPending(OverflowOplog oplog, long position) {
+    for (PendingWrite write : this.pending) {
+      if (write.oplog == oplog && write.position < position) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Runs the given task on the writer thread once the writes queued before it are done. Only for
+   * tests that need writes to stay queued.
+   */
+  void testHookExecute(Runnable task) {
+    this.writer.execute(task);
+  }
+
+  /**
+   * Waits for the queued writes to be done and stops the writer thread.
+   */
+  void close() {
+    this.writer.shutdown();
+    try {
+      this.writer.awaitTermination(60, TimeUnit.SECONDS);
+    } catch (InterruptedException ignore) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private class PendingWrite implements Runnable {
+    private final OverflowOplog oplog;
+    private final ByteBuffer buffer;
+    private final long position;
+    private final int length;
+
+    PendingWrite(OverflowOplog oplog, ByteBuffer buffer, long position) {
+      this.oplog = oplog;
+      this.buffer = buffer;
+      this.position = position;
+      this.length = buffer.remaining();
+    }
+
+    @Override
+    public void run() {
+      try {
+        this.oplog.writeBehind(this.buffer, this.position);
+      } catch (IOException e) {
+        // if the oplog was closed meanwhile no one will see the failure
+        this.oplog.setWriteBehindFailure(e);
+      } finally {
+        this.buffer.clear();
+        synchronized (freeBuffers) {
+          pending.remove(this);
+          freeBuffers.add(this.buffer);
+          freeBuffers.notifyAll();
+        }
+        stats.incOverflowWriteBehindBytes(-this.length);
+      }
+    }
+  }
+}
@@ -707,6 +707,9 @@ public class PartitionedRegion extends LocalRegion
 
   private boolean isShadowPR = false;
 
+  /** Whether the buckets of this region keep their keys unboxed */
+  private final boolean primitiveKeyRegionMap;
+
   private AbstractGatewaySender parallelGatewaySender = null;
 
   private final PartitionedRegionRedundancyTracker redundancyTracker;
@@ -722,6 +725,7 @@ public class PartitionedRegion extends LocalRegion
     super(regionName, regionAttributes, parentRegion, cache, internalRegionArgs);
 
     this.node = initializeNode();
+    this.primitiveKeyRegionMap = internalRegionArgs.isPrimitiveKeyRegionMap();
     this.prStats = new PartitionedRegionStats(cache.getDistributedSystem(), getFullPath());
     this.regionIdentifier = getFullPath().replace('/', '#');
 
@@ -873,6 +877,10 @@ public class PartitionedRegion extends LocalRegion
     return isShadowPR;
   }
 
+  boolean isPrimitiveKeyRegionMap() {
+    return this.primitiveKeyRegionMap;
+  }
+
   public AbstractGatewaySender getParallelGatewaySender() {
     return parallelGatewaySender;
   }
@@ -782,6 +782,7 @@ public class PartitionedRegionDataStore implements HasCachePerfStats {
               .setDiskRegion(proxyBucket.getDiskRegion()).setCachePerfStatsHolder(this)
               .setLoaderHelperFactory(this.partitionedRegion)
               .setPartitionedRegion(this.partitionedRegion)
+              .setPrimitiveKeyRegionMap(this.partitionedRegion.isPrimitiveKeyRegionMap())
               .setIndexes(getIndexes(rootRegion.getFullPath(), bucketRegionName)));
       this.partitionedRegion.getPrStats().incBucketCount(1);
     } catch (RegionExistsException ex) {
@@ -16,7 +16,10 @@ package org.apache.geode.internal.cache;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -26,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -81,6 +85,12 @@ public class PersistentOplogSet implements OplogSet {
 
   final AtomicBoolean alreadyRecoveredOnce = new AtomicBoolean(false);
 
+  /**
+   * Reads krf files ahead of the oplogs being recovered, null when not recovering. Only used by the
+   * recovering thread.
+   */
+  private KrfReadAhead krfReadAhead;
+
   /**
    * The maximum oplog id we saw while recovering
    */
@@ -364,6 +374,7 @@ public class PersistentOplogSet implements OplogSet {
       }
 
       final long start = parent.getStats().startRecovery();
+      final long entryCreatesAtStart = parent.getStats().getRecoveredEntryCreates();
       long byteCount = 0;
       EntryLogger.setSource(parent.getDiskStoreID(), "recovery");
       try {
@@ -420,7 +431,8 @@ public class PersistentOplogSet implements OplogSet {
                 + prBuckets.get(me.getKey()));
           }
         }
-        parent.getStats().endRecovery(start, byteCount);
+        parent.getStats().endRecovery(start, byteCount,
+            parent.getStats().getRecoveredEntryCreates() - entryCreatesAtStart);
         this.alreadyRecoveredOnce.set(true);
         this.currentRecoveryMap.clear();
         EntryLogger.clearSource();
@@ -455,24 +467,29 @@ public class PersistentOplogSet implements OplogSet {
       parent.incDeadRecordCount(deletedIds.size());
       // now figure out live entries
       latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        long startOpLogRead = parent.getStats().startOplogRead();
-        long bytesRead = oplog.recoverCrf(deletedIds,
-            // @todo make recoverValues per region
-            recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
-            oplogsNeedingValueRecovery, latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
-        }
-        byteCount += bytesRead;
-        parent.getStats().endOplogRead(startOpLogRead, bytesRead);
+      startKrfReadAhead(oplogSet);
+      try {
+        for (Oplog oplog : oplogSet) {
+          long startOpLogRead = parent.getStats().startOplogRead();
+          long bytesRead = oplog.recoverCrf(deletedIds,
+              // @todo make recoverValues per region
+              recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
+              oplogsNeedingValueRecovery, latestOplog);
+          latestOplog = false;
+          if (!this.alreadyRecoveredOnce.get()) {
+            updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+          }
+          byteCount += bytesRead;
+          parent.getStats().endOplogRead(startOpLogRead, bytesRead);
 
-        // Callback to the disk regions to indicate the oplog is recovered
-        // Used for offline export
-        for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
-          drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          // Callback to the disk regions to indicate the oplog is recovered
+          // Used for offline export
+          for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
+            drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          }
         }
+      } finally {
+        stopKrfReadAhead();
       }
       long endOpLogRecovery = System.currentTimeMillis();
       long elapsed = endOpLogRecovery - startOpLogRecovery;
@@ -524,6 +541,39 @@ public class PersistentOplogSet implements OplogSet {
     return byteCount;
   }
 
+  /**
+   * Starts reading the krf files of the given oplogs, newest first, ahead of recovering them.
+   */
+  private void startKrfReadAhead(Collection<Oplog> oplogs) {
+    ExecutorService pool = parent.getRecoveryPool();
+    if (pool == null || oplogs.size() < 2) {
+      return;
+    }
+    KrfReadAhead readAhead = new KrfReadAhead(pool, DiskStoreImpl.RECOVERY_READ_AHEAD_BYTES);
+    for (Oplog oplog : oplogs) {
+      File krf = oplog.getKrfFileToRecover(recoverValuesSync());
+      if (krf != null) {
+        readAhead.add(oplog, krf);
+      }
+    }
+    readAhead.start();
+    this.krfReadAhead = readAhead;
+  }
+
+  private void stopKrfReadAhead() {
+    if (this.krfReadAhead != null) {
+      this.krfReadAhead.close();
+      this.krfReadAhead = null;
+    }
+  }
+
+  /**
+   * Returns the krf of the given oplog if it was read ahead of recovering it, or null.
+   */
+  ByteBuffer takeReadAheadKrf(Oplog oplog) {
+    return this.krfReadAhead == null ? null : this.krfReadAhead.take(oplog);
+  }
+
   protected boolean recoverValuesSync() {
     return parent.RECOVER_VALUES_SYNC;
   }
@@ -1035,27 +1085,37 @@ public class PersistentOplogSet implements OplogSet {
   }
 
   /**
-   * Add compactable oplogs to the list, up to the maximum size.
+   * Adds up to max of the oplogs that need compaction to the given list, the ones with the most
+   * garbage first. Also updates the compaction debt statistic.
    */
   public void getCompactableOplogs(List<CompactableOplog> l, int max) {
+    final Map<Oplog, Long> garbage = new HashMap<Oplog, Long>();
+    List<Oplog> candidates = new ArrayList<Oplog>();
+    long debt = 0;
     synchronized (this.oplogIdToOplog) {
-      // Sort this list so we compact the oldest first instead of the one
-      // that was
-      // compactable first.
-      // ArrayList<CompactableOplog> l = new
-      // ArrayList<CompactableOplog>(this.oplogIdToOplog.values());
-      // Collections.sort(l);
-      // Iterator<Oplog> itr = l.iterator();
-      {
-        Iterator<Oplog> itr = this.oplogIdToOplog.values().iterator();
-        while (itr.hasNext() && l.size() < max) {
-          Oplog oplog = itr.next();
-          if (oplog.needsCompaction()) {
-            l.add(oplog);
-          }
+      for (Oplog oplog : this.oplogIdToOplog.values()) {
+        if (oplog.needsCompaction()) {
+          long garbageSize = oplog.getGarbageSize();
+          garbage.put(oplog, garbageSize);
+          candidates.add(oplog);
+          debt += garbageSize;
         }
       }
     }
+    parent.getStats().setCompactionDebt(debt);
+    // the sort is stable so the oldest is compacted first when the garbage is the same
+    Collections.sort(candidates, new Comparator<Oplog>() {
+      @Override
+      public int compare(Oplog o1, Oplog o2) {
+        return Long.compare(garbage.get(o2), garbage.get(o1));
+      }
+    });
+    for (Oplog oplog : candidates) {
+      if (l.size() >= max) {
+        break;
+      }
+      l.add(oplog);
+    }
   }
 
   public void scheduleForRecovery(DiskRecoveryStore drs) {
@@ -15,7 +15,8 @@
 
 package org.apache.geode.internal.cache;
 
-
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
 
 /**
  * Used to produce instances of RegionMap
@@ -25,6 +26,14 @@ package org.apache.geode.internal.cache;
  *
  */
 class RegionMapFactory {
+  /**
+   * If true, regions whose key constraint is {@link Integer}, {@link Long} or
+   * {@link java.util.UUID} keep their entries in a {@link PrimitiveKeyConcurrentHashMap} that
+   * stores the keys unboxed, unless their {@link InternalRegionArguments} say otherwise.
+   */
+  static final boolean PRIMITIVE_KEY_REGION_MAP =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PRIMITIVE_KEY_REGION_MAP");
+
   /**
    * Creates a RegionMap that is stored in the VM.
    *
@@ -38,7 +47,15 @@ class RegionMapFactory {
     if (owner.isProxy() /* || owner instanceof PartitionedRegion */) { // TODO enabling this causes
                                                                        // eviction tests to fail
       return new ProxyRegionMap(owner, attrs, internalRegionArgs);
-    } else if (owner.isEntryEvictionPossible()) {
+    }
+    if (internalRegionArgs.isPrimitiveKeyRegionMap()) {
+      // buckets are not given the key constraint of their partitioned region
+      Class<?> keyConstraint = internalRegionArgs.getPartitionedRegion() != null
+          ? internalRegionArgs.getPartitionedRegion().getKeyConstraint()
+          : owner.getKeyConstraint();
+      attrs.primitiveKeyType = PrimitiveKeyConcurrentHashMap.KeyType.forClass(keyConstraint);
+    }
+    if (owner.isEntryEvictionPossible()) {
       return new VMLRURegionMap(owner, attrs, internalRegionArgs);
     } else {
       return new VMRegionMap(owner, attrs, internalRegionArgs);
@@ -59,7 +59,7 @@ public class RegionStatus implements Serializable {
     setNumberOfEntries(region.size());
 
     EvictionAttributes ea = region.getAttributes().getEvictionAttributes();
-    if (ea != null && ea.getAlgorithm().isLRUMemory()) {
+    if (ea != null && ea.getAlgorithm().isMemoryEviction()) {
       setHeapSize(((InternalRegion) region).getEvictionCounter());
     } else {
       setHeapSize(-1);
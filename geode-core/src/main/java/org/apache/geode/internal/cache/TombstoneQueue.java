@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.internal.cache.versions.VersionHolder;
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.cache.versions.VersionTag;
+import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
+
+/**
+ * The tombstones scheduled for one region, or one bucket of a partitioned region, in the order
+ * they were scheduled. Instead of an object per tombstone the entry, destroying member and
+ * versions of each tombstone are kept in parallel arrays.
+ * <p>
+ * The oldest tombstones may be marked as expired. They stay in the queue until they are drained
+ * for garbage collection, but are no longer seen by the methods that only look at unexpired
+ * tombstones.
+ * <p>
+ * The {@link VersionHolder} passed to predicates and consumers is reused for every tombstone and
+ * must not be retained. Predicates are called while holding the lock of this queue, so they must
+ * not lock region entries. Tombstones are removed from the region map after they have been
+ * removed or drained from this queue.
+ */
+class TombstoneQueue {
+
+  /**
+   * bytes used by each tombstone slot: the entry and member references plus the region version,
+   * timestamp and entry version
+   */
+  static final int SLOT_SIZE = ReflectionSingleObjectSizer.REFERENCE_SIZE * 2 + 8 + 8 + 4;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final LocalRegion region;
+
+  private RegionEntry[] entries;
+  private VersionSource[] members;
+  private long[] regionVersions;
+  private long[] timestamps;
+  private int[] entryVersions;
+
+  /** index of the oldest tombstone */
+  private int head;
+
+  /** index of the oldest unexpired tombstone */
+  private int unexpiredHead;
+
+  /** index after the newest tombstone */
+  private int tail;
+
+  /** the estimated size of the keys of the tombstones in this queue */
+  private long keyBytes;
+
+  /** set once an empty queue has been discarded by its sweeper */
+  private boolean closed;
+
+  /** the purge round in which this queue was last purged of obsolete tombstones */
+  private int purgeRound;
+
+  TombstoneQueue(LocalRegion region) {
+    this(region, INITIAL_CAPACITY);
+  }
+
+  private TombstoneQueue(LocalRegion region, int capacity) {
+    this.region = region;
+    allocate(capacity);
+  }
+
+  LocalRegion getRegion() {
+    return region;
+  }
+
+  /**
+   * Adds a tombstone to the end of this queue.
+   *
+   * @return false if this queue has been closed and the tombstone needs to go into a new queue
+   */
+  boolean add(RegionEntry entry, VersionTag destroyedVersion) {
+    int keySize = ObjectSizer.DEFAULT.sizeof(entry.getKey());
+    synchronized (this) {
+      if (closed) {
+        return false;
+      }
+      append(entry, destroyedVersion.getMemberID(), destroyedVersion.getRegionVersion(),
+          destroyedVersion.getVersionTimeStamp(), destroyedVersion.getEntryVersion());
+      keyBytes += keySize;
+      return true;
+    }
+  }
+
+  /**
+   * Returns the number of tombstones in this queue, including expired ones.
+   */
+  synchronized int size() {
+    return tail - head;
+  }
+
+  synchronized int expiredSize() {
+    return unexpiredHead - head;
+  }
+
+  /**
+   * Returns the estimated number of bytes used by the tombstones in this queue.
+   */
+  synchronized long getMemoryFootprint() {
+    return (long) entries.length * SLOT_SIZE + keyBytes;
+  }
+
+  /**
+   * Returns the timestamp of the oldest unexpired tombstone, or {@code Long.MAX_VALUE} if there is
+   * none.
+   */
+  synchronized long getOldestUnexpiredTimestamp() {
+    return unexpiredHead < tail ? timestamps[unexpiredHead] : Long.MAX_VALUE;
+  }
+
+  /**
+   * Marks the oldest unexpired tombstones as expired, as long as their timestamp is no later than
+   * the given one.
+   *
+   * @param maximum the maximum number of tombstones to mark as expired
+   * @return the number of tombstones marked as expired
+   */
+  synchronized int expire(long expiredTimestamp, int maximum) {
+    int start = unexpiredHead;
+    int end = (int) Math.min((long) start + maximum, tail);
+    while (unexpiredHead < end && timestamps[unexpiredHead] <= expiredTimestamp) {
+      unexpiredHead++;
+    }
+    return unexpiredHead - start;
+  }
+
+  /**
+   * Removes the expired tombstones from this queue.
+   *
+   * @return a queue holding the removed tombstones, or null if none were expired
+   */
+  synchronized TombstoneQueue drainExpired() {
+    if (unexpiredHead == head) {
+      return null;
+    }
+    TombstoneQueue drained = new TombstoneQueue(region, unexpiredHead - head);
+    for (int i = head; i < unexpiredHead; i++) {
+      drained.moveFrom(this, i);
+    }
+    keyBytes -= drained.keyBytes;
+    head = unexpiredHead;
+    shrinkIfSparse();
+    return drained;
+  }
+
+  /**
+   * Removes the tombstones accepted by the predicate.
+   *
+   * @param includeExpired whether expired tombstones are also tested
+   * @return a queue holding the removed tombstones, or null if none were removed
+   */
+  synchronized TombstoneQueue removeIf(BiPredicate<RegionEntry, VersionHolder> predicate,
+      boolean includeExpired) {
+    TombstoneQueue removed = null;
+    Holder holder = new Holder();
+    int from = includeExpired ? head : unexpiredHead;
+    int to = from;
+    int removedExpired = 0;
+    for (int i = from; i < tail; i++) {
+      holder.index = i;
+      if (predicate.test(entries[i], holder)) {
+        if (removed == null) {
+          removed = new TombstoneQueue(region);
+        }
+        removed.moveFrom(this, i);
+        if (i < unexpiredHead) {
+          removedExpired++;
+        }
+      } else {
+        if (to != i) {
+          set(to, entries[i], members[i], regionVersions[i], timestamps[i], entryVersions[i]);
+        }
+        to++;
+      }
+    }
+    if (removed != null) {
+      Arrays.fill(entries, to, tail, null);
+      Arrays.fill(members, to, tail, null);
+      tail = to;
+      unexpiredHead -= removedExpired;
+      keyBytes -= removed.keyBytes;
+      shrinkIfSparse();
+    }
+    return removed;
+  }
+
+  /**
+   * Removes all the tombstones from this queue.
+   *
+   * @return the number of tombstones removed
+   */
+  synchronized int clear() {
+    int size = tail - head;
+    keyBytes = 0;
+    head = unexpiredHead = tail = 0;
+    allocate(INITIAL_CAPACITY);
+    return size;
+  }
+
+  /**
+   * Closes this queue if it is empty. Tombstones can not be added to a closed queue.
+   *
+   * @return true if this queue is closed
+   */
+  synchronized boolean closeIfEmpty() {
+    if (head == tail) {
+      closed = true;
+    }
+    return closed;
+  }
+
+  synchronized boolean isPurgedIn(int round) {
+    return purgeRound == round;
+  }
+
+  synchronized void setPurgedIn(int round) {
+    purgeRound = round;
+  }
+
+  /**
+   * Calls the consumer for each tombstone in this queue. This is meant for queues returned by
+   * {@link #drainExpired()} or {@link #removeIf}, which are not shared with other threads.
+   */
+  void forEach(BiConsumer<RegionEntry, VersionHolder> consumer) {
+    Holder holder = new Holder();
+    for (int i = head; i < tail; i++) {
+      holder.index = i;
+      consumer.accept(entries[i], holder);
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "TombstoneQueue[region=" + region.getFullPath() + "; size=" + (tail - head)
+        + "; expired=" + (unexpiredHead - head) + "]";
+  }
+
+  private void moveFrom(TombstoneQueue queue, int index) {
+    append(queue.entries[index], queue.members[index], queue.regionVersions[index],
+        queue.timestamps[index], queue.entryVersions[index]);
+    keyBytes += ObjectSizer.DEFAULT.sizeof(queue.entries[index].getKey());
+    queue.entries[index] = null;
+    queue.members[index] = null;
+  }
+
+  private void append(RegionEntry entry, VersionSource member, long regionVersion, long timestamp,
+      int entryVersion) {
+    if (tail == entries.length) {
+      makeRoom();
+    }
+    set(tail++, entry, member, regionVersion, timestamp, entryVersion);
+  }
+
+  private void set(int index, RegionEntry entry, VersionSource member, long regionVersion,
+      long timestamp, int entryVersion) {
+    entries[index] = entry;
+    members[index] = member;
+    regionVersions[index] = regionVersion;
+    timestamps[index] = timestamp;
+    entryVersions[index] = entryVersion;
+  }
+
+  /**
+   * Makes room at the end of the arrays by moving the tombstones to the start of the arrays, or by
+   * growing the arrays if they are more than half full.
+   */
+  private void makeRoom() {
+    int size = tail - head;
+    if (size > entries.length / 2) {
+      resize(entries.length * 2);
+    } else {
+      resize(entries.length);
+    }
+  }
+
+  private void shrinkIfSparse() {
+    int size = tail - head;
+    if (entries.length > INITIAL_CAPACITY && size < entries.length / 4) {
+      resize(Math.max(INITIAL_CAPACITY, size * 2));
+    }
+  }
+
+  private void resize(int capacity) {
+    RegionEntry[] oldEntries = entries;
+    VersionSource[] oldMembers = members;
+    long[] oldRegionVersions = regionVersions;
+    long[] oldTimestamps = timestamps;
+    int[] oldEntryVersions = entryVersions;
+    int size = tail - head;
+    if (capacity != oldEntries.length) {
+      allocate(capacity);
+    }
+    System.arraycopy(oldEntries, head, entries, 0, size);
+    System.arraycopy(oldMembers, head, members, 0, size);
+    System.arraycopy(oldRegionVersions, head, regionVersions, 0, size);
+    System.arraycopy(oldTimestamps, head, timestamps, 0, size);
+    System.arraycopy(oldEntryVersions, head, entryVersions, 0, size);
+    if (entries == oldEntries) {
+      Arrays.fill(entries, size, tail, null);
+      Arrays.fill(members, size, tail, null);
+    }
+    unexpiredHead -= head;
+    tail = size;
+    head = 0;
+  }
+
+  private void allocate(int capacity) {
+    entries = new RegionEntry[capacity];
+    members = new VersionSource[capacity];
+    regionVersions = new long[capacity];
+    timestamps = new long[capacity];
+    entryVersions = new int[capacity];
+  }
+
+  /**
+   * The versions of the tombstone at an index of this queue
+   */
+  private class Holder implements VersionHolder<VersionSource> {
+    int index;
+
+    @Override
+    public int getEntryVersion() {
+      return entryVersions[index];
+    }
+
+    @Override
+    public long getRegionVersion() {
+      return regionVersions[index];
+    }
+
+    @Override
+    public long getVersionTimeStamp() {
+      return timestamps[index];
+    }
+
+    @Override
+    public VersionSource getMemberID() {
+      return members[index];
+    }
+
+    @Override
+    public int getDistributedSystemId() {
+      // not needed to remove tombstones so it is not kept
+      return -1;
+    }
+
+    @Override
+    public short getRegionVersionHighBytes() {
+      return (short) (regionVersions[index] >>> 32);
+    }
+
+    @Override
+    public int getRegionVersionLowBytes() {
+      return (int) regionVersions[index];
+    }
+
+    @Override
+    public String toString() {
+      return "{v" + getEntryVersion() + "; rv" + getRegionVersion() + "; mbr=" + getMemberID()
+          + "; time=" + getVersionTimeStamp() + "}";
+    }
+  }
+}
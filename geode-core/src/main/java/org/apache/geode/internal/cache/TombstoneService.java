@@ -14,31 +14,26 @@
  */
 package org.apache.geode.internal.cache;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Predicate;
+import java.util.function.BiPredicate;
 
 import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.CancelException;
 import org.apache.geode.SystemFailure;
-import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.distributed.internal.CacheTime;
 import org.apache.geode.distributed.internal.DistributionConfig;
-import org.apache.geode.internal.cache.versions.CompactVersionHolder;
+import org.apache.geode.internal.cache.versions.VersionHolder;
 import org.apache.geode.internal.cache.versions.VersionSource;
 import org.apache.geode.internal.cache.versions.VersionTag;
 import org.apache.geode.internal.i18n.LocalizedStrings;
@@ -46,8 +41,6 @@ import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.logging.log4j.LocalizedMessage;
 import org.apache.geode.internal.logging.log4j.LogMarker;
-import org.apache.geode.internal.size.ReflectionSingleObjectSizer;
-import org.apache.geode.internal.util.concurrent.StoppableReentrantLock;
 
 /**
  * Tombstones are region entries that have been destroyed but are held for future concurrency
@@ -55,6 +48,10 @@ import org.apache.geode.internal.util.concurrent.StoppableReentrantLock;
  * possibility of concurrent modification conflicts.
  * <p>
  * The cache holds a tombstone service that is responsible for tracking and timing out tombstones.
+ * The tombstones of each region, and of each bucket of a partitioned region, are kept in their own
+ * {@link TombstoneQueue}, so garbage collecting the tombstones of a region or bucket only looks at
+ * that region's tombstones. The sweepers spend at most {@link #SWEEP_TIME_BUDGET} milliseconds in
+ * each pass over their regions and continue where they stopped on the next pass.
  */
 public class TombstoneService {
   private static final Logger logger = LogService.getLogger();
@@ -96,6 +93,14 @@ public class TombstoneService {
   public static long DEFUNCT_TOMBSTONE_SCAN_INTERVAL =
       Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "tombstone-scan-interval", 60000);
 
+  /**
+   * The maximum time, in milliseconds, a sweeper spends expiring, purging or garbage collecting
+   * tombstones in one pass over its regions. Work left over is continued in the next pass, which
+   * starts without sleeping. The default is 100 milliseconds.
+   */
+  public static long SWEEP_TIME_BUDGET =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "tombstone-sweep-time-budget", 100);
+
   /**
    * The threshold percentage of free max memory that will trigger tombstone GCs. The default
    * percentage is somewhat less than the LRU Heap evictor so that we evict tombstones before we
@@ -157,8 +162,7 @@ public class TombstoneService {
           new Exception("stack trace"));
       return;
     }
-    Tombstone ts = new Tombstone(entry, r, destroyedVersion);
-    this.getSweeper(r).scheduleTombstone(ts);
+    this.getSweeper(r).scheduleTombstone(r, entry, destroyedVersion);
   }
 
 
@@ -219,21 +223,13 @@ public class TombstoneService {
         logger.debug("gcTombstones invoked for region {} and version map {}", r, regionGCVersions);
       }
       final VersionSource myId = r.getVersionMember();
-      final TombstoneSweeper sweeper = getSweeper(r);
-      final List<Tombstone> removals = new ArrayList<Tombstone>();
-      sweeper.removeUnexpiredIf(t -> {
-        if (t.region == r) {
-          VersionSource destroyingMember = t.getMemberID();
-          if (destroyingMember == null) {
-            destroyingMember = myId;
-          }
-          Long maxReclaimedRV = regionGCVersions.get(destroyingMember);
-          if (maxReclaimedRV != null && t.getRegionVersion() <= maxReclaimedRV) {
-            removals.add(t);
-            return true;
-          }
+      final TombstoneQueue removals = getSweeper(r).removeUnexpiredIf(r, (entry, version) -> {
+        VersionSource destroyingMember = version.getMemberID();
+        if (destroyingMember == null) {
+          destroyingMember = myId;
         }
-        return false;
+        Long maxReclaimedRV = regionGCVersions.get(destroyingMember);
+        return maxReclaimedRV != null && version.getRegionVersion() <= maxReclaimedRV;
       });
 
       // Record the GC versions now, so that we can persist them
@@ -254,12 +250,14 @@ public class TombstoneService {
       }
 
       Set<Object> removedKeys = needsKeys ? new HashSet<Object>() : Collections.emptySet();
-      for (Tombstone t : removals) {
-        boolean tombstoneWasStillInRegionMap =
-            t.region.getRegionMap().removeTombstone(t.entry, t, false, true);
-        if (needsKeys && tombstoneWasStillInRegionMap) {
-          removedKeys.add(t.entry.getKey());
-        }
+      if (removals != null) {
+        removals.forEach((entry, version) -> {
+          boolean tombstoneWasStillInRegionMap =
+              r.getRegionMap().removeTombstone(entry, version, false, true);
+          if (needsKeys && tombstoneWasStillInRegionMap) {
+            removedKeys.add(entry.getKey());
+          }
+        });
       }
       return removedKeys;
     } // sync on deltaGIILock
@@ -283,23 +281,15 @@ public class TombstoneService {
     if (logger.isDebugEnabled()) {
       logger.debug("gcTombstoneKeys invoked for region {} and keys {}", r, tombstoneKeys);
     }
-    final TombstoneSweeper sweeper = this.getSweeper(r);
-    final List<Tombstone> removals = new ArrayList<Tombstone>(tombstoneKeys.size());
-    sweeper.removeUnexpiredIf(t -> {
-      if (t.region == r) {
-        if (tombstoneKeys.contains(t.entry.getKey())) {
-          removals.add(t);
-          return true;
-        }
-      }
-      return false;
-    });
+    final TombstoneQueue removals = this.getSweeper(r).removeUnexpiredIf(r,
+        (entry, version) -> tombstoneKeys.contains(entry.getKey()));
 
-    for (Tombstone t : removals) {
+    if (removals != null) {
       // TODO - RVV - to support persistent client regions
       // we need to actually record this as a destroy on disk, because
       // the GCC RVV doesn't make sense on the client.
-      t.region.getRegionMap().removeTombstone(t.entry, t, false, true);
+      removals.forEach(
+          (entry, version) -> r.getRegionMap().removeTombstone(entry, version, false, true));
     }
   }
 
@@ -322,40 +312,6 @@ public class TombstoneService {
     return this.replicatedTombstoneSweeper.getBlockGCLock();
   }
 
-  private static class Tombstone extends CompactVersionHolder {
-    // tombstone overhead size
-    public static int PER_TOMBSTONE_OVERHEAD = ReflectionSingleObjectSizer.REFERENCE_SIZE // queue's
-                                                                                          // reference
-                                                                                          // to the
-                                                                                          // tombstone
-        + ReflectionSingleObjectSizer.REFERENCE_SIZE * 3 // entry, region, member ID
-        + ReflectionSingleObjectSizer.REFERENCE_SIZE // region entry value (Token.TOMBSTONE)
-        + 18; // version numbers and timestamp
-
-
-    RegionEntry entry;
-    LocalRegion region;
-
-    Tombstone(RegionEntry entry, LocalRegion region, VersionTag destroyedVersion) {
-      super(destroyedVersion);
-      this.entry = entry;
-      this.region = region;
-    }
-
-    public int getSize() {
-      return Tombstone.PER_TOMBSTONE_OVERHEAD // includes per-entry overhead
-          + ObjectSizer.DEFAULT.sizeof(entry.getKey());
-    }
-
-    @Override
-    public String toString() {
-      String v = super.toString();
-      StringBuilder sb = new StringBuilder();
-      sb.append("(").append(entry.getKey()).append("; ").append(region.getName()).append("; ")
-          .append(v).append(")");
-      return sb.toString();
-    }
-  }
   private static class NonReplicateTombstoneSweeper extends TombstoneSweeper {
     NonReplicateTombstoneSweeper(CacheTime cacheTime, CachePerfStats stats,
         CancelCriterion cancelCriterion) {
@@ -363,36 +319,38 @@ public class TombstoneService {
           "Non-replicate Region Garbage Collector");
     }
 
-    @Override
-    protected boolean removeExpiredIf(Predicate<Tombstone> predicate) {
-      return false;
-    }
-
     @Override
     protected void updateStatistics() {
       stats.setNonReplicatedTombstonesSize(getMemoryEstimate());
     }
 
     @Override
-    protected boolean hasExpired(long msTillHeadTombstoneExpires) {
-      return msTillHeadTombstoneExpires <= 0;
-    }
-
-    @Override
-    protected void expireTombstone(Tombstone tombstone) {
-      if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
-        logger.trace(LogMarker.TOMBSTONE, "removing expired tombstone {}", tombstone);
+    protected void expireTombstones(TombstoneQueue queue, long expiredTimestamp) {
+      queue.expire(expiredTimestamp, Integer.MAX_VALUE);
+      TombstoneQueue expired = queue.drainExpired();
+      if (expired == null) {
+        return;
       }
-      updateMemoryEstimate(-tombstone.getSize());
-      tombstone.region.getRegionMap().removeTombstone(tombstone.entry, tombstone, false, true);
+      LocalRegion region = queue.getRegion();
+      expired.forEach((entry, version) -> {
+        if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
+          logger.trace(LogMarker.TOMBSTONE, "removing expired tombstone {} {} from {}",
+              entry.getKey(), version, region.getName());
+        }
+        try {
+          region.getRegionMap().removeTombstone(entry, version, false, true);
+        } catch (CancelException ignore) {
+          // nothing needed
+        } catch (Exception e) {
+          logger.warn(LocalizedMessage.create(LocalizedStrings.GemFireCacheImpl_TOMBSTONE_ERROR),
+              e);
+        }
+      });
     }
 
     @Override
     protected void checkExpiredTombstoneGC() {}
 
-    @Override
-    protected void handleNoUnexpiredTombstones() {}
-
     @Override
     boolean testHook_forceExpiredTombstoneGC(int count) throws InterruptedException {
       return true;
@@ -407,16 +365,11 @@ public class TombstoneService {
      * Used to execute batch gc message execution in the background.
      */
     private final ExecutorService executor;
-    /**
-     * tombstones that have expired and are awaiting batch removal.
-     */
-    private final List<Tombstone> expiredTombstones;
-    private final Object expiredTombstonesLock = new Object();
 
     /**
      * Force batch expiration
      */
-    private boolean forceBatchExpiration = false;
+    private volatile boolean forceBatchExpiration = false;
 
     /**
      * Is a batch expiration in progress? Part of expireBatch is done in a background thread and
@@ -442,7 +395,6 @@ public class TombstoneService {
         CancelCriterion cancelCriterion, ExecutorService executor) {
       super(cacheTime, stats, cancelCriterion, REPLICATE_TOMBSTONE_TIMEOUT,
           "Replicate/Partition Region Garbage Collector");
-      this.expiredTombstones = new ArrayList<Tombstone>();
       this.executor = executor;
     }
 
@@ -468,28 +420,11 @@ public class TombstoneService {
       return blockGCLock;
     }
 
-    @Override
-    protected boolean removeExpiredIf(Predicate<Tombstone> predicate) {
-      boolean result = false;
-      long removalSize = 0;
-      synchronized (expiredTombstonesLock) {
-        // Iterate in reverse order to optimize lots of removes.
-        // Since expiredTombstones is an ArrayList removing from
-        // low indexes requires moving everything at a higher index down.
-        for (int idx = expiredTombstones.size() - 1; idx >= 0; idx--) {
-          Tombstone t = expiredTombstones.get(idx);
-          if (predicate.test(t)) {
-            removalSize += t.getSize();
-            expiredTombstones.remove(idx);
-            result = true;
-          }
-        }
-      }
-      updateMemoryEstimate(-removalSize);
-      return result;
-    }
-
-    /** expire a batch of tombstones */
+    /**
+     * expire a batch of tombstones. The expired tombstones of each region or bucket are garbage
+     * collected and distributed separately. If the time budget runs out before all regions are
+     * done, the rest of the batch is expired in the sweeper's next pass.
+     */
     private void expireBatch() {
       // fix for bug #46087 - OOME due to too many GC threads
       if (this.batchExpirationInProgress) {
@@ -510,8 +445,8 @@ public class TombstoneService {
 
         this.batchExpirationInProgress = true;
         boolean batchScheduled = false;
+        boolean batchComplete = true;
         try {
-
           // TODO seems like no need for the value of this map to be a Set.
           // It could instead be a List, which would be nice because the per entry
           // memory overhead for a set is much higher than an ArrayList
@@ -519,49 +454,19 @@ public class TombstoneService {
           // version of them expects it to be a Set.
           final Map<DistributedRegion, Set<Object>> reapedKeys = new HashMap<>();
 
-          // Update the GC RVV for all of the affected regions.
-          // We need to do this so that we can persist the GC RVV before
-          // we start removing entries from the map.
-          synchronized (expiredTombstonesLock) {
-            for (Tombstone t : expiredTombstones) {
-              DistributedRegion tr = (DistributedRegion) t.region;
-              tr.getVersionVector().recordGCVersion(t.getMemberID(), t.getRegionVersion());
-              if (!reapedKeys.containsKey(tr)) {
-                reapedKeys.put(tr, Collections.emptySet());
-              }
+          final long deadline = getDeadline();
+          for (TombstoneQueue queue : getQueues()) {
+            if (!reapedKeys.isEmpty() && System.nanoTime() - deadline > 0) {
+              batchComplete = false;
+              break;
             }
-          }
-
-          for (DistributedRegion r : reapedKeys.keySet()) {
-            // Remove any exceptions from the RVV that are older than the GC version
-            r.getVersionVector().pruneOldExceptions();
-
-            // Persist the GC RVV to disk. This needs to happen BEFORE we remove
-            // the entries from map, to prevent us from removing a tombstone
-            // from disk that has a version greater than the persisted
-            // GV RVV.
-            if (r.getDataPolicy().withPersistence()) {
-              r.getDiskRegion().writeRVVGC(r);
+            TombstoneQueue expired = queue.drainExpired();
+            if (expired != null) {
+              DistributedRegion r = (DistributedRegion) queue.getRegion();
+              reapedKeys.put(r, gcExpiredTombstones(r, expired));
             }
           }
-
-          // Remove the tombstones from the in memory region map.
-          removeExpiredIf(t -> {
-            // for PR buckets we have to keep track of the keys removed because clients have
-            // them all lumped in a single non-PR region
-            DistributedRegion tr = (DistributedRegion) t.region;
-            boolean tombstoneWasStillInRegionMap =
-                tr.getRegionMap().removeTombstone(t.entry, t, false, true);
-            if (tombstoneWasStillInRegionMap && hasToTrackKeysForClients(tr)) {
-              Set<Object> keys = reapedKeys.get(tr);
-              if (keys.isEmpty()) {
-                keys = new HashSet<Object>();
-                reapedKeys.put(tr, keys);
-              }
-              keys.add(t.entry.getKey());
-            }
-            return true;
-          });
+          forceBatchExpiration = !batchComplete;
 
           // do messaging in a pool so this thread is not stuck trying to
           // communicate with other members
@@ -576,12 +481,15 @@ public class TombstoneService {
                 }
               } finally {
                 batchExpirationInProgress = false;
+                if (forceBatchExpiration) {
+                  wakeUp();
+                }
               }
             }
           });
           batchScheduled = true;
         } finally {
-          if (testHook_forceBatchExpireCall != null) {
+          if (testHook_forceBatchExpireCall != null && batchComplete) {
             testHook_forceBatchExpireCall.countDown();
           }
           if (!batchScheduled) {
@@ -591,6 +499,43 @@ public class TombstoneService {
       } // sync on deltaGIILock
     }
 
+    /**
+     * Garbage collects the expired tombstones of one region.
+     *
+     * @return the keys removed if clients need them, otherwise an empty set
+     */
+    private Set<Object> gcExpiredTombstones(DistributedRegion r, TombstoneQueue expired) {
+      // Update the GC RVV for the region. We need to do this so that we can
+      // persist the GC RVV before we start removing entries from the map.
+      expired.forEach((entry, version) -> r.getVersionVector()
+          .recordGCVersion(version.getMemberID(), version.getRegionVersion()));
+
+      // Remove any exceptions from the RVV that are older than the GC version
+      r.getVersionVector().pruneOldExceptions();
+
+      // Persist the GC RVV to disk. This needs to happen BEFORE we remove
+      // the entries from map, to prevent us from removing a tombstone
+      // from disk that has a version greater than the persisted
+      // GV RVV.
+      if (r.getDataPolicy().withPersistence()) {
+        r.getDiskRegion().writeRVVGC(r);
+      }
+
+      // Remove the tombstones from the in memory region map.
+      // for PR buckets we have to keep track of the keys removed because clients have
+      // them all lumped in a single non-PR region
+      final boolean trackKeys = hasToTrackKeysForClients(r);
+      final Set<Object> keys = trackKeys ? new HashSet<Object>() : Collections.emptySet();
+      expired.forEach((entry, version) -> {
+        boolean tombstoneWasStillInRegionMap =
+            r.getRegionMap().removeTombstone(entry, version, false, true);
+        if (tombstoneWasStillInRegionMap && trackKeys) {
+          keys.add(entry.getKey());
+        }
+      });
+      return keys;
+    }
+
     /**
      * Returns true if keys needs to be tracked for clients registering interests on PR.
      */
@@ -602,14 +547,15 @@ public class TombstoneService {
 
     @Override
     protected void checkExpiredTombstoneGC() {
-      if (shouldCallExpireBatch()) {
+      int expiredCount = getExpiredTombstoneCount();
+      if (shouldCallExpireBatch(expiredCount)) {
         this.forceBatchExpiration = false;
         expireBatch();
       }
-      checkIfBatchExpirationShouldBeForced();
+      checkIfBatchExpirationShouldBeForced(expiredCount);
     }
 
-    private boolean shouldCallExpireBatch() {
+    private boolean shouldCallExpireBatch(int expiredCount) {
       if (testHook_forceExpirationCount > 0) {
         return false;
       }
@@ -619,14 +565,14 @@ public class TombstoneService {
       if (testHook_forceBatchExpireCall != null) {
         return true;
       }
-      if (expiredTombstones.size() >= EXPIRED_TOMBSTONE_LIMIT) {
+      if (expiredCount >= EXPIRED_TOMBSTONE_LIMIT) {
         return true;
       }
       return false;
     }
 
     private void testHookIfIdleExpireBatch() {
-      if (IDLE_EXPIRATION && sleepTime >= EXPIRY_TIME && !this.expiredTombstones.isEmpty()) {
+      if (IDLE_EXPIRATION && sleepTime >= EXPIRY_TIME && getExpiredTombstoneCount() > 0) {
         expireBatch();
       }
     }
@@ -636,7 +582,7 @@ public class TombstoneService {
       stats.setReplicatedTombstonesSize(getMemoryEstimate());
     }
 
-    private void checkIfBatchExpirationShouldBeForced() {
+    private void checkIfBatchExpirationShouldBeForced(int expiredCount) {
       if (testHook_forceExpirationCount > 0) {
         return;
       }
@@ -646,7 +592,7 @@ public class TombstoneService {
       if (this.batchExpirationInProgress) {
         return;
       }
-      if (this.expiredTombstones.size() <= (EXPIRED_TOMBSTONE_LIMIT / 4)) {
+      if (expiredCount <= (EXPIRED_TOMBSTONE_LIMIT / 4)) {
         return;
       }
       if (FORCE_GC_MEMORY_EVENTS || isFreeMemoryLow()) {
@@ -669,33 +615,58 @@ public class TombstoneService {
     }
 
     @Override
-    protected boolean hasExpired(long msTillHeadTombstoneExpires) {
+    protected void expireTombstones(long now) {
       if (testHook_forceExpirationCount > 0) {
-        testHook_forceExpirationCount--;
-        return true;
+        forceExpiration();
+        return;
       }
-      return msTillHeadTombstoneExpires <= 0;
+      super.expireTombstones(now);
     }
 
-    @Override
-    protected void expireTombstone(Tombstone tombstone) {
-      if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
-        logger.trace(LogMarker.TOMBSTONE, "adding expired tombstone {} to batch", tombstone);
-      }
-      synchronized (expiredTombstonesLock) {
-        expiredTombstones.add(tombstone);
+    /**
+     * Expires the oldest tombstones of all regions, one at a time, until
+     * testHook_forceExpirationCount tombstones have been expired.
+     */
+    private void forceExpiration() {
+      while (testHook_forceExpirationCount > 0) {
+        TombstoneQueue oldest = null;
+        long oldestTimestamp = Long.MAX_VALUE;
+        for (TombstoneQueue queue : getQueues()) {
+          long timestamp = queue.getOldestUnexpiredTimestamp();
+          if (timestamp < oldestTimestamp) {
+            oldest = queue;
+            oldestTimestamp = timestamp;
+          }
+        }
+        if (oldest == null) {
+          testHook_forceExpirationCount = 0;
+          break;
+        }
+        testHook_forceExpirationCount -= oldest.expire(Long.MAX_VALUE, 1);
       }
+      sleepTime = 0;
     }
 
     @Override
-    protected void handleNoUnexpiredTombstones() {
-      testHook_forceExpirationCount = 0;
+    protected void expireTombstones(TombstoneQueue queue, long expiredTimestamp) {
+      int expired = queue.expire(expiredTimestamp, Integer.MAX_VALUE);
+      if (expired > 0 && logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
+        logger.trace(LogMarker.TOMBSTONE, "added {} expired tombstones of {} to batch", expired,
+            queue.getRegion().getName());
+      }
+    }
+
+    private int getExpiredTombstoneCount() {
+      int count = 0;
+      for (TombstoneQueue queue : getQueues()) {
+        count += queue.expiredSize();
+      }
+      return count;
     }
 
     @Override
     public String toString() {
-      return super.toString() + " batchedExpiredTombstones[" + expiredTombstones.size() + "] = "
-          + expiredTombstones.toString();
+      return super.toString() + " batchedExpiredTombstones[" + getExpiredTombstoneCount() + "]";
     }
 
     @Override
@@ -721,11 +692,6 @@ public class TombstoneService {
     protected void beforeSleepChecks() {
       testHookIfIdleExpireBatch();
     }
-
-    @Override
-    public long getScheduledTombstoneCount() {
-      return super.getScheduledTombstoneCount() + this.expiredTombstones.size();
-    }
   }
 
   private abstract static class TombstoneSweeper implements Runnable {
@@ -742,33 +708,27 @@ public class TombstoneService {
      */
     protected long sleepTime;
     /**
-     * Estimate of how long, in millis, it will take to do a purge of obsolete tombstones.
+     * Timestamp of when the last purge was started.
      */
-    private long minimumPurgeTime = 1;
+    private long lastPurgeTimestamp;
     /**
-     * Timestamp of when the last purge was done.
+     * The current purge round. A round is complete once every queue has been purged in it.
      */
-    private long lastPurgeTimestamp;
+    private int purgeRound;
     /**
-     * the current tombstones. These are queued for expiration. When tombstones are resurrected they
-     * are left in this queue and the sweeper thread figures out that they are no longer valid
-     * tombstones.
+     * Whether the current purge round ran out of time before purging every queue.
      */
-    private final Queue<Tombstone> tombstones;
+    private boolean purgeInProgress;
     /**
-     * Estimate of the amount of memory used by this sweeper
+     * the current tombstones of each region. These are queued for expiration. When tombstones are
+     * resurrected they are left in their queue and the sweeper thread figures out that they are no
+     * longer valid tombstones. Empty queues are discarded by the sweeper thread.
      */
-    private final AtomicLong memoryUsedEstimate;
+    private final ConcurrentMap<LocalRegion, TombstoneQueue> queues = new ConcurrentHashMap<>();
     /**
      * the thread that handles tombstone expiration.
      */
     private final Thread sweeperThread;
-    /**
-     * A lock protecting the head of the tombstones queue. Operations that may remove the head need
-     * to hold this lock.
-     */
-    private final StoppableReentrantLock queueHeadLock;
-
 
     protected final CacheTime cacheTime;
     protected final CachePerfStats stats;
@@ -783,9 +743,6 @@ public class TombstoneService {
       this.cancelCriterion = cancelCriterion;
       this.EXPIRY_TIME = expiryTime;
       this.PURGE_INTERVAL = Math.min(DEFUNCT_TOMBSTONE_SCAN_INTERVAL, expiryTime);
-      this.tombstones = new ConcurrentLinkedQueue<Tombstone>();
-      this.memoryUsedEstimate = new AtomicLong();
-      this.queueHeadLock = new StoppableReentrantLock(cancelCriterion);
       this.sweeperThread = new Thread(
           LoggingThreadGroup.createThreadGroup("Destroyed Entries Processors", logger), this);
       this.sweeperThread.setDaemon(true);
@@ -794,48 +751,25 @@ public class TombstoneService {
     }
 
     public void unscheduleTombstones(final LocalRegion r) {
-      this.removeIf(t -> {
-        if (t.region == r) {
-          return true;
-        }
-        return false;
-      });
-    }
-
-    /**
-     * For each unexpired tombstone this sweeper knows about call the predicate. If the predicate
-     * returns true then remove the tombstone from any storage and update the memory estimate.
-     *
-     * @return true if predicate ever returned true
-     */
-    private boolean removeUnexpiredIf(Predicate<Tombstone> predicate) {
-      boolean result = false;
-      long removalSize = 0;
-      lockQueueHead();
-      try {
-        for (Iterator<Tombstone> it = getQueue().iterator(); it.hasNext();) {
-          Tombstone t = it.next();
-          if (predicate.test(t)) {
-            removalSize += t.getSize();
-            it.remove();
-            result = true;
-          }
-        }
-      } finally {
-        unlockQueueHead();
+      TombstoneQueue queue = queues.get(r);
+      if (queue != null) {
+        queue.clear();
       }
-      updateMemoryEstimate(-removalSize);
-      return result;
     }
 
     /**
-     * For all tombstone this sweeper knows about call the predicate. If the predicate returns true
-     * then remove the tombstone from any storage and update the memory estimate.
+     * For each unexpired tombstone of the region call the predicate. If the predicate returns true
+     * then remove the tombstone from its queue.
      *
-     * @return true if predicate ever returned true
+     * @return the removed tombstones, or null if none were removed
      */
-    private boolean removeIf(Predicate<Tombstone> predicate) {
-      return removeUnexpiredIf(predicate) || removeExpiredIf(predicate);
+    TombstoneQueue removeUnexpiredIf(LocalRegion r,
+        BiPredicate<RegionEntry, VersionHolder> predicate) {
+      TombstoneQueue queue = queues.get(r);
+      if (queue == null) {
+        return null;
+      }
+      return queue.removeIf(predicate, false);
     }
 
     synchronized void start() {
@@ -854,29 +788,40 @@ public class TombstoneService {
       }
     }
 
-    private void lockQueueHead() {
-      this.queueHeadLock.lock();
+    /**
+     * Wakes up the sweeper thread if it is sleeping.
+     */
+    synchronized void wakeUp() {
+      notifyAll();
     }
 
-    private void unlockQueueHead() {
-      this.queueHeadLock.unlock();
+    protected Iterable<TombstoneQueue> getQueues() {
+      return this.queues.values();
     }
 
     public long getMemoryEstimate() {
-      return this.memoryUsedEstimate.get();
-    }
-
-    public void updateMemoryEstimate(long delta) {
-      this.memoryUsedEstimate.addAndGet(delta);
+      long estimate = 0;
+      for (TombstoneQueue queue : getQueues()) {
+        estimate += queue.getMemoryFootprint();
+      }
+      return estimate;
     }
 
-    protected Queue<Tombstone> getQueue() {
-      return this.tombstones;
+    void scheduleTombstone(LocalRegion r, RegionEntry entry, VersionTag destroyedVersion) {
+      TombstoneQueue queue = this.queues.computeIfAbsent(r, TombstoneQueue::new);
+      while (!queue.add(entry, destroyedVersion)) {
+        // the queue was discarded because it was empty so add to a new one
+        this.queues.remove(r, queue);
+        queue = this.queues.computeIfAbsent(r, TombstoneQueue::new);
+      }
     }
 
-    void scheduleTombstone(Tombstone ts) {
-      this.tombstones.add(ts);
-      updateMemoryEstimate(ts.getSize());
+    /**
+     * Returns the time at which a pass that starts now is out of time, in {@link System#nanoTime()}
+     * units.
+     */
+    static long getDeadline() {
+      return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SWEEP_TIME_BUDGET);
     }
 
     public void run() {
@@ -889,10 +834,12 @@ public class TombstoneService {
         try {
           updateStatistics();
           SystemFailure.checkFailure();
+          final long start = System.nanoTime();
           final long now = getNow();
           checkExpiredTombstoneGC();
-          checkOldestUnexpired(now);
+          expireTombstones(now);
           purgeObsoleteTombstones(now);
+          stats.endTombstoneSweep(start);
           doSleep();
         } catch (CancelException ignore) {
           break;
@@ -933,108 +880,111 @@ public class TombstoneService {
       }
     }
 
+    /**
+     * Purges the tombstones that have been superseded from the queues. A purge round is started
+     * every PURGE_INTERVAL and purges the queues for at most the time budget of each pass until
+     * every queue has been purged.
+     */
     private void purgeObsoleteTombstones(final long now) {
-      if (minimumPurgeTime > sleepTime) {
-        // the purge might take minimumScanTime
-        // and we have something to do sooner
-        // than that so return
-        return;
-      }
-      if ((now - lastPurgeTimestamp) < PURGE_INTERVAL) {
-        // the time since the last purge
-        // is less than the configured interval
-        // so return
-        return;
-      }
-      lastPurgeTimestamp = now;
-      // see if any have been superseded
-      boolean removedObsoleteTombstone = removeIf(tombstone -> {
-        if (tombstone.region.getRegionMap().isTombstoneNotNeeded(tombstone.entry,
-            tombstone.getEntryVersion())) {
-          if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
-            logger.trace(LogMarker.TOMBSTONE, "removing obsolete tombstone: {}", tombstone);
-          }
-          return true;
+      if (!purgeInProgress) {
+        if ((now - lastPurgeTimestamp) < PURGE_INTERVAL) {
+          // the time since the last purge
+          // is less than the configured interval
+          // so return
+          return;
         }
-        return false;
-      });
-      if (removedObsoleteTombstone) {
-        sleepTime = 0;
-      } else {
-        long elapsed = getNow() - now;
-        sleepTime -= elapsed;
-        if (sleepTime <= 0) {
-          minimumPurgeTime = elapsed;
+        lastPurgeTimestamp = now;
+        purgeRound++;
+      }
+      purgeInProgress = false;
+      final long deadline = getDeadline();
+      boolean removedObsoleteTombstone = false;
+      for (TombstoneQueue queue : getQueues()) {
+        if (queue.isPurgedIn(purgeRound)) {
+          continue;
+        }
+        if (System.nanoTime() - deadline > 0) {
+          purgeInProgress = true;
+          break;
         }
+        queue.setPurgedIn(purgeRound);
+        final LocalRegion region = queue.getRegion();
+        TombstoneQueue obsolete = queue.removeIf((entry, version) -> {
+          if (region.getRegionMap().isTombstoneNotNeeded(entry, version.getEntryVersion())) {
+            if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
+              logger.trace(LogMarker.TOMBSTONE, "removing obsolete tombstone: {} {}",
+                  entry.getKey(), version);
+            }
+            return true;
+          }
+          return false;
+        }, true);
+        removedObsoleteTombstone |= obsolete != null;
+      }
+      if (removedObsoleteTombstone || purgeInProgress) {
+        sleepTime = 0;
       }
     }
 
     /**
-     * See if the oldest unexpired tombstone should be expired.
+     * Expires the tombstones that are older than the expiry time and discards empty queues. The
+     * sweeper then sleeps until the oldest unexpired tombstone expires, or not at all if it ran out
+     * of time.
      */
-    private void checkOldestUnexpired(long now) {
-      sleepTime = 0;
-      lockQueueHead();
-      Tombstone oldest = tombstones.peek();
-      try {
-        if (oldest == null) {
-          if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
-            logger.trace(LogMarker.TOMBSTONE, "queue is empty - will sleep");
-          }
-          handleNoUnexpiredTombstones();
-          sleepTime = EXPIRY_TIME;
-        } else {
-          if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
-            logger.trace(LogMarker.TOMBSTONE, "oldest unexpired tombstone is {}", oldest);
-          }
-          long msTillHeadTombstoneExpires = oldest.getVersionTimeStamp() + EXPIRY_TIME - now;
-          if (hasExpired(msTillHeadTombstoneExpires)) {
-            try {
-              tombstones.remove();
-              expireTombstone(oldest);
-            } catch (CancelException ignore) {
-              // nothing needed
-            } catch (Exception e) {
-              logger.warn(
-                  LocalizedMessage.create(LocalizedStrings.GemFireCacheImpl_TOMBSTONE_ERROR), e);
-            }
-          } else {
-            sleepTime = msTillHeadTombstoneExpires;
-          }
+    protected void expireTombstones(long now) {
+      sleepTime = EXPIRY_TIME;
+      final long expiredTimestamp = now - EXPIRY_TIME;
+      final long deadline = getDeadline();
+      long oldestTimestamp = Long.MAX_VALUE;
+      for (TombstoneQueue queue : getQueues()) {
+        if (System.nanoTime() - deadline > 0) {
+          sleepTime = 0;
+          return;
         }
-      } finally {
-        unlockQueueHead();
+        try {
+          expireTombstones(queue, expiredTimestamp);
+        } catch (CancelException ignore) {
+          // nothing needed
+        } catch (Exception e) {
+          logger.warn(LocalizedMessage.create(LocalizedStrings.GemFireCacheImpl_TOMBSTONE_ERROR),
+              e);
+        }
+        oldestTimestamp = Math.min(oldestTimestamp, queue.getOldestUnexpiredTimestamp());
+        if (queue.closeIfEmpty()) {
+          queues.remove(queue.getRegion(), queue);
+        }
+      }
+      if (oldestTimestamp == Long.MAX_VALUE) {
+        if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
+          logger.trace(LogMarker.TOMBSTONE, "no unexpired tombstones - will sleep");
+        }
+      } else {
+        sleepTime = Math.max(oldestTimestamp + EXPIRY_TIME - now, 1);
       }
     }
 
     public long getScheduledTombstoneCount() {
-      return getQueue().size();
+      long count = 0;
+      for (TombstoneQueue queue : getQueues()) {
+        count += queue.size();
+      }
+      return count;
     }
 
     @Override
     public String toString() {
-      return "[" + getQueue().size() + "] " + getQueue().toString();
+      return "[" + getScheduledTombstoneCount() + "] " + queues.values();
     }
 
     /**
-     * For each expired tombstone this sweeper knows about call the predicate. If the predicate
-     * returns true then remove the tombstone from any storage and update the memory estimate.
-     * <p>
-     * Some sweepers batch up the expired tombstones to gc them later.
-     *
-     * @return true if predicate ever returned true
+     * Expires the tombstones of the queue whose timestamp is no later than the given one. Some
+     * sweepers batch up the expired tombstones to gc them later.
      */
-    protected abstract boolean removeExpiredIf(Predicate<Tombstone> predicate);
+    protected abstract void expireTombstones(TombstoneQueue queue, long expiredTimestamp);
 
     /** see if the already expired tombstones should be processed */
     protected abstract void checkExpiredTombstoneGC();
 
-    protected abstract void handleNoUnexpiredTombstones();
-
-    protected abstract boolean hasExpired(long msTillTombstoneExpires);
-
-    protected abstract void expireTombstone(Tombstone tombstone);
-
     protected abstract void updateStatistics();
 
     /**
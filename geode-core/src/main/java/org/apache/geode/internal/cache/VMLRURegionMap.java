@@ -179,7 +179,7 @@ public class VMLRURegionMap extends AbstractRegionMap {
     }
     boolean result = false;
     int delta =
-        le.updateEntrySize(getEvictionController(), new CachedDeserializableValueWrapper(v));
+        le.updateEntrySize(getEvictionController(), new CachedDeserializableValueWrapper(cd, v));
     if (delta != 0) {
       result = true;
       boolean disabledLURCallbacks = disableLruUpdateCallback();
@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.ByteArrayDataInput;
+import org.apache.geode.internal.cache.Oplog.KRFEntry;
+import org.apache.geode.internal.cache.entries.DiskEntry;
+import org.apache.geode.internal.cache.eviction.EvictableEntry;
+import org.apache.geode.internal.cache.persistence.DiskRecoveryStore;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Reads the values of recovered entries into memory in the background, once their regions are
+ * online, so that the first reads after a restart do not fault them in one at a time. The entries
+ * whose values were in memory when the disk store was last closed are read first, most recently
+ * used first, and the rest are read from the newest oplog to the oldest in crf order. A region is
+ * no longer given values once it reaches its LRU limit.
+ *
+ * @see DiskStoreImpl#WARM_VALUES
+ */
+class ValueWarmer implements Runnable {
+  private static final Logger logger = LogService.getLogger();
+
+  static final String HOT_KEYS_FILE_EXT = ".hkf";
+
+  private static final int HOT_KEYS_FILE_VERSION = 1;
+
+  /** The number of values read between checks of the I/O budget */
+  private static final int BATCH_SIZE = 100;
+
+  private final DiskStoreImpl parent;
+
+  private final Map<Long, DiskRecoveryStore> stores;
+
+  /** The key ids of the entries to read first, by disk region id, hottest first */
+  private final Map<Long, long[]> hotKeyIds;
+
+  private final CompactionThrottle throttle;
+
+  private final ByteArrayDataInput in = new ByteArrayDataInput();
+
+  ValueWarmer(DiskStoreImpl parent, Map<Long, DiskRecoveryStore> stores,
+      Map<Long, long[]> hotKeyIds, long bytesPerSecond) {
+    this.parent = parent;
+    this.stores = new HashMap<Long, DiskRecoveryStore>(stores);
+    this.hotKeyIds = hotKeyIds;
+    this.throttle = new CompactionThrottle(bytesPerSecond, BATCH_SIZE);
+  }
+
+  @Override
+  public void run() {
+    DiskStoreStats stats = this.parent.getStats();
+    long toWarm = 0;
+    try {
+      Oplog[] oplogs = getOplogsNewestFirst();
+      Long2IntOpenHashMap hotRanks = getHotRanks();
+      List<HotEntry> hotEntries = new ArrayList<HotEntry>(hotRanks.size());
+      int[] coldCounts = new int[oplogs.length];
+      for (int i = 0; i < oplogs.length; i++) {
+        List<KRFEntry> entries = oplogs[i].getSortedLiveEntries(this.stores.keySet());
+        if (entries == null) {
+          continue;
+        }
+        toWarm += entries.size();
+        coldCounts[i] = entries.size();
+        for (KRFEntry entry : entries) {
+          DiskId did = entry.getDiskEntry().getDiskId();
+          int rank = did == null ? -1 : hotRanks.get(Math.abs(did.getKeyId()));
+          if (rank >= 0) {
+            hotEntries.add(new HotEntry(oplogs[i], entry, rank));
+            coldCounts[i]--;
+          }
+        }
+      }
+      stats.incValuesToWarm(toWarm);
+      Collections.sort(hotEntries);
+      for (HotEntry hotEntry : hotEntries) {
+        if (!warm(hotEntry.oplog, hotEntry.entry)) {
+          return;
+        }
+        toWarm--;
+        stats.incValuesToWarm(-1);
+      }
+      for (int i = 0; i < oplogs.length; i++) {
+        List<KRFEntry> entries = oplogs[i].getSortedLiveEntries(this.stores.keySet());
+        if (entries != null) {
+          for (KRFEntry entry : entries) {
+            // the hot entries are visited again but are in memory by now
+            if (!warm(oplogs[i], entry)) {
+              return;
+            }
+          }
+        }
+        long visited = Math.min(coldCounts[i], toWarm);
+        toWarm -= visited;
+        stats.incValuesToWarm(-visited);
+      }
+    } catch (CancelException ignore) {
+      // do nothing
+    } finally {
+      stats.incValuesToWarm(-toWarm);
+    }
+  }
+
+  /**
+   * Reads the value of the given entry if it is not in memory. Returns false if warming should
+   * stop.
+   */
+  private boolean warm(Oplog oplog, KRFEntry entry) {
+    if (this.parent.isClosing()) {
+      return false;
+    }
+    long drId = entry.getDiskRegionView().getId();
+    DiskRecoveryStore store = this.stores.get(drId);
+    if (store == null) {
+      return !this.stores.isEmpty();
+    }
+    if (store.getRegionMap() == null) {
+      // the region was closed
+      this.stores.remove(drId);
+      return !this.stores.isEmpty();
+    }
+    long bytes = oplog.warmValue(entry, store, this.in);
+    if (bytes < 0) {
+      this.stores.remove(drId);
+      return !this.stores.isEmpty();
+    }
+    if (bytes > 0) {
+      this.parent.getStats().incValuesWarmed(bytes);
+      if (this.throttle.entryCopied(bytes)) {
+        pause(this.throttle.endBatch(System.nanoTime()));
+      }
+    }
+    return true;
+  }
+
+  private void pause(long nanos) {
+    long end = System.nanoTime() + nanos;
+    long remaining = nanos;
+    // wake up regularly so that closing the disk store does not wait for the pause
+    while (remaining > 0 && !this.parent.isClosing()) {
+      LockSupport.parkNanos(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)));
+      remaining = end - System.nanoTime();
+    }
+  }
+
+  private Oplog[] getOplogsNewestFirst() {
+    Oplog[] oplogs = this.parent.getPersistentOplogs().getAllOplogs();
+    List<Oplog> result = new ArrayList<Oplog>(oplogs.length);
+    for (Oplog oplog : oplogs) {
+      if (oplog != null) {
+        result.add(oplog);
+      }
+    }
+    result.sort((o1, o2) -> Long.compare(o2.getOplogId(), o1.getOplogId()));
+    return result.toArray(new Oplog[result.size()]);
+  }
+
+  private Long2IntOpenHashMap getHotRanks() {
+    Long2IntOpenHashMap ranks = new Long2IntOpenHashMap();
+    ranks.defaultReturnValue(-1);
+    for (long drId : this.stores.keySet()) {
+      long[] keyIds = this.hotKeyIds.get(drId);
+      if (keyIds != null) {
+        for (int i = 0; i < keyIds.length; i++) {
+          ranks.put(keyIds[i], i);
+        }
+      }
+    }
+    return ranks;
+  }
+
+  /**
+   * Returns the key ids of the entries of the given region that have their value in memory, the
+   * ones the LRU marked as recently used first.
+   */
+  static long[] getHotKeyIds(LocalRegion region, int maxKeys) {
+    LongArrayList recent = new LongArrayList();
+    LongArrayList others = new LongArrayList();
+    for (RegionEntry re : region.getRegionMap().regionEntries()) {
+      if (recent.size() >= maxKeys) {
+        break;
+      }
+      if (!(re instanceof DiskEntry) || re.isValueNull() || re.isDestroyedOrRemoved()) {
+        continue;
+      }
+      DiskId did = ((DiskEntry) re).getDiskId();
+      long keyId = did == null ? 0 : Math.abs(did.getKeyId());
+      if (keyId == 0) {
+        continue;
+      }
+      if (re instanceof EvictableEntry && ((EvictableEntry) re).isRecentlyUsed()) {
+        recent.add(keyId);
+      } else if (others.size() < maxKeys) {
+        others.add(keyId);
+      }
+    }
+    recent.addAll(others);
+    return Arrays.copyOf(recent.elements(), Math.min(recent.size(), maxKeys));
+  }
+
+  /**
+   * Writes the given hot key ids, by disk region id, to the given file.
+   */
+  static void writeHotKeys(File file, Map<Long, long[]> hotKeyIds) throws IOException {
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(HOT_KEYS_FILE_VERSION);
+      out.writeInt(hotKeyIds.size());
+      for (Map.Entry<Long, long[]> entry : hotKeyIds.entrySet()) {
+        out.writeLong(entry.getKey());
+        long[] keyIds = entry.getValue();
+        out.writeInt(keyIds.length);
+        for (long keyId : keyIds) {
+          out.writeLong(keyId);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the hot key ids, by disk region id, read from the given file. Returns an empty map if
+   * the file does not exist or can not be read, since the values are then just read in oplog order.
+   * The counts in the file are checked against its length before anything is allocated for them.
+   */
+  static Map<Long, long[]> readHotKeys(File file) {
+    Map<Long, long[]> hotKeyIds = new HashMap<Long, long[]>();
+    if (!file.exists()) {
+      return hotKeyIds;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != HOT_KEYS_FILE_VERSION) {
+        return hotKeyIds;
+      }
+      // the bytes left after the version and region count
+      long remaining = file.length() - 8;
+      int regions = in.readInt();
+      if (regions < 0 || regions * 12L > remaining) {
+        return ignoreHotKeys(file, "region count " + regions);
+      }
+      for (int r = 0; r < regions; r++) {
+        long drId = in.readLong();
+        int keyCount = in.readInt();
+        remaining -= 12;
+        if (keyCount < 0 || keyCount * 8L > remaining) {
+          return ignoreHotKeys(file, "key count " + keyCount);
+        }
+        remaining -= keyCount * 8L;
+        long[] keyIds = new long[keyCount];
+        for (int i = 0; i < keyIds.length; i++) {
+          keyIds[i] = in.readLong();
+        }
+        hotKeyIds.put(drId, keyIds);
+      }
+    } catch (IOException e) {
+      logger.info("Ignoring hot keys file {}: {}", file, e.toString());
+      hotKeyIds.clear();
+    }
+    return hotKeyIds;
+  }
+
+  private static Map<Long, long[]> ignoreHotKeys(File file, String reason) {
+    logger.warn("Ignoring hot keys file {} because its {} does not match its length of {} bytes",
+        file, reason, file.length());
+    return new HashMap<Long, long[]>();
+  }
+
+  private static class HotEntry implements Comparable<HotEntry> {
+    private final Oplog oplog;
+    private final KRFEntry entry;
+    private final int rank;
+
+    HotEntry(Oplog oplog, KRFEntry entry, int rank) {
+      this.oplog = oplog;
+      this.entry = entry;
+      this.rank = rank;
+    }
+
+    @Override
+    public int compareTo(HotEntry other) {
+      return Integer.compare(this.rank, other.rank);
+    }
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.geode.cache.DiskStore;
 
 class BackupDefinition {
   private final Map<DiskStore, Set<Path>> oplogFilesByDiskStore = new HashMap<>();
+  private final Map<DiskStore, Set<Path>> baselineOplogFilesByDiskStore = new HashMap<>();
   private final Set<Path> configFiles = new HashSet<>();
   private final Set<Path> userFiles = new HashSet<>();
   private final Set<Path> deployedJars = new HashSet<>();
@@ -56,6 +57,14 @@ class BackupDefinition {
     return Collections.unmodifiableMap(oplogFilesByDiskStore);
   }
 
+  /**
+   * Returns the oplog files of the baseline backup that are unchanged since it was taken, by disk
+   * store. Unlike the other files these are left in place and linked or copied into the backup.
+   */
+  Map<DiskStore, Collection<Path>> getBaselineOplogFilesByDiskStore() {
+    return Collections.unmodifiableMap(baselineOplogFilesByDiskStore);
+  }
+
   Set<Path> getConfigFiles() {
     return Collections.unmodifiableSet(configFiles);
   }
@@ -80,4 +89,10 @@ class BackupDefinition {
     Set<Path> files = oplogFilesByDiskStore.computeIfAbsent(diskStore, k -> new HashSet<>());
     files.add(fileLocation);
   }
+
+  void addBaselineOplogFileToBackup(DiskStore diskStore, Path baselineFile) {
+    Set<Path> files =
+        baselineOplogFilesByDiskStore.computeIfAbsent(diskStore, k -> new HashSet<>());
+    files.add(baselineFile);
+  }
 }
@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache.backup;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -31,6 +32,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.InternalGemFireError;
 import org.apache.geode.cache.DiskStore;
 import org.apache.geode.cache.persistence.PersistentID;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.DirectoryHolder;
 import org.apache.geode.internal.cache.DiskStoreBackup;
@@ -52,6 +54,15 @@ public class BackupTask {
   private static final String DATA_STORES_DIRECTORY = "diskstores";
   private static final String USER_FILES = "user";
 
+  /**
+   * If true an incremental backup hard links the oplogs it shares with its baseline into its own
+   * directories, instead of having its restore script copy them from the baseline. Every backup is
+   * then complete on its own, so older backups can be deleted, while only the oplogs created since
+   * the baseline are copied.
+   */
+  static final boolean LINK_BASELINE_OPLOGS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "backup.linkBaselineOplogs");
+
   private final Map<DiskStoreImpl, DiskStoreBackup> backupByDiskStore = new HashMap<>();
   private final RestoreScript restoreScript = new RestoreScript();
   private final InternalCache cache;
@@ -451,9 +462,9 @@ public class BackupTask {
       } else {
         /*
          * These have been backed up before so lets just add their entries from the previous backup
-         * or restore script into the current one.
+         * or restore script into the current one, or link them into this backup.
          */
-        restoreScript.addBaselineFiles(oplogMap);
+        addBaselineOplog(diskStore, oplogMap);
       }
     }
 
@@ -461,6 +472,22 @@ public class BackupTask {
     return oplogList.toArray(new Oplog[oplogList.size()]);
   }
 
+  private void addBaselineOplog(DiskStoreImpl diskStore, Map<File, File> oplogMap) {
+    if (LINK_BASELINE_OPLOGS) {
+      BackupDefinition backupDefinition = fileCopier.getBackupDefinition();
+      for (Map.Entry<File, File> entry : oplogMap.entrySet()) {
+        if (entry.getKey().exists()) {
+          backupDefinition.addBaselineOplogFileToBackup(diskStore, entry.getKey().toPath());
+        } else {
+          restoreScript
+              .addBaselineFiles(Collections.singletonMap(entry.getKey(), entry.getValue()));
+        }
+      }
+    } else {
+      restoreScript.addBaselineFiles(oplogMap);
+    }
+  }
+
   private Map<File, File> addBaselineOplogToRestoreScript(BackupInspector baselineInspector,
       Oplog log) {
     Map<File, File> oplogMap = new HashMap<>();
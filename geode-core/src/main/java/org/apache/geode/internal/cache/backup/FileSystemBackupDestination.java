@@ -19,23 +19,56 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.Logger;
 
+import org.apache.geode.InternalGemFireError;
 import org.apache.geode.cache.DiskStore;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.cache.DiskStoreImpl;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 
 public class FileSystemBackupDestination implements BackupDestination {
+  private static final Logger logger = LogService.getLogger();
+
   static final String INCOMPLETE_BACKUP_FILE = "INCOMPLETE_BACKUP_FILE";
 
+  /**
+   * The maximum number of disk stores whose oplogs are moved or linked into the backup at the same
+   * time.
+   */
+  static final int DISK_STORE_THREADS = Math.max(1, Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "backup.diskStoreThreads",
+      Runtime.getRuntime().availableProcessors()));
+
   private final Path backupDir;
 
+  private final int diskStoreThreads;
+
   FileSystemBackupDestination(Path backupDir) {
+    this(backupDir, DISK_STORE_THREADS);
+  }
+
+  FileSystemBackupDestination(Path backupDir, int diskStoreThreads) {
     this.backupDir = backupDir;
+    this.diskStoreThreads = diskStoreThreads;
   }
 
   @Override
@@ -50,7 +83,8 @@ public class FileSystemBackupDestination implements BackupDestination {
     backupUserFiles(backupDefinition.getUserFiles());
     backupDeployedJars(backupDefinition.getDeployedJars());
     backupConfigFiles(backupDefinition.getConfigFiles());
-    backupOplogs(backupDefinition.getOplogFilesByDiskStore());
+    backupDiskStores(backupDefinition.getOplogFilesByDiskStore(),
+        backupDefinition.getBaselineOplogFilesByDiskStore());
     backupDiskInitFiles(backupDefinition.getDiskInitFiles());
     RestoreScript script = backupDefinition.getRestoreScript();
     if (script != null) {
@@ -97,12 +131,110 @@ public class FileSystemBackupDestination implements BackupDestination {
     moveFilesOrDirectories(configFiles, configDirectory);
   }
 
-  private void backupOplogs(Map<DiskStore, Collection<Path>> oplogFiles) throws IOException {
-    for (Map.Entry<DiskStore, Collection<Path>> entry : oplogFiles.entrySet()) {
-      for (Path path : entry.getValue()) {
-        int index = ((DiskStoreImpl) entry.getKey()).getInforFileDirIndex();
-        Path backupDir = createOplogBackupDir(entry.getKey(), index);
-        backupOplog(backupDir, path);
+  /**
+   * Moves the oplogs of each disk store, and links its baseline oplogs, into the backup. Up to
+   * {@link #diskStoreThreads} disk stores are backed up at the same time; moving an oplog copies it
+   * if the backup is on another file system than the disk store.
+   */
+  private void backupDiskStores(Map<DiskStore, Collection<Path>> oplogFiles,
+      Map<DiskStore, Collection<Path>> baselineOplogFiles) throws IOException {
+    Set<DiskStore> diskStores = new LinkedHashSet<>(oplogFiles.keySet());
+    diskStores.addAll(baselineOplogFiles.keySet());
+    int threads = Math.min(diskStoreThreads, diskStores.size());
+    if (threads <= 1) {
+      for (DiskStore diskStore : diskStores) {
+        backupDiskStore(diskStore, oplogFiles, baselineOplogFiles);
+      }
+      return;
+    }
+
+    ExecutorService executor = createDiskStoreExecutor(threads);
+    try {
+      List<Future<Void>> futures = new ArrayList<>(diskStores.size());
+      for (DiskStore diskStore : diskStores) {
+        futures.add(executor.submit(() -> {
+          backupDiskStore(diskStore, oplogFiles, baselineOplogFiles);
+          return null;
+        }));
+      }
+      // wait for every disk store so that none is still being moved when the backup completes
+      Throwable failure = null;
+      for (Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InternalGemFireError(e);
+        }
+      }
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      } else if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure instanceof Error) {
+        throw (Error) failure;
+      } else if (failure != null) {
+        throw new IOException(failure);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private ExecutorService createDiskStoreExecutor(int threads) {
+    LoggingThreadGroup group =
+        LoggingThreadGroup.createThreadGroup("BackupDiskStore Thread", logger);
+    ThreadFactory threadFactory = new ThreadFactory() {
+      private final AtomicInteger threadId = new AtomicInteger();
+
+      public Thread newThread(final Runnable command) {
+        Thread thread =
+            new Thread(group, command, "BackupDiskStoreThread" + this.threadId.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+    return Executors.newFixedThreadPool(threads, threadFactory);
+  }
+
+  private void backupDiskStore(DiskStore diskStore, Map<DiskStore, Collection<Path>> oplogFiles,
+      Map<DiskStore, Collection<Path>> baselineOplogFiles) throws IOException {
+    backupOplogs(diskStore, oplogFiles.getOrDefault(diskStore, Collections.emptySet()));
+    backupBaselineOplogs(diskStore,
+        baselineOplogFiles.getOrDefault(diskStore, Collections.emptySet()));
+  }
+
+  private void backupOplogs(DiskStore diskStore, Collection<Path> oplogFiles) throws IOException {
+    for (Path path : oplogFiles) {
+      int index = ((DiskStoreImpl) diskStore).getInforFileDirIndex();
+      Path backupDir = createOplogBackupDir(diskStore, index);
+      backupOplog(backupDir, path);
+    }
+  }
+
+  /**
+   * Hard links the given oplog files of the baseline backup into this backup, so that it does not
+   * depend on the baseline without copying them. They are copied if the baseline is on another
+   * file system.
+   */
+  private void backupBaselineOplogs(DiskStore diskStore, Collection<Path> baselineOplogFiles)
+      throws IOException {
+    if (baselineOplogFiles.isEmpty()) {
+      return;
+    }
+    int index = ((DiskStoreImpl) diskStore).getInforFileDirIndex();
+    Path backupDir = createOplogBackupDir(diskStore, index);
+    for (Path path : baselineOplogFiles) {
+      Path link = backupDir.resolve(path.getFileName());
+      try {
+        Files.createLink(link, path);
+      } catch (IOException e) {
+        logger.warn("Unable to create hard link for {}. Reverting to file copy", path);
+        Files.copy(path, link, StandardCopyOption.COPY_ATTRIBUTES);
       }
     }
   }
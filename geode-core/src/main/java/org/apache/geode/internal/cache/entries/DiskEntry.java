@@ -654,6 +654,13 @@ public interface DiskEntry extends RegionEntry {
         return userBits;
       }
 
+      /**
+       * Returns a direct ByteBuffer over the off-heap value, or null if one can not be created.
+       */
+      public ByteBuffer createDirectByteBuffer() {
+        return this.offHeapData.createDirectByteBuffer();
+      }
+
       @Override
       public void sendTo(ByteBuffer bb, Flushable flushable) throws IOException {
         final int maxOffset = getLength();
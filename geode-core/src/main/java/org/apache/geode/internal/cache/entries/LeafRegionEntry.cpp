@@ -25,9 +25,17 @@ package org.apache.geode.internal.cache.entries;
 #define KEY_TYPE UUID
 #elif defined(KEY_STRING1) || defined(KEY_STRING2)
 #define KEY_TYPE String
+#elif defined(KEY_SERIALIZED)
+#define KEY_TYPE Object
 #else
 #error the KEY_TYPE macro must be defined    
 #endif
+#if defined(KEY_SERIALIZED) && !defined(OFFHEAP)
+#error the KEY_SERIALIZED macro requires OFFHEAP
+#endif
+#if defined(COMPACT_VERSION) && !defined(VERSIONED)
+#error the COMPACT_VERSION macro requires VERSIONED
+#endif
 
 #ifdef KEY_UUID
 import java.util.UUID;
@@ -36,6 +44,9 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 #endif
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+#if defined(LRU) || defined(KEY_SERIALIZED)
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+#endif
 #if defined(VERSIONED)
 import org.apache.geode.cache.EntryEvent;
 import org.apache.geode.internal.cache.InternalRegion;
@@ -61,11 +72,17 @@ import org.apache.geode.internal.cache.eviction.EvictionNode;
 #ifdef VERSIONED
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.versions.VersionSource;
+#ifdef COMPACT_VERSION
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
+#endif
 import org.apache.geode.internal.cache.versions.VersionStamp;
 import org.apache.geode.internal.cache.versions.VersionTag;
 #endif
 #ifdef OFFHEAP
 import org.apache.geode.internal.cache.Token;
+#ifdef KEY_SERIALIZED
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
+#endif
 import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
@@ -96,7 +113,11 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
  * Do not modify this class. It was generated. Instead modify LeafRegionEntry.cpp and then run
  * ./dev-tools/generateRegionEntryClasses.sh (it must be run from the top level directory).
  */
-public class LEAF_CLASS extends PARENT_CLASS {
+public class LEAF_CLASS extends PARENT_CLASS
+#ifdef KEY_SERIALIZED
+    implements OffHeapKeyRegionEntry
+#endif
+    {
 
   // --------------------------------------- common fields ----------------------------------------
 
@@ -163,12 +184,22 @@ public class LEAF_CLASS extends PARENT_CLASS {
   // ------------------------------------- versioned fields ---------------------------------------
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
 
+#ifdef COMPACT_VERSION
+  /**
+   * The region version in the high 48 bits and the VersionSourceTable index of the member in the
+   * low 16 bits. The version time stamp is kept in lastModified.
+   */
+  private long regionVersionAndMember;
+  /** The entry version in the high 24 bits and the distributed system id in the low 8 bits */
+  private int entryVersionAndDSId;
+#else
   private VersionSource memberId;
   private short entryVersionLowBytes;
   private short regionVersionHighBytes;
   private int regionVersionLowBytes;
   private byte entryVersionHighByte;
   private byte distributedSystemId;
+#endif
 #endif
 
   // --------------------------------------- key fields -------------------------------------------
@@ -199,6 +230,26 @@ public class LEAF_CLASS extends PARENT_CLASS {
    * bits2 encodes character data
    */
   private final long bits2;
+#elif defined(KEY_SERIALIZED)
+  /**
+   * The key while it is on the heap, which is whenever the entry holds a token rather than a value.
+   * While the key is off heap this softly references its deserialized form, if it has been read.
+   * All changes to it made by readers are done using HEAP_KEY_UPDATER.
+   */
+  private volatile Object heapKey;
+
+  /**
+   * The address of the serialized key in off-heap memory, or zero while the key is on the heap.
+   * All access done using KEY_ADDRESS_UPDATER.
+   */
+  @SuppressWarnings("unused")
+  private volatile long keyAddress;
+
+  private static final AtomicLongFieldUpdater<LEAF_CLASS> KEY_ADDRESS_UPDATER
+    = AtomicLongFieldUpdater.newUpdater(LEAF_CLASS.class, "keyAddress");
+
+  private static final AtomicReferenceFieldUpdater<LEAF_CLASS, Object> HEAP_KEY_UPDATER
+    = AtomicReferenceFieldUpdater.newUpdater(LEAF_CLASS.class, Object.class, "heapKey");
 #endif
 
   public LEAF_CLASS (final RegionEntryContext context, final KEY_TYPE key,
@@ -280,6 +331,9 @@ public class LEAF_CLASS extends PARENT_CLASS {
     tempBits1 |= key.length();
     this.bits1 = tempBits1;
     this.bits2 = tempBits2;
+#elif defined(KEY_SERIALIZED)
+    this.heapKey = key;
+    OffHeapKeyHelper.initializeKey(this);
 #endif
   }
 
@@ -508,7 +562,10 @@ public class LEAF_CLASS extends PARENT_CLASS {
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
 
-  private EvictionNode nextEvictionNode;
+  private static final AtomicReferenceFieldUpdater<LEAF_CLASS, EvictionNode> NEXT_EVICTION_NODE_UPDATER
+    = AtomicReferenceFieldUpdater.newUpdater(LEAF_CLASS.class, EvictionNode.class, "nextEvictionNode");
+
+  private volatile EvictionNode nextEvictionNode;
   private EvictionNode previousEvictionNode;
   private int size;
 
@@ -522,6 +579,11 @@ public class LEAF_CLASS extends PARENT_CLASS {
     return this.nextEvictionNode;
   }
 
+  @Override
+  public boolean casNext(final EvictionNode expectedNext, final EvictionNode newNext) {
+    return NEXT_EVICTION_NODE_UPDATER.compareAndSet(this, expectedNext, newNext);
+  }
+
   @Override
   public void setPrevious(final EvictionNode previousEvictionNode) {
     this.previousEvictionNode = previousEvictionNode;
@@ -548,6 +610,9 @@ public class LEAF_CLASS extends PARENT_CLASS {
 #ifdef KEY_OBJECT
     // default implementation.
     return getKey();
+#elif defined(KEY_SERIALIZED)
+    // the key is sized as part of the off-heap memory it is stored in
+    return null;
 #else
     // inline keys always report null for sizing since the size comes from the entry size
     return null;
@@ -630,6 +695,71 @@ public class LEAF_CLASS extends PARENT_CLASS {
   // -------------------------------------- versioned code ----------------------------------------
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
 
+#ifdef COMPACT_VERSION
+  @Override
+  public int getEntryVersion() {
+    return this.entryVersionAndDSId >>> 8;
+  }
+
+  @Override
+  public long getRegionVersion() {
+    return this.regionVersionAndMember >> VersionSourceTable.INDEX_BITS;
+  }
+
+  @Override
+  public long getVersionTimeStamp() {
+    return getLastModified();
+  }
+
+  @Override
+  public void setVersionTimeStamp(final long timeStamp) {
+    setLastModified(timeStamp);
+  }
+
+  @Override
+  public VersionSource getMemberID() {
+    int memberIndex = (int) (this.regionVersionAndMember & VersionSourceTable.MAX_INDEX);
+    return VersionSourceTable.get(this, memberIndex);
+  }
+
+  @Override
+  public int getDistributedSystemId() {
+    return (byte) this.entryVersionAndDSId;
+  }
+
+  // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
+
+  @Override
+  public void setVersions(final VersionTag versionTag) {
+    int memberIndex = VersionSourceTable.indexOf(this, this.regionVersionAndMember,
+        versionTag.getMemberID());
+    int eVersion = versionTag.getEntryVersion() & 0xffffff;
+    long rVersion = (((long) versionTag.getRegionVersionHighBytes()) << 32)
+        | (versionTag.getRegionVersionLowBytes() & 0x00000000FFFFFFFFL);
+    this.regionVersionAndMember = (rVersion << VersionSourceTable.INDEX_BITS) | memberIndex;
+
+    if (!versionTag.isGatewayTag()
+        && getDistributedSystemId() == versionTag.getDistributedSystemId()) {
+      if (getVersionTimeStamp() <= versionTag.getVersionTimeStamp()) {
+        setVersionTimeStamp(versionTag.getVersionTimeStamp());
+      } else {
+        versionTag.setVersionTimeStamp(getVersionTimeStamp());
+      }
+    } else {
+      setVersionTimeStamp(versionTag.getVersionTimeStamp());
+    }
+
+    this.entryVersionAndDSId = (eVersion << 8) | (versionTag.getDistributedSystemId() & 0xff);
+  }
+
+  @Override
+  public void setMemberID(final VersionSource memberId) {
+    long versionBits = this.regionVersionAndMember & ~((long) VersionSourceTable.MAX_INDEX);
+    this.regionVersionAndMember =
+        versionBits | VersionSourceTable.indexOf(this, this.regionVersionAndMember, memberId);
+  }
+#else
+
   @Override
   public int getEntryVersion() {
     return ((entryVersionHighByte << 16) & 0xFF0000) | (entryVersionLowBytes & 0xFFFF);
@@ -689,6 +819,8 @@ public class LEAF_CLASS extends PARENT_CLASS {
     this.memberId = memberId;
   }
 
+#endif
+
   @Override
   public VersionStamp getVersionStamp() {
     return this;
@@ -698,11 +830,19 @@ public class LEAF_CLASS extends PARENT_CLASS {
   
   @Override
   public VersionTag asVersionTag() {
+#ifdef COMPACT_VERSION
+    VersionTag tag = VersionTag.create(getMemberID());
+    tag.setEntryVersion(getEntryVersion());
+    tag.setRegionVersion(getRegionVersionHighBytes(), getRegionVersionLowBytes());
+    tag.setVersionTimeStamp(getVersionTimeStamp());
+    tag.setDistributedSystemId(getDistributedSystemId());
+#else
     VersionTag tag = VersionTag.create(memberId);
     tag.setEntryVersion(getEntryVersion());
     tag.setRegionVersion(this.regionVersionHighBytes, this.regionVersionLowBytes);
     tag.setVersionTimeStamp(getVersionTimeStamp());
     tag.setDistributedSystemId(this.distributedSystemId);
+#endif
     return tag;
   }
 
@@ -722,13 +862,21 @@ public class LEAF_CLASS extends PARENT_CLASS {
   /** get rvv internal high byte. Used by region entries for transferring to storage */
   @Override
   public short getRegionVersionHighBytes() {
+#ifdef COMPACT_VERSION
+    return (short) (this.regionVersionAndMember >>> 48);
+#else
     return this.regionVersionHighBytes;
+#endif
   }
   
   /** get rvv internal low bytes. Used by region entries for transferring to storage */
   @Override
   public int getRegionVersionLowBytes() {
+#ifdef COMPACT_VERSION
+    return (int) (this.regionVersionAndMember >>> VersionSourceTable.INDEX_BITS);
+#else
     return this.regionVersionLowBytes;
+#endif
   }
 #endif
   
@@ -942,6 +1090,41 @@ public class LEAF_CLASS extends PARENT_CLASS {
     }
     return false;
   }
+#elif defined(KEY_SERIALIZED)
+  @Override
+  public Object getKey() {
+    return OffHeapKeyHelper.getKey(this);
+  }
+
+  @Override
+  public boolean isKeyEqual(final Object key) {
+    return OffHeapKeyHelper.isKeyEqual(this, key);
+  }
+
+  @Override
+  public Object getHeapKey() {
+    return this.heapKey;
+  }
+
+  @Override
+  public void setHeapKey(final Object key) {
+    this.heapKey = key;
+  }
+
+  @Override
+  public boolean casHeapKey(final Object expectedKey, final Object newKey) {
+    return HEAP_KEY_UPDATER.compareAndSet(this, expectedKey, newKey);
+  }
+
+  @Override
+  public long getKeyAddress() {
+    return KEY_ADDRESS_UPDATER.get(this);
+  }
+
+  @Override
+  public boolean setKeyAddress(final long expectedAddress, final long newAddress) {
+    return KEY_ADDRESS_UPDATER.compareAndSet(this, expectedAddress, newAddress);
+  }
 #endif
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
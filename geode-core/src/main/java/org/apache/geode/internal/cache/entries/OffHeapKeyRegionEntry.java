@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.entries;
+
+/**
+ * An off-heap RegionEntry whose key is also stored off heap, in serialized form, while the entry
+ * holds a value. The key is kept on the heap while the entry holds a token, such as a tombstone or
+ * a removed token, so that it can still be read once its off-heap memory has been freed. While the
+ * key is off heap the field that holds it on the heap softly caches its deserialized form.
+ *
+ * @see org.apache.geode.internal.offheap.OffHeapKeyHelper
+ * @since Geode 1.5
+ */
+public interface OffHeapKeyRegionEntry extends OffHeapRegionEntry {
+  /**
+   * @return the key if it is on the heap, otherwise null or a cache of the deserialized key owned
+   *         by {@link org.apache.geode.internal.offheap.OffHeapKeyHelper}
+   */
+  Object getHeapKey();
+
+  void setHeapKey(Object key);
+
+  boolean casHeapKey(Object expectedKey, Object newKey);
+
+  /**
+   * @return the address of the off-heap serialized key, or zero if the key is on the heap
+   */
+  long getKeyAddress();
+
+  boolean setKeyAddress(long expectedAddress, long newAddress);
+}
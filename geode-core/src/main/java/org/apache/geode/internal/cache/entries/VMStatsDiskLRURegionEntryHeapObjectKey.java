@@ -19,6 +19,7 @@ package org.apache.geode.internal.cache.entries;
 // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.apache.geode.internal.InternalStatisticsDisabledException;
 import org.apache.geode.internal.cache.DiskId;
@@ -230,7 +231,9 @@ public class VMStatsDiskLRURegionEntryHeapObjectKey extends VMStatsDiskLRURegion
   }
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
-  private EvictionNode nextEvictionNode;
+  private static final AtomicReferenceFieldUpdater<VMStatsDiskLRURegionEntryHeapObjectKey, EvictionNode> NEXT_EVICTION_NODE_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(VMStatsDiskLRURegionEntryHeapObjectKey.class, EvictionNode.class, "nextEvictionNode");
+  private volatile EvictionNode nextEvictionNode;
   private EvictionNode previousEvictionNode;
   private int size;
 
@@ -244,6 +247,11 @@ public class VMStatsDiskLRURegionEntryHeapObjectKey extends VMStatsDiskLRURegion
     return this.nextEvictionNode;
   }
 
+  @Override
+  public boolean casNext(final EvictionNode expectedNext, final EvictionNode newNext) {
+    return NEXT_EVICTION_NODE_UPDATER.compareAndSet(this, expectedNext, newNext);
+  }
+
   @Override
   public void setPrevious(final EvictionNode previousEvictionNode) {
     this.previousEvictionNode = previousEvictionNode;
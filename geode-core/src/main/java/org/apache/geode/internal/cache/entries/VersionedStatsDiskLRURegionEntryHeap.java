@@ -20,6 +20,7 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
 
 public abstract class VersionedStatsDiskLRURegionEntryHeap
     extends VersionedStatsDiskLRURegionEntry {
@@ -31,8 +32,11 @@ public abstract class VersionedStatsDiskLRURegionEntryHeap
   private static final VersionedStatsDiskLRURegionEntryHeapFactory factory =
       new VersionedStatsDiskLRURegionEntryHeapFactory();
 
+  private static final VersionedStatsDiskLRURegionEntryHeapCompactFactory compactFactory =
+      new VersionedStatsDiskLRURegionEntryHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedStatsDiskLRURegionEntryHeapFactory implements RegionEntryFactory {
@@ -78,4 +82,50 @@ public abstract class VersionedStatsDiskLRURegionEntryHeap
       return this;
     }
   }
+
+  private static class VersionedStatsDiskLRURegionEntryHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedStatsDiskLRURegionEntryHeapCompactIntKey(context, (Integer) key,
+              value);
+        } else if (keyClass == Long.class) {
+          return new VersionedStatsDiskLRURegionEntryHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedStatsDiskLRURegionEntryHeapCompactStringKey1(context, skey, value,
+                  byteEncoded);
+            } else {
+              return new VersionedStatsDiskLRURegionEntryHeapCompactStringKey2(context, skey, value,
+                  byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedStatsDiskLRURegionEntryHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      return new VersionedStatsDiskLRURegionEntryHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedStatsDiskLRURegionEntryHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return this;
+    }
+  }
 }
@@ -20,6 +20,8 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
 
 public abstract class VersionedStatsDiskLRURegionEntryOffHeap
     extends VersionedStatsDiskLRURegionEntry implements OffHeapRegionEntry {
@@ -31,8 +33,11 @@ public abstract class VersionedStatsDiskLRURegionEntryOffHeap
   private static final VersionedStatsDiskLRURegionEntryOffHeapFactory factory =
       new VersionedStatsDiskLRURegionEntryOffHeapFactory();
 
+  private static final VersionedStatsDiskLRURegionEntryOffHeapCompactFactory compactFactory =
+      new VersionedStatsDiskLRURegionEntryOffHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedStatsDiskLRURegionEntryOffHeapFactory
@@ -61,6 +66,9 @@ public abstract class VersionedStatsDiskLRURegionEntryOffHeap
           return new VersionedStatsDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedStatsDiskLRURegionEntryOffHeapSerializedKey(context, key, value);
+      }
       return new VersionedStatsDiskLRURegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -79,4 +87,55 @@ public abstract class VersionedStatsDiskLRURegionEntryOffHeap
       return VersionedStatsDiskLRURegionEntryHeap.getEntryFactory();
     }
   }
+
+  private static class VersionedStatsDiskLRURegionEntryOffHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedStatsDiskLRURegionEntryOffHeapCompactIntKey(context, (Integer) key,
+              value);
+        } else if (keyClass == Long.class) {
+          return new VersionedStatsDiskLRURegionEntryOffHeapCompactLongKey(context, (Long) key,
+              value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedStatsDiskLRURegionEntryOffHeapCompactStringKey1(context, skey,
+                  value, byteEncoded);
+            } else {
+              return new VersionedStatsDiskLRURegionEntryOffHeapCompactStringKey2(context, skey,
+                  value, byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedStatsDiskLRURegionEntryOffHeapCompactUUIDKey(context, (UUID) key,
+              value);
+        }
+      }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedStatsDiskLRURegionEntryOffHeapCompactSerializedKey(context, key, value);
+      }
+      return new VersionedStatsDiskLRURegionEntryOffHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedStatsDiskLRURegionEntryOffHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return VersionedStatsDiskLRURegionEntryHeap.getEntryFactory();
+    }
+  }
 }
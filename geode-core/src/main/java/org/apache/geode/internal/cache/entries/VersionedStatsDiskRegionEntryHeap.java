@@ -20,6 +20,7 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
 
 public abstract class VersionedStatsDiskRegionEntryHeap extends VersionedStatsDiskRegionEntry {
 
@@ -30,8 +31,11 @@ public abstract class VersionedStatsDiskRegionEntryHeap extends VersionedStatsDi
   private static final VersionedStatsDiskRegionEntryHeapFactory factory =
       new VersionedStatsDiskRegionEntryHeapFactory();
 
+  private static final VersionedStatsDiskRegionEntryHeapCompactFactory compactFactory =
+      new VersionedStatsDiskRegionEntryHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedStatsDiskRegionEntryHeapFactory implements RegionEntryFactory {
@@ -77,4 +81,49 @@ public abstract class VersionedStatsDiskRegionEntryHeap extends VersionedStatsDi
       return this;
     }
   }
+
+  private static class VersionedStatsDiskRegionEntryHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedStatsDiskRegionEntryHeapCompactIntKey(context, (Integer) key, value);
+        } else if (keyClass == Long.class) {
+          return new VersionedStatsDiskRegionEntryHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedStatsDiskRegionEntryHeapCompactStringKey1(context, skey, value,
+                  byteEncoded);
+            } else {
+              return new VersionedStatsDiskRegionEntryHeapCompactStringKey2(context, skey, value,
+                  byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedStatsDiskRegionEntryHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      return new VersionedStatsDiskRegionEntryHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedStatsDiskRegionEntryHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return this;
+    }
+  }
 }
@@ -20,6 +20,8 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
 
 public abstract class VersionedStatsDiskRegionEntryOffHeap extends VersionedStatsDiskRegionEntry
     implements OffHeapRegionEntry {
@@ -31,8 +33,11 @@ public abstract class VersionedStatsDiskRegionEntryOffHeap extends VersionedStat
   private static final VersionedStatsDiskRegionEntryOffHeapFactory factory =
       new VersionedStatsDiskRegionEntryOffHeapFactory();
 
+  private static final VersionedStatsDiskRegionEntryOffHeapCompactFactory compactFactory =
+      new VersionedStatsDiskRegionEntryOffHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedStatsDiskRegionEntryOffHeapFactory implements RegionEntryFactory {
@@ -60,6 +65,9 @@ public abstract class VersionedStatsDiskRegionEntryOffHeap extends VersionedStat
           return new VersionedStatsDiskRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedStatsDiskRegionEntryOffHeapSerializedKey(context, key, value);
+      }
       return new VersionedStatsDiskRegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -78,4 +86,53 @@ public abstract class VersionedStatsDiskRegionEntryOffHeap extends VersionedStat
       return VersionedStatsDiskRegionEntryHeap.getEntryFactory();
     }
   }
+
+  private static class VersionedStatsDiskRegionEntryOffHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedStatsDiskRegionEntryOffHeapCompactIntKey(context, (Integer) key,
+              value);
+        } else if (keyClass == Long.class) {
+          return new VersionedStatsDiskRegionEntryOffHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedStatsDiskRegionEntryOffHeapCompactStringKey1(context, skey, value,
+                  byteEncoded);
+            } else {
+              return new VersionedStatsDiskRegionEntryOffHeapCompactStringKey2(context, skey, value,
+                  byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedStatsDiskRegionEntryOffHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedStatsDiskRegionEntryOffHeapCompactSerializedKey(context, key, value);
+      }
+      return new VersionedStatsDiskRegionEntryOffHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedStatsDiskRegionEntryOffHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return VersionedStatsDiskRegionEntryHeap.getEntryFactory();
+    }
+  }
 }
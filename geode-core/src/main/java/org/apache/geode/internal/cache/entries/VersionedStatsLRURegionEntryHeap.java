@@ -20,6 +20,7 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
 
 public abstract class VersionedStatsLRURegionEntryHeap extends VersionedStatsLRURegionEntry {
 
@@ -30,8 +31,11 @@ public abstract class VersionedStatsLRURegionEntryHeap extends VersionedStatsLRU
   private static final VersionedStatsLRURegionEntryHeapFactory factory =
       new VersionedStatsLRURegionEntryHeapFactory();
 
+  private static final VersionedStatsLRURegionEntryHeapCompactFactory compactFactory =
+      new VersionedStatsLRURegionEntryHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedStatsLRURegionEntryHeapFactory implements RegionEntryFactory {
@@ -77,4 +81,49 @@ public abstract class VersionedStatsLRURegionEntryHeap extends VersionedStatsLRU
       return this;
     }
   }
+
+  private static class VersionedStatsLRURegionEntryHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedStatsLRURegionEntryHeapCompactIntKey(context, (Integer) key, value);
+        } else if (keyClass == Long.class) {
+          return new VersionedStatsLRURegionEntryHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedStatsLRURegionEntryHeapCompactStringKey1(context, skey, value,
+                  byteEncoded);
+            } else {
+              return new VersionedStatsLRURegionEntryHeapCompactStringKey2(context, skey, value,
+                  byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedStatsLRURegionEntryHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      return new VersionedStatsLRURegionEntryHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedStatsLRURegionEntryHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return this;
+    }
+  }
 }
@@ -20,6 +20,8 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
 
 public abstract class VersionedStatsLRURegionEntryOffHeap extends VersionedStatsLRURegionEntry
     implements OffHeapRegionEntry {
@@ -31,8 +33,11 @@ public abstract class VersionedStatsLRURegionEntryOffHeap extends VersionedStats
   private static final VersionedStatsLRURegionEntryOffHeapFactory factory =
       new VersionedStatsLRURegionEntryOffHeapFactory();
 
+  private static final VersionedStatsLRURegionEntryOffHeapCompactFactory compactFactory =
+      new VersionedStatsLRURegionEntryOffHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedStatsLRURegionEntryOffHeapFactory implements RegionEntryFactory {
@@ -60,6 +65,9 @@ public abstract class VersionedStatsLRURegionEntryOffHeap extends VersionedStats
           return new VersionedStatsLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedStatsLRURegionEntryOffHeapSerializedKey(context, key, value);
+      }
       return new VersionedStatsLRURegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -78,4 +86,53 @@ public abstract class VersionedStatsLRURegionEntryOffHeap extends VersionedStats
       return VersionedStatsLRURegionEntryHeap.getEntryFactory();
     }
   }
+
+  private static class VersionedStatsLRURegionEntryOffHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedStatsLRURegionEntryOffHeapCompactIntKey(context, (Integer) key,
+              value);
+        } else if (keyClass == Long.class) {
+          return new VersionedStatsLRURegionEntryOffHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedStatsLRURegionEntryOffHeapCompactStringKey1(context, skey, value,
+                  byteEncoded);
+            } else {
+              return new VersionedStatsLRURegionEntryOffHeapCompactStringKey2(context, skey, value,
+                  byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedStatsLRURegionEntryOffHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedStatsLRURegionEntryOffHeapCompactSerializedKey(context, key, value);
+      }
+      return new VersionedStatsLRURegionEntryOffHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedStatsLRURegionEntryOffHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return VersionedStatsLRURegionEntryHeap.getEntryFactory();
+    }
+  }
 }
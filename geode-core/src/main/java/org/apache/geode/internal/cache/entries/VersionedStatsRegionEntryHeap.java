@@ -20,6 +20,7 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
 
 public abstract class VersionedStatsRegionEntryHeap extends VersionedStatsRegionEntry {
 
@@ -30,8 +31,11 @@ public abstract class VersionedStatsRegionEntryHeap extends VersionedStatsRegion
   private static final VersionedStatsRegionEntryHeapFactory factory =
       new VersionedStatsRegionEntryHeapFactory();
 
+  private static final VersionedStatsRegionEntryHeapCompactFactory compactFactory =
+      new VersionedStatsRegionEntryHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedStatsRegionEntryHeapFactory implements RegionEntryFactory {
@@ -75,4 +79,48 @@ public abstract class VersionedStatsRegionEntryHeap extends VersionedStatsRegion
       return this;
     }
   }
+
+  private static class VersionedStatsRegionEntryHeapCompactFactory implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedStatsRegionEntryHeapCompactIntKey(context, (Integer) key, value);
+        } else if (keyClass == Long.class) {
+          return new VersionedStatsRegionEntryHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedStatsRegionEntryHeapCompactStringKey1(context, skey, value,
+                  byteEncoded);
+            } else {
+              return new VersionedStatsRegionEntryHeapCompactStringKey2(context, skey, value,
+                  byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedStatsRegionEntryHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      return new VersionedStatsRegionEntryHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedStatsRegionEntryHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return this;
+    }
+  }
 }
@@ -20,6 +20,8 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
 
 public abstract class VersionedStatsRegionEntryOffHeap extends VersionedStatsRegionEntry
     implements OffHeapRegionEntry {
@@ -31,8 +33,11 @@ public abstract class VersionedStatsRegionEntryOffHeap extends VersionedStatsReg
   private static final VersionedStatsRegionEntryOffHeapFactory factory =
       new VersionedStatsRegionEntryOffHeapFactory();
 
+  private static final VersionedStatsRegionEntryOffHeapCompactFactory compactFactory =
+      new VersionedStatsRegionEntryOffHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedStatsRegionEntryOffHeapFactory implements RegionEntryFactory {
@@ -60,6 +65,9 @@ public abstract class VersionedStatsRegionEntryOffHeap extends VersionedStatsReg
           return new VersionedStatsRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedStatsRegionEntryOffHeapSerializedKey(context, key, value);
+      }
       return new VersionedStatsRegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -78,4 +86,52 @@ public abstract class VersionedStatsRegionEntryOffHeap extends VersionedStatsReg
       return VersionedStatsRegionEntryHeap.getEntryFactory();
     }
   }
+
+  private static class VersionedStatsRegionEntryOffHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedStatsRegionEntryOffHeapCompactIntKey(context, (Integer) key, value);
+        } else if (keyClass == Long.class) {
+          return new VersionedStatsRegionEntryOffHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedStatsRegionEntryOffHeapCompactStringKey1(context, skey, value,
+                  byteEncoded);
+            } else {
+              return new VersionedStatsRegionEntryOffHeapCompactStringKey2(context, skey, value,
+                  byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedStatsRegionEntryOffHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedStatsRegionEntryOffHeapCompactSerializedKey(context, key, value);
+      }
+      return new VersionedStatsRegionEntryOffHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedStatsRegionEntryOffHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return VersionedStatsRegionEntryHeap.getEntryFactory();
+    }
+  }
 }
@@ -20,6 +20,8 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
 
 public abstract class VersionedThinDiskLRURegionEntryOffHeap extends VersionedThinDiskLRURegionEntry
     implements OffHeapRegionEntry {
@@ -31,8 +33,11 @@ public abstract class VersionedThinDiskLRURegionEntryOffHeap extends VersionedTh
   private static final VersionedThinDiskLRURegionEntryOffHeapFactory factory =
       new VersionedThinDiskLRURegionEntryOffHeapFactory();
 
+  private static final VersionedThinDiskLRURegionEntryOffHeapCompactFactory compactFactory =
+      new VersionedThinDiskLRURegionEntryOffHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedThinDiskLRURegionEntryOffHeapFactory implements RegionEntryFactory {
@@ -60,6 +65,9 @@ public abstract class VersionedThinDiskLRURegionEntryOffHeap extends VersionedTh
           return new VersionedThinDiskLRURegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedThinDiskLRURegionEntryOffHeapSerializedKey(context, key, value);
+      }
       return new VersionedThinDiskLRURegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -78,4 +86,55 @@ public abstract class VersionedThinDiskLRURegionEntryOffHeap extends VersionedTh
       return VersionedThinDiskLRURegionEntryHeap.getEntryFactory();
     }
   }
+
+  private static class VersionedThinDiskLRURegionEntryOffHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedThinDiskLRURegionEntryOffHeapCompactIntKey(context, (Integer) key,
+              value);
+        } else if (keyClass == Long.class) {
+          return new VersionedThinDiskLRURegionEntryOffHeapCompactLongKey(context, (Long) key,
+              value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedThinDiskLRURegionEntryOffHeapCompactStringKey1(context, skey,
+                  value, byteEncoded);
+            } else {
+              return new VersionedThinDiskLRURegionEntryOffHeapCompactStringKey2(context, skey,
+                  value, byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedThinDiskLRURegionEntryOffHeapCompactUUIDKey(context, (UUID) key,
+              value);
+        }
+      }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedThinDiskLRURegionEntryOffHeapCompactSerializedKey(context, key, value);
+      }
+      return new VersionedThinDiskLRURegionEntryOffHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedThinDiskLRURegionEntryOffHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return VersionedThinDiskLRURegionEntryHeap.getEntryFactory();
+    }
+  }
 }
@@ -20,6 +20,8 @@ import org.apache.geode.internal.cache.InlineKeyHelper;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.RegionEntryFactory;
+import org.apache.geode.internal.cache.versions.VersionSourceTable;
+import org.apache.geode.internal.offheap.OffHeapKeyHelper;
 
 public abstract class VersionedThinDiskRegionEntryOffHeap extends VersionedThinDiskRegionEntry
     implements OffHeapRegionEntry {
@@ -31,8 +33,11 @@ public abstract class VersionedThinDiskRegionEntryOffHeap extends VersionedThinD
   private static final VersionedThinDiskRegionEntryOffHeapFactory factory =
       new VersionedThinDiskRegionEntryOffHeapFactory();
 
+  private static final VersionedThinDiskRegionEntryOffHeapCompactFactory compactFactory =
+      new VersionedThinDiskRegionEntryOffHeapCompactFactory();
+
   public static RegionEntryFactory getEntryFactory() {
-    return factory;
+    return VersionSourceTable.COMPACT_VERSION_STAMPS ? compactFactory : factory;
   }
 
   private static class VersionedThinDiskRegionEntryOffHeapFactory implements RegionEntryFactory {
@@ -60,6 +65,9 @@ public abstract class VersionedThinDiskRegionEntryOffHeap extends VersionedThinD
           return new VersionedThinDiskRegionEntryOffHeapUUIDKey(context, (UUID) key, value);
         }
       }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedThinDiskRegionEntryOffHeapSerializedKey(context, key, value);
+      }
       return new VersionedThinDiskRegionEntryOffHeapObjectKey(context, key, value);
     }
 
@@ -78,4 +86,53 @@ public abstract class VersionedThinDiskRegionEntryOffHeap extends VersionedThinD
       return VersionedThinDiskRegionEntryHeap.getEntryFactory();
     }
   }
+
+  private static class VersionedThinDiskRegionEntryOffHeapCompactFactory
+      implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VersionedThinDiskRegionEntryOffHeapCompactIntKey(context, (Integer) key,
+              value);
+        } else if (keyClass == Long.class) {
+          return new VersionedThinDiskRegionEntryOffHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VersionedThinDiskRegionEntryOffHeapCompactStringKey1(context, skey, value,
+                  byteEncoded);
+            } else {
+              return new VersionedThinDiskRegionEntryOffHeapCompactStringKey2(context, skey, value,
+                  byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VersionedThinDiskRegionEntryOffHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      if (OffHeapKeyHelper.canStoreKeyOffHeap(key)) {
+        return new VersionedThinDiskRegionEntryOffHeapCompactSerializedKey(context, key, value);
+      }
+      return new VersionedThinDiskRegionEntryOffHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VersionedThinDiskRegionEntryOffHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return this;
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return VersionedThinDiskRegionEntryHeap.getEntryFactory();
+    }
+  }
 }
@@ -69,13 +69,15 @@ public abstract class AbstractEvictionController implements EvictionController {
       evictionCounters = new EvictionCountersImpl(evictionStats);
       return new HeapLRUController(evictionCounters, action, sizer, algorithm);
     }
-    if (algorithm == EvictionAlgorithm.LRU_MEMORY || algorithm == EvictionAlgorithm.LIFO_MEMORY) {
+    if (algorithm == EvictionAlgorithm.LRU_MEMORY || algorithm == EvictionAlgorithm.LIFO_MEMORY
+        || algorithm == EvictionAlgorithm.TINYLFU_MEMORY) {
       evictionStats = new MemoryLRUStatistics(statsFactory, statsName);
       evictionCounters = new EvictionCountersImpl(evictionStats);
       return new MemoryLRUController(evictionCounters, maximum, sizer, action, isOffHeap,
           algorithm);
     }
-    if (algorithm == EvictionAlgorithm.LRU_ENTRY || algorithm == EvictionAlgorithm.LIFO_ENTRY) {
+    if (algorithm == EvictionAlgorithm.LRU_ENTRY || algorithm == EvictionAlgorithm.LIFO_ENTRY
+        || algorithm == EvictionAlgorithm.TINYLFU_ENTRY) {
       evictionStats = new CountLRUStatistics(statsFactory, statsName);
       evictionCounters = new EvictionCountersImpl(evictionStats);
       return new CountLRUEviction(evictionCounters, maximum, action, algorithm);
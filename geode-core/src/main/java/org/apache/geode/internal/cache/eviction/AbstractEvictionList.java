@@ -107,6 +107,13 @@ abstract class AbstractEvictionList implements EvictionList {
           .create(LocalizedStrings.NewLRUClockHand_ADDING_ANODE_TO_LRU_LIST, evictionNode));
     }
 
+    linkEntry(evictionNode);
+  }
+
+  /**
+   * Links a node that is not in the list after the current tail, whatever its next node is.
+   */
+  protected synchronized void linkEntry(final EvictionNode evictionNode) {
     evictionNode.setNext(tail);
     tail.previous().setNext(evictionNode);
     evictionNode.setPrevious(tail.previous());
@@ -14,18 +14,31 @@
  */
 package org.apache.geode.internal.cache.eviction;
 
+import org.apache.geode.internal.cache.CachedDeserializable;
+
 /**
  * Marker class to indicate that the wrapped value is owned by a CachedDeserializable and its form
  * is changing from serialized to deserialized.
  */
 public class CachedDeserializableValueWrapper {
 
+  private final CachedDeserializable cachedDeserializable;
+
   private final Object value;
 
-  public CachedDeserializableValueWrapper(Object value) {
+  public CachedDeserializableValueWrapper(CachedDeserializable cachedDeserializable,
+      Object value) {
+    this.cachedDeserializable = cachedDeserializable;
     this.value = value;
   }
 
+  /**
+   * Returns the CachedDeserializable whose form is changing
+   */
+  public CachedDeserializable getCachedDeserializable() {
+    return cachedDeserializable;
+  }
+
   public Object getValue() {
     return value;
   }
@@ -87,4 +87,24 @@ class DisabledEvictionCounters implements EvictionCounters {
   public void incDestroys() {
     // nothing
   }
+
+  @Override
+  public void incHits() {
+    // nothing
+  }
+
+  @Override
+  public void incMisses() {
+    // nothing
+  }
+
+  @Override
+  public void setHitRatio(double hitRatio) {
+    // nothing
+  }
+
+  @Override
+  public void incSketchResets() {
+    // nothing
+  }
 }
@@ -45,4 +45,12 @@ public interface EvictionCounters {
   Statistics getStatistics();
 
   void close();
+
+  void incHits();
+
+  void incMisses();
+
+  void setHitRatio(double hitRatio);
+
+  void incSketchResets();
 }
@@ -121,4 +121,24 @@ class EvictionCountersImpl implements EvictionCounters {
   public void incGreedyReturns(long greedyReturns) {
     this.stats.incGreedyReturns(greedyReturns);
   }
+
+  @Override
+  public void incHits() {
+    this.stats.incHits();
+  }
+
+  @Override
+  public void incMisses() {
+    this.stats.incMisses();
+  }
+
+  @Override
+  public void setHitRatio(double hitRatio) {
+    this.stats.setHitRatio(hitRatio);
+  }
+
+  @Override
+  public void incSketchResets() {
+    this.stats.incSketchResets();
+  }
 }
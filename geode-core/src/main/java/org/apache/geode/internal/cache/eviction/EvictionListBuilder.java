@@ -34,6 +34,8 @@ public class EvictionListBuilder {
   public EvictionList create() {
     if (this.controller.getEvictionAlgorithm().isLIFO()) {
       return new LIFOList(this.controller);
+    } else if (this.controller.getEvictionAlgorithm().isTinyLFU()) {
+      return new TinyLFUList(this.controller);
     } else {
       if (evictionScanAsync) {
         return new LRUListWithAsyncSorting(this.controller);
@@ -24,6 +24,14 @@ public interface EvictionNode {
 
   EvictionNode next();
 
+  /**
+   * Atomically sets the next node to {@code newNext} if the current next node is
+   * {@code expectedNext}.
+   *
+   * @return true if the next node was set
+   */
+  boolean casNext(EvictionNode expectedNext, EvictionNode newNext);
+
   EvictionNode previous();
 
   /** compute the new entry size and return the delta from the previous entry size */
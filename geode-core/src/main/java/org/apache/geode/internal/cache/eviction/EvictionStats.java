@@ -36,4 +36,11 @@ public interface EvictionStats {
 
   void incGreedyReturns(long greedyReturns);
 
+  void incHits();
+
+  void incMisses();
+
+  void setHitRatio(double hitRatio);
+
+  void incSketchResets();
 }
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * A count-min sketch of 4-bit counters used by {@link TinyLFUList} to estimate how often a key has
+ * been seen, including keys that are no longer in the region. Each {@code long} in the table holds
+ * sixteen counters and every key maps to four of them; the estimate is the smallest of the four.
+ *
+ * <p>
+ * Once the number of recorded increments reaches ten times the sketch capacity all counters are
+ * halved so that the sketch ages and old popularity does not outweigh recent popularity.
+ *
+ * <p>
+ * This class is not thread safe; callers must synchronize.
+ */
+class FrequencySketch {
+
+  static final int MAX_FREQUENCY = 15;
+
+  private static final int MAXIMUM_CAPACITY = 1 << 26;
+
+  private static final int SAMPLE_FACTOR = 10;
+
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private long[] table;
+
+  private int tableMask;
+
+  private int sampleSize;
+
+  private int additions;
+
+  private long resets;
+
+  FrequencySketch(int capacity) {
+    ensureCapacity(capacity);
+  }
+
+  /**
+   * Grows the sketch so that it can hold {@code capacity} keys with a low error rate. Growing
+   * discards the recorded frequencies.
+   */
+  void ensureCapacity(int capacity) {
+    int length = tableSizeFor(Math.max(capacity, 16));
+    if (table != null && table.length >= length) {
+      return;
+    }
+    table = new long[length];
+    tableMask = length - 1;
+    sampleSize = (int) Math.min((long) SAMPLE_FACTOR * length, Integer.MAX_VALUE);
+    additions = 0;
+  }
+
+  int capacity() {
+    return table.length;
+  }
+
+  /**
+   * Returns the estimated number of times the key with the given hash has been seen, up to
+   * {@link #MAX_FREQUENCY}.
+   */
+  int frequency(int keyHash) {
+    int hash = spread(keyHash);
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records one occurrence of the key with the given hash.
+   *
+   * @return true if recording the occurrence caused the sketch to age
+   */
+  boolean increment(int keyHash) {
+    int hash = spread(keyHash);
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++additions == sampleSize) {
+      reset();
+      return true;
+    }
+    return false;
+  }
+
+  long getResets() {
+    return resets;
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /** Halves every counter; odd counters lose their remainder, which is credited to additions. */
+  private void reset() {
+    int truncated = 0;
+    for (int i = 0; i < table.length; i++) {
+      truncated += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions = (additions >>> 1) - (truncated >>> 2);
+    resets++;
+  }
+
+  private int indexOf(int hash, int depth) {
+    long h = (hash + SEEDS[depth]) * SEEDS[depth];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  private static int spread(int hash) {
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    return (hash >>> 16) ^ hash;
+  }
+
+  private static int tableSizeFor(int capacity) {
+    if (capacity >= MAXIMUM_CAPACITY) {
+      return MAXIMUM_CAPACITY;
+    }
+    return Integer.highestOneBit(capacity - 1) << 1;
+  }
+}
@@ -37,6 +37,15 @@ class GuardNode implements EvictionNode {
     return previous;
   }
 
+  @Override
+  public synchronized boolean casNext(EvictionNode expectedNext, EvictionNode newNext) {
+    if (next != expectedNext) {
+      return false;
+    }
+    next = newNext;
+    return true;
+  }
+
   @Override
   public void setEvicted() {
     // nothing
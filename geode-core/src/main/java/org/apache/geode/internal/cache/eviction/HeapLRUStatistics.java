@@ -105,4 +105,23 @@ public class HeapLRUStatistics implements EvictionStats {
     this.stats.incLong(greedyReturnsId, delta);
   }
 
+  @Override
+  public void incHits() {
+    // nothing needed
+  }
+
+  @Override
+  public void incMisses() {
+    // nothing needed
+  }
+
+  @Override
+  public void setHitRatio(double hitRatio) {
+    // nothing needed
+  }
+
+  @Override
+  public void incSketchResets() {
+    // nothing needed
+  }
 }
@@ -15,10 +15,12 @@
 package org.apache.geode.internal.cache.eviction;
 
 import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
@@ -43,6 +45,12 @@ import org.apache.geode.internal.logging.log4j.LogMarker;
  * recently used. An async scanner runs periodically (how often TBD), head to tail, removing entries
  * that have been recently used, marking them as not recently used, and adding them back to the
  * tail. Removes may unlink entries from the list.
+ *
+ * <p>
+ * Unless disabled with {@link SystemPropertyHelper#EVICTION_APPEND_BUFFER}, adds do not take the
+ * list lock. Appended nodes are marked as pending and queued on one of several lock free stripes
+ * chosen by the calling thread; a single thread links a batch of them into the list once enough
+ * are queued, and every eviction links all queued nodes before choosing one to evict.
  */
 public class LRUListWithAsyncSorting extends AbstractEvictionList {
 
@@ -57,6 +65,18 @@ public class LRUListWithAsyncSorting extends AbstractEvictionList {
 
   private static final int DEFAULT_MAX_EVICTION_ATTEMPTS = 10;
 
+  private static final boolean APPEND_BUFFER_ENABLED = SystemPropertyHelper
+      .getProductBooleanProperty(SystemPropertyHelper.EVICTION_APPEND_BUFFER).orElse(true);
+
+  /** The number of queued appends at which an appending thread links them into the list */
+  static final int APPEND_BUFFER_DRAIN_THRESHOLD = 64;
+
+  /**
+   * The value of {@link EvictionNode#next()} for a node that is queued in the append buffer but not
+   * yet linked into the list.
+   */
+  static final EvictionNode PENDING = new GuardNode();
+
   private final AtomicInteger recentlyUsedCounter = new AtomicInteger();
 
   private final double scanThreshold;
@@ -66,6 +86,13 @@ public class LRUListWithAsyncSorting extends AbstractEvictionList {
 
   private final ExecutorService executor;
 
+  /** Stripes of nodes waiting to be linked into the list; null if appends lock the list */
+  private final ConcurrentLinkedQueue<EvictionNode>[] appendBuffer;
+
+  private final AtomicInteger pendingAppends = new AtomicInteger();
+
+  private final AtomicBoolean drainingAppends = new AtomicBoolean();
+
   private static ExecutorService createExecutor() {
     int threads = EVICTION_SCAN_MAX_THREADS.orElse(0);
     if (threads < 1) {
@@ -87,15 +114,31 @@ public class LRUListWithAsyncSorting extends AbstractEvictionList {
   }
 
   LRUListWithAsyncSorting(EvictionController controller) {
-    this(controller, SINGLETON_EXECUTOR, DEFAULT_MAX_EVICTION_ATTEMPTS);
+    this(controller, SINGLETON_EXECUTOR, DEFAULT_MAX_EVICTION_ATTEMPTS, APPEND_BUFFER_ENABLED);
   }
 
   LRUListWithAsyncSorting(EvictionController controller, ExecutorService executor,
       int maxEvictionAttempts) {
+    this(controller, executor, maxEvictionAttempts, false);
+  }
+
+  LRUListWithAsyncSorting(EvictionController controller, ExecutorService executor,
+      int maxEvictionAttempts, boolean bufferAppends) {
     super(controller);
     this.scanThreshold = calculateScanThreshold();
     this.executor = executor;
     this.maxEvictionAttempts = maxEvictionAttempts;
+    this.appendBuffer = bufferAppends ? createAppendBuffer() : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ConcurrentLinkedQueue<EvictionNode>[] createAppendBuffer() {
+    int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+    ConcurrentLinkedQueue<EvictionNode>[] buffer = new ConcurrentLinkedQueue[Math.max(stripes, 1)];
+    for (int i = 0; i < buffer.length; i++) {
+      buffer[i] = new ConcurrentLinkedQueue<>();
+    }
+    return buffer;
   }
 
   private double calculateScanThreshold() {
@@ -113,15 +156,118 @@ public class LRUListWithAsyncSorting extends AbstractEvictionList {
 
   @Override
   public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
-    super.clear(regionVersionVector, bucketRegion);
+    if (appendBuffer != null && regionVersionVector == null) {
+      synchronized (this) {
+        super.clear(regionVersionVector, bucketRegion);
+        discardPendingAppends();
+      }
+    } else {
+      super.clear(regionVersionVector, bucketRegion);
+    }
     recentlyUsedCounter.set(0);
   }
 
+  @Override
+  public int size() {
+    return super.size() + pendingAppends.get();
+  }
+
+  /**
+   * Adds a node to the tail of the list. If appends are buffered the node is queued without taking
+   * the list lock and is linked by a later drain. A node is only queued by the thread whose
+   * {@link EvictionNode#casNext} moves it from no next node to {@link #PENDING}, so concurrent
+   * appenders, and the list relinking a node it unlinked, cannot both claim it.
+   */
+  @Override
+  public void appendEntry(EvictionNode evictionNode) {
+    if (appendBuffer == null) {
+      super.appendEntry(evictionNode);
+      return;
+    }
+    if (!evictionNode.casNext(null, PENDING)) {
+      // already in the list or queued
+      return;
+    }
+
+    int stripe = (int) Thread.currentThread().getId() & (appendBuffer.length - 1);
+    appendBuffer[stripe].offer(evictionNode);
+    if (pendingAppends.incrementAndGet() >= APPEND_BUFFER_DRAIN_THRESHOLD
+        && drainingAppends.compareAndSet(false, true)) {
+      try {
+        drainAppendBuffer();
+      } finally {
+        drainingAppends.set(false);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void destroyEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() == PENDING) {
+      // still queued; the drain will skip it
+      evictionNode.setNext(null);
+      pendingAppends.decrementAndGet();
+      getStatistics().incDestroys();
+      return;
+    }
+    super.destroyEntry(evictionNode);
+  }
+
+  /**
+   * Links the queued nodes into the list in the order each stripe received them. Nodes that were
+   * destroyed since they were queued no longer have {@link #PENDING} as their next node and are
+   * skipped; {@link #destroyEntry} already took them out of the pending count. At most the number
+   * of nodes pending when the drain starts are linked so that appending threads cannot keep the
+   * drain going forever. A pending node is linked straight from {@link #PENDING}; it never passes
+   * through having no next node, which would let an appender claim it again.
+   */
+  private synchronized void drainAppendBuffer() {
+    if (appendBuffer == null) {
+      return;
+    }
+    int remaining = pendingAppends.get();
+    for (int i = 0; i < appendBuffer.length && remaining > 0; i++) {
+      EvictionNode evictionNode;
+      while (remaining > 0 && (evictionNode = appendBuffer[i].poll()) != null) {
+        if (evictionNode.next() == PENDING) {
+          remaining--;
+          pendingAppends.decrementAndGet();
+          linkEntry(evictionNode);
+        }
+      }
+    }
+  }
+
+  private void discardPendingAppends() {
+    for (ConcurrentLinkedQueue<EvictionNode> stripe : appendBuffer) {
+      EvictionNode evictionNode;
+      while ((evictionNode = stripe.poll()) != null) {
+        if (evictionNode.next() == PENDING) {
+          evictionNode.setNext(null);
+          pendingAppends.decrementAndGet();
+        }
+      }
+    }
+  }
+
+  /**
+   * Links a node this list unlinked back at the tail. With buffered appends the node is claimed
+   * with {@link EvictionNode#casNext} because an appender may queue it while it is unlinked.
+   */
+  private synchronized void relinkEntry(EvictionNode evictionNode) {
+    if (appendBuffer == null) {
+      super.appendEntry(evictionNode);
+    } else if (evictionNode.casNext(null, tail)) {
+      linkEntry(evictionNode);
+    }
+  }
+
   /**
    * Remove and return the Entry that is considered least recently used.
    */
   @Override
   public EvictableEntry getEvictableEntry() {
+    drainAppendBuffer();
     int evictionAttempts = 0;
     for (;;) {
       final EvictionNode evictionNode = unlinkHeadEntry();
@@ -142,7 +288,7 @@ public class LRUListWithAsyncSorting extends AbstractEvictionList {
       if (evictionNode.isRecentlyUsed() && evictionAttempts < maxEvictionAttempts) {
         evictionAttempts++;
         evictionNode.unsetRecentlyUsed();
-        appendEntry(evictionNode);
+        relinkEntry(evictionNode);
         continue;
       }
 
@@ -17,10 +17,13 @@ package org.apache.geode.internal.cache.eviction;
 import org.apache.geode.cache.EvictionAction;
 import org.apache.geode.cache.EvictionAlgorithm;
 import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.internal.cache.CachedDeserializable;
 import org.apache.geode.internal.cache.InternalRegion;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.persistence.DiskRegionView;
 import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.size.CompiledObjectSizer;
 
 
 /**
@@ -31,12 +34,24 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
  * this algorithm may not yield optimal results for all kinds of data. The user may provide their
  * own algorithm for determining the size of objects by implementing an {@link ObjectSizer}.
  *
+ * <p>
+ * When {@link SystemPropertyHelper#EVICTION_SIZE_STORED_FORM} is set, values stored as a
+ * {@link CachedDeserializable} are always sized by their stored form, the serialized bytes or the
+ * off-heap size, plus the per-entry overhead. That size is known without walking the value, and it
+ * is kept when the value is later deserialized in place, so sizing an entry costs the same no
+ * matter how large its value is. Without it the deserialized form is sized again with the
+ * {@link ObjectSizer} when a value is deserialized in place.
+ *
  * @since GemFire 2.0.2
  */
 public class MemoryLRUController extends SizeLRUController {
 
+  private static final boolean SIZE_STORED_FORM = SystemPropertyHelper
+      .getProductBooleanProperty(SystemPropertyHelper.EVICTION_SIZE_STORED_FORM).orElse(false);
+
   private long limit;
   private final boolean isOffHeap;
+  private final boolean sizeStoredForm;
 
   private static final long ONE_MEG = 1024L * 1024L;
 
@@ -54,16 +69,32 @@ public class MemoryLRUController extends SizeLRUController {
    *        allowed in the region, collectively for its primary buckets and redundant copies for
    *        this VM. It can be different for the same region in different VMs.
    * @param sizer classname of a class that implements ObjectSizer, used to compute object sizes for
-   *        MemLRU
+   *        MemLRU. {@link ObjectSizer#REFLECTION_SIZE} is replaced by the equivalent but faster
+   *        {@link CompiledObjectSizer} when it is supported.
    * @param isOffHeap true if the region that owns this cc is stored off heap
    */
   public MemoryLRUController(EvictionCounters evictionCounters, int megabytes, ObjectSizer sizer,
       EvictionAction evictionAction, boolean isOffHeap, EvictionAlgorithm algorithm) {
-    super(evictionCounters, evictionAction, sizer, algorithm);
+    this(evictionCounters, megabytes, sizer, evictionAction, isOffHeap, algorithm,
+        SIZE_STORED_FORM);
+  }
+
+  MemoryLRUController(EvictionCounters evictionCounters, int megabytes, ObjectSizer sizer,
+      EvictionAction evictionAction, boolean isOffHeap, EvictionAlgorithm algorithm,
+      boolean sizeStoredForm) {
+    super(evictionCounters, evictionAction, compileReflectionSizer(sizer), algorithm);
     this.isOffHeap = isOffHeap;
+    this.sizeStoredForm = sizeStoredForm;
     setMaximumMegabytes(megabytes);
   }
 
+  private static ObjectSizer compileReflectionSizer(ObjectSizer sizer) {
+    if (sizer == ObjectSizer.REFLECTION_SIZE && CompiledObjectSizer.isSupported()) {
+      return CompiledObjectSizer.getInstance();
+    }
+    return sizer;
+  }
+
   /**
    * Reset the maximum allowed limit on memory to use for this region. This change takes effect on
    * next region operation that could increase the region's byte size. If the region is shared, this
@@ -105,7 +136,14 @@ public class MemoryLRUController extends SizeLRUController {
       size += getPerEntryOverhead();
       keySize = sizeof(key);
     }
-    int valueSize = sizeof(value);
+    int valueSize;
+    if (this.sizeStoredForm && value instanceof CachedDeserializableValueWrapper) {
+      // the stored size of a cached deserializable does not change when it is deserialized
+      valueSize =
+          ((CachedDeserializableValueWrapper) value).getCachedDeserializable().getSizeInBytes();
+    } else {
+      valueSize = sizeof(value);
+    }
     size += keySize;
     size += valueSize;
     return size;
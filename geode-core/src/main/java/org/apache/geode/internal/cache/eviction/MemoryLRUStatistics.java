@@ -29,6 +29,10 @@ public class MemoryLRUStatistics implements EvictionStats {
   private static final int destroysId;
   private static final int evaluationsId;
   private static final int greedyReturnsId;
+  private static final int hitsId;
+  private static final int missesId;
+  private static final int hitRatioId;
+  private static final int sketchResetsId;
 
   static {
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
@@ -40,6 +44,14 @@ public class MemoryLRUStatistics implements EvictionStats {
         "Number of entries destroyed in the region through both destroy cache operations and eviction.";
     final String lruEvaluationsDesc = "Number of entries evaluated during LRU operations.";
     final String lruGreedyReturnsDesc = "Number of non-LRU entries evicted during LRU operations";
+    final String lruHitsDesc =
+        "Number of times a tinylfu entry was used again since eviction last examined it.";
+    final String lruMissesDesc =
+        "Number of entries added to a tinylfu eviction list because they were not in memory.";
+    final String lruHitRatioDesc =
+        "Ratio of hits to hits plus misses during the most recent frequency sketch sample period.";
+    final String lruSketchResetsDesc =
+        "Number of times the frequency sketch of the tinylfu algorithms was aged.";
 
     statType = f.createType("MemLRUStatistics", "Statistics relates to memory based eviction",
         new StatisticDescriptor[] {f.createLongGauge("bytesAllowed", bytesAllowedDesc, "bytes"),
@@ -47,7 +59,11 @@ public class MemoryLRUStatistics implements EvictionStats {
             f.createLongCounter("lruEvictions", lruEvictionsDesc, "entries"),
             f.createLongCounter("lruDestroys", lruDestroysDesc, "entries"),
             f.createLongCounter("lruEvaluations", lruEvaluationsDesc, "entries"),
-            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries")});
+            f.createLongCounter("lruGreedyReturns", lruGreedyReturnsDesc, "entries"),
+            f.createLongCounter("lruHits", lruHitsDesc, "operations"),
+            f.createLongCounter("lruMisses", lruMissesDesc, "operations"),
+            f.createDoubleGauge("lruHitRatio", lruHitRatioDesc, "ratio"),
+            f.createLongCounter("lruSketchResets", lruSketchResetsDesc, "operations")});
 
     limitId = statType.nameToId("bytesAllowed");
     counterId = statType.nameToId("byteCount");
@@ -55,6 +71,10 @@ public class MemoryLRUStatistics implements EvictionStats {
     destroysId = statType.nameToId("lruDestroys");
     evaluationsId = statType.nameToId("lruEvaluations");
     greedyReturnsId = statType.nameToId("lruGreedyReturns");
+    hitsId = statType.nameToId("lruHits");
+    missesId = statType.nameToId("lruMisses");
+    hitRatioId = statType.nameToId("lruHitRatio");
+    sketchResetsId = statType.nameToId("lruSketchResets");
   }
 
   private final Statistics stats;
@@ -108,4 +128,23 @@ public class MemoryLRUStatistics implements EvictionStats {
     this.stats.incLong(greedyReturnsId, delta);
   }
 
+  @Override
+  public void incHits() {
+    this.stats.incLong(hitsId, 1);
+  }
+
+  @Override
+  public void incMisses() {
+    this.stats.incLong(missesId, 1);
+  }
+
+  @Override
+  public void setHitRatio(double hitRatio) {
+    this.stats.setDouble(hitRatioId, hitRatio);
+  }
+
+  @Override
+  public void incSketchResets() {
+    this.stats.incLong(sketchResetsId, 1);
+  }
 }
@@ -0,0 +1,359 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LocalizedMessage;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * An eviction list implementing the W-TinyLFU policy. Entries are kept in three segments:
+ * <ul>
+ * <li>a small <i>window</i> LRU that every new entry enters (the inherited list),
+ * <li>a <i>probation</i> segment holding main entries that have not been used since they were
+ * admitted or demoted,
+ * <li>a <i>protected</i> segment holding main entries that were used while on probation.
+ * </ul>
+ * When the window grows past its share of the list, its least recently used entry becomes a
+ * candidate for the main segments and competes with the head of the probation segment. The entry
+ * whose key has been seen less often, according to a {@link FrequencySketch} that also remembers
+ * keys that are no longer in the region, is evicted. A scan therefore only displaces entries from
+ * the window instead of flushing the whole list.
+ *
+ * <p>
+ * Accesses are sampled through the recently used bit of each entry rather than recorded on every
+ * read: a key's frequency is incremented when its entry is added to the list and whenever the
+ * eviction pass finds its recently used bit set. Entries destroyed from the region are not known to
+ * belong to a particular segment, so the window and protected sizes are upper bounds that are
+ * corrected whenever those segments are found to be empty.
+ */
+public class TinyLFUList extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  private static final int DEFAULT_WINDOW_PERCENT = 1;
+
+  private static final int PROTECTED_PERCENT = 80;
+
+  private static final int DEFAULT_MAX_EVICTION_ATTEMPTS = 10;
+
+  /** The first node of the probation segment is probationHead.next() */
+  private final EvictionNode probationHead = new GuardNode();
+
+  private final EvictionNode probationTail = new GuardNode();
+
+  /** The first node of the protected segment is protectedHead.next() */
+  private final EvictionNode protectedHead = new GuardNode();
+
+  private final EvictionNode protectedTail = new GuardNode();
+
+  private final FrequencySketch sketch = new FrequencySketch(0);
+
+  private final int windowPercent;
+
+  private final int maxEvictionAttempts;
+
+  /** Hits recorded since the sketch last aged */
+  private final AtomicLong periodHits = new AtomicLong();
+
+  /** Misses recorded since the sketch last aged; guarded by this */
+  private long periodMisses;
+
+  /** Upper bound of the number of nodes in the window; guarded by this */
+  private int windowSize;
+
+  /** Upper bound of the number of nodes in the protected segment; guarded by this */
+  private int protectedSize;
+
+  /**
+   * False until the first eviction; until then nodes that overflow the window move straight to
+   * probation since there is nothing for them to compete with. Guarded by this.
+   */
+  private boolean evicting;
+
+  /** The number of nodes given another chance by the current eviction pass; guarded by this */
+  private int evictionAttempts;
+
+  TinyLFUList(EvictionController controller) {
+    this(controller, DEFAULT_MAX_EVICTION_ATTEMPTS);
+  }
+
+  TinyLFUList(EvictionController controller, int maxEvictionAttempts) {
+    super(controller);
+    this.windowPercent = readWindowPercent();
+    this.maxEvictionAttempts = maxEvictionAttempts;
+    initSegments();
+  }
+
+  private int readWindowPercent() {
+    Optional<Integer> configuredPercent = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_TINYLFU_WINDOW_PERCENT);
+
+    int percent = configuredPercent.orElse(DEFAULT_WINDOW_PERCENT);
+    if (percent < 0 || percent > 100) {
+      percent = DEFAULT_WINDOW_PERCENT;
+    }
+    return percent;
+  }
+
+  private synchronized void initSegments() {
+    probationHead.setNext(probationTail);
+    probationTail.setPrevious(probationHead);
+    protectedHead.setNext(protectedTail);
+    protectedTail.setPrevious(protectedHead);
+    windowSize = 0;
+    protectedSize = 0;
+    evicting = false;
+  }
+
+  @Override
+  public synchronized void clear(RegionVersionVector regionVersionVector,
+      BucketRegion bucketRegion) {
+    super.clear(regionVersionVector, bucketRegion);
+    if (regionVersionVector == null) {
+      initSegments();
+    }
+  }
+
+  /**
+   * Adds a node to the tail of the window and records an occurrence of its key.
+   */
+  @Override
+  public synchronized void appendEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() != null) {
+      // already in the list
+      return;
+    }
+
+    super.appendEntry(evictionNode);
+    windowSize++;
+    periodMisses++;
+    getStatistics().incMisses();
+    if (size() > sketch.capacity()) {
+      sketch.ensureCapacity(size());
+    }
+    recordAccess(evictionNode);
+
+    if (!evicting && windowSize > windowMaximum()) {
+      EvictionNode overflow = head.next();
+      moveToTail(overflow, probationTail);
+      windowSize--;
+    }
+  }
+
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    for (;;) {
+      EvictionNode evictionNode = selectVictim();
+      if (evictionNode == null) {
+        // hit the end of the list
+        return null;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, "lru considering {}", evictionNode);
+      }
+
+      if (!isEvictable(evictionNode)) {
+        continue;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, LocalizedMessage
+            .create(LocalizedStrings.NewLRUClockHand_RETURNING_UNUSED_ENTRY, evictionNode));
+      }
+      return (EvictableEntry) evictionNode;
+    }
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    periodHits.incrementAndGet();
+    getStatistics().incHits();
+  }
+
+  /**
+   * Picks the node to evict and unlinks it. The least recently used node of the window competes
+   * with the head of probation once the window is over its share of the list; otherwise the head
+   * of probation is evicted.
+   */
+  private synchronized EvictionNode selectVictim() {
+    evicting = true;
+    evictionAttempts = 0;
+
+    EvictionNode candidate = null;
+    if (windowSize > windowMaximum()) {
+      candidate = windowCandidate();
+    }
+    EvictionNode victim = probationVictim();
+
+    EvictionNode evictionNode;
+    if (victim == null) {
+      // the main segments are empty so evict from the window
+      evictionNode = candidate != null ? candidate : windowCandidate();
+      if (evictionNode == null) {
+        return null;
+      }
+      windowSize--;
+    } else if (candidate == null) {
+      evictionNode = victim;
+    } else if (frequency(candidate) > frequency(victim)) {
+      moveToTail(candidate, probationTail);
+      windowSize--;
+      evictionNode = victim;
+    } else {
+      evictionNode = candidate;
+      windowSize--;
+    }
+
+    unlinkEntry(evictionNode);
+    getStatistics().incEvaluations(evictionAttempts + 1);
+    if (evictionNode.isRecentlyUsed()) {
+      getStatistics().incGreedyReturns(1);
+    }
+    return evictionNode;
+  }
+
+  /**
+   * Returns the least recently used node of the window, giving recently used nodes another chance
+   * at the tail of the window, or null if the window is empty.
+   */
+  private EvictionNode windowCandidate() {
+    for (;;) {
+      EvictionNode evictionNode = head.next();
+      if (evictionNode == tail) {
+        windowSize = 0;
+        return null;
+      }
+      if (evictionNode.isRecentlyUsed() && evictionAttempts < maxEvictionAttempts) {
+        evictionAttempts++;
+        evictionNode.unsetRecentlyUsed();
+        recordAccess(evictionNode);
+        moveToTail(evictionNode, tail);
+        continue;
+      }
+      return evictionNode;
+    }
+  }
+
+  /**
+   * Returns the head of probation, or null if both main segments are empty. Recently used
+   * probation nodes are promoted to the protected segment and, when probation is empty, the
+   * protected segment's least recently used node is demoted to take their place.
+   */
+  private EvictionNode probationVictim() {
+    for (;;) {
+      EvictionNode evictionNode = probationHead.next();
+      if (evictionNode == probationTail) {
+        if (!demoteProtectedHead()) {
+          return null;
+        }
+        continue;
+      }
+      if (evictionNode.isRecentlyUsed() && evictionAttempts < maxEvictionAttempts) {
+        evictionAttempts++;
+        evictionNode.unsetRecentlyUsed();
+        recordAccess(evictionNode);
+        moveToTail(evictionNode, protectedTail);
+        protectedSize++;
+        if (protectedSize > protectedMaximum()) {
+          demoteProtectedHead();
+        }
+        continue;
+      }
+      return evictionNode;
+    }
+  }
+
+  private boolean demoteProtectedHead() {
+    EvictionNode evictionNode = protectedHead.next();
+    if (evictionNode == protectedTail) {
+      protectedSize = 0;
+      return false;
+    }
+    moveToTail(evictionNode, probationTail);
+    protectedSize--;
+    return true;
+  }
+
+  private int windowMaximum() {
+    return Math.max(1, (int) ((long) size() * windowPercent / 100));
+  }
+
+  private int protectedMaximum() {
+    return (int) ((long) Math.max(size() - windowMaximum(), 0) * PROTECTED_PERCENT / 100);
+  }
+
+  private int frequency(EvictionNode evictionNode) {
+    return sketch.frequency(keyHash(evictionNode));
+  }
+
+  private void recordAccess(EvictionNode evictionNode) {
+    if (sketch.increment(keyHash(evictionNode))) {
+      long hits = periodHits.getAndSet(0);
+      long accesses = hits + periodMisses;
+      periodMisses = 0;
+      getStatistics().incSketchResets();
+      if (accesses > 0) {
+        getStatistics().setHitRatio((double) hits / accesses);
+      }
+    }
+  }
+
+  private static int keyHash(EvictionNode evictionNode) {
+    Object key = null;
+    if (evictionNode instanceof EvictableEntry) {
+      key = ((EvictableEntry) evictionNode).getKey();
+    }
+    return key != null ? key.hashCode() : System.identityHashCode(evictionNode);
+  }
+
+  /**
+   * Unlinks a node and links it in front of the given tail guard, keeping the list size unchanged.
+   */
+  private void moveToTail(EvictionNode evictionNode, EvictionNode segmentTail) {
+    EvictionNode next = evictionNode.next();
+    EvictionNode previous = evictionNode.previous();
+    next.setPrevious(previous);
+    previous.setNext(next);
+
+    EvictionNode last = segmentTail.previous();
+    evictionNode.setNext(segmentTail);
+    evictionNode.setPrevious(last);
+    last.setNext(evictionNode);
+    segmentTail.setPrevious(evictionNode);
+  }
+
+  int getWindowSize() {
+    return windowSize;
+  }
+
+  int getProtectedSize() {
+    return protectedSize;
+  }
+
+  long getSketchResets() {
+    return sketch.getResets();
+  }
+}
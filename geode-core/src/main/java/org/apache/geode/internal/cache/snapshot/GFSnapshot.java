@@ -27,6 +27,9 @@ import java.util.Arrays;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.apache.geode.DataSerializer;
 import org.apache.geode.cache.CacheClosedException;
@@ -68,6 +71,12 @@ public class GFSnapshot {
   /** the snapshot format version 2 */
   public static final int SNAP_VER_2 = 2;
 
+  /** the snapshot format version 3, version 2 with deflated entries */
+  public static final int SNAP_VER_3 = 3;
+
+  /** the size of the buffers used to deflate and inflate the entries */
+  private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+
   /** the snapshot file format */
   private static final byte[] SNAP_FMT = {0x47, 0x46, 0x53};
 
@@ -118,7 +127,22 @@ public class GFSnapshot {
    */
   public static SnapshotWriter create(File snapshot, String region, InternalCache cache)
       throws IOException {
-    final GFSnapshotExporter out = new GFSnapshotExporter(snapshot, region, cache);
+    return create(snapshot, region, cache, false);
+  }
+
+  /**
+   * Creates a snapshot file and provides a serializer to write entries to the snapshot.
+   *
+   * @param snapshot the snapshot file
+   * @param region the region name
+   * @param cache
+   * @param compressed true if the entries are compressed
+   * @return the callback to allow the invoker to provide the snapshot entries
+   * @throws IOException error writing the snapshot file
+   */
+  public static SnapshotWriter create(File snapshot, String region, InternalCache cache,
+      boolean compressed) throws IOException {
+    final GFSnapshotExporter out = new GFSnapshotExporter(snapshot, region, cache, compressed);
     return new SnapshotWriter() {
       @Override
       public void snapshotEntry(SnapshotRecord entry) throws IOException {
@@ -221,7 +245,21 @@ public class GFSnapshot {
     private final DataOutputStream dos;
     private final InternalCache cache;
 
+    /** the deflater of the entries, or null if they are not compressed */
+    private final Deflater deflater;
+
+    /** the deflating stream of the entries, or null if they are not compressed */
+    private final DeflaterOutputStream deflaterStream;
+
+    /** the stream the entries are written to */
+    private final DataOutputStream entries;
+
     public GFSnapshotExporter(File out, String region, InternalCache cache) throws IOException {
+      this(out, region, cache, false);
+    }
+
+    public GFSnapshotExporter(File out, String region, InternalCache cache, boolean compressed)
+        throws IOException {
       this.cache = cache;
       FileOutputStream fos = new FileOutputStream(out);
       fc = fos.getChannel();
@@ -229,7 +267,7 @@ public class GFSnapshot {
       dos = new DataOutputStream(new BufferedOutputStream(fos));
 
       // write snapshot version
-      dos.writeByte(SNAP_VER_2);
+      dos.writeByte(compressed ? SNAP_VER_3 : SNAP_VER_2);
 
       // write format type
       dos.write(SNAP_FMT);
@@ -239,6 +277,17 @@ public class GFSnapshot {
 
       // write region name
       dos.writeUTF(region);
+
+      if (compressed) {
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        deflaterStream = new DeflaterOutputStream(dos, deflater, COMPRESSION_BUFFER_SIZE);
+        entries =
+            new DataOutputStream(new BufferedOutputStream(deflaterStream, COMPRESSION_BUFFER_SIZE));
+      } else {
+        deflater = null;
+        deflaterStream = null;
+        entries = dos;
+      }
     }
 
     /**
@@ -248,12 +297,18 @@ public class GFSnapshot {
      * @throws IOException unable to write entry
      */
     public void writeSnapshotEntry(SnapshotRecord entry) throws IOException {
-      InternalDataSerializer.invokeToData(entry, dos);
+      InternalDataSerializer.invokeToData(entry, entries);
     }
 
     public void close() throws IOException {
       // write entry terminator entry
-      DataSerializer.writeByteArray(null, dos);
+      DataSerializer.writeByteArray(null, entries);
+      if (deflaterStream != null) {
+        // the pdx types are not compressed, only the entries
+        entries.flush();
+        deflaterStream.finish();
+        deflater.end();
+      }
 
       // grab the pdx start location
       dos.flush();
@@ -310,7 +365,7 @@ public class GFSnapshot {
               LocalizedStrings.Snapshot_UNSUPPORTED_SNAPSHOT_VERSION_0.toLocalizedString(SNAP_VER_1)
                   + ": " + in);
 
-        } else if (version == SNAP_VER_2) {
+        } else if (version == SNAP_VER_2 || version == SNAP_VER_3) {
           // read format
           byte[] format = new byte[3];
           tmp.readFully(format);
@@ -347,8 +402,15 @@ public class GFSnapshot {
       checkPdxEnumCompatibility(typeRegistry);
 
       // open new stream with buffering for reading entries
-      dis = new DataInputStream(new BufferedInputStream(new FileInputStream(in)));
-      dis.skip(entryPosition);
+      if (version == SNAP_VER_3) {
+        BufferedInputStream bis = new BufferedInputStream(new FileInputStream(in));
+        bis.skip(entryPosition);
+        dis = new DataInputStream(
+            new BufferedInputStream(new InflaterInputStream(bis), COMPRESSION_BUFFER_SIZE));
+      } else {
+        dis = new DataInputStream(new BufferedInputStream(new FileInputStream(in)));
+        dis.skip(entryPosition);
+      }
     }
 
     /**
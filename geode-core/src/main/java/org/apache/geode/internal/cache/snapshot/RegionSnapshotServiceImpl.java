@@ -20,11 +20,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -56,6 +59,7 @@ import org.apache.geode.internal.cache.CachedDeserializableFactory;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalDataSet;
 import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.execute.InternalFunction;
 import org.apache.geode.internal.cache.snapshot.GFSnapshot.GFSnapshotImporter;
@@ -79,6 +83,14 @@ public class RegionSnapshotServiceImpl<K, V> implements RegionSnapshotService<K,
   static final int BUFFER_SIZE = Integer.getInteger(
       DistributionConfig.GEMFIRE_PREFIX + "RegionSnapshotServiceImpl.BUFFER_SIZE", 1024 * 1024);
 
+  // controls number of bucket files a member exports or imports concurrently
+  private static final int BUCKET_CONCURRENCY =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX
+          + "RegionSnapshotServiceImpl.BUCKET_CONCURRENCY", 4);
+
+  // the suffix of the base name of a bucket file, followed by the bucket id
+  static final String BUCKET_FILE_SUFFIX = "-bucket";
+
   static final SnapshotFileMapper LOCAL_MAPPER = new SnapshotFileMapper() {
     private static final long serialVersionUID = 1L;
 
@@ -158,6 +170,8 @@ public class RegionSnapshotServiceImpl<K, V> implements RegionSnapshotService<K,
     if (shouldRunInParallel(options)) {
       snapshotInParallel(new ParallelArgs<>(snapshot, format, options),
           new ParallelExportFunction<K, V>());
+    } else if (useBucketFiles(options)) {
+      exportBucketsOnMember(snapshot, format, options);
     } else {
       exportOnMember(snapshot, format, options);
     }
@@ -174,9 +188,15 @@ public class RegionSnapshotServiceImpl<K, V> implements RegionSnapshotService<K,
       throws IOException, ClassNotFoundException {
 
     if (shouldRunInParallel(options)) {
+      if (isBucketFiles(options)) {
+        // create every bucket so that every bucket file has a primary to import it
+        PartitionRegionHelper.assignBucketsToPartitions(region);
+      }
       snapshotInParallel(new ParallelArgs<>(snapshot, format, options),
           new ParallelImportFunction<>());
 
+    } else if (useBucketFiles(options) && snapshot.isDirectory()) {
+      importBucketsOnMember(snapshot, options);
     } else {
       importOnMember(snapshot, format, options);
     }
@@ -187,6 +207,134 @@ public class RegionSnapshotServiceImpl<K, V> implements RegionSnapshotService<K,
         && !(region instanceof LocalDataSet);
   }
 
+  /**
+   * Returns true if this is the local data of a parallel import or export that uses a file per
+   * bucket.
+   */
+  private boolean useBucketFiles(SnapshotOptions<K, V> options) {
+    return options.isParallelMode() && isBucketFiles(options) && region instanceof LocalDataSet;
+  }
+
+  private static boolean isBucketFiles(SnapshotOptions<?, ?> options) {
+    return options instanceof SnapshotOptionsImpl
+        && ((SnapshotOptionsImpl<?, ?>) options).isBucketFiles();
+  }
+
+  private static boolean isCompressed(SnapshotOptions<?, ?> options) {
+    return options instanceof SnapshotOptionsImpl
+        && ((SnapshotOptionsImpl<?, ?>) options).isCompressed();
+  }
+
+  /**
+   * Returns the file the given bucket is exported to, the given snapshot file with the bucket id
+   * appended to its base name.
+   */
+  static File getBucketFile(File snapshot, int bucketId) {
+    String name = snapshot.getName();
+    String baseName = name.substring(0, name.length() - SNAPSHOT_FILE_EXTENSION.length());
+    return new File(snapshot.getParentFile(),
+        baseName + BUCKET_FILE_SUFFIX + bucketId + SNAPSHOT_FILE_EXTENSION);
+  }
+
+  /**
+   * Exports each local bucket to its own file, several buckets at a time.
+   */
+  private void exportBucketsOnMember(File snapshot, SnapshotFormat format,
+      SnapshotOptions<K, V> options) throws IOException {
+    if (!snapshot.getName().endsWith(SNAPSHOT_FILE_EXTENSION)) {
+      throw new IllegalArgumentException("Failure to export snapshot: "
+          + snapshot.getCanonicalPath() + " is not a valid .gfd file");
+    }
+    LocalDataSet local = (LocalDataSet) region;
+    List<Callable<Void>> exports = new ArrayList<>();
+    for (int bucketId : local.getBucketSet()) {
+      LocalDataSet bucket = new LocalDataSet(local.getProxy(), Collections.singleton(bucketId));
+      RegionSnapshotServiceImpl<K, V> service =
+          new RegionSnapshotServiceImpl<>((Region<K, V>) bucket);
+      File bucketFile = getBucketFile(snapshot, bucketId);
+      exports.add(() -> {
+        service.exportOnMember(bucketFile, format, options);
+        return null;
+      });
+    }
+    try {
+      runConcurrently(exports);
+    } catch (ClassNotFoundException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Imports every snapshot file in the given directory, several at a time. The entries are put
+   * through the partitioned region, so the entries of a bucket that is no longer local are routed
+   * to its current primary and only the files of local primaries are imported without sending
+   * entries to other members.
+   */
+  private void importBucketsOnMember(File snapshot, SnapshotOptions<K, V> options)
+      throws IOException, ClassNotFoundException {
+    File[] snapshots =
+        snapshot.listFiles((File f) -> f.getName().endsWith(SNAPSHOT_FILE_EXTENSION));
+    if (snapshots == null) {
+      throw new IOException("Unable to access " + snapshot.getCanonicalPath());
+    } else if (snapshots.length == 0) {
+      throw new IllegalArgumentException("Failure to import snapshot: "
+          + snapshot.getAbsolutePath() + " contains no valid .gfd snapshot files");
+    }
+
+    PartitionedRegion pr = ((LocalDataSet) region).getProxy();
+    List<Callable<Void>> imports = new ArrayList<>();
+    if (getLoggerI18n().infoEnabled())
+      getLoggerI18n().info(LocalizedStrings.Snapshot_IMPORT_BEGIN_0, region.getName());
+    for (File snapshotFile : snapshots) {
+      // the primaries may have moved since the export, so every file this member has is imported
+      imports.add(() -> {
+        importSnapshotFile(snapshotFile, options, pr);
+        return null;
+      });
+    }
+    runConcurrently(imports);
+  }
+
+  /**
+   * Runs the given tasks on the waiting thread pool, at most {@link #BUCKET_CONCURRENCY} at a time.
+   */
+  private void runConcurrently(List<Callable<Void>> tasks)
+      throws IOException, ClassNotFoundException {
+    LinkedList<Future<Void>> running = new LinkedList<>();
+    try {
+      for (Callable<Void> task : tasks) {
+        if (running.size() == BUCKET_CONCURRENCY) {
+          running.removeFirst().get();
+        }
+        running.addLast(getLocalRegion(region).getCache().getDistributionManager()
+            .getWaitingThreadPool().submit(task));
+      }
+      while (!running.isEmpty()) {
+        running.removeFirst().get();
+      }
+
+    } catch (InterruptedException e) {
+      while (!running.isEmpty()) {
+        running.removeFirst().cancel(true);
+      }
+      Thread.currentThread().interrupt();
+      throw (IOException) new InterruptedIOException().initCause(e);
+
+    } catch (ExecutionException e) {
+      while (!running.isEmpty()) {
+        running.removeFirst().cancel(true);
+      }
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      } else if (e.getCause() instanceof ClassNotFoundException) {
+        throw (ClassNotFoundException) e.getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IOException(e);
+    }
+  }
+
   private void snapshotInParallel(ParallelArgs<K, V> args, Function fn) throws IOException {
     try {
 
@@ -349,8 +497,8 @@ public class RegionSnapshotServiceImpl<K, V> implements RegionSnapshotService<K,
 
     long count = 0;
     long start = CachePerfStats.getStatTime();
-    SnapshotWriter writer =
-        GFSnapshot.create(snapshot, region.getFullPath(), (InternalCache) region.getCache());
+    SnapshotWriter writer = GFSnapshot.create(snapshot, region.getFullPath(),
+        (InternalCache) region.getCache(), isCompressed(options));
     try {
       if (getLoggerI18n().infoEnabled())
         getLoggerI18n().info(LocalizedStrings.Snapshot_EXPORT_BEGIN_0, region.getName());
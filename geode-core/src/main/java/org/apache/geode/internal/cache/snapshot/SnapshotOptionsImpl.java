@@ -39,6 +39,12 @@ public class SnapshotOptionsImpl<K, V> implements SnapshotOptions<K, V> {
   /** the file mapper, or null if parallel mode is not enabled */
   private volatile SnapshotFileMapper mapper;
 
+  /** true if the entries of the snapshot files are compressed */
+  private volatile boolean compressed;
+
+  /** true if a partitioned region is exported to a file per bucket in parallel mode */
+  private volatile boolean bucketFiles;
+
   public SnapshotOptionsImpl() {
     filter = null;
     invokeCallbacks = false;
@@ -104,12 +110,60 @@ public class SnapshotOptionsImpl<K, V> implements SnapshotOptions<K, V> {
     return mapper;
   }
 
+  /**
+   * Enables compression of the snapshot entries on export. Compressed snapshots are imported like
+   * any other, but can not be read by older versions.
+   *
+   * @param compressed true to compress the entries
+   * @return the snapshot options
+   */
+  public SnapshotOptions<K, V> setCompressed(boolean compressed) {
+    this.compressed = compressed;
+    return this;
+  }
+
+  /**
+   * Returns true if the snapshot entries are compressed on export.
+   *
+   * @return true if compressed
+   * @see #setCompressed(boolean)
+   */
+  public boolean isCompressed() {
+    return compressed;
+  }
+
+  /**
+   * Enables a file per bucket for parallel import and export. Each member exports its primary
+   * buckets to separate files concurrently, and on import the buckets are created up front and
+   * each member imports all of its bucket files concurrently. The entries of a bucket that is still
+   * a local primary are put locally, and the others are sent to the current primary.
+   *
+   * @param bucketFiles true to use a file per bucket
+   * @return the snapshot options
+   * @see #setParallelMode(boolean)
+   */
+  public SnapshotOptions<K, V> setBucketFiles(boolean bucketFiles) {
+    this.bucketFiles = bucketFiles;
+    return this;
+  }
+
+  /**
+   * Returns true if a file per bucket is used for parallel import and export.
+   *
+   * @return true if a file per bucket is used
+   * @see #setBucketFiles(boolean)
+   */
+  public boolean isBucketFiles() {
+    return bucketFiles;
+  }
+
   @Override
   public String toString() {
     StringBuffer buf = new StringBuffer();
     buf.append("SnapshotOptionsImpl@").append(System.identityHashCode(this)).append(": ")
         .append("parallel=").append(parallel).append("; invokeCallbacks=").append(invokeCallbacks)
-        .append("; filter=").append(filter).append("; mapper=").append(mapper);
+        .append("; filter=").append(filter).append("; mapper=").append(mapper)
+        .append("; compressed=").append(compressed).append("; bucketFiles=").append(bucketFiles);
     return buf.toString();
   }
 }
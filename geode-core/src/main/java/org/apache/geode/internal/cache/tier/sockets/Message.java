@@ -31,6 +31,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.SerializationException;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
+import org.apache.geode.internal.HeapBufferPool;
 import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.TXManagerImpl;
@@ -370,8 +371,9 @@ public class Message {
     }
 
     // Create the HDOS with a flag telling it that it can keep any byte[] or ByteBuffers/ByteSources
-    // passed to it. Do NOT close the HeapDataOutputStream!
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v, true);
+    // passed to it. Do NOT close the HeapDataOutputStream, the part closes it when it is cleared!
+    HeapDataOutputStream hdos =
+        new HeapDataOutputStream(this.chunkSize, v, true, HeapBufferPool.ENABLED);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -393,8 +395,9 @@ public class Message {
       v = null;
     }
 
-    // do NOT close the HeapDataOutputStream
-    HeapDataOutputStream hdos = new HeapDataOutputStream(this.chunkSize, v);
+    // do NOT close the HeapDataOutputStream, the part closes it when it is cleared
+    HeapDataOutputStream hdos =
+        new HeapDataOutputStream(this.chunkSize, v, false, HeapBufferPool.ENABLED);
     try {
       BlobHelper.serializeTo(o, hdos);
     } catch (IOException ex) {
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.versions;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Maps the members that appear in the version stamps of region entries to small integer indexes so
+ * that compact region entries can store an index instead of a reference to the member. Index zero
+ * stands for a null member.
+ *
+ * <p>
+ * Entries do not know their region when they are asked for their member, so there is one table for
+ * the whole VM. Members are only removed when the cache is closed because until then any entry may
+ * still refer to them. Once {@link #OVERFLOW_INDEX} - 1 members have been indexed, entries store
+ * {@link #OVERFLOW_INDEX} and their member is kept by entry in a weak map instead, which is slower
+ * and larger but lets a VM that sees many short-lived members keep working.
+ */
+public class VersionSourceTable {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * If true, versioned regions create region entries that pack their version stamp into primitive
+   * fields and refer to their member through this table.
+   */
+  public static final boolean COMPACT_VERSION_STAMPS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "COMPACT_VERSION_STAMPS");
+
+  /** The number of bits compact region entries use to store a member index */
+  public static final int INDEX_BITS = 16;
+
+  public static final int MAX_INDEX = (1 << INDEX_BITS) - 1;
+
+  /**
+   * The index of the members that did not fit in the table, which are looked up by entry.
+   */
+  public static final int OVERFLOW_INDEX = MAX_INDEX;
+
+  private static final ConcurrentHashMap<VersionSource, Integer> indexes =
+      new ConcurrentHashMap<>();
+
+  /** The members by index; replaced rather than modified once published */
+  private static volatile VersionSource[] members = new VersionSource[16];
+
+  /** The number of indexes in use, including the index of the null member; guarded by indexes */
+  private static int size = 1;
+
+  /** Whether a member did not fit in the table; guarded by indexes */
+  private static boolean overflowed;
+
+  /** The members of the entries that store {@link #OVERFLOW_INDEX}; guarded by itself */
+  private static final Map<Object, VersionSource> overflowMembers = new WeakHashMap<>();
+
+  private VersionSourceTable() {
+    // no instances
+  }
+
+  /**
+   * Returns the index the given entry stores for the given member. If the table is full the member
+   * is kept for the entry and {@link #OVERFLOW_INDEX} is returned.
+   *
+   * @param entry the entry the index is stored in
+   * @param currentBits the packed bits of the entry, whose low {@link #INDEX_BITS} bits hold the
+   *        index it stores now
+   */
+  public static int indexOf(Object entry, long currentBits, VersionSource member) {
+    int index = indexOf(member);
+    if (index == OVERFLOW_INDEX) {
+      synchronized (overflowMembers) {
+        overflowMembers.put(entry, member);
+      }
+    } else if ((currentBits & MAX_INDEX) == OVERFLOW_INDEX) {
+      synchronized (overflowMembers) {
+        overflowMembers.remove(entry);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Returns the member of the given entry that stores the given index.
+   */
+  public static VersionSource get(Object entry, int index) {
+    if (index == OVERFLOW_INDEX) {
+      synchronized (overflowMembers) {
+        return overflowMembers.get(entry);
+      }
+    }
+    return get(index);
+  }
+
+  /**
+   * Returns the index of the given member, assigning it the next free index if it has none, or
+   * {@link #OVERFLOW_INDEX} if the table is full.
+   */
+  static int indexOf(VersionSource member) {
+    if (member == null) {
+      return 0;
+    }
+    Integer index = indexes.get(member);
+    if (index != null) {
+      return index;
+    }
+    return addMember(member);
+  }
+
+  /**
+   * Returns the member with the given index, or null if the index is zero.
+   */
+  static VersionSource get(int index) {
+    VersionSource[] snapshot = members;
+    if (index < snapshot.length) {
+      VersionSource member = snapshot[index];
+      if (member != null || index == 0) {
+        return member;
+      }
+    }
+    // the index was read from an entry before its member was visible to this thread
+    synchronized (indexes) {
+      return members[index];
+    }
+  }
+
+  private static int addMember(VersionSource member) {
+    synchronized (indexes) {
+      Integer index = indexes.get(member);
+      if (index != null) {
+        return index;
+      }
+      if (size == OVERFLOW_INDEX) {
+        if (!overflowed) {
+          overflowed = true;
+          logger.warn("More than {} members have been seen in version stamps. The members of "
+              + "entries versioned by new members are kept in a map by entry, which uses more "
+              + "memory than the {}COMPACT_VERSION_STAMPS system property saves.",
+              OVERFLOW_INDEX - 1, DistributionConfig.GEMFIRE_PREFIX);
+        }
+        return OVERFLOW_INDEX;
+      }
+      int newIndex = size++;
+      VersionSource[] newMembers = members;
+      if (newIndex >= newMembers.length) {
+        newMembers = Arrays.copyOf(newMembers, Math.min(newMembers.length * 2, OVERFLOW_INDEX));
+      } else {
+        newMembers = newMembers.clone();
+      }
+      newMembers[newIndex] = member;
+      members = newMembers;
+      indexes.put(member, newIndex);
+      return newIndex;
+    }
+  }
+
+  /**
+   * Forgets all the members. Called when the cache is closed, after which no region entry refers to
+   * them, so that a recreated cache does not keep the members of the closed one.
+   */
+  public static void clear() {
+    synchronized (indexes) {
+      indexes.clear();
+      members = new VersionSource[16];
+      size = 1;
+      overflowed = false;
+    }
+    synchronized (overflowMembers) {
+      overflowMembers.clear();
+    }
+  }
+
+  /** Returns the number of indexes in use, including the index of the null member */
+  static int size() {
+    synchronized (indexes) {
+      return size;
+    }
+  }
+}
@@ -56,6 +56,37 @@ public class SystemPropertyHelper {
    */
   public static final String EVICTION_SCAN_THRESHOLD_PERCENT = "EvictionScanThresholdPercent";
 
+  /**
+   * When set to "true" (the default) entries added to an asynchronously sorted eviction list are
+   * queued on lock free buffers and linked into the list in batches, instead of taking the list
+   * lock for every add. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.LRUListWithAsyncSorting}.
+   *
+   * @since Geode 1.5
+   */
+  public static final String EVICTION_APPEND_BUFFER = "EvictionAppendBuffer";
+
+  /**
+   * This property allows configuration of the share of a W-TinyLFU eviction list, in percent, that
+   * is kept as a window for newly added entries. The default is 1. If the percentage is less than 0
+   * or greater than 100 then the default is used. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.TinyLFUList}.
+   *
+   * @since Geode 1.5
+   */
+  public static final String EVICTION_TINYLFU_WINDOW_PERCENT = "EvictionTinyLFUWindowPercent";
+
+  /**
+   * When set to "true" memory LRU regions size values that are stored serialized by their stored
+   * form: the serialized bytes of a heap value or the size of an off-heap value. Their size is
+   * then not recomputed by walking the deserialized object when the value is deserialized in
+   * place. The default is "false". For more details see
+   * {@link org.apache.geode.internal.cache.eviction.MemoryLRUController}.
+   *
+   * @since Geode 1.5
+   */
+  public static final String EVICTION_SIZE_STORED_FORM = "EvictionSizeStoredForm";
+
   public static final String EVICTION_SEARCH_MAX_ENTRIES = "lru.maxSearchEntries";
 
   /**
@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.lang.ref.SoftReference;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.DataSerializableFixedID;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
+
+/**
+ * The class just has static methods that operate on the keys of instances of
+ * {@link OffHeapKeyRegionEntry}. A key is serialized into off-heap memory while its entry holds a
+ * value and is copied back onto the heap, and its off-heap memory freed, when the value is replaced
+ * by a token such as a tombstone or {@link org.apache.geode.internal.cache.Token#REMOVED_PHASE2}.
+ * Code that discards an entry holding a value already releases it, so keys are freed with values
+ * and entries that only ever hold tokens, like the placeholders created by destroy and invalidate,
+ * never allocate off-heap memory for their key.
+ *
+ * <p>
+ * String, {@link DataSerializable} and {@link DataSerializableFixedID} keys are stored off heap.
+ * While a key is off heap the entry softly caches its deserialized form once it has been read, so
+ * that repeated reads of a hot key do not deserialize it each time while the garbage collector can
+ * still reclaim the keys that are not being used. Keys are only required to implement equals, and
+ * equal keys may serialize differently, so {@link #isKeyEqual} compares keys with equals. The one
+ * exception is a string serialized as one byte per character, whose characters are compared with
+ * the string being looked up in place. The hash of the key is kept on the heap by the region
+ * entry, like every other entry.
+ *
+ * <p>
+ * The key is stored and released while synchronized on the entry. The field that holds the key on
+ * the heap only ever holds null or the cache of the key while the key is off heap, which is what
+ * allows readers to install the cache with a compare and set.
+ *
+ * @since Geode 1.5
+ */
+public class OffHeapKeyHelper {
+
+  /**
+   * Set the "gemfire.OFF_HEAP_REGION_KEYS" system property to true to store the keys of off-heap
+   * regions off heap. Keys that can be inlined in the region entry are never stored off heap.
+   */
+  public static boolean OFF_HEAP_REGION_KEYS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_REGION_KEYS");
+
+  private OffHeapKeyHelper() {
+    // no instances
+  }
+
+  /**
+   * Returns true if off-heap keys are enabled and the given key is a string or is data
+   * serializable. Other keys, such as PDX keys, may not deserialize to an object of their class.
+   */
+  public static boolean canStoreKeyOffHeap(Object key) {
+    return OFF_HEAP_REGION_KEYS && (key instanceof String || key instanceof DataSerializable
+        || key instanceof DataSerializableFixedID);
+  }
+
+  /**
+   * Called by the entry constructor once the heap key has been set, since the value was set before
+   * the key.
+   */
+  public static void initializeKey(OffHeapKeyRegionEntry re) {
+    if (OffHeapRegionEntryHelper.isValueAddress(re.getAddress())) {
+      storeKey(re);
+    }
+  }
+
+  /**
+   * Moves the key off heap when the entry gets a value and back onto the heap when the value is
+   * replaced by a token. A removed entry never stores its key off heap again. Called by
+   * {@link OffHeapRegionEntryHelper} after the address of the entry's value has changed.
+   */
+  static void valueChanged(OffHeapKeyRegionEntry re, long oldAddress, long newAddress) {
+    if (!OffHeapRegionEntryHelper.isValueAddress(newAddress)) {
+      releaseKey(re);
+    } else if (oldAddress != OffHeapRegionEntryHelper.REMOVED_PHASE2_ADDRESS) {
+      storeKey(re);
+    }
+  }
+
+  private static void storeKey(OffHeapKeyRegionEntry re) {
+    synchronized (re) {
+      if (re.getKeyAddress() != 0L) {
+        return;
+      }
+      Object key = re.getHeapKey();
+      if (key == null) {
+        return;
+      }
+      byte[] serializedKey = EntryEventImpl.serialize(key);
+      long address = MemoryAllocatorImpl.getAllocator()
+          .allocateAndInitialize(serializedKey, true, false).getAddress();
+      re.setKeyAddress(0L, address);
+      re.setHeapKey(null);
+    }
+  }
+
+  /**
+   * Copies the key back onto the heap and frees its off-heap memory.
+   */
+  static void releaseKey(OffHeapKeyRegionEntry re) {
+    synchronized (re) {
+      long address = re.getKeyAddress();
+      if (address == 0L) {
+        return;
+      }
+      Object key = getCachedKey(re.getHeapKey());
+      if (key == null) {
+        key = readKey(re, address);
+      }
+      re.setHeapKey(key);
+      re.setKeyAddress(address, 0L);
+      releaseAddress(address);
+    }
+  }
+
+  public static Object getKey(OffHeapKeyRegionEntry re) {
+    for (;;) {
+      Object heapKey = re.getHeapKey();
+      Object key = getCachedKey(heapKey);
+      if (key != null) {
+        return key;
+      }
+      long address = re.getKeyAddress();
+      if (address != 0L) {
+        key = readKey(re, address);
+        if (key != null) {
+          re.casHeapKey(heapKey, new CachedKey(key));
+          return key;
+        }
+      }
+      // the key was released onto the heap concurrently
+    }
+  }
+
+  public static boolean isKeyEqual(OffHeapKeyRegionEntry re, Object key) {
+    for (;;) {
+      Object heapKey = re.getHeapKey();
+      Object storedKey = getCachedKey(heapKey);
+      if (storedKey != null) {
+        return key.equals(storedKey);
+      }
+      long address = re.getKeyAddress();
+      if (address == 0L) {
+        continue;
+      }
+      if (key instanceof String && OffHeapRegionEntryHelper.isOffHeap(address)) {
+        if (!retainKey(re, address)) {
+          continue;
+        }
+        int result;
+        try {
+          result = compareStringBytes(address, (String) key);
+        } finally {
+          OffHeapStoredObject.release(address);
+        }
+        if (result != UNKNOWN) {
+          return result == EQUAL;
+        }
+      }
+      storedKey = readKey(re, address);
+      if (storedKey != null) {
+        re.casHeapKey(heapKey, new CachedKey(storedKey));
+        return key.equals(storedKey);
+      }
+    }
+  }
+
+  /**
+   * Returns the key held on the heap by the entry, or the cached key if it is off heap and has not
+   * been collected, otherwise null.
+   */
+  private static Object getCachedKey(Object heapKey) {
+    if (heapKey instanceof CachedKey) {
+      return ((CachedKey) heapKey).get();
+    }
+    return heapKey;
+  }
+
+  /**
+   * Returns the deserialized key stored at the given address, or null if the entry no longer has
+   * its key at that address.
+   */
+  private static Object readKey(OffHeapKeyRegionEntry re, long address) {
+    if (!OffHeapRegionEntryHelper.isOffHeap(address)) {
+      return OffHeapRegionEntryHelper.decodeAddressToObject(address);
+    }
+    if (!retainKey(re, address)) {
+      return null;
+    }
+    byte[] serializedKey;
+    try {
+      serializedKey = new byte[OffHeapStoredObject.getDataSize(address)];
+      AddressableMemoryManager.readBytes(address + OffHeapStoredObject.HEADER_SIZE, serializedKey,
+          0, serializedKey.length);
+    } finally {
+      OffHeapStoredObject.release(address);
+    }
+    return EntryEventImpl.deserialize(serializedKey);
+  }
+
+  /**
+   * Retains the memory at the given address if it still holds the entry's key. The address is
+   * checked again after retaining since the memory may have been freed and allocated again.
+   */
+  private static boolean retainKey(OffHeapKeyRegionEntry re, long address) {
+    if (!OffHeapStoredObject.retain(address)) {
+      return false;
+    }
+    if (re.getKeyAddress() != address) {
+      OffHeapStoredObject.release(address);
+      return false;
+    }
+    return true;
+  }
+
+  private static final int NOT_EQUAL = 0;
+
+  private static final int EQUAL = 1;
+
+  private static final int UNKNOWN = 2;
+
+  /**
+   * Compares the given string with the string serialized at the given address, if it was
+   * serialized as one byte per character. Returns UNKNOWN for the other encodings, which the caller
+   * compares by deserializing the stored key.
+   */
+  private static int compareStringBytes(long address, String key) {
+    int dataSize = OffHeapStoredObject.getDataSize(address);
+    long dataAddress = address + OffHeapStoredObject.HEADER_SIZE;
+    byte code = AddressableMemoryManager.readByte(dataAddress);
+    int length;
+    int headerSize;
+    if (code == DSCODE.STRING_BYTES) {
+      length = readUnsigned(dataAddress + 1, 2);
+      headerSize = 3;
+    } else if (code == DSCODE.HUGE_STRING_BYTES) {
+      length = readUnsigned(dataAddress + 1, 4);
+      headerSize = 5;
+    } else {
+      return UNKNOWN;
+    }
+    if (length != key.length() || dataSize != headerSize + length) {
+      return NOT_EQUAL;
+    }
+    long charsAddress = dataAddress + headerSize;
+    for (int i = 0; i < length; i++) {
+      if (AddressableMemoryManager.readByte(charsAddress + i) != key.charAt(i)) {
+        return NOT_EQUAL;
+      }
+    }
+    return EQUAL;
+  }
+
+  /**
+   * Reads a big endian length of the given number of bytes, the way DataOutput writes it.
+   */
+  private static int readUnsigned(long address, int size) {
+    int result = 0;
+    for (int i = 0; i < size; i++) {
+      result = (result << 8) | (AddressableMemoryManager.readByte(address + i) & 0xFF);
+    }
+    return result;
+  }
+
+  private static void releaseAddress(long address) {
+    if (OffHeapRegionEntryHelper.isOffHeap(address)) {
+      OffHeapStoredObject.release(address);
+    }
+  }
+
+  /**
+   * The deserialized form of a key that is off heap. It is a class of its own so that it cannot be
+   * confused with a key held on the heap.
+   */
+  private static class CachedKey extends SoftReference<Object> {
+    CachedKey(Object key) {
+      super(key);
+    }
+  }
+}
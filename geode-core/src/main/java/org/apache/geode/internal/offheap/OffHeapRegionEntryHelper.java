@@ -21,6 +21,7 @@ import org.apache.geode.internal.cache.EntryEventImpl;
 import org.apache.geode.internal.cache.RegionEntryContext;
 import org.apache.geode.internal.cache.Token;
 import org.apache.geode.internal.cache.entries.DiskEntry;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
 import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
 import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
@@ -193,6 +194,9 @@ public class OffHeapRegionEntryHelper {
     final long newAddress = objectToAddress(Token.REMOVED_PHASE2);
     if (re.setAddress(oldAddress, newAddress) || re.getAddress() != newAddress) {
       releaseAddress(oldAddress);
+      if (re instanceof OffHeapKeyRegionEntry && re.getAddress() == newAddress) {
+        OffHeapKeyHelper.releaseKey((OffHeapKeyRegionEntry) re);
+      }
     } /*
        * else { if (!calledSetValue || re.getAddress() != newAddress) { expectedValue.release(); } }
        */
@@ -341,6 +345,9 @@ public class OffHeapRegionEntryHelper {
     ReferenceCountHelper.setReferenceCountOwner(re);
     releaseAddress(oldAddress);
     ReferenceCountHelper.setReferenceCountOwner(null);
+    if (re instanceof OffHeapKeyRegionEntry) {
+      OffHeapKeyHelper.valueChanged((OffHeapKeyRegionEntry) re, oldAddress, newAddress);
+    }
   }
 
   public static Token getValueAsToken(@Unretained OffHeapRegionEntry re) {
@@ -353,6 +360,14 @@ public class OffHeapRegionEntryHelper {
                                                           // false
   }
 
+  /**
+   * Returns true if the address holds a value, either off heap or encoded in the address itself,
+   * rather than a token.
+   */
+  static boolean isValueAddress(long addr) {
+    return (addr & ENCODED_BIT) != 0 || isOffHeap(addr);
+  }
+
   public static boolean isOffHeap(long addr) {
     if ((addr & ENCODED_BIT) != 0)
       return false;
@@ -14,16 +14,22 @@
  */
 package org.apache.geode.internal.size;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import org.apache.geode.internal.util.concurrent.CopyOnWriteWeakHashMap;
-
 /**
- *
+ * A {@link SingleObjectSizer} that remembers the size of the first instance of each class it sees.
+ * Arrays vary in size so they are always passed to the wrapped sizer.
  */
 public class CachingSingleObjectSizer implements SingleObjectSizer {
-  private final Map<Class, Long> sizeCache = new CopyOnWriteWeakHashMap<Class, Long>();
+  /**
+   * The sizes by class. A ClassValue is faster to look up than a map keyed by class and, like a
+   * weak map, does not prevent classes from being unloaded.
+   */
+  private final ClassValue<SizeHolder> sizeCache = new ClassValue<SizeHolder>() {
+    @Override
+    protected SizeHolder computeValue(Class<?> type) {
+      return new SizeHolder();
+    }
+  };
+
   private final SingleObjectSizer wrappedSizer;
 
   public CachingSingleObjectSizer(SingleObjectSizer sizer) {
@@ -35,14 +41,18 @@ public class CachingSingleObjectSizer implements SingleObjectSizer {
     if (clazz.isArray()) {
       return wrappedSizer.sizeof(object);
     } else {
-      Long size = sizeCache.get(clazz);
-      if (size != null) {
-        return size.longValue();
+      SizeHolder holder = sizeCache.get(clazz);
+      long size = holder.size;
+      if (size < 0) {
+        size = wrappedSizer.sizeof(object);
+        holder.size = size;
       }
-      size = Long.valueOf(wrappedSizer.sizeof(object));
-      sizeCache.put(clazz, size);
-      return size.longValue();
+      return size;
     }
   }
 
+  private static class SizeHolder {
+    /** The size of the instances of the class, or -1 until the first instance is sized */
+    private volatile long size = -1;
+  }
 }
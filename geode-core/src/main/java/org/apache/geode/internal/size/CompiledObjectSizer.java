@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.size;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.pdx.internal.unsafe.UnsafeWrapper;
+
+/**
+ * An {@link ObjectSizer} that computes the same sizes as {@link ReflectionObjectSizer} without
+ * using reflection for each object it sizes. The first time a class is seen it is compiled into a
+ * {@link ClassSizer} that knows the shallow size of its instances and the offsets of their
+ * reference fields; arrays are sized from their length. Objects are then sized by following the
+ * reference fields with unsafe reads.
+ *
+ * <p>
+ * This sizer is only {@linkplain #isSupported() supported} when unsafe is available and the shallow
+ * sizes of ObjectGraphSizer come from the default {@link ReflectionSingleObjectSizer}.
+ */
+public class CompiledObjectSizer implements ObjectSizer {
+
+  private static final UnsafeWrapper unsafe;
+  static {
+    UnsafeWrapper tmp = null;
+    try {
+      tmp = new UnsafeWrapper();
+    } catch (RuntimeException ignore) {
+    } catch (Error ignore) {
+    }
+    unsafe = tmp;
+  }
+
+  private static final CompiledObjectSizer INSTANCE = new CompiledObjectSizer();
+
+  /** Contexts that grew beyond this many objects are shrunk after use */
+  private static final int MAX_RETAINED_CONTEXT_SIZE = 1024;
+
+  private static final ClassSizer EXCLUDED = new ClassSizer(0, null);
+
+  private final ClassValue<ClassSizer> classSizers = new ClassValue<ClassSizer>() {
+    @Override
+    protected ClassSizer computeValue(Class<?> type) {
+      return compile(type);
+    }
+  };
+
+  private final ThreadLocal<SizingContext> contexts = ThreadLocal.withInitial(SizingContext::new);
+
+  public static boolean isSupported() {
+    return unsafe != null
+        && ReflectionSingleObjectSizer.class.getName().equals(ObjectGraphSizer.SIZE_OF_CLASS_NAME);
+  }
+
+  public static CompiledObjectSizer getInstance() {
+    return INSTANCE;
+  }
+
+  private CompiledObjectSizer() {}
+
+  @Override
+  public int sizeof(Object o) {
+    if (o == null) {
+      return 0;
+    }
+    ClassSizer classSizer = classSizers.get(o.getClass());
+    if (!classSizer.hasChildren()) {
+      return (int) classSizer.shallowSize(o);
+    }
+    SizingContext context = contexts.get();
+    try {
+      return (int) context.size(o);
+    } finally {
+      context.reset();
+    }
+  }
+
+  private static ClassSizer compile(Class<?> type) {
+    if (type.isArray()) {
+      Class<?> componentType = type.getComponentType();
+      int typeSize = unsafe.arrayScaleIndex(type);
+      if (typeSize == 0) {
+        typeSize = ReflectionSingleObjectSizer.sizeType(componentType);
+      }
+      if (componentType.isPrimitive()) {
+        return new PrimitiveArraySizer(unsafe.arrayBaseOffset(type), typeSize);
+      }
+      return new ObjectArraySizer(unsafe.arrayBaseOffset(type), typeSize);
+    }
+
+    if (ReflectionObjectSizer.isExcluded(type)) {
+      return EXCLUDED;
+    }
+
+    long shallowSize = ReflectionSingleObjectSizer.sizeof(type);
+    if (WeakReference.class.isAssignableFrom(type) || SoftReference.class.isAssignableFrom(type)) {
+      // objects only reachable through weak or soft references are not part of the size
+      return new ClassSizer(shallowSize, null);
+    }
+
+    List<Long> offsets = new ArrayList<>();
+    for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+      for (Field field : clazz.getDeclaredFields()) {
+        if (!field.getType().isPrimitive() && !Modifier.isStatic(field.getModifiers())) {
+          offsets.add(unsafe.objectFieldOffset(field));
+        }
+      }
+    }
+    long[] referenceOffsets = null;
+    if (!offsets.isEmpty()) {
+      referenceOffsets = new long[offsets.size()];
+      for (int i = 0; i < referenceOffsets.length; i++) {
+        referenceOffsets[i] = offsets.get(i);
+      }
+    }
+    return new ClassSizer(shallowSize, referenceOffsets);
+  }
+
+  /**
+   * Sizes the instances of one class and finds the objects they refer to.
+   */
+  private static class ClassSizer {
+    private final long shallowSize;
+
+    /** The offsets of the non-static reference fields, or null if there are none */
+    private final long[] referenceOffsets;
+
+    ClassSizer(long shallowSize, long[] referenceOffsets) {
+      this.shallowSize = shallowSize;
+      this.referenceOffsets = referenceOffsets;
+    }
+
+    long shallowSize(Object object) {
+      return shallowSize;
+    }
+
+    boolean hasChildren() {
+      return referenceOffsets != null;
+    }
+
+    void addChildren(Object object, SizingContext context) {
+      for (long offset : referenceOffsets) {
+        context.add(unsafe.getObject(object, offset));
+      }
+    }
+  }
+
+  private static class PrimitiveArraySizer extends ClassSizer {
+    private final int baseOffset;
+    private final int typeSize;
+
+    PrimitiveArraySizer(int baseOffset, int typeSize) {
+      super(0, null);
+      this.baseOffset = baseOffset;
+      this.typeSize = typeSize;
+    }
+
+    @Override
+    long shallowSize(Object array) {
+      return ReflectionSingleObjectSizer
+          .roundUpSize(baseOffset + (long) Array.getLength(array) * typeSize);
+    }
+  }
+
+  private static class ObjectArraySizer extends PrimitiveArraySizer {
+
+    ObjectArraySizer(int baseOffset, int typeSize) {
+      super(baseOffset, typeSize);
+    }
+
+    @Override
+    boolean hasChildren() {
+      return true;
+    }
+
+    @Override
+    void addChildren(Object array, SizingContext context) {
+      for (Object element : (Object[]) array) {
+        context.add(element);
+      }
+    }
+  }
+
+  /**
+   * The objects seen and still to be visited while sizing one object graph. Each thread reuses its
+   * context so that sizing does not allocate once the context has grown to fit the graphs it sizes.
+   */
+  private class SizingContext {
+    private final ReferenceOpenHashSet<Object> seen = new ReferenceOpenHashSet<>();
+    private final ArrayDeque<Object> toVisit = new ArrayDeque<>();
+
+    long size(Object root) {
+      long size = 0;
+      add(root);
+      Object object;
+      while ((object = toVisit.poll()) != null) {
+        ClassSizer classSizer = classSizers.get(object.getClass());
+        size += classSizer.shallowSize(object);
+        if (classSizer.hasChildren()) {
+          classSizer.addChildren(object, this);
+        }
+      }
+      return size;
+    }
+
+    void add(Object object) {
+      if (object != null && seen.add(object)) {
+        toVisit.add(object);
+      }
+    }
+
+    void reset() {
+      toVisit.clear();
+      boolean grown = seen.size() > MAX_RETAINED_CONTEXT_SIZE;
+      seen.clear();
+      if (grown) {
+        seen.trim(MAX_RETAINED_CONTEXT_SIZE);
+      }
+    }
+  }
+}
@@ -27,7 +27,7 @@ import org.apache.geode.internal.size.ObjectTraverser.Visitor;
 
 
 public class ObjectGraphSizer {
-  private static final String SIZE_OF_CLASS_NAME =
+  static final String SIZE_OF_CLASS_NAME =
       System.getProperty(DistributionConfig.GEMFIRE_PREFIX + "ObjectSizer.SIZE_OF_CLASS",
           ReflectionSingleObjectSizer.class.getName());
   static final SingleObjectSizer SIZE_OF_UTIL;
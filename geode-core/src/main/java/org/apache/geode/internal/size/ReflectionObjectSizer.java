@@ -48,19 +48,24 @@ public class ReflectionObjectSizer implements ObjectSizer, Serializable {
   private static final ObjectFilter FILTER = new ObjectFilter() {
 
     public boolean accept(Object parent, Object object) {
-      // Protect the user from a couple of pitfalls. If their object
-      // has a link to a region or cache, we don't want to size the whole thing.
-      if (object instanceof Region || object instanceof Cache
-          || object instanceof PlaceHolderDiskRegion || object instanceof InternalDistributedSystem
-          || object instanceof ClassLoader || object instanceof Logger) {
-        return false;
-      }
-
-      return true;
+      return !isExcluded(object.getClass());
     }
 
   };
 
+  /**
+   * Returns true if instances of the given class are not sized, nor are the objects reachable from
+   * them.
+   */
+  static boolean isExcluded(Class<?> clazz) {
+    // Protect the user from a couple of pitfalls. If their object
+    // has a link to a region or cache, we don't want to size the whole thing.
+    return Region.class.isAssignableFrom(clazz) || Cache.class.isAssignableFrom(clazz)
+        || PlaceHolderDiskRegion.class.isAssignableFrom(clazz)
+        || InternalDistributedSystem.class.isAssignableFrom(clazz)
+        || ClassLoader.class.isAssignableFrom(clazz) || Logger.class.isAssignableFrom(clazz);
+  }
+
   public int sizeof(Object o) {
     try {
       return (int) ObjectGraphSizer.size(o, FILTER, false);
@@ -151,7 +151,7 @@ public class ReflectionSingleObjectSizer implements SingleObjectSizer {
     return size;
   }
 
-  private static int sizeType(Class<?> t) {
+  static int sizeType(Class<?> t) {
 
     if (t == Boolean.TYPE)
       return 1;
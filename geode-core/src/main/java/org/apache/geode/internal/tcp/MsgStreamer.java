@@ -294,7 +294,8 @@ public class MsgStreamer extends OutputStream
     if (isOverflowMode()) {
       if (this.overflowBuf == null) {
         this.overflowBuf = new HeapDataOutputStream(
-            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT);
+            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT, false,
+            HeapBufferPool.ENABLED);
       }
       return;
     }
@@ -908,7 +909,8 @@ public class MsgStreamer extends OutputStream
         // we don't even have room to write the length field so just create
         // the overflowBuf
         this.overflowBuf = new HeapDataOutputStream(
-            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT);
+            this.buffer.capacity() - Connection.MSG_HEADER_BYTES, Version.CURRENT, false,
+            HeapBufferPool.ENABLED);
         this.overflowBuf.writeAsSerializedByteArray(v);
         return;
       }
@@ -943,6 +945,8 @@ public class MsgStreamer extends OutputStream
       finished = true;
       if (overBuf != null && !isOverflowMode()) {
         overBuf.sendTo((ByteBufferWriter) this);
+        // its contents have been copied so its buffers can go back to the pool
+        overBuf.close();
       }
     } finally {
       if (!finished) {
@@ -0,0 +1,898 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.StampedLock;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.entries.OffHeapRegionEntry;
+import org.apache.geode.internal.cache.wan.GatewaySenderEventImpl;
+import org.apache.geode.internal.offheap.OffHeapRegionEntryHelper;
+
+/**
+ * A concurrent map for keys that are all of a single primitive-like type ({@link Integer},
+ * {@link Long} or {@link UUID}). Keys are stored unboxed in striped open-addressing tables so a
+ * lookup probes a flat <code>long[]</code> instead of chasing one linked node per entry, and the
+ * key is never compared through {@link Object#equals(Object)}.
+ *
+ * <p>
+ * The map is partitioned into segments, each guarded by a {@link StampedLock}. Updates take the
+ * segment write lock. Retrievals use an optimistic read that is validated after probing, so they
+ * do not block unless they race with an update on the same segment. Removed slots are marked with
+ * a tombstone that is purged the next time the segment table is rebuilt.
+ *
+ * <p>
+ * Iterators are weakly consistent: they traverse the table of each segment as it was when the
+ * iterator reached that segment and never throw
+ * {@link java.util.ConcurrentModificationException}.
+ *
+ * <p>
+ * Like {@link CustomEntryConcurrentHashMap} this map does not allow <tt>null</tt> keys or values.
+ * Lookups with a key of another type simply miss; storing a key of another type throws
+ * {@link ClassCastException}.
+ */
+public class PrimitiveKeyConcurrentHashMap extends AbstractMap<Object, Object>
+    implements ConcurrentMapWithReusableEntries<Object, Object> {
+
+  /**
+   * The key types supported by this map. Each key is decomposed into one or two <code>long</code>
+   * words which are what the tables store.
+   */
+  public enum KeyType {
+    INT(Integer.class, 1) {
+      @Override
+      long high(Object key) {
+        return ((Integer) key).intValue();
+      }
+
+      @Override
+      Object toKey(long high, long low) {
+        return Integer.valueOf((int) high);
+      }
+    },
+    LONG(Long.class, 1) {
+      @Override
+      long high(Object key) {
+        return ((Long) key).longValue();
+      }
+
+      @Override
+      Object toKey(long high, long low) {
+        return Long.valueOf(high);
+      }
+    },
+    UUID(UUID.class, 2) {
+      @Override
+      long high(Object key) {
+        return ((UUID) key).getMostSignificantBits();
+      }
+
+      @Override
+      long low(Object key) {
+        return ((UUID) key).getLeastSignificantBits();
+      }
+
+      @Override
+      Object toKey(long high, long low) {
+        return new UUID(high, low);
+      }
+    };
+
+    private final Class<?> keyClass;
+
+    /** number of long words used by one key */
+    final int stride;
+
+    KeyType(Class<?> keyClass, int stride) {
+      this.keyClass = keyClass;
+      this.stride = stride;
+    }
+
+    abstract long high(Object key);
+
+    long low(Object key) {
+      return 0L;
+    }
+
+    abstract Object toKey(long high, long low);
+
+    boolean accepts(Object key) {
+      return key != null && key.getClass() == this.keyClass;
+    }
+
+    public Class<?> getKeyClass() {
+      return this.keyClass;
+    }
+
+    /**
+     * Returns the key type whose keys are instances of the given class, or null if the class is
+     * not supported by this map.
+     */
+    public static KeyType forClass(Class<?> keyClass) {
+      if (keyClass == null) {
+        return null;
+      }
+      for (KeyType type : values()) {
+        if (type.keyClass == keyClass) {
+          return type;
+        }
+      }
+      return null;
+    }
+  }
+
+  /** The maximum number of slots in a segment table; keeps UUID key arrays addressable */
+  static final int MAXIMUM_CAPACITY = 1 << 29;
+
+  /** The smallest number of slots in a segment table */
+  static final int MINIMUM_CAPACITY = 8;
+
+  /** Linear probing degrades quickly past this load so larger load factors are clamped to it */
+  static final float MAXIMUM_LOAD_FACTOR = 0.75f;
+
+  /** The maximum number of segments */
+  static final int MAX_SEGMENTS = 1 << 16;
+
+  /** Marks a slot whose mapping has been removed. Probes continue past it. */
+  static final Object REMOVED = new Object();
+
+  private final KeyType keyType;
+
+  private final float loadFactor;
+
+  private final CustomEntryConcurrentHashMap.HashEntryCreator<Object, Object> entryCreator;
+
+  private final int segmentMask;
+
+  private final int segmentShift;
+
+  private final Segment[] segments;
+
+  private transient Set<Map.Entry<Object, Object>> entrySet;
+
+  private transient Set<Map.Entry<Object, Object>> reusableEntrySet;
+
+  public PrimitiveKeyConcurrentHashMap(KeyType keyType, int initialCapacity, float loadFactor,
+      int concurrencyLevel) {
+    this(keyType, initialCapacity, loadFactor, concurrencyLevel, null);
+  }
+
+  /**
+   * Creates a new, empty map.
+   *
+   * @param keyType the type of all keys stored in this map
+   * @param initialCapacity the number of mappings the map should hold before resizing
+   * @param loadFactor the fraction of slots of a segment table that may be occupied (including
+   *        removed slots) before the table is rebuilt; at most {@link #MAXIMUM_LOAD_FACTOR}
+   * @param concurrencyLevel the estimated number of concurrently updating threads
+   * @param entryCreator if not null, each stored value is passed through
+   *        {@link CustomEntryConcurrentHashMap.HashEntryCreator#newEntry} so values that are also
+   *        hash entries (like region entries) get their hash initialized. No chaining is done
+   *        through the returned entry.
+   */
+  public PrimitiveKeyConcurrentHashMap(KeyType keyType, int initialCapacity, float loadFactor,
+      int concurrencyLevel,
+      CustomEntryConcurrentHashMap.HashEntryCreator<Object, Object> entryCreator) {
+    if (keyType == null) {
+      throw new NullPointerException("keyType");
+    }
+    if (!(loadFactor > 0) || initialCapacity < 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    if (loadFactor > MAXIMUM_LOAD_FACTOR) {
+      loadFactor = MAXIMUM_LOAD_FACTOR;
+    }
+    if (concurrencyLevel > MAX_SEGMENTS) {
+      concurrencyLevel = MAX_SEGMENTS;
+    }
+    int sshift = 0;
+    int ssize = 1;
+    while (ssize < concurrencyLevel) {
+      ++sshift;
+      ssize <<= 1;
+    }
+    this.segmentShift = 32 - sshift;
+    this.segmentMask = ssize - 1;
+    this.keyType = keyType;
+    this.loadFactor = loadFactor;
+    this.entryCreator = entryCreator;
+
+    long perSegment = (long) Math.ceil((double) initialCapacity / ssize / loadFactor) + 1;
+    int cap = MINIMUM_CAPACITY;
+    while (cap < perSegment && cap < MAXIMUM_CAPACITY) {
+      cap <<= 1;
+    }
+    this.segments = new Segment[ssize];
+    for (int i = 0; i < ssize; i++) {
+      this.segments[i] = new Segment(cap);
+    }
+  }
+
+  public KeyType getKeyType() {
+    return this.keyType;
+  }
+
+  /**
+   * Spreads the bits of a key so that both the segment (high bits) and the slot (low bits) are
+   * well distributed. This is the finalizer of MurmurHash3.
+   */
+  static int hash(long high, long low) {
+    long h = high ^ (low * 0x9E3779B97F4A7C15L);
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+  private Segment segmentFor(int hash) {
+    return this.segments[(hash >>> this.segmentShift) & this.segmentMask];
+  }
+
+  private void checkKey(Object key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    if (!this.keyType.accepts(key)) {
+      throw new ClassCastException(
+          "key " + key + " of " + key.getClass() + " is not a " + this.keyType.getKeyClass());
+    }
+  }
+
+  private Object prepareValue(Object key, int hash, Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    if (this.entryCreator != null) {
+      this.entryCreator.newEntry(key, hash, null, value);
+    }
+    return value;
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (!this.keyType.accepts(key)) {
+      return null;
+    }
+    final long high = this.keyType.high(key);
+    final long low = this.keyType.low(key);
+    final int hash = hash(high, low);
+    return segmentFor(hash).get(high, low, hash);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    for (Iterator<Object> it = values().iterator(); it.hasNext();) {
+      if (value.equals(it.next())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Object put(Object key, Object value) {
+    checkKey(key);
+    final long high = this.keyType.high(key);
+    final long low = this.keyType.low(key);
+    final int hash = hash(high, low);
+    return segmentFor(hash).put(high, low, hash, prepareValue(key, hash, value), false);
+  }
+
+  @Override
+  public Object putIfAbsent(Object key, Object value) {
+    checkKey(key);
+    final long high = this.keyType.high(key);
+    final long low = this.keyType.low(key);
+    final int hash = hash(high, low);
+    return segmentFor(hash).put(high, low, hash, prepareValue(key, hash, value), true);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    if (!this.keyType.accepts(key)) {
+      return null;
+    }
+    final long high = this.keyType.high(key);
+    final long low = this.keyType.low(key);
+    final int hash = hash(high, low);
+    return segmentFor(hash).remove(high, low, hash, null);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    if (value == null || !this.keyType.accepts(key)) {
+      return false;
+    }
+    final long high = this.keyType.high(key);
+    final long low = this.keyType.low(key);
+    final int hash = hash(high, low);
+    return segmentFor(hash).remove(high, low, hash, value) != null;
+  }
+
+  @Override
+  public boolean replace(Object key, Object oldValue, Object newValue) {
+    if (oldValue == null) {
+      throw new NullPointerException();
+    }
+    checkKey(key);
+    final long high = this.keyType.high(key);
+    final long low = this.keyType.low(key);
+    final int hash = hash(high, low);
+    return segmentFor(hash).replace(high, low, hash, oldValue,
+        prepareValue(key, hash, newValue)) != null;
+  }
+
+  @Override
+  public Object replace(Object key, Object value) {
+    checkKey(key);
+    final long high = this.keyType.high(key);
+    final long low = this.keyType.low(key);
+    final int hash = hash(high, low);
+    return segmentFor(hash).replace(high, low, hash, null, prepareValue(key, hash, value));
+  }
+
+  @Override
+  public int size() {
+    long sum = 0;
+    for (Segment segment : this.segments) {
+      sum += segment.count;
+    }
+    return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (Segment segment : this.segments) {
+      if (segment.count != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    clearWithExecutor(null);
+  }
+
+  @Override
+  public void clearWithExecutor(Executor executor) {
+    ArrayList<Object> clearedValues = null;
+    for (Segment segment : this.segments) {
+      clearedValues = segment.clear(clearedValues);
+    }
+    if (clearedValues != null && !clearedValues.isEmpty()) {
+      final ArrayList<Object> valuesToRelease = clearedValues;
+      final Runnable runnable = () -> {
+        for (Object value : valuesToRelease) {
+          synchronized (value) {
+            ((OffHeapRegionEntry) value).release();
+          }
+        }
+      };
+      boolean submitted = false;
+      if (executor != null) {
+        try {
+          executor.execute(runnable);
+          submitted = true;
+        } catch (RejectedExecutionException | CancelException | NullPointerException e) {
+          // fall through with submitted false
+        }
+      }
+      if (!submitted) {
+        String name = getClass().getSimpleName() + "@" + hashCode() + " Clear Thread";
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+      }
+    }
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySet() {
+    Set<Map.Entry<Object, Object>> es = this.entrySet;
+    return (es != null) ? es : (this.entrySet = new EntrySet(false));
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySetWithReusableEntries() {
+    Set<Map.Entry<Object, Object>> es = this.reusableEntrySet;
+    return (es != null) ? es : (this.reusableEntrySet = new EntrySet(true));
+  }
+
+  /**
+   * An open-addressing table. Slot <code>i</code> holds its key in
+   * <code>keys[i * stride .. i * stride + stride - 1]</code> and its value in
+   * <code>values[i]</code>. A null value marks a free slot and {@link #REMOVED} a removed one.
+   * Once a segment replaces its table the old one is never written again, so iterators can keep
+   * reading it.
+   */
+  private static final class Table {
+    final long[] keys;
+    final Object[] values;
+    final int mask;
+
+    Table(int capacity, int stride) {
+      this.keys = new long[capacity * stride];
+      this.values = new Object[capacity];
+      this.mask = capacity - 1;
+    }
+  }
+
+  /**
+   * A segment of the map: one table plus the lock that guards it.
+   */
+  private final class Segment extends StampedLock {
+    private static final long serialVersionUID = 3567468406497998829L;
+
+    /** The current table. Replaced, never resized in place. */
+    volatile Table table;
+
+    /** The number of live mappings */
+    volatile int count;
+
+    /** The number of live plus removed slots; only accessed under the write lock */
+    int used;
+
+    /** Rebuild the table when {@link #used} reaches this; only accessed under the write lock */
+    int threshold;
+
+    Segment(int capacity) {
+      setTable(new Table(capacity, keyType.stride));
+    }
+
+    private void setTable(Table t) {
+      this.threshold = (int) Math.min((long) ((t.mask + 1) * (double) loadFactor), t.mask);
+      this.table = t;
+    }
+
+    /** Returns the slot holding the key or -1. Must be validated or run under a lock. */
+    private int find(Table t, long high, long low, int hash) {
+      final int stride = keyType.stride;
+      final int mask = t.mask;
+      int i = hash & mask;
+      for (int n = 0; n <= mask; n++) {
+        Object v = t.values[i];
+        if (v == null) {
+          return -1;
+        }
+        if (v != REMOVED && t.keys[i * stride] == high
+            && (stride == 1 || t.keys[i * stride + 1] == low)) {
+          return i;
+        }
+        i = (i + 1) & mask;
+      }
+      return -1;
+    }
+
+    Object get(long high, long low, int hash) {
+      long stamp = tryOptimisticRead();
+      Table t = this.table;
+      int i = find(t, high, low, hash);
+      Object v = i < 0 ? null : t.values[i];
+      if (!validate(stamp)) {
+        stamp = readLock();
+        try {
+          t = this.table;
+          i = find(t, high, low, hash);
+          v = i < 0 ? null : t.values[i];
+        } finally {
+          unlockRead(stamp);
+        }
+      }
+      return v == REMOVED ? null : v;
+    }
+
+    Object put(long high, long low, int hash, Object value, boolean onlyIfAbsent) {
+      final long stamp = writeLock();
+      try {
+        final int stride = keyType.stride;
+        Table t = this.table;
+        final int mask = t.mask;
+        int i = hash & mask;
+        int firstRemoved = -1;
+        int free = -1;
+        for (int n = 0; n <= mask; n++) {
+          Object v = t.values[i];
+          if (v == null) {
+            free = i;
+            break;
+          }
+          if (v == REMOVED) {
+            if (firstRemoved < 0) {
+              firstRemoved = i;
+            }
+          } else if (t.keys[i * stride] == high
+              && (stride == 1 || t.keys[i * stride + 1] == low)) {
+            if (!onlyIfAbsent) {
+              t.values[i] = value;
+            }
+            return v;
+          }
+          i = (i + 1) & mask;
+        }
+        if (firstRemoved >= 0) {
+          i = firstRemoved;
+        } else if (free >= 0) {
+          i = free;
+          this.used++;
+        } else {
+          throw new IllegalStateException("segment table is full");
+        }
+        t.keys[i * stride] = high;
+        if (stride == 2) {
+          t.keys[i * stride + 1] = low;
+        }
+        t.values[i] = value;
+        this.count++;
+        if (this.used >= this.threshold) {
+          rebuild();
+        }
+        return null;
+      } finally {
+        unlockWrite(stamp);
+      }
+    }
+
+    /**
+     * Removes the mapping for the key if it maps to expectedValue, or to anything if expectedValue
+     * is null. Returns the removed value or null.
+     */
+    Object remove(long high, long low, int hash, Object expectedValue) {
+      final long stamp = writeLock();
+      try {
+        final Table t = this.table;
+        final int i = find(t, high, low, hash);
+        if (i < 0) {
+          return null;
+        }
+        final Object v = t.values[i];
+        if (expectedValue != null && !expectedValue.equals(v)) {
+          return null;
+        }
+        final int mask = t.mask;
+        if (t.values[(i + 1) & mask] == null) {
+          // nothing probes past this slot so it, and any removed slots before it, can be freed
+          int j = i;
+          do {
+            t.values[j] = null;
+            this.used--;
+            j = (j - 1) & mask;
+          } while (t.values[j] == REMOVED && j != i);
+        } else {
+          t.values[i] = REMOVED;
+        }
+        this.count--;
+        return v;
+      } finally {
+        unlockWrite(stamp);
+      }
+    }
+
+    /**
+     * Replaces the value of an existing mapping if it maps to expectedValue, or to anything if
+     * expectedValue is null. Returns the old value or null if nothing was replaced.
+     */
+    Object replace(long high, long low, int hash, Object expectedValue, Object newValue) {
+      final long stamp = writeLock();
+      try {
+        final Table t = this.table;
+        final int i = find(t, high, low, hash);
+        if (i < 0) {
+          return null;
+        }
+        final Object v = t.values[i];
+        if (expectedValue != null && !expectedValue.equals(v)) {
+          return null;
+        }
+        t.values[i] = newValue;
+        return v;
+      } finally {
+        unlockWrite(stamp);
+      }
+    }
+
+    /**
+     * Copies the live mappings into a new table, doubling it if it is more than half full of live
+     * mappings. Must be called under the write lock.
+     */
+    private void rebuild() {
+      final int stride = keyType.stride;
+      final Table oldTable = this.table;
+      int capacity = oldTable.mask + 1;
+      if (this.count >= this.threshold / 2 && capacity < MAXIMUM_CAPACITY) {
+        capacity <<= 1;
+      }
+      final Table newTable = new Table(capacity, stride);
+      final int mask = newTable.mask;
+      for (int i = 0; i <= oldTable.mask; i++) {
+        Object v = oldTable.values[i];
+        if (v == null || v == REMOVED) {
+          continue;
+        }
+        long high = oldTable.keys[i * stride];
+        long low = stride == 2 ? oldTable.keys[i * stride + 1] : 0L;
+        int j = hash(high, low) & mask;
+        while (newTable.values[j] != null) {
+          j = (j + 1) & mask;
+        }
+        newTable.keys[j * stride] = high;
+        if (stride == 2) {
+          newTable.keys[j * stride + 1] = low;
+        }
+        newTable.values[j] = v;
+      }
+      this.used = this.count;
+      setTable(newTable);
+    }
+
+    /**
+     * Empties this segment keeping its capacity. Off-heap region entries are added to
+     * clearedValues (which is created if needed) so that the caller can release them.
+     */
+    ArrayList<Object> clear(ArrayList<Object> clearedValues) {
+      if (this.count == 0) {
+        return clearedValues;
+      }
+      final Table oldTable;
+      final long stamp = writeLock();
+      try {
+        oldTable = this.table;
+        this.count = 0;
+        this.used = 0;
+        setTable(new Table(oldTable.mask + 1, keyType.stride));
+      } finally {
+        unlockWrite(stamp);
+      }
+      final boolean checkForGatewaySenderEvent =
+          OffHeapRegionEntryHelper.doesClearNeedToCheckForOffHeap();
+      for (Object v : oldTable.values) {
+        if (v == null || v == REMOVED) {
+          continue;
+        }
+        if (v instanceof OffHeapRegionEntry) {
+          if (clearedValues == null) {
+            clearedValues = new ArrayList<>();
+          }
+          clearedValues.add(v);
+        } else if (checkForGatewaySenderEvent && v instanceof RegionEntry) {
+          // It is ok to call GatewaySenderEventImpl release without being synced
+          // on the region entry. It will not create an orphan.
+          GatewaySenderEventImpl.release(((RegionEntry) v).getValue()); // OFFHEAP _getValue ok
+        } else if (!checkForGatewaySenderEvent) {
+          break;
+        }
+      }
+      return clearedValues;
+    }
+  }
+
+  /**
+   * A map entry returned by iterators. Writes through to the map on {@link #setValue}.
+   */
+  private final class WriteThroughEntry implements Map.Entry<Object, Object> {
+    Object key;
+    Object value;
+
+    @Override
+    public Object getKey() {
+      return this.key;
+    }
+
+    @Override
+    public Object getValue() {
+      return this.value;
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      if (value == null) {
+        throw new NullPointerException();
+      }
+      Object old = this.value;
+      this.value = value;
+      put(this.key, value);
+      return old;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return this.key.equals(e.getKey()) && this.value.equals(e.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return this.key.hashCode() ^ this.value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return this.key + "=" + this.value;
+    }
+  }
+
+  private final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+    private final WriteThroughEntry reusableEntry;
+
+    private int segmentIndex = segments.length;
+
+    private Segment segment;
+
+    private Table table;
+
+    private int slot = -1;
+
+    private WriteThroughEntry next;
+
+    private WriteThroughEntry lastReturned;
+
+    private boolean canRemove;
+
+    EntryIterator(boolean reuseEntries) {
+      this.reusableEntry = reuseEntries ? new WriteThroughEntry() : null;
+      advance();
+    }
+
+    private void advance() {
+      final int stride = keyType.stride;
+      while (true) {
+        if (this.table != null) {
+          final Table t = this.table;
+          while (++this.slot <= t.mask) {
+            final int i = this.slot;
+            long stamp = this.segment.tryOptimisticRead();
+            Object v = t.values[i];
+            long high = t.keys[i * stride];
+            long low = stride == 2 ? t.keys[i * stride + 1] : 0L;
+            if (!this.segment.validate(stamp)) {
+              stamp = this.segment.readLock();
+              try {
+                v = t.values[i];
+                high = t.keys[i * stride];
+                low = stride == 2 ? t.keys[i * stride + 1] : 0L;
+              } finally {
+                this.segment.unlockRead(stamp);
+              }
+            }
+            if (v != null && v != REMOVED) {
+              WriteThroughEntry e =
+                  this.reusableEntry != null ? this.reusableEntry : new WriteThroughEntry();
+              e.key = keyType.toKey(high, low);
+              e.value = v;
+              this.next = e;
+              return;
+            }
+          }
+        }
+        if (--this.segmentIndex < 0) {
+          this.next = null;
+          return;
+        }
+        this.segment = segments[this.segmentIndex];
+        this.table = this.segment.count == 0 ? null : this.segment.table;
+        this.slot = -1;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public Map.Entry<Object, Object> next() {
+      final WriteThroughEntry e = this.next;
+      if (e == null) {
+        throw new NoSuchElementException();
+      }
+      if (this.reusableEntry != null) {
+        // the reusable entry is overwritten by advance so remember what was returned
+        if (this.lastReturned == null) {
+          this.lastReturned = new WriteThroughEntry();
+        }
+        this.lastReturned.key = e.key;
+        this.lastReturned.value = e.value;
+        this.canRemove = true;
+        advance();
+        return this.lastReturned;
+      }
+      this.lastReturned = e;
+      this.canRemove = true;
+      advance();
+      return e;
+    }
+
+    @Override
+    public void remove() {
+      if (!this.canRemove) {
+        throw new IllegalStateException();
+      }
+      PrimitiveKeyConcurrentHashMap.this.remove(this.lastReturned.key, this.lastReturned.value);
+      this.canRemove = false;
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<Object, Object>> {
+    private final boolean reuseEntries;
+
+    EntrySet(boolean reuseEntries) {
+      this.reuseEntries = reuseEntries;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Object, Object>> iterator() {
+      return new EntryIterator(this.reuseEntries);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      Object v = get(e.getKey());
+      return v != null && v.equals(e.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return PrimitiveKeyConcurrentHashMap.this.remove(e.getKey(), e.getValue());
+    }
+
+    @Override
+    public int size() {
+      return PrimitiveKeyConcurrentHashMap.this.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return PrimitiveKeyConcurrentHashMap.this.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      PrimitiveKeyConcurrentHashMap.this.clear();
+    }
+  }
+}
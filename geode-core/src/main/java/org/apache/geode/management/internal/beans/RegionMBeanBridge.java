@@ -183,7 +183,7 @@ public class RegionMBeanBridge<K, V> {
   private boolean isMemoryEvictionConfigured() {
     boolean result = false;
     EvictionAttributes ea = region.getAttributes().getEvictionAttributes();
-    if (ea != null && ea.getAlgorithm().isLRUMemory()) {
+    if (ea != null && ea.getAlgorithm().isMemoryEviction()) {
       result = true;
     }
     return result;
@@ -26,7 +26,9 @@ import com.fasterxml.jackson.core.JsonParser.NumberType;
 import com.fasterxml.jackson.core.JsonToken;
 
 import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.pdx.internal.json.JSONToPdxMapper;
+import org.apache.geode.pdx.internal.json.JSONToPdxStreamer;
 import org.apache.geode.pdx.internal.json.PdxInstanceHelper;
 import org.apache.geode.pdx.internal.json.PdxInstanceSortedHelper;
 import org.apache.geode.pdx.internal.json.PdxListHelper;
@@ -104,6 +106,19 @@ public class JSONFormatter {
   public static final String SORT_JSON_FIELD_NAMES_PROPERTY =
       DistributionConfig.GEMFIRE_PREFIX + "pdx.mapper.sort-json-field-names";
 
+  /**
+   * By setting "gemfire.pdx.mapper.disable-streaming" to true, JSON documents are converted into
+   * PdxInstances by building a PdxInstance for every object and a list for every array of the
+   * document instead of being streamed into pdx.
+   */
+  public static final String DISABLE_STREAMING_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "pdx.mapper.disable-streaming";
+
+  /**
+   * Factories are thread safe and share their symbol tables with the parsers they create.
+   */
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
   enum states {
     NONE, OBJECT_START, FIELD_NAME, SCALAR_FOUND, LIST_FOUND, LIST_ENDS, OBJECT_ENDS
   }
@@ -134,14 +149,20 @@ public class JSONFormatter {
     JsonParser jp = null;
     try {
       if (json instanceof String) {
-        jp = new JsonFactory().createParser((String) json);
+        jp = jsonFactory.createParser((String) json);
 
       } else if (json instanceof byte[]) {
-        jp = new JsonFactory().createParser((byte[]) json);
+        jp = jsonFactory.createParser((byte[]) json);
       } else {
         throw new JSONFormatterException("Could not parse the " + json.getClass() + " type");
       }
       enableJSONParserFeature(jp);
+      if (!Boolean.getBoolean(DISABLE_STREAMING_PROPERTY)
+          && !Boolean.getBoolean(SORT_JSON_FIELD_NAMES_PROPERTY)) {
+        return new JSONToPdxStreamer(GemFireCacheImpl
+            .getForPdx("PDX registry is unavailable because the Cache has been closed.")
+            .getPdxRegistry()).getPdxInstance(jp);
+      }
       return new JSONFormatter().getPdxInstance(jp, states.NONE, null).getPdxInstance();
     } catch (JsonParseException jpe) {
       throw new JSONFormatterException("Could not parse JSON document ", jpe);
@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.internal.AutoSerializableManager.AutoClassInfo;
+import org.apache.geode.pdx.internal.AutoSerializableManager.PdxFieldWrapper;
+
+/**
+ * Writes and reads all the fields of an auto serialized class, in the order of its
+ * {@link AutoClassInfo}, with a single method handle each instead of calling every
+ * {@link PdxFieldWrapper} in turn. The handles are composed once per class from the field getters
+ * and setters and the {@link PdxWriterImpl} and {@link PdxReaderImpl} methods of the field types,
+ * so that the JIT can compile a class' fields as one straight-line method.
+ * <p>
+ * Only the ordered paths are generated: writing an existing type without unread data and reading
+ * a type that matches the class. Fields whose values are transformed, and fields that can not be
+ * read without a cast the field wrappers do not do, are delegated to their wrapper within the
+ * composed handle.
+ */
+class AutoClassAccessor {
+  private static final Logger logger = LogService.getLogger();
+
+  private static final MethodType FIELD_WRITER =
+      MethodType.methodType(void.class, PdxWriterImpl.class, Object.class);
+
+  private static final MethodType FIELD_READER =
+      MethodType.methodType(void.class, PdxReaderImpl.class, Object.class);
+
+  private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+  private final MethodHandle writer;
+
+  private final MethodHandle reader;
+
+  private AutoClassAccessor(MethodHandle writer, MethodHandle reader) {
+    this.writer = writer;
+    this.reader = reader;
+  }
+
+  /**
+   * Returns the accessor of the class described by the given info, or null if its handles can not
+   * be composed.
+   */
+  static AutoClassAccessor create(AutoSerializableManager manager, AutoClassInfo classInfo) {
+    try {
+      List<PdxFieldWrapper> fields = classInfo.getFields();
+      if (fields.isEmpty()) {
+        return null;
+      }
+      int last = fields.size() - 1;
+      MethodHandle writer = fieldWriter(manager, fields.get(last));
+      MethodHandle reader = fieldReader(fields.get(last));
+      // fold from the last field so that the first one is called first
+      for (int i = last - 1; i >= 0; i--) {
+        PdxFieldWrapper field = fields.get(i);
+        writer = MethodHandles.foldArguments(writer, fieldWriter(manager, field));
+        reader = MethodHandles.foldArguments(reader, fieldReader(field));
+      }
+      return new AutoClassAccessor(writer, reader);
+    } catch (VirtualMachineError err) {
+      SystemFailure.initiateFailure(err);
+      throw err;
+    } catch (Throwable t) {
+      SystemFailure.checkFailure();
+      logger.debug("Unable to generate the auto serializer accessor for {}: {}",
+          classInfo.getInfoClass(), t);
+      return null;
+    }
+  }
+
+  /**
+   * Writes the fields of the given object, in order, to a writer of an existing type.
+   */
+  void write(PdxWriterImpl writer, Object obj) {
+    try {
+      this.writer.invokeExact(writer, obj);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      // the field handles do not throw checked exceptions
+      throw new IllegalStateException(t);
+    }
+  }
+
+  /**
+   * Reads the fields of the given object, in order, from a reader of a matching type.
+   */
+  void read(PdxReaderImpl reader, Object obj) {
+    try {
+      this.reader.invokeExact(reader, obj);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      // the field handles do not throw checked exceptions
+      throw new IllegalStateException(t);
+    }
+  }
+
+  private static MethodHandle fieldWriter(AutoSerializableManager manager, PdxFieldWrapper field)
+      throws ReflectiveOperationException {
+    if (field.transform()) {
+      return lookup
+          .findStatic(AutoClassAccessor.class, "writeTransformed",
+              MethodType.methodType(void.class, AutoSerializableManager.class,
+                  PdxFieldWrapper.class, PdxWriterImpl.class, Object.class))
+          .bindTo(manager).bindTo(field);
+    }
+    Class<?> type = field.getField().getType();
+    FieldType fieldType = field.getFieldType();
+    Class<?> valueType = fieldType == null ? null : getValueType(fieldType);
+    if (valueType == null
+        || (type != valueType && (type.isPrimitive() || valueType.isPrimitive()))) {
+      // written as a different type than the field's
+      MethodHandle serialize = lookup.findVirtual(PdxFieldWrapper.class, "serialize",
+          MethodType.methodType(void.class, PdxWriterImpl.class, Object.class, boolean.class));
+      return MethodHandles.insertArguments(serialize.bindTo(field), 2, true);
+    }
+    MethodHandle write;
+    if (fieldType == FieldType.OBJECT || fieldType == FieldType.OBJECT_ARRAY) {
+      // checked against the manager's current setting like the field wrappers do
+      write = lookup.findStatic(AutoClassAccessor.class,
+          fieldType == FieldType.OBJECT ? "writeObject" : "writeObjectArray",
+          MethodType.methodType(void.class, AutoSerializableManager.class, PdxWriterImpl.class,
+              valueType))
+          .bindTo(manager);
+    } else {
+      write = lookup.findVirtual(PdxWriterImpl.class, "write" + getMethodSuffix(fieldType),
+          MethodType.methodType(void.class, valueType));
+    }
+    MethodHandle get = lookup.unreflectGetter(field.getField())
+        .asType(MethodType.methodType(valueType, Object.class));
+    MethodHandle handle = MethodHandles.filterArguments(write, 1, get);
+    return withExceptionHandler(handle, field, true, FIELD_WRITER);
+  }
+
+  private static MethodHandle fieldReader(PdxFieldWrapper field)
+      throws ReflectiveOperationException {
+    Class<?> type = field.getField().getType();
+    FieldType fieldType = field.getFieldType();
+    Class<?> valueType = fieldType == null ? null : getValueType(fieldType);
+    if (field.transform() || type != valueType) {
+      // the wrapper sets the value without casting it to the field's type
+      return lookup.findVirtual(PdxFieldWrapper.class, "orderedDeserialize",
+          MethodType.methodType(void.class, InternalPdxReader.class, Object.class)).bindTo(field)
+          .asType(FIELD_READER);
+    }
+    MethodHandle read = lookup.findVirtual(PdxReaderImpl.class, "read" + getMethodSuffix(fieldType),
+        MethodType.methodType(valueType));
+    MethodHandle set = lookup.unreflectSetter(field.getField())
+        .asType(MethodType.methodType(void.class, Object.class, valueType));
+    // (obj, reader) to (reader, obj)
+    MethodHandle handle =
+        MethodHandles.permuteArguments(MethodHandles.filterArguments(set, 1, read), FIELD_READER, 1,
+            0);
+    return withExceptionHandler(handle, field, false, FIELD_READER);
+  }
+
+  /**
+   * Reports the exceptions of a field the way its wrapper does.
+   */
+  private static MethodHandle withExceptionHandler(MethodHandle handle, PdxFieldWrapper field,
+      boolean serialization, MethodType type) throws ReflectiveOperationException {
+    MethodHandle handleException = lookup.findStatic(AutoClassAccessor.class, "handleException",
+        MethodType.methodType(void.class, PdxFieldWrapper.class, boolean.class, Exception.class,
+            Object.class, Object.class));
+    MethodHandle handler = MethodHandles.insertArguments(handleException, 0, field, serialization)
+        .asType(MethodType.methodType(void.class, Exception.class, type.parameterType(0),
+            Object.class));
+    return MethodHandles.catchException(handle, Exception.class, handler);
+  }
+
+  private static void handleException(PdxFieldWrapper field, boolean serialization, Exception ex,
+      Object writerOrReader, Object obj) {
+    field.handleException(serialization, obj, ex);
+  }
+
+  private static void writeTransformed(AutoSerializableManager manager, PdxFieldWrapper field,
+      PdxWriterImpl writer, Object obj) {
+    try {
+      Object newValue = manager.getOwner().writeTransform(field.getField(), obj.getClass(),
+          field.getObject(obj));
+      field.serializeValue(writer, newValue, true);
+    } catch (Exception ex) {
+      field.handleException(true, obj, ex);
+    }
+  }
+
+  private static void writeObject(AutoSerializableManager manager, PdxWriterImpl writer,
+      Object value) {
+    writer.writeObject(value, manager.getCheckPortability());
+  }
+
+  private static void writeObjectArray(AutoSerializableManager manager, PdxWriterImpl writer,
+      Object[] value) {
+    writer.writeObjectArray(value, manager.getCheckPortability());
+  }
+
+  /**
+   * Returns the type of the values written and read for fields of the given type.
+   */
+  private static Class<?> getValueType(FieldType fieldType) {
+    switch (fieldType) {
+      case BOOLEAN:
+        return boolean.class;
+      case BYTE:
+        return byte.class;
+      case CHAR:
+        return char.class;
+      case SHORT:
+        return short.class;
+      case INT:
+        return int.class;
+      case LONG:
+        return long.class;
+      case FLOAT:
+        return float.class;
+      case DOUBLE:
+        return double.class;
+      case DATE:
+        return Date.class;
+      case STRING:
+        return String.class;
+      case OBJECT:
+        return Object.class;
+      case BOOLEAN_ARRAY:
+        return boolean[].class;
+      case CHAR_ARRAY:
+        return char[].class;
+      case BYTE_ARRAY:
+        return byte[].class;
+      case SHORT_ARRAY:
+        return short[].class;
+      case INT_ARRAY:
+        return int[].class;
+      case LONG_ARRAY:
+        return long[].class;
+      case FLOAT_ARRAY:
+        return float[].class;
+      case DOUBLE_ARRAY:
+        return double[].class;
+      case STRING_ARRAY:
+        return String[].class;
+      case OBJECT_ARRAY:
+        return Object[].class;
+      case ARRAY_OF_BYTE_ARRAYS:
+        return byte[][].class;
+      default:
+        throw new IllegalStateException("unhandled field type " + fieldType);
+    }
+  }
+
+  /**
+   * Returns the suffix of the writeX and readX methods of the given type.
+   */
+  private static String getMethodSuffix(FieldType fieldType) {
+    switch (fieldType) {
+      case ARRAY_OF_BYTE_ARRAYS:
+        return "ArrayOfByteArrays";
+      default:
+        StringBuilder suffix = new StringBuilder();
+        for (String word : fieldType.name().split("_")) {
+          suffix.append(word.charAt(0)).append(word.substring(1).toLowerCase());
+        }
+        return suffix.toString();
+    }
+  }
+}
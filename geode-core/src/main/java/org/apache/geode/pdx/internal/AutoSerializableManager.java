@@ -419,6 +419,9 @@ public class AutoSerializableManager {
 
         fieldList.addAll(variableLenFields);
         classInfo = new AutoClassInfo(clazz, fieldList);
+        if (GENERATE_ACCESSORS) {
+          classInfo.setAccessor(AutoClassAccessor.create(this, classInfo));
+        }
         logger.info("Auto serializer generating type for {} for fields: {}", clazz,
             classInfo.toFormattedString());
         classMap.put(clazz, classInfo);
@@ -667,6 +670,10 @@ public class AutoSerializableManager {
     private final boolean transformValue;
     private final AutoSerializableManager owner;
     private final boolean isIdentityField;
+    /**
+     * The type the field is serialized as, if the wrapper was created by {@link #create}.
+     */
+    private FieldType fieldType;
 
     protected PdxFieldWrapper(AutoSerializableManager owner, Field f, String name,
         boolean transformValue, boolean isIdentityField) {
@@ -685,6 +692,14 @@ public class AutoSerializableManager {
 
     public static PdxFieldWrapper create(AutoSerializableManager owner, Field f, FieldType ft,
         String name, boolean transformValue, boolean isIdentityField) {
+      PdxFieldWrapper result =
+          createWrapper(owner, f, ft, name, transformValue, isIdentityField);
+      result.fieldType = ft;
+      return result;
+    }
+
+    private static PdxFieldWrapper createWrapper(AutoSerializableManager owner, Field f,
+        FieldType ft, String name, boolean transformValue, boolean isIdentityField) {
       switch (ft) {
         case INT:
           return new IntField(owner, f, name, transformValue, isIdentityField);
@@ -747,6 +762,10 @@ public class AutoSerializableManager {
       return this.fieldName;
     }
 
+    FieldType getFieldType() {
+      return this.fieldType;
+    }
+
     public boolean transform() {
       return this.transformValue;
     }
@@ -2009,6 +2028,11 @@ public class AutoSerializableManager {
         optimizeFieldWrites = true;
       }
     }
+    AutoClassAccessor accessor = autoClassInfo.getAccessor();
+    if (optimizeFieldWrites && accessor != null && !w.definingNewPdxType()) {
+      accessor.write(w, obj);
+      return;
+    }
     for (PdxFieldWrapper f : autoClassInfo.getFields()) {
       // System.out.println("DEBUG writing field=" + f.getField().getName() + " offset=" +
       // ((PdxWriterImpl)writer).position());
@@ -2039,6 +2063,13 @@ public class AutoSerializableManager {
   private static final boolean USE_CONSTRUCTOR =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "autopdx.ignoreConstructor");
 
+  /**
+   * If true, the fields of each class are written and read in order by a composed method handle
+   * instead of by calling each field wrapper. See {@link AutoClassAccessor}.
+   */
+  static final boolean GENERATE_ACCESSORS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "AutoSerializer.generateAccessors");
+
   /**
    * Using the given PdxReader, recreate the given object.
    *
@@ -2162,6 +2193,11 @@ public class AutoSerializableManager {
      */
     private PdxType serializedType = null;
 
+    /**
+     * Writes and reads all the fields in order, or null if they are written and read one by one.
+     */
+    private AutoClassAccessor accessor;
+
     public AutoClassInfo(Class<?> clazz, List<PdxFieldWrapper> fields) {
       this.clazzRef = new WeakReference<Class<?>>(clazz);
       this.fields = fields;
@@ -2205,6 +2241,14 @@ public class AutoSerializableManager {
       return this.serializedType;
     }
 
+    void setAccessor(AutoClassAccessor accessor) {
+      this.accessor = accessor;
+    }
+
+    AutoClassAccessor getAccessor() {
+      return this.accessor;
+    }
+
     public Class<?> getInfoClass() {
       return this.clazzRef.get();
     }
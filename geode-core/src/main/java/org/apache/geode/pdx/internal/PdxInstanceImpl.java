@@ -586,8 +586,14 @@ public class PdxInstanceImpl extends PdxReaderImpl
   }
 
   @Override
-  public synchronized Object readField(String fieldName) {
-    return super.readField(fieldName);
+  public Object readField(PdxField ft) {
+    if (ft.getFieldType().isFixedWidth()) {
+      // read with an absolute read method so a query reading many instances does not lock them
+      return super.readField(ft);
+    }
+    synchronized (this) {
+      return super.readField(ft);
+    }
   }
 
   @Override
@@ -629,6 +635,19 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return getUnmodifiableReader(fieldName).readRawField(fieldName);
   }
 
+  /**
+   * Returns the value of the given field of this instance's type like {@link #getRawField(String)}
+   * does, without looking the field up by name again.
+   */
+  public Object getRawField(PdxField field) {
+    PdxReaderImpl reader = getUnmodifiableReader(field.getFieldName());
+    if (reader.getPdxType() != getPdxType()) {
+      // modified fields were written with a new type
+      return reader.readRawField(field.getFieldName());
+    }
+    return reader.readRawField(field);
+  }
+
   public Object getDefaultValueIfFieldExistsInAnyPdxVersions(String fieldName, String className)
       throws FieldNotFoundInPdxVersion {
     PdxType pdxType =
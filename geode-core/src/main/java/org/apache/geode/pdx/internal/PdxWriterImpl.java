@@ -82,6 +82,10 @@ public class PdxWriterImpl implements PdxWriter {
   private PdxType existingType;
   private PdxType newType;
   private int fieldId = -1;
+  /**
+   * True if the type of the object written is only known once all its fields have been written.
+   */
+  private final boolean typeDeferred;
 
   /**
    * If true then extra validation is done to detect if mistakes have been made in the way PdxWriter
@@ -101,6 +105,7 @@ public class PdxWriterImpl implements PdxWriter {
     this.os = out;
     this.headerOffset = this.os.size();
     this.aci = null;
+    this.typeDeferred = false;
   }
 
   PdxWriterImpl(PdxType pdxType, PdxOutputStream out) {
@@ -110,6 +115,7 @@ public class PdxWriterImpl implements PdxWriter {
     this.existingType = pdxType;
     this.headerOffset = this.os.size();
     this.aci = null;
+    this.typeDeferred = false;
   }
 
   PdxWriterImpl(PdxType pt, TypeRegistry tr, PdxOutputStream out) {
@@ -119,6 +125,7 @@ public class PdxWriterImpl implements PdxWriter {
     this.newType = pt;
     this.headerOffset = this.os.size();
     this.aci = null;
+    this.typeDeferred = false;
   }
 
   public PdxWriterImpl(TypeRegistry tr, Object pdx, AutoClassInfo aci, PdxOutputStream os) {
@@ -127,6 +134,21 @@ public class PdxWriterImpl implements PdxWriter {
     this.os = os;
     this.headerOffset = this.os.size();
     this.aci = aci;
+    this.typeDeferred = false;
+  }
+
+  /**
+   * Creates a writer of an object whose type is only known once all its fields have been written,
+   * like a JSON document. No type is built while the fields are written, the caller gives it to
+   * {@link #completeByteStreamGeneration(PdxType)}.
+   */
+  public PdxWriterImpl(PdxOutputStream out) {
+    this.tr = null;
+    this.pdx = null;
+    this.os = out;
+    this.headerOffset = this.os.size();
+    this.aci = null;
+    this.typeDeferred = true;
   }
 
   private boolean fieldsWritten() {
@@ -148,6 +170,9 @@ public class PdxWriterImpl implements PdxWriter {
       // PdxInstance is using us to flush its dirty fields
       return;
     }
+    if (this.typeDeferred) {
+      return;
+    }
     if (definingNewPdxType()) {
       // PdxInstanceFactoryImpl is using us
       return;
@@ -336,6 +361,17 @@ public class PdxWriterImpl implements PdxWriter {
     this.os.writeObject(object, onlyPortableObjects);
   }
 
+  /**
+   * Starts an object field whose value the caller serializes itself to the returned stream, for
+   * example with a nested writer. Exactly one serialized object must be written to it before the
+   * next field.
+   */
+  public PdxOutputStream startObjectField(String fieldName) {
+    markVariableField();
+    updateMetaData(fieldName, FieldType.OBJECT);
+    return this.os;
+  }
+
   public PdxWriter writeBooleanArray(String fieldName, boolean[] array) {
     markVariableField();
     updateMetaData(fieldName, FieldType.BOOLEAN_ARRAY);
@@ -536,6 +572,20 @@ public class PdxWriterImpl implements PdxWriter {
     return getCurrentOffset() + 1; // +1 for DSCODE.PDX
   }
 
+  /**
+   * Completes the object of a writer created with {@link #PdxWriterImpl(PdxOutputStream)}, whose
+   * fields were written in the order of the given type.
+   *
+   * @return total number of bytes serialized for this pdx
+   */
+  public int completeByteStreamGeneration(PdxType type) {
+    if (!this.typeDeferred) {
+      throw new IllegalStateException("The type of this writer is not deferred");
+    }
+    this.existingType = type;
+    return completeByteStreamGeneration();
+  }
+
   /**
    * Returns the pdx type that can be used by the auto serializer to always serialize this class.
    */
@@ -895,7 +945,7 @@ public class PdxWriterImpl implements PdxWriter {
     if (definingNewPdxType()) {
       PdxField ft = new PdxField(fieldName, this.fieldId, this.vlfCount, type, isIdentityField);
       this.newType.addField(ft);
-    } else if (doExtraValidation()) {
+    } else if (doExtraValidation() && !this.typeDeferred) {
       PdxField ft = this.existingType.getPdxField(fieldName);
       if (ft == null) {
         throw new PdxSerializationException("Did not expect field " + fieldName
@@ -916,7 +966,7 @@ public class PdxWriterImpl implements PdxWriter {
     updateMetaData(ft.getFieldName(), ft.getFieldType(), ft.isIdentityField());
   }
 
-  PdxInstance makePdxInstance() {
+  public PdxInstance makePdxInstance() {
     ByteBuffer bb = this.os.toByteBuffer();
     bb.get(); // skip PDX DSCODE
     int len = bb.getInt();
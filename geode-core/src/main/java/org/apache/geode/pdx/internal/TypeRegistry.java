@@ -36,6 +36,7 @@ import org.apache.geode.internal.util.concurrent.CopyOnWriteWeakHashMap;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.PdxSerializer;
 import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.json.JSONTypeCache;
 
 public class TypeRegistry {
   private static final Logger logger = LogService.getLogger();
@@ -61,6 +62,8 @@ public class TypeRegistry {
 
   private final Map<Enum<?>, Integer> localEnumIds = new CopyOnWriteWeakHashMap<>();
 
+  private final JSONTypeCache jsonTypes = new JSONTypeCache();
+
   private final TypeRegistration distributedTypeRegistry;
 
   private final InternalCache cache;
@@ -87,6 +90,7 @@ public class TypeRegistry {
     this.idToType.clear();
     this.idToEnum.clear();
     this.enumInfoToId.clear();
+    this.jsonTypes.clear();
     this.distributedTypeRegistry.testClearRegistry();
   }
 
@@ -186,6 +190,13 @@ public class TypeRegistry {
     }
   }
 
+  /**
+   * Returns the types of the JSON documents converted to pdx with this registry.
+   */
+  public JSONTypeCache getJSONTypeCache() {
+    return this.jsonTypes;
+  }
+
   /**
    * Create a type id for a type that may come locally, or from a remote member.
    */
@@ -458,6 +469,7 @@ public class TypeRegistry {
       this.idToEnum.clear();
       this.enumInfoToId.clear();
       this.localEnumIds.clear();
+      this.jsonTypes.clear();
       AutoSerializableManager autoSerializer = getAutoSerializableManager();
       if (autoSerializer != null) {
         autoSerializer.resetCachedTypes();
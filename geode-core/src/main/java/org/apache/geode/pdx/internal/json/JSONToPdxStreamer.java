@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import org.apache.geode.internal.ByteBufferWriter;
+import org.apache.geode.internal.DSCODE;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.Version;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxOutputStream;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.PdxWriterImpl;
+import org.apache.geode.pdx.internal.TypeRegistry;
+
+/**
+ * Converts a JSON document into a PdxInstance in a single pass over the tokens of its parser. The
+ * fields of every object are written in place to the pdx stream of the document and its type is
+ * only looked up, in the {@link JSONTypeCache} of the registry, once the object ends. Arrays are
+ * written to a buffer of their nesting level until their length is known.
+ * <p>
+ * The bytes are the same as the ones of the PdxInstances and LinkedLists built by
+ * {@link JSONFormatter} when the field names are not sorted.
+ */
+public class JSONToPdxStreamer {
+  private final TypeRegistry registry;
+
+  private final JSONTypeCache typeCache;
+
+  /**
+   * The state of the objects and arrays being written, by nesting level.
+   */
+  private Level[] levels = new Level[4];
+
+  public JSONToPdxStreamer(TypeRegistry registry) {
+    this.registry = registry;
+    this.typeCache = registry.getJSONTypeCache();
+  }
+
+  /**
+   * Reads the JSON object the parser is positioned before and returns it as a PdxInstance.
+   */
+  public PdxInstance getPdxInstance(JsonParser jp) throws IOException {
+    JsonToken token = jp.nextToken();
+    if (token != JsonToken.START_OBJECT) {
+      throw new IllegalStateException("Expected a JSON object but found " + token);
+    }
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    return writeObject(jp, out, 0).makePdxInstance();
+  }
+
+  private PdxWriterImpl writeObject(JsonParser jp, HeapDataOutputStream out, int depth)
+      throws IOException {
+    PdxWriterImpl writer = new PdxWriterImpl(new PdxOutputStream(out));
+    Level level = getLevel(depth);
+    level.fieldCount = 0;
+    while (jp.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = jp.getCurrentName();
+      // nested values use the next level, this one's fields are only added once written
+      FieldType fieldType = writeField(jp, writer, out, fieldName, depth);
+      level.addField(fieldName, fieldType);
+    }
+    writer.completeByteStreamGeneration(getType(level, writer));
+    return writer;
+  }
+
+  private FieldType writeField(JsonParser jp, PdxWriterImpl writer, HeapDataOutputStream out,
+      String fieldName, int depth) throws IOException {
+    JsonToken token = jp.nextToken();
+    switch (token) {
+      case START_OBJECT:
+        writer.startObjectField(fieldName);
+        writeObject(jp, out, depth + 1);
+        return FieldType.OBJECT;
+      case START_ARRAY:
+        writer.startObjectField(fieldName);
+        writeList(jp, out, depth + 1);
+        return FieldType.OBJECT;
+      case VALUE_STRING:
+        writer.writeObject(fieldName, jp.getText());
+        return FieldType.OBJECT;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        writer.writeBoolean(fieldName, token == JsonToken.VALUE_TRUE);
+        return FieldType.BOOLEAN;
+      case VALUE_NULL:
+        writer.writeObject(fieldName, null);
+        return FieldType.OBJECT;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return writeNumberField(jp, writer, fieldName);
+      default:
+        throw new IllegalStateException("Token not handled " + token);
+    }
+  }
+
+  private FieldType writeNumberField(JsonParser jp, PdxWriterImpl writer, String fieldName)
+      throws IOException {
+    JsonParser.NumberType nt = jp.getNumberType();
+    switch (nt) {
+      case BIG_DECIMAL:
+        writer.writeObject(fieldName, jp.getDecimalValue());
+        return FieldType.OBJECT;
+      case BIG_INTEGER:
+        writer.writeObject(fieldName, jp.getBigIntegerValue());
+        return FieldType.OBJECT;
+      case DOUBLE:
+        writer.writeDouble(fieldName, jp.getDoubleValue());
+        return FieldType.DOUBLE;
+      case FLOAT:
+        writer.writeFloat(fieldName, jp.getFloatValue());
+        return FieldType.FLOAT;
+      case INT: {
+        int val = jp.getIntValue();
+        if (val > Short.MAX_VALUE || val < Short.MIN_VALUE) {
+          writer.writeInt(fieldName, val);
+          return FieldType.INT;
+        } else if (val > Byte.MAX_VALUE || val < Byte.MIN_VALUE) {
+          writer.writeShort(fieldName, (short) val);
+          return FieldType.SHORT;
+        } else {
+          writer.writeByte(fieldName, (byte) val);
+          return FieldType.BYTE;
+        }
+      }
+      case LONG:
+        writer.writeLong(fieldName, jp.getLongValue());
+        return FieldType.LONG;
+      default:
+        throw new IllegalStateException("unknown number type " + nt);
+    }
+  }
+
+  /**
+   * Writes the array the parser is in as a serialized LinkedList.
+   */
+  private void writeList(JsonParser jp, HeapDataOutputStream out, int depth) throws IOException {
+    HeapDataOutputStream elements = getLevel(depth).getElements();
+    int size = 0;
+    JsonToken token;
+    while ((token = jp.nextToken()) != JsonToken.END_ARRAY) {
+      writeElement(jp, token, elements, depth);
+      size++;
+    }
+    out.writeByte(DSCODE.LINKED_LIST);
+    InternalDataSerializer.writeArrayLength(size, out);
+    elements.sendTo((ByteBufferWriter) out);
+    elements.reset();
+  }
+
+  /**
+   * Writes an element the way DataSerializer writes the boxed value of the old mapper.
+   */
+  private void writeElement(JsonParser jp, JsonToken token, HeapDataOutputStream out, int depth)
+      throws IOException {
+    switch (token) {
+      case START_OBJECT:
+        writeObject(jp, out, depth + 1);
+        break;
+      case START_ARRAY:
+        writeList(jp, out, depth + 1);
+        break;
+      case VALUE_STRING:
+        InternalDataSerializer.basicWriteObject(jp.getText(), out, false);
+        break;
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        out.writeByte(DSCODE.BOOLEAN);
+        out.writeBoolean(token == JsonToken.VALUE_TRUE);
+        break;
+      case VALUE_NULL:
+        out.writeByte(DSCODE.NULL);
+        break;
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        writeNumberElement(jp, out);
+        break;
+      default:
+        throw new IllegalStateException("Token not handled " + token);
+    }
+  }
+
+  private void writeNumberElement(JsonParser jp, HeapDataOutputStream out) throws IOException {
+    JsonParser.NumberType nt = jp.getNumberType();
+    switch (nt) {
+      case BIG_DECIMAL:
+        InternalDataSerializer.basicWriteObject(jp.getDecimalValue(), out, false);
+        break;
+      case BIG_INTEGER:
+        InternalDataSerializer.basicWriteObject(jp.getBigIntegerValue(), out, false);
+        break;
+      case DOUBLE:
+        out.writeByte(DSCODE.DOUBLE);
+        out.writeDouble(jp.getDoubleValue());
+        break;
+      case FLOAT:
+        out.writeByte(DSCODE.FLOAT);
+        out.writeFloat(jp.getFloatValue());
+        break;
+      case INT: {
+        int val = jp.getIntValue();
+        if (val > Short.MAX_VALUE || val < Short.MIN_VALUE) {
+          out.writeByte(DSCODE.INTEGER);
+          out.writeInt(val);
+        } else if (val > Byte.MAX_VALUE || val < Byte.MIN_VALUE) {
+          out.writeByte(DSCODE.SHORT);
+          out.writeShort(val);
+        } else {
+          out.writeByte(DSCODE.BYTE);
+          out.writeByte(val);
+        }
+        break;
+      }
+      case LONG:
+        out.writeByte(DSCODE.LONG);
+        out.writeLong(jp.getLongValue());
+        break;
+      default:
+        throw new IllegalStateException("unknown number type " + nt);
+    }
+  }
+
+  /**
+   * Returns the type of the object whose fields were written by the given writer, defining it if
+   * no object of the same shape was seen before.
+   */
+  private PdxType getType(Level level, PdxWriterImpl writer) {
+    PdxType type = this.typeCache.getType(level.fieldNames, level.fieldTypes, level.fieldCount);
+    if (type == null) {
+      type = new PdxType(JSONFormatter.JSON_CLASSNAME, false);
+      // the variable length field ids the writer assigns when it defines a type
+      int vlfCount = 0;
+      boolean hasSeenFirstVlf = false;
+      for (int i = 0; i < level.fieldCount; i++) {
+        FieldType fieldType = level.fieldTypes[i];
+        if (!fieldType.isFixedWidth()) {
+          if (hasSeenFirstVlf) {
+            vlfCount++;
+          } else {
+            hasSeenFirstVlf = true;
+          }
+        }
+        type.addField(new PdxField(level.fieldNames[i], i, vlfCount, fieldType, false));
+      }
+      type.initialize(writer);
+      this.registry.defineType(type);
+      this.typeCache.putType(level.fieldNames, level.fieldTypes, level.fieldCount, type);
+    }
+    return type;
+  }
+
+  private Level getLevel(int depth) {
+    if (depth == this.levels.length) {
+      this.levels = Arrays.copyOf(this.levels, depth * 2);
+    }
+    Level level = this.levels[depth];
+    if (level == null) {
+      level = new Level();
+      this.levels[depth] = level;
+    }
+    return level;
+  }
+
+  /**
+   * The fields of the object, or the elements of the array, at a nesting level. An object and an
+   * array are never open at the same level, so they share it.
+   */
+  private static class Level {
+    private String[] fieldNames = new String[8];
+
+    private FieldType[] fieldTypes = new FieldType[8];
+
+    private int fieldCount;
+
+    private HeapDataOutputStream elements;
+
+    void addField(String fieldName, FieldType fieldType) {
+      if (this.fieldCount == this.fieldNames.length) {
+        this.fieldNames = Arrays.copyOf(this.fieldNames, this.fieldCount * 2);
+        this.fieldTypes = Arrays.copyOf(this.fieldTypes, this.fieldCount * 2);
+      }
+      this.fieldNames[this.fieldCount] = fieldName;
+      this.fieldTypes[this.fieldCount] = fieldType;
+      this.fieldCount++;
+    }
+
+    HeapDataOutputStream getElements() {
+      if (this.elements == null) {
+        this.elements = new HeapDataOutputStream(Version.CURRENT);
+      }
+      return this.elements;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.pdx.internal.TypeRegistry;
+
+/**
+ * The types of the JSON objects streamed into pdx, by the names and types of their fields. Objects
+ * of the same shape are written with the type cached for it instead of defining a new type for each
+ * of them.
+ * <p>
+ * The shapes are kept in a tree of fields, the type of an object is found by walking its fields in
+ * order without allocating a key. It belongs to a {@link TypeRegistry} and is cleared with it.
+ */
+public class JSONTypeCache {
+  /**
+   * The number of fields kept at most in the tree, so that objects whose field names are data do
+   * not fill the heap. Objects with new shapes are still written once it is full, their types just
+   * are not cached.
+   */
+  private static final int MAX_CACHED_FIELDS = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "pdx.mapper.max-cached-json-fields", 10000);
+
+  private volatile Shape root = new Shape(null);
+
+  private final AtomicInteger fieldCount = new AtomicInteger();
+
+  /**
+   * Returns the cached type of objects with the given fields, or null if there is none.
+   */
+  public PdxType getType(String[] fieldNames, FieldType[] fieldTypes, int count) {
+    Shape shape = this.root;
+    for (int i = 0; i < count && shape != null; i++) {
+      shape = shape.getChild(fieldNames[i], fieldTypes[i]);
+    }
+    return shape == null ? null : shape.type;
+  }
+
+  /**
+   * Caches the type of objects with the given fields, if there is room left.
+   */
+  public void putType(String[] fieldNames, FieldType[] fieldTypes, int count, PdxType type) {
+    Shape shape = this.root;
+    for (int i = 0; i < count; i++) {
+      Shape child = shape.getChild(fieldNames[i], fieldTypes[i]);
+      if (child == null) {
+        if (this.fieldCount.incrementAndGet() > MAX_CACHED_FIELDS) {
+          this.fieldCount.decrementAndGet();
+          return;
+        }
+        child = shape.addChild(fieldNames[i], fieldTypes[i]);
+      }
+      shape = child;
+    }
+    shape.type = type;
+  }
+
+  /**
+   * Forgets all the cached types, called when the types of the registry are cleared.
+   */
+  public void clear() {
+    this.root = new Shape(null);
+    this.fieldCount.set(0);
+  }
+
+  /**
+   * A field of the objects whose fields start with the fields of the shapes leading to it.
+   */
+  private static class Shape {
+    private final FieldType fieldType;
+
+    /**
+     * The next field of the same name and another type.
+     */
+    private volatile Shape sibling;
+
+    private volatile ConcurrentHashMap<String, Shape> children;
+
+    /**
+     * The type of the objects whose last field is this one.
+     */
+    private volatile PdxType type;
+
+    Shape(FieldType fieldType) {
+      this.fieldType = fieldType;
+    }
+
+    Shape getChild(String fieldName, FieldType fieldType) {
+      ConcurrentHashMap<String, Shape> children = this.children;
+      if (children == null) {
+        return null;
+      }
+      Shape child = children.get(fieldName);
+      while (child != null && child.fieldType != fieldType) {
+        child = child.sibling;
+      }
+      return child;
+    }
+
+    synchronized Shape addChild(String fieldName, FieldType fieldType) {
+      if (this.children == null) {
+        this.children = new ConcurrentHashMap<>();
+      }
+      Shape first = this.children.get(fieldName);
+      for (Shape child = first; child != null; child = child.sibling) {
+        if (child.fieldType == fieldType) {
+          return child;
+        }
+      }
+      Shape child = new Shape(fieldType);
+      child.sibling = first;
+      this.children.put(fieldName, child);
+      return child;
+    }
+  }
+}
@@ -34,6 +34,8 @@ import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.internal.EnumInfo;
 import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
+import org.apache.geode.pdx.internal.PdxField;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
 
 /*
  * This class converts a PdxInstance into a JSON document.
@@ -41,6 +43,9 @@ import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
 public class PdxToJSON {
   public static boolean PDXTOJJSON_UNQUOTEFIELDNAMES =
       Boolean.getBoolean("pdxToJson.unQuoteFieldNames");
+
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
   private PdxInstance m_pdxInstance;
 
   public PdxToJSON(PdxInstance pdx) {
@@ -48,11 +53,10 @@ public class PdxToJSON {
   }
 
   public String getJSON() {
-    JsonFactory jf = new JsonFactory();
     // OutputStream os = new ByteArrayOutputStream();
     HeapDataOutputStream hdos = new HeapDataOutputStream(org.apache.geode.internal.Version.CURRENT);
     try {
-      JsonGenerator jg = jf.createJsonGenerator(hdos, JsonEncoding.UTF8);
+      JsonGenerator jg = jsonFactory.createJsonGenerator(hdos, JsonEncoding.UTF8);
       enableDisableJSONGeneratorFeature(jg);
       getJSONString(jg, m_pdxInstance);
       jg.close();
@@ -65,10 +69,9 @@ public class PdxToJSON {
   }
 
   public byte[] getJSONByteArray() {
-    JsonFactory jf = new JsonFactory();
     HeapDataOutputStream hdos = new HeapDataOutputStream(org.apache.geode.internal.Version.CURRENT);
     try {
-      JsonGenerator jg = jf.createJsonGenerator(hdos, JsonEncoding.UTF8);
+      JsonGenerator jg = jsonFactory.createJsonGenerator(hdos, JsonEncoding.UTF8);
       enableDisableJSONGeneratorFeature(jg);
       getJSONString(jg, m_pdxInstance);
       jg.close();
@@ -167,6 +170,12 @@ public class PdxToJSON {
       throws JsonGenerationException, IOException {
     jg.writeStartObject();
 
+    if (pdxInstance.getClass() == PdxInstanceImpl.class) {
+      writeFields(jg, (PdxInstanceImpl) pdxInstance);
+      jg.writeEndObject();
+      return null;
+    }
+
     List<String> pdxFields = pdxInstance.getFieldNames();
 
     for (String pf : pdxFields) {
@@ -178,6 +187,46 @@ public class PdxToJSON {
     return null;
   }
 
+  /**
+   * Writes the fields of the instance straight from its pdx bytes, in the order of its type,
+   * without looking up every field by name or boxing the primitive ones.
+   */
+  private void writeFields(JsonGenerator jg, PdxInstanceImpl pdx) throws IOException {
+    for (PdxField field : pdx.getPdxType().getFields()) {
+      if (field.isDeleted()) {
+        continue;
+      }
+      String pf = field.getFieldName();
+      jg.writeFieldName(pf);
+      switch (field.getFieldType()) {
+        case BOOLEAN:
+          jg.writeBoolean(pdx.readBoolean(field));
+          break;
+        case BYTE:
+          jg.writeNumber(pdx.readByte(field));
+          break;
+        case SHORT:
+          jg.writeNumber(pdx.readShort(field));
+          break;
+        case INT:
+          jg.writeNumber(pdx.readInt(field));
+          break;
+        case LONG:
+          jg.writeNumber(pdx.readLong(field));
+          break;
+        case FLOAT:
+          jg.writeNumber(pdx.readFloat(field));
+          break;
+        case DOUBLE:
+          jg.writeNumber(pdx.readDouble(field));
+          break;
+        default:
+          writeValue(jg, pdx.readField(field), pf);
+          break;
+      }
+    }
+  }
+
   private void getJSONStringFromArray(JsonGenerator jg, Object value, String pf)
       throws JsonGenerationException, IOException {
 
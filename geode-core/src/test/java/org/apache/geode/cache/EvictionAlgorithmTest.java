@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class EvictionAlgorithmTest {
+  @Test
+  public void memoryEvictionCoversLruAndTinyLfu() throws Exception {
+    assertThat(EvictionAlgorithm.LRU_MEMORY.isMemoryEviction()).isTrue();
+    assertThat(EvictionAlgorithm.TINYLFU_MEMORY.isMemoryEviction()).isTrue();
+
+    assertThat(EvictionAlgorithm.NONE.isMemoryEviction()).isFalse();
+    assertThat(EvictionAlgorithm.LRU_ENTRY.isMemoryEviction()).isFalse();
+    assertThat(EvictionAlgorithm.LRU_HEAP.isMemoryEviction()).isFalse();
+    assertThat(EvictionAlgorithm.TINYLFU_ENTRY.isMemoryEviction()).isFalse();
+  }
+
+  @Test
+  public void tinyLfuIsNotLru() throws Exception {
+    assertThat(EvictionAlgorithm.TINYLFU_ENTRY.isLRU()).isFalse();
+    assertThat(EvictionAlgorithm.TINYLFU_MEMORY.isLRU()).isFalse();
+    assertThat(EvictionAlgorithm.TINYLFU_ENTRY.isTinyLFU()).isTrue();
+    assertThat(EvictionAlgorithm.TINYLFU_MEMORY.isTinyLFU()).isTrue();
+  }
+}
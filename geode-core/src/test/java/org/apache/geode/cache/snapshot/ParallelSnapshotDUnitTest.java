@@ -114,11 +114,28 @@ public class ParallelSnapshotDUnitTest extends JUnit4CacheTestCase {
     doImport(false);
   }
 
+  /**
+   * This test ensures that every bucket file of a parallel export is imported even when the
+   * buckets have other primaries on import (import cluster larger than export one)
+   */
+  @Test
+  public void testBucketFilesImportOnLargerCluster() throws Exception {
+    loadCache(2);
+    doExport(false, 2, true);
+    getCache().getRegion("test").destroyRegion();
+    loadCache();
+    doImport(false, true);
+  }
+
   private void doExport(boolean explode) throws Exception {
     doExport(explode, Host.getHost(0).getVMCount());
   }
 
   private void doExport(boolean explode, int nodes) throws Exception {
+    doExport(explode, nodes, false);
+  }
+
+  private void doExport(boolean explode, int nodes, boolean bucketFiles) throws Exception {
     Region region = getCache().getRegion("test");
     for (int i = 0; i < DATA_POINTS; i++) {
       region.put(i, ffff);
@@ -132,10 +149,15 @@ public class ParallelSnapshotDUnitTest extends JUnit4CacheTestCase {
     SnapshotOptionsImpl opt = (SnapshotOptionsImpl) rss.createOptions();
     opt.setParallelMode(true);
     opt.setMapper(mapper);
+    opt.setBucketFiles(bucketFiles);
 
     File f = new File(directory, "mysnap.gfd").getAbsoluteFile();
     rss.save(f, SnapshotFormat.GEMFIRE, opt);
 
+    if (bucketFiles) {
+      // a member exports a file per primary bucket instead
+      return;
+    }
     mapper.setShouldExplode(false);
     SerializableCallable check = new SerializableCallable() {
       @Override
@@ -152,6 +174,11 @@ public class ParallelSnapshotDUnitTest extends JUnit4CacheTestCase {
   }
 
   private void doImport(boolean explode) throws ClassNotFoundException, IOException {
+    doImport(explode, false);
+  }
+
+  private void doImport(boolean explode, boolean bucketFiles)
+      throws ClassNotFoundException, IOException {
     Region region = getCache().getRegion("test");
     RegionSnapshotService rss = region.getSnapshotService();
 
@@ -161,6 +188,7 @@ public class ParallelSnapshotDUnitTest extends JUnit4CacheTestCase {
     SnapshotOptionsImpl opt = (SnapshotOptionsImpl) rss.createOptions();
     opt.setParallelMode(true);
     opt.setMapper(mapper);
+    opt.setBucketFiles(bucketFiles);
 
     for (int i = 0; i < DATA_POINTS; i++) {
       region.put(i, eeee);
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ByteBufferDataInputTest {
+
+  private ByteBufferDataInput in;
+
+  @Before
+  public void setup() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(-1);
+    out.writeShort(-2);
+    out.writeChar('c');
+    out.writeInt(Integer.MIN_VALUE);
+    out.writeLong(Long.MAX_VALUE);
+    out.writeDouble(1.5);
+    out.writeUTF("café");
+    DataSerializer.writeObject("key", out);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.size());
+    buffer.put(bytes.toByteArray());
+    buffer.flip();
+    in = new ByteBufferDataInput();
+    in.initialize(buffer, null);
+  }
+
+  @Test
+  public void readsWhatDataOutputStreamWrote() throws Exception {
+    assertThat(in.readByte()).isEqualTo((byte) -1);
+    assertThat(in.readShort()).isEqualTo((short) -2);
+    assertThat(in.readChar()).isEqualTo('c');
+    assertThat(in.readInt()).isEqualTo(Integer.MIN_VALUE);
+    assertThat(in.readLong()).isEqualTo(Long.MAX_VALUE);
+    assertThat(in.readDouble()).isEqualTo(1.5);
+    assertThat(in.readUTF()).isEqualTo("café");
+    assertThat((String) DataSerializer.readObject(in)).isEqualTo("key");
+    assertThat(in.available()).isZero();
+    assertThat(in.read()).isEqualTo(-1);
+  }
+
+  @Test
+  public void readingPastTheLimitThrowsEOFException() throws Exception {
+    in.setLimit(2);
+    in.readByte();
+
+    assertThatThrownBy(() -> in.readShort()).isInstanceOf(EOFException.class);
+    assertThatThrownBy(() -> in.readFully(new byte[2])).isInstanceOf(EOFException.class);
+    assertThat(in.position()).isEqualTo(1);
+    assertThat(in.skipBytes(10)).isEqualTo(1);
+  }
+
+  @Test
+  public void canRereadFromAnEarlierPosition() throws Exception {
+    in.skipBytes(3);
+    int position = in.position();
+    assertThat(in.readChar()).isEqualTo('c');
+
+    in.setPosition(position);
+
+    assertThat(in.readChar()).isEqualTo('c');
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class DataSerializableAccessorsTest {
+
+  @Test
+  public void newInstanceCreatesAnInstance() throws Exception {
+    assertThat(DataSerializableAccessors.newInstance(PublicSerializable.class))
+        .isInstanceOf(PublicSerializable.class);
+    assertThat(DataSerializableAccessors.newInstance(HiddenSerializable.class))
+        .isInstanceOf(HiddenSerializable.class);
+  }
+
+  @Test
+  public void newInstanceThrowsWithoutPublicConstructor() {
+    assertThatThrownBy(() -> DataSerializableAccessors.newInstance(NoDefaultConstructor.class))
+        .isInstanceOf(NoSuchMethodException.class);
+    // again, from the cache
+    assertThatThrownBy(() -> DataSerializableAccessors.newInstance(NoDefaultConstructor.class))
+        .isInstanceOf(NoSuchMethodException.class);
+  }
+
+  @Test
+  public void versionMethodsAreFound() throws Exception {
+    assertThat(DataSerializableAccessors
+        .getVersionMethod(PublicSerializable.class, "toDataPre_GFE_7_1_0_0", DataOutput.class)
+        .getName()).isEqualTo("toDataPre_GFE_7_1_0_0");
+    assertThatThrownBy(() -> DataSerializableAccessors.getVersionMethod(PublicSerializable.class,
+        "fromDataPre_GFE_7_1_0_0", DataInput.class)).isInstanceOf(NoSuchMethodException.class);
+  }
+
+  @Test
+  public void dataSerializableIsDeserialized() throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    PublicSerializable original = new PublicSerializable();
+    original.value = 42;
+    DataSerializer.writeObject(original, out);
+
+    ByteArrayDataInput in = new ByteArrayDataInput();
+    in.initialize(out.toByteArray(), Version.CURRENT);
+    Object read = DataSerializer.readObject(in);
+
+    assertThat(read).isInstanceOf(PublicSerializable.class);
+    assertThat(((PublicSerializable) read).value).isEqualTo(42);
+  }
+
+  @Test
+  public void constructorExceptionIsReported() throws Exception {
+    assertThatThrownBy(() -> DataSerializableAccessors.newInstance(FailingConstructor.class))
+        .isInstanceOf(InvocationTargetException.class);
+  }
+
+  public static class PublicSerializable implements DataSerializable {
+    int value;
+
+    public PublicSerializable() {}
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeInt(value);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+      value = in.readInt();
+    }
+
+    public void toDataPre_GFE_7_1_0_0(DataOutput out) throws IOException {
+      toData(out);
+    }
+  }
+
+  static class HiddenSerializable implements DataSerializable {
+    public HiddenSerializable() {}
+
+    @Override
+    public void toData(DataOutput out) {}
+
+    @Override
+    public void fromData(DataInput in) {}
+  }
+
+  public static class NoDefaultConstructor implements DataSerializable {
+    public NoDefaultConstructor(int value) {}
+
+    @Override
+    public void toData(DataOutput out) {}
+
+    @Override
+    public void fromData(DataInput in) {}
+  }
+
+  public static class FailingConstructor implements DataSerializable {
+    public FailingConstructor() {
+      throw new IllegalStateException("failing");
+    }
+
+    @Override
+    public void toData(DataOutput out) {}
+
+    @Override
+    public void fromData(DataInput in) {}
+  }
+}
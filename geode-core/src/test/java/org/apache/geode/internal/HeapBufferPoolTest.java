@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class HeapBufferPoolTest {
+
+  @Before
+  public void setUp() {
+    HeapBufferPool.clear();
+  }
+
+  @After
+  public void tearDown() {
+    HeapBufferPool.initStats(null);
+    HeapBufferPool.clear();
+  }
+
+  @Test
+  public void buffersAreRoundedUpToTheirSizeClass() {
+    assertThat(HeapBufferPool.acquire(0).capacity()).isEqualTo(1024);
+    assertThat(HeapBufferPool.acquire(1024).capacity()).isEqualTo(1024);
+    assertThat(HeapBufferPool.acquire(1025).capacity()).isEqualTo(2048);
+    assertThat(HeapBufferPool.acquire(32761).capacity()).isEqualTo(32768);
+    assertThat(HeapBufferPool.acquire(HeapBufferPool.MAX_SIZE + 1).capacity())
+        .isEqualTo(HeapBufferPool.MAX_SIZE + 1);
+  }
+
+  @Test
+  public void releasedBufferIsAcquiredAgainCleared() {
+    ByteBuffer bb = HeapBufferPool.acquire(3000);
+    bb.putInt(1);
+    HeapBufferPool.release(bb);
+
+    assertThat(HeapBufferPool.getPooledBytes()).isEqualTo(4096);
+    assertThat(HeapBufferPool.acquire(1024)).isNotSameAs(bb);
+    ByteBuffer again = HeapBufferPool.acquire(2049);
+    assertThat(again).isSameAs(bb);
+    assertThat(again.position()).isEqualTo(0);
+    assertThat(again.limit()).isEqualTo(4096);
+    assertThat(HeapBufferPool.getPooledBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void foreignBuffersAreNotPooled() {
+    HeapBufferPool.release(ByteBuffer.allocate(1000));
+    HeapBufferPool.release(ByteBuffer.allocate(HeapBufferPool.MAX_SIZE * 2));
+    HeapBufferPool.release(ByteBuffer.allocateDirect(1024));
+    HeapBufferPool.release(ByteBuffer.allocate(2048).asReadOnlyBuffer());
+
+    assertThat(HeapBufferPool.getPooledBytes()).isEqualTo(0);
+  }
+
+  @Test
+  public void hitsAndMissesAreCounted() {
+    DMStats stats = mock(DMStats.class);
+    HeapBufferPool.initStats(stats);
+
+    HeapBufferPool.release(HeapBufferPool.acquire(100));
+    HeapBufferPool.acquire(100);
+
+    verify(stats, times(1)).incHeapBufferPoolMisses();
+    verify(stats, times(1)).incHeapBufferPoolHits();
+  }
+
+  @Test
+  public void pooledStreamReturnsItsBuffersWhenClosed() throws Exception {
+    byte[] bytes = new byte[3000];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    HeapDataOutputStream out = new HeapDataOutputStream(1024, Version.CURRENT, false, true);
+    out.write(bytes);
+    ByteArrayOutputStream sent = new ByteArrayOutputStream();
+    out.sendTo(sent, ByteBuffer.allocate(100));
+    out.close();
+
+    assertThat(sent.toByteArray()).isEqualTo(bytes);
+    assertThat(HeapBufferPool.getPooledBytes()).isEqualTo(1024 + 2048);
+
+    HeapDataOutputStream next = new HeapDataOutputStream(1024, Version.CURRENT, false, true);
+    next.writeInt(5);
+    assertThat(HeapBufferPool.getPooledBytes()).isEqualTo(2048);
+    assertThat(next.toByteArray()).containsExactly(0, 0, 0, 5);
+  }
+
+  @Test
+  public void pooledStreamKeepsBuffersItHandedOut() {
+    HeapDataOutputStream out = new HeapDataOutputStream(1024, Version.CURRENT, false, true);
+    out.writeInt(7);
+    ByteBuffer contents = out.toByteBuffer();
+    out.close();
+
+    assertThat(HeapBufferPool.getPooledBytes()).isEqualTo(0);
+    assertThat(contents.getInt(0)).isEqualTo(7);
+  }
+
+  @Test
+  public void pooledStreamWithReservedLongReturnsItsBuffers() throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(1024, Version.CURRENT, false, true);
+    out.writeInt(7);
+    HeapDataOutputStream.LongUpdater updater = out.reserveLong();
+    out.writeInt(9);
+    updater.update(42L);
+    ByteArrayOutputStream sent = new ByteArrayOutputStream();
+    out.sendTo(sent, ByteBuffer.allocate(100));
+    out.close();
+
+    assertThat(ByteBuffer.wrap(sent.toByteArray()).getLong(4)).isEqualTo(42L);
+    assertThat(HeapBufferPool.getPooledBytes()).isEqualTo(1024);
+    assertThatThrownBy(() -> updater.update(43L)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void streamsAreNotPooledByDefault() {
+    HeapDataOutputStream out = new HeapDataOutputStream(1024, Version.CURRENT, false);
+    out.writeInt(7);
+    out.close();
+
+    assertThat(HeapBufferPool.getPooledBytes()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompactionThrottleTest {
+
+  @Test
+  public void neverEndsBatchWithoutBudget() {
+    CompactionThrottle throttle = new CompactionThrottle(0, 1);
+
+    assertThat(throttle.isEnabled()).isFalse();
+    assertThat(throttle.entryCopied(1000)).isFalse();
+  }
+
+  @Test
+  public void endsBatchAfterBatchSizeEntries() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 3);
+
+    assertThat(throttle.entryCopied(10)).isFalse();
+    assertThat(throttle.entryCopied(10)).isFalse();
+    assertThat(throttle.entryCopied(10)).isTrue();
+    throttle.endBatch(0);
+    assertThat(throttle.entryCopied(10)).isFalse();
+  }
+
+  @Test
+  public void firstBatchIsNotPaused() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 1);
+    throttle.entryCopied(100);
+
+    assertThat(throttle.endBatch(0)).isZero();
+  }
+
+  @Test
+  public void pausesForTheTimeTheBatchCostsInTheBudget() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 2);
+    throttle.entryCopied(100);
+    throttle.entryCopied(100);
+    throttle.endBatch(0);
+    throttle.entryCopied(100);
+    throttle.entryCopied(150);
+
+    assertThat(throttle.endBatch(0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(250));
+  }
+
+  @Test
+  public void pauseIsShorterByTheTimeCopyingTheBatchTook() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 1);
+    throttle.entryCopied(500);
+    throttle.endBatch(0);
+    throttle.entryCopied(500);
+
+    long now = TimeUnit.MILLISECONDS.toNanos(400);
+
+    assertThat(throttle.endBatch(now)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+  }
+
+  @Test
+  public void doesNotSaveUpIdleTime() {
+    CompactionThrottle throttle = new CompactionThrottle(1000, 1);
+    throttle.entryCopied(500);
+    throttle.endBatch(0);
+
+    // the first batch after a minute idle may have taken its time
+    long now = TimeUnit.SECONDS.toNanos(60);
+    throttle.entryCopied(500);
+    assertThat(throttle.endBatch(now)).isZero();
+    throttle.entryCopied(500);
+    assertThat(throttle.endBatch(now)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ExpirationTimerWheelTest {
+
+  private static final long TICK_MILLIS = 10;
+
+  private static final long START = 1_000_000_000L;
+
+  private ExpirationTimerWheelStats stats;
+
+  private ExpirationTimerWheel wheel;
+
+  @Before
+  public void setUp() {
+    stats = mock(ExpirationTimerWheelStats.class);
+    wheel = new ExpirationTimerWheel(stats, TICK_MILLIS, START, null);
+  }
+
+  private static long at(long millis) {
+    return START + TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  @Test
+  public void taskFiresOnceItsDelayHasElapsed() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    assertThat(wheel.schedule(task, 55, at(0))).isTrue();
+
+    wheel.processTicks(at(50));
+    verify(task, never()).run();
+
+    wheel.processTicks(at(60));
+    verify(task, times(1)).run();
+
+    wheel.processTicks(at(1000));
+    verify(task, times(1)).run();
+    assertThat(task.wheelState).isEqualTo(ExpirationTimerWheel.EXPIRED);
+  }
+
+  @Test
+  public void tasksFarInTheFutureCascadeThroughEveryLevel() {
+    long[] delays = {0, 10, 2_550, 2_560, 2_570, 655_350, 655_360, 700_000, 167_772_160L,
+        170_000_000L};
+    ExpiryTask[] tasks = new ExpiryTask[delays.length];
+    for (int i = 0; i < delays.length; i++) {
+      tasks[i] = mock(ExpiryTask.class);
+      assertThat(wheel.schedule(tasks[i], delays[i], at(0))).isTrue();
+    }
+
+    for (int i = 0; i < delays.length; i++) {
+      if (delays[i] > 0) {
+        wheel.processTicks(at(delays[i] - TICK_MILLIS));
+        verify(tasks[i], never()).run();
+      }
+      wheel.processTicks(at(delays[i]));
+      verify(tasks[i], times(1)).run();
+    }
+  }
+
+  @Test
+  public void cancelledTaskDoesNotFire() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    wheel.schedule(task, 100, at(0));
+    wheel.processTicks(at(10));
+
+    assertThat(ExpirationTimerWheel.cancel(task)).isTrue();
+    assertThat(ExpirationTimerWheel.cancel(task)).isFalse();
+    wheel.processTicks(at(200));
+
+    verify(task, never()).run();
+    verify(stats).incTasksCancelled();
+    verify(stats).incPendingTasks(1);
+    verify(stats).incPendingTasks(-1);
+  }
+
+  @Test
+  public void taskCancelledBeforeTheWheelSawItDoesNotFire() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    wheel.schedule(task, 0, at(0));
+
+    assertThat(ExpirationTimerWheel.cancel(task)).isTrue();
+    wheel.processTicks(at(100));
+
+    verify(task, never()).run();
+    verify(stats, never()).incPendingTasks(anyLong());
+  }
+
+  @Test
+  public void taskCannotBeScheduledTwiceOrAfterCancel() {
+    ExpiryTask scheduled = mock(ExpiryTask.class);
+    assertThat(wheel.schedule(scheduled, 10, at(0))).isTrue();
+    assertThat(wheel.schedule(scheduled, 10, at(0))).isFalse();
+
+    ExpiryTask cancelled = mock(ExpiryTask.class);
+    assertThat(ExpirationTimerWheel.cancel(cancelled)).isFalse();
+    assertThat(wheel.schedule(cancelled, 10, at(0))).isFalse();
+  }
+
+  @Test
+  public void stoppedWheelRejectsTasks() {
+    wheel.stop();
+
+    assertThat(wheel.schedule(mock(ExpiryTask.class), 10, at(0))).isFalse();
+    assertThat(wheel.isStopped()).isTrue();
+  }
+
+  @Test
+  public void lateTicksRecordExpiryLag() {
+    ExpiryTask task = mock(ExpiryTask.class);
+    wheel.schedule(task, 20, at(0));
+
+    wheel.processTicks(at(520));
+
+    verify(task).run();
+    verify(stats).endTicks(anyLong(), eq(53L), eq(1), eq(500L), eq(500L));
+  }
+}
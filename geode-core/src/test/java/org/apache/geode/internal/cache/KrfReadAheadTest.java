@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class KrfReadAheadTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final List<Future<?>> submitted = new ArrayList<>();
+
+  private ExecutorService pool;
+
+  @Before
+  public void setup() {
+    pool = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+      @Override
+      public <T> Future<T> submit(Callable<T> task) {
+        Future<T> future = super.submit(task);
+        submitted.add(future);
+        return future;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void takesKrfsReadIntoMemory() throws Exception {
+    Oplog first = mock(Oplog.class);
+    Oplog second = mock(Oplog.class);
+    KrfReadAhead readAhead = new KrfReadAhead(pool, 100);
+    readAhead.add(first, krf(10, 1));
+    readAhead.add(second, krf(20, 2));
+    readAhead.start();
+
+    assertThat(submitted).hasSize(2);
+    assertContents(readAhead.take(first), 10, 1);
+    assertContents(readAhead.take(second), 20, 2);
+    assertThat(readAhead.take(second)).isNull();
+  }
+
+  @Test
+  public void readsAheadNoMoreThanTheLimit() throws Exception {
+    Oplog first = mock(Oplog.class);
+    Oplog second = mock(Oplog.class);
+    Oplog third = mock(Oplog.class);
+    KrfReadAhead readAhead = new KrfReadAhead(pool, 50);
+    readAhead.add(first, krf(30, 1));
+    readAhead.add(second, krf(20, 2));
+    readAhead.add(third, krf(10, 3));
+    readAhead.start();
+
+    assertThat(submitted).hasSize(2);
+
+    assertContents(readAhead.take(first), 30, 1);
+
+    assertThat(submitted).hasSize(3);
+    assertContents(readAhead.take(second), 20, 2);
+    assertContents(readAhead.take(third), 10, 3);
+  }
+
+  @Test
+  public void doesNotReadKrfsLargerThanTheLimit() throws Exception {
+    Oplog large = mock(Oplog.class);
+    KrfReadAhead readAhead = new KrfReadAhead(pool, 50);
+    readAhead.add(large, krf(51, 1));
+    readAhead.start();
+
+    assertThat(submitted).isEmpty();
+    assertThat(readAhead.take(large)).isNull();
+  }
+
+  @Test
+  public void dropsKrfsThatRecoveryPassed() throws Exception {
+    Oplog skipped = mock(Oplog.class);
+    Oplog recovered = mock(Oplog.class);
+    Oplog next = mock(Oplog.class);
+    KrfReadAhead readAhead = new KrfReadAhead(pool, 40);
+    readAhead.add(skipped, krf(20, 1));
+    readAhead.add(recovered, krf(20, 2));
+    readAhead.add(next, krf(20, 3));
+    readAhead.start();
+
+    assertContents(readAhead.take(recovered), 20, 2);
+
+    assertThat(readAhead.take(skipped)).isNull();
+    assertThat(submitted).hasSize(3);
+    assertContents(readAhead.take(next), 20, 3);
+  }
+
+  private File krf(int size, int fill) throws Exception {
+    File file = temporaryFolder.newFile();
+    try (FileOutputStream out = new FileOutputStream(file)) {
+      for (int i = 0; i < size; i++) {
+        out.write(fill);
+      }
+    }
+    return file;
+  }
+
+  private static void assertContents(ByteBuffer buffer, int size, int fill) {
+    assertThat(buffer.remaining()).isEqualTo(size);
+    while (buffer.hasRemaining()) {
+      assertThat(buffer.get()).isEqualTo((byte) fill);
+    }
+  }
+}
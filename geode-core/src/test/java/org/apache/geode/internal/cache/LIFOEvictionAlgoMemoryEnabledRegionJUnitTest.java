@@ -509,6 +509,15 @@ public class LIFOEvictionAlgoMemoryEnabledRegionJUnitTest {
       return next;
     }
 
+    @Override
+    public synchronized boolean casNext(EvictionNode expectedNext, EvictionNode newNext) {
+      if (next != expectedNext) {
+        return false;
+      }
+      next = newNext;
+      return true;
+    }
+
     @Override
     public EvictionNode previous() {
       return prev;
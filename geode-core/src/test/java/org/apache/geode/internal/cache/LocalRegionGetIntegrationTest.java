@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class LocalRegionGetIntegrationTest {
+
+  private InternalCache cache;
+
+  @Before
+  public void setUp() {
+    cache = (InternalCache) new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void hitUpdatesStatistics() throws Exception {
+    Region<String, String> region =
+        cache.<String, String>createRegionFactory(RegionShortcut.REPLICATE)
+            .setStatisticsEnabled(true).create("region");
+    region.put("key", "value");
+    long lastAccessed = region.getEntry("key").getStatistics().getLastAccessedTime();
+    Thread.sleep(10);
+
+    assertThat(region.get("key")).isEqualTo("value");
+    assertThat(region.get("missing")).isNull();
+
+    assertThat(region.getStatistics().getHitCount()).isEqualTo(1);
+    assertThat(region.getStatistics().getMissCount()).isEqualTo(1);
+    assertThat(region.getEntry("key").getStatistics().getHitCount()).isEqualTo(1);
+    assertThat(region.getEntry("key").getStatistics().getLastAccessedTime())
+        .isGreaterThan(lastAccessed);
+  }
+
+  @Test
+  public void invalidEntryIsReturnedAsNull() {
+    Region<String, String> region =
+        cache.<String, String>createRegionFactory(RegionShortcut.LOCAL).create("region");
+    region.put("key", "value");
+    region.invalidate("key");
+
+    assertThat(region.get("key")).isNull();
+    assertThat(region.containsKey("key")).isTrue();
+  }
+
+  @Test
+  public void serializedValueIsDeserializedOnce() {
+    LocalRegion region = (LocalRegion) cache.createRegionFactory(RegionShortcut.LOCAL)
+        .create("region");
+    List<String> list = new ArrayList<>();
+    list.add("value");
+    region.put("key", new VMCachedDeserializable(EntryEventImpl.serialize(list)));
+
+    Object value = region.get("key");
+
+    assertThat(value).isEqualTo(list);
+    assertThat(region.get("key")).isSameAs(value);
+  }
+
+  @Test
+  public void copyOnReadReturnsCopies() {
+    cache.setCopyOnRead(true);
+    Region<String, List<String>> region =
+        cache.<String, List<String>>createRegionFactory(RegionShortcut.LOCAL).create("region");
+    List<String> list = new ArrayList<>();
+    list.add("value");
+    region.put("key", list);
+
+    assertThat(region.get("key")).isEqualTo(list).isNotSameAs(list)
+        .isNotSameAs(region.get("key"));
+  }
+}
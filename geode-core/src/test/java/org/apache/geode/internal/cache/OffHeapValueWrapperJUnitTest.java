@@ -77,6 +77,17 @@ public class OffHeapValueWrapperJUnitTest {
         createChunkValueWrapper(new byte[8], false).getBytesAsString());
   }
 
+  @Test
+  public void testCreateDirectByteBuffer() {
+    ByteBuffer bb = createChunkValueWrapper(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9}, false)
+        .createDirectByteBuffer();
+    assertEquals(true, bb.isDirect());
+    assertEquals(9, bb.remaining());
+    for (int i = 1; i <= 9; i++) {
+      assertEquals(i, bb.get());
+    }
+  }
+
   @Test
   public void testSendTo() throws IOException {
     final ByteBuffer bb = ByteBuffer.allocateDirect(18);
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OplogCompactionThrottleIntegrationTest {
+  private static final String DISK_STORE_NAME = "testDiskStore";
+  private static final String REGION_NAME = "testRegion";
+  private static final int VALUE_SIZE = 1024;
+  private static final long BYTES_PER_SECOND = 200 * 1024;
+
+  @Rule
+  public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  private File diskDir;
+  private Cache cache;
+  private DiskStoreImpl diskStore;
+  private Region<Integer, byte[]> region;
+
+  @BeforeClass
+  public static void setCompactionBudget() {
+    // read once when the disk store classes are loaded, integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.compactionBytesPerSecond",
+        String.valueOf(BYTES_PER_SECOND));
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.compactionBatchSize", "10");
+  }
+
+  @Before
+  public void setup() throws Exception {
+    diskDir = temporaryDirectory.newFolder();
+    createRegion();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void oplogWithMostGarbageIsCompactedFirst() {
+    long first = writeOplog(0);
+    long second = writeOplog(100);
+    destroy(0, 10);
+    destroy(100, 190);
+
+    CompactableOplog[] oplogs = diskStore.getOplogToBeCompacted();
+
+    assertThat(oplogs).hasSize(1);
+    assertThat(((Oplog) oplogs[0]).getOplogId()).isEqualTo(second);
+    assertThat(diskStore.getPersistentOplogs().getChild(first).getGarbageSize())
+        .isLessThan(((Oplog) oplogs[0]).getGarbageSize());
+    assertThat(diskStore.getStats().getCompactionDebt())
+        .isGreaterThanOrEqualTo(100L * VALUE_SIZE);
+  }
+
+  @Test
+  public void compactionStaysWithinBudget() {
+    writeOplog(0);
+    writeOplog(100);
+    destroy(0, 10);
+    destroy(100, 190);
+    DiskStoreStats stats = diskStore.getStats();
+
+    long start = System.nanoTime();
+    assertThat(diskStore.forceCompaction()).isTrue();
+    long elapsed = System.nanoTime() - start;
+
+    // 100 entries are copied forward, 10 at a time
+    long copied = 100L * VALUE_SIZE;
+    assertThat(stats.getCompactedBytes()).isGreaterThanOrEqualTo(copied);
+    long budgetTime = TimeUnit.SECONDS.toNanos(1) * (copied - 10 * VALUE_SIZE) / BYTES_PER_SECOND;
+    assertThat(elapsed).isGreaterThanOrEqualTo(budgetTime);
+    assertThat(stats.getCompactionThrottleTime()).isGreaterThan(0);
+    assertThat(diskStore.numCompactableOplogs()).isZero();
+
+    cache.close();
+    createRegion();
+    assertThat(region.size()).isEqualTo(100);
+    assertThat(region.get(10)).hasSize(VALUE_SIZE);
+    assertThat(region.get(199)).hasSize(VALUE_SIZE);
+  }
+
+  /**
+   * Writes 100 entries starting at the given key and rolls the oplog. Returns its id.
+   */
+  private long writeOplog(int firstKey) {
+    long id = diskStore.getPersistentOplogs().getChild().getOplogId();
+    for (int key = firstKey; key < firstKey + 100; key++) {
+      region.put(key, new byte[VALUE_SIZE]);
+    }
+    diskStore.forceRoll();
+    return id;
+  }
+
+  private void destroy(int fromKey, int toKey) {
+    for (int key = fromKey; key < toKey; key++) {
+      region.destroy(key);
+    }
+  }
+
+  private void createRegion() {
+    cache = new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+    diskStore = (DiskStoreImpl) cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir})
+        .setAutoCompact(false).setAllowForceCompaction(true).setCompactionThreshold(100)
+        .create(DISK_STORE_NAME);
+    region = cache.<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OplogCompressionIntegrationTest {
+  private static final String DISK_STORE_NAME = "testDiskStore";
+  private static final String REGION_NAME = "testRegion";
+  private static final int ENTRIES = 500;
+
+  @Rule
+  public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  private File diskDir;
+  private Cache cache;
+  private DiskStoreImpl diskStore;
+  private Region<Integer, String> region;
+
+  @BeforeClass
+  public static void enableCompression() {
+    // read once when the disk store classes are loaded, integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.compressValues", "true");
+  }
+
+  @Before
+  public void setup() throws Exception {
+    diskDir = temporaryDirectory.newFolder();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void compressedValuesAreRecovered() {
+    createRegion(RegionShortcut.LOCAL_PERSISTENT);
+    putValues();
+    DiskStoreStats stats = diskStore.getStats();
+    assertThat(stats.getCompressedValues()).isEqualTo(ENTRIES);
+    assertThat(stats.getCompressionSavedBytes()).isGreaterThan(ENTRIES * 100L);
+    cache.close();
+
+    createRegion(RegionShortcut.LOCAL_PERSISTENT);
+    assertValues();
+  }
+
+  @Test
+  public void compressedValuesAreFaultedIn() {
+    createRegion(RegionShortcut.LOCAL_PERSISTENT_OVERFLOW);
+    putValues();
+    assertThat(((LocalRegion) region).getDiskRegion().getNumOverflowOnDisk())
+        .isGreaterThan(ENTRIES / 2);
+
+    assertValues();
+    cache.close();
+
+    createRegion(RegionShortcut.LOCAL_PERSISTENT_OVERFLOW);
+    assertValues();
+  }
+
+  @Test
+  public void compressedValuesAreCopiedByCompaction() {
+    createRegion(RegionShortcut.LOCAL_PERSISTENT_OVERFLOW);
+    putValues();
+    diskStore.forceRoll();
+    for (int i = 0; i < ENTRIES; i += 2) {
+      region.destroy(i);
+    }
+    long compressedValues = diskStore.getStats().getCompressedValues();
+
+    assertThat(diskStore.forceCompaction()).isTrue();
+    // the compactor copies the compressed bytes without compressing them again
+    assertThat(diskStore.getStats().getCompressedValues()).isEqualTo(compressedValues);
+    assertThat(diskStore.numCompactableOplogs()).isZero();
+    cache.close();
+
+    createRegion(RegionShortcut.LOCAL_PERSISTENT_OVERFLOW);
+    assertThat(region.size()).isEqualTo(ENTRIES / 2);
+    for (int i = 1; i < ENTRIES; i += 2) {
+      assertThat(region.get(i)).isEqualTo(value(i));
+    }
+  }
+
+  private void putValues() {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i));
+    }
+  }
+
+  private void assertValues() {
+    assertThat(region.size()).isEqualTo(ENTRIES);
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(region.get(i)).isEqualTo(value(i));
+    }
+  }
+
+  private static String value(int i) {
+    StringBuilder value = new StringBuilder();
+    for (int field = 0; field < 10; field++) {
+      value.append("{\"id\":").append(i).append(",\"field\":\"value").append(field).append("\"}");
+    }
+    return value.toString();
+  }
+
+  private void createRegion(RegionShortcut shortcut) {
+    cache = new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+    diskStore = (DiskStoreImpl) cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir})
+        .setAutoCompact(false).setAllowForceCompaction(true).setCompactionThreshold(100)
+        .create(DISK_STORE_NAME);
+    RegionFactory<Integer, String> factory =
+        cache.<Integer, String>createRegionFactory(shortcut).setDiskStoreName(DISK_STORE_NAME);
+    if (shortcut == RegionShortcut.LOCAL_PERSISTENT_OVERFLOW) {
+      factory.setEvictionAttributes(
+          EvictionAttributes.createLRUEntryAttributes(10, EvictionAction.OVERFLOW_TO_DISK));
+    }
+    region = factory.create(REGION_NAME);
+  }
+}
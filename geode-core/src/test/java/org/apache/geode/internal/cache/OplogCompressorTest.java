@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.entries.DiskEntry.Helper.ByteArrayValueWrapper;
+import org.apache.geode.internal.cache.entries.DiskEntry.Helper.CompactorValueWrapper;
+import org.apache.geode.internal.cache.entries.DiskEntry.Helper.ValueWrapper;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OplogCompressorTest {
+
+  private static final byte VALUE_BITS = EntryBits.setSerialized((byte) 0, true);
+
+  @Test
+  public void compressedValueDecompressesToValue() throws IOException {
+    byte[] value = new byte[4096];
+    for (int i = 0; i < value.length; i++) {
+      value[i] = (byte) (i % 16);
+    }
+
+    ValueWrapper compressed = OplogCompressor.compress(new ByteArrayValueWrapper(true, value),
+        VALUE_BITS);
+
+    assertThat(compressed).isNotNull();
+    assertThat(compressed.getLength()).isLessThan(value.length);
+    byte[] bytes =
+        Arrays.copyOf(((CompactorValueWrapper) compressed).bytes, compressed.getLength());
+    assertThat(OplogCompressor.decompress(bytes)).isEqualTo(value);
+  }
+
+  @Test
+  public void smallValueIsNotCompressed() {
+    byte[] value = new byte[DiskStoreImpl.COMPRESS_VALUES_MIN_SIZE - 1];
+
+    assertThat(OplogCompressor.compress(new ByteArrayValueWrapper(true, value), VALUE_BITS))
+        .isNull();
+  }
+
+  @Test
+  public void incompressibleValueIsNotCompressed() {
+    byte[] value = new byte[4096];
+    new Random(1).nextBytes(value);
+
+    assertThat(OplogCompressor.compress(new ByteArrayValueWrapper(true, value), VALUE_BITS))
+        .isNull();
+  }
+
+  @Test
+  public void compactedValueIsNotCompressedAgain() {
+    byte[] value = new byte[4096];
+
+    assertThat(
+        OplogCompressor.compress(new CompactorValueWrapper(value, value.length), VALUE_BITS))
+            .isNull();
+    assertThat(OplogCompressor.compress(new ByteArrayValueWrapper(true, value),
+        EntryBits.setCompressed(VALUE_BITS, true))).isNull();
+  }
+
+  @Test
+  public void invalidValueIsNotCompressed() {
+    byte[] value = new byte[4096];
+
+    assertThat(OplogCompressor.compress(new ByteArrayValueWrapper(true, value),
+        EntryBits.setInvalid((byte) 0, true))).isNull();
+  }
+
+  @Test
+  public void corruptValueThrowsIOException() {
+    byte[] corrupt = new byte[] {0, 0, 1, 0, (byte) 0xff, (byte) 0xff, (byte) 0xff};
+
+    assertThatThrownBy(() -> OplogCompressor.decompress(corrupt))
+        .isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> OplogCompressor.decompress(new byte[2]))
+        .isInstanceOf(IOException.class);
+  }
+}
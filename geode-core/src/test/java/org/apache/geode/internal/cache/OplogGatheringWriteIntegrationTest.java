@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Off-heap values larger than the oplog write buffer are written with a gathering write.
+ */
+@Category(IntegrationTest.class)
+public class OplogGatheringWriteIntegrationTest {
+  private static final String DISK_STORE_NAME = "testDiskStore";
+  private static final String REGION_NAME = "testRegion";
+  private static final int LARGE_VALUE_SIZE = 100 * 1024;
+
+  @Rule
+  public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  private File diskDir;
+  private Cache cache;
+  private Region<Integer, byte[]> region;
+
+  @Before
+  public void setup() throws Exception {
+    diskDir = temporaryDirectory.newFolder();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void largeOffHeapValuesAreRecovered() {
+    createRegion();
+    // small values leave the write buffer partly full before each large one
+    for (int i = 0; i < 20; i++) {
+      region.put(i, value(i, i % 2 == 0 ? LARGE_VALUE_SIZE + i : 100 + i));
+    }
+    region.put(0, value(20, LARGE_VALUE_SIZE * 2));
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+    Oplog oplog = diskStore.getPersistentOplogs().getChild();
+    assertThat(oplog.getOplogSize()).isGreaterThan(10L * LARGE_VALUE_SIZE);
+    cache.close();
+
+    createRegion();
+    assertThat(region.get(0)).isEqualTo(value(20, LARGE_VALUE_SIZE * 2));
+    for (int i = 1; i < 20; i++) {
+      assertThat(region.get(i)).isEqualTo(value(i, i % 2 == 0 ? LARGE_VALUE_SIZE + i : 100 + i));
+    }
+  }
+
+  private static byte[] value(int i, int size) {
+    byte[] value = new byte[size];
+    Arrays.fill(value, (byte) i);
+    value[size - 1] = (byte) -i;
+    return value;
+  }
+
+  private void createRegion() {
+    cache = new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0")
+        .set(OFF_HEAP_MEMORY_SIZE, "16m").create();
+    cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir}).create(DISK_STORE_NAME);
+    region = cache.<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setOffHeap(true).setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OplogGroupCommitIntegrationTest {
+  private static final String DISK_STORE_NAME = "testDiskStore";
+  private static final String REGION_NAME = "testRegion";
+  private static final int THREADS = 8;
+  private static final int PUTS_PER_THREAD = 200;
+
+  @Rule
+  public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  private File diskDir;
+  private Cache cache;
+
+  @BeforeClass
+  public static void enableGroupCommit() {
+    // read once when the disk store classes are loaded, integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommit", "true");
+  }
+
+  @Before
+  public void setup() throws Exception {
+    diskDir = temporaryDirectory.newFolder();
+    cache = new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void concurrentSynchronousWritesAreCommittedAndRecovered() throws Exception {
+    assertThat(DiskStoreImpl.GROUP_COMMIT).isTrue();
+    Region<Integer, String> region = createRegion();
+    DiskStoreStats stats = ((DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME)).getStats();
+    long writesBefore = stats.getGroupCommitWrites();
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < THREADS; thread++) {
+        int first = thread * PUTS_PER_THREAD;
+        futures.add(executor.submit(() -> {
+          for (int key = first; key < first + PUTS_PER_THREAD; key++) {
+            region.put(key, "value" + key);
+          }
+          region.destroy(first);
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // the oplog header records are committed with the first group
+    int writes = THREADS * (PUTS_PER_THREAD + 1);
+    assertThat(stats.getGroupCommitWrites() - writesBefore).isGreaterThanOrEqualTo(writes);
+    assertThat(stats.getGroupCommits()).isBetween(1L, (long) writes);
+
+    cache.close();
+    cache = new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+    Region<Integer, String> recovered = createRegion();
+
+    assertThat(recovered.size()).isEqualTo(THREADS * (PUTS_PER_THREAD - 1));
+    assertThat(recovered.get(1)).isEqualTo("value1");
+    assertThat(recovered.containsKey(PUTS_PER_THREAD)).isFalse();
+  }
+
+  private Region<Integer, String> createRegion() {
+    cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir}).create(DISK_STORE_NAME);
+    return cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName(DISK_STORE_NAME).setDiskSynchronous(true).create(REGION_NAME);
+  }
+}
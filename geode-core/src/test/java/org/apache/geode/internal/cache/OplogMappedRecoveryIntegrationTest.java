@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OplogMappedRecoveryIntegrationTest {
+  private static final String DISK_STORE_NAME = "testDiskStore";
+  private static final String REGION_NAME = "testRegion";
+  private static final int ENTRIES = 1000;
+
+  @Rule
+  public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  private File diskDir;
+  private Cache cache;
+
+  @BeforeClass
+  public static void enableMappedRecovery() {
+    // read once when the disk store classes are loaded, integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.recoverMapped", "true");
+  }
+
+  @Before
+  public void setup() throws Exception {
+    diskDir = temporaryDirectory.newFolder();
+    cache = createCache();
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty(DiskStoreImpl.RECOVER_VALUES_SYNC_PROPERTY_NAME);
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void recoversKeysFromMappedKrf() throws Exception {
+    assertThat(DiskStoreImpl.RECOVER_MAPPED).isTrue();
+    writeEntries();
+    assertThat(diskDir.list((dir, name) -> name.endsWith(".krf"))).isNotEmpty();
+
+    cache = createCache();
+    Region<Object, String> region = createRegion();
+
+    assertRecovered(region);
+  }
+
+  @Test
+  public void recoversValuesFromMappedCrf() throws Exception {
+    writeEntries();
+    System.setProperty(DiskStoreImpl.RECOVER_VALUES_SYNC_PROPERTY_NAME, "true");
+
+    cache = createCache();
+    Region<Object, String> region = createRegion();
+
+    assertRecovered(region);
+  }
+
+  private void writeEntries() {
+    Region<Object, String> region = createRegion();
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, "value" + i);
+      region.put("key" + i, "value" + i);
+    }
+    region.destroy(0);
+    region.put("key1", "updated");
+    cache.close();
+  }
+
+  private void assertRecovered(Region<Object, String> region) {
+    assertThat(region.size()).isEqualTo(2 * ENTRIES - 1);
+    assertThat(region.containsKey(0)).isFalse();
+    assertThat(region.get(1)).isEqualTo("value1");
+    assertThat(region.get("key1")).isEqualTo("updated");
+    assertThat(region.get("key" + (ENTRIES - 1))).isEqualTo("value" + (ENTRIES - 1));
+
+    DiskStoreStats stats = ((DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME)).getStats();
+    assertThat(stats.getRecoveredEntryCreates()).isGreaterThanOrEqualTo(2 * ENTRIES - 1);
+    assertThat(stats.getRecoveryBytesPerSecond()).isPositive();
+    assertThat(stats.getRecoveryEntriesPerSecond()).isPositive();
+  }
+
+  private Cache createCache() {
+    return new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+  }
+
+  private Region<Object, String> createRegion() {
+    cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir}).create(DISK_STORE_NAME);
+    return cache.<Object, String>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName(DISK_STORE_NAME).create(REGION_NAME);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OplogParallelRecoveryIntegrationTest {
+  private static final String DISK_STORE_NAME = "testDiskStore";
+  private static final int ENTRIES = 2000;
+  private static final int REGIONS = 3;
+
+  @Rule
+  public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  private File[] diskDirs;
+  private Cache cache;
+
+  @BeforeClass
+  public static void setRecoveryThreads() {
+    // read once when the disk store classes are loaded, integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads", "3");
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryReadAheadBytes",
+        "100000");
+  }
+
+  @Before
+  public void setup() throws Exception {
+    diskDirs = new File[] {temporaryDirectory.newFolder(), temporaryDirectory.newFolder(),
+        temporaryDirectory.newFolder()};
+    cache = createCache();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void newestValuesAreRecoveredFromManyOplogs() throws Exception {
+    assertThat(DiskStoreImpl.RECOVERY_THREADS).isEqualTo(3);
+    createDiskStore();
+    for (int r = 0; r < REGIONS; r++) {
+      Region<Integer, String> region = createRegion(r);
+      // every key is written to several oplogs
+      for (int pass = 0; pass < 3; pass++) {
+        for (int i = 0; i < ENTRIES; i++) {
+          region.put(i, "region" + r + "-pass" + pass + "-" + i);
+        }
+      }
+      for (int i = 0; i < ENTRIES; i += 10) {
+        region.destroy(i);
+      }
+    }
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+    assertThat(diskStore.getPersistentOplogs().getAllOplogs().length).isGreaterThan(REGIONS);
+    cache.close();
+
+    cache = createCache();
+    createDiskStore();
+    for (int r = 0; r < REGIONS; r++) {
+      Region<Integer, String> region = createRegion(r);
+
+      assertThat(region.size()).isEqualTo(ENTRIES - ENTRIES / 10);
+      for (int i = 0; i < ENTRIES; i++) {
+        if (i % 10 == 0) {
+          assertThat(region.containsKey(i)).isFalse();
+        } else {
+          assertThat(region.get(i)).isEqualTo("region" + r + "-pass2-" + i);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void recoveryPoolIsShutDownWhenTheDiskStoreCloses() throws Exception {
+    createDiskStore();
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+    assertThat(diskStore.getRecoveryPool().isShutdown()).isFalse();
+
+    cache.close();
+
+    assertThat(diskStore.getRecoveryPool().isShutdown()).isTrue();
+  }
+
+  private Cache createCache() {
+    return new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+  }
+
+  private void createDiskStore() {
+    DiskStoreFactoryImpl factory = (DiskStoreFactoryImpl) cache.createDiskStoreFactory();
+    factory.setMaxOplogSizeInBytes(64 * 1024);
+    factory.setDiskDirs(diskDirs).setAutoCompact(false).create(DISK_STORE_NAME);
+  }
+
+  private Region<Integer, String> createRegion(int r) {
+    return cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName(DISK_STORE_NAME).create("region" + r);
+  }
+}
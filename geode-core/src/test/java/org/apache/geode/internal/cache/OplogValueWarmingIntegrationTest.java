@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OplogValueWarmingIntegrationTest {
+  private static final String DISK_STORE_NAME = "testDiskStore";
+  private static final int ENTRIES = 1000;
+  private static final int LRU_LIMIT = 100;
+
+  @Rule
+  public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  private File[] diskDirs;
+  private Cache cache;
+
+  @BeforeClass
+  public static void setWarmValues() {
+    // read once when the disk store classes are loaded, integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.warmValues", "true");
+  }
+
+  @Before
+  public void setup() throws Exception {
+    diskDirs = new File[] {temporaryDirectory.newFolder()};
+    cache = createCache();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void valuesInMemoryAtCloseAreWarmedAfterRecovery() throws Exception {
+    assertThat(DiskStoreImpl.WARM_VALUES).isTrue();
+    createDiskStore();
+    Region<Integer, String> region = createRegion();
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, "value" + i);
+    }
+    // fault in an older range so that it is resident at close along with the newest puts
+    for (int i = 200; i < 250; i++) {
+      assertThat(region.get(i)).isEqualTo("value" + i);
+    }
+    cache.close();
+
+    cache = createCache();
+    DiskStoreImpl diskStore = createDiskStore();
+    LocalRegion recovered = (LocalRegion) createRegion();
+    awaitWarming(diskStore);
+
+    assertThat(diskStore.getStats().getValuesWarmed()).isGreaterThan(0);
+    assertThat(diskStore.getStats().getWarmedBytes()).isGreaterThan(0);
+    for (int i = 200; i < 250; i++) {
+      assertThat(recovered.getValueInVM(i)).as("value of key " + i).isNotNull();
+    }
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(recovered.get(i)).isEqualTo("value" + i);
+    }
+  }
+
+  @Test
+  public void valuesAreWarmedUpToTheLruLimitWithoutHotKeys() throws Exception {
+    DiskStoreImpl diskStore = createDiskStore();
+    Region<Integer, String> region = createRegion();
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, "value" + i);
+    }
+    cache.close();
+    for (File file : diskDirs[0].listFiles()) {
+      if (file.getName().endsWith(ValueWarmer.HOT_KEYS_FILE_EXT)) {
+        assertThat(file.delete()).isTrue();
+      }
+    }
+
+    cache = createCache();
+    diskStore = createDiskStore();
+    LocalRegion recovered = (LocalRegion) createRegion();
+    awaitWarming(diskStore);
+
+    int inMemory = 0;
+    for (int i = 0; i < ENTRIES; i++) {
+      if (recovered.getValueInVM(i) != null) {
+        inMemory++;
+      }
+    }
+    assertThat(diskStore.getStats().getValuesWarmed()).isGreaterThan(0);
+    assertThat(inMemory).isGreaterThan(0).isLessThanOrEqualTo(LRU_LIMIT);
+    assertThat(recovered.get(ENTRIES - 1)).isEqualTo("value" + (ENTRIES - 1));
+  }
+
+  @Test
+  public void regionRecoveredBeforeItIsCreatedIsWarmedOnceCreated() throws Exception {
+    createDiskStore();
+    Region<Integer, String> first = createRegion("first");
+    Region<Integer, String> second = createRegion("second");
+    for (int i = 0; i < ENTRIES; i++) {
+      first.put(i, "value" + i);
+      second.put(i, "value" + i);
+    }
+    cache.close();
+
+    cache = createCache();
+    DiskStoreImpl diskStore = createDiskStore();
+    // recovers the entries of the second region as well, into a place holder
+    createRegion("first");
+    awaitWarming(diskStore);
+    long warmedBeforeSecond = diskStore.getStats().getValuesWarmed();
+
+    LocalRegion recovered = (LocalRegion) createRegion("second");
+    await().atMost(2, MINUTES)
+        .until(() -> diskStore.getStats().getValuesWarmed() > warmedBeforeSecond
+            && diskStore.getStats().getValuesToWarm() == 0);
+
+    int inMemory = 0;
+    for (int i = 0; i < ENTRIES; i++) {
+      if (recovered.getValueInVM(i) != null) {
+        inMemory++;
+      }
+    }
+    assertThat(inMemory).isGreaterThan(0).isLessThanOrEqualTo(LRU_LIMIT);
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(recovered.get(i)).isEqualTo("value" + i);
+    }
+  }
+
+  @Test
+  public void hotKeysFileRoundTrips() throws Exception {
+    File file = new File(diskDirs[0], "BACKUPtest" + ValueWarmer.HOT_KEYS_FILE_EXT);
+    assertThat(ValueWarmer.readHotKeys(file)).isEmpty();
+
+    Map<Long, long[]> hotKeyIds = new HashMap<Long, long[]>();
+    hotKeyIds.put(1L, new long[] {5, 3, 9});
+    hotKeyIds.put(7L, new long[0]);
+    ValueWarmer.writeHotKeys(file, hotKeyIds);
+
+    Map<Long, long[]> read = ValueWarmer.readHotKeys(file);
+    assertThat(read).containsOnlyKeys(1L, 7L);
+    assertThat(read.get(1L)).containsExactly(5, 3, 9);
+    assertThat(read.get(7L)).isEmpty();
+  }
+
+  @Test
+  public void hotKeysFileWithCountsLargerThanItIsIgnored() throws Exception {
+    File file = new File(diskDirs[0], "BACKUPtest" + ValueWarmer.HOT_KEYS_FILE_EXT);
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+      out.writeInt(1);
+      out.writeInt(1);
+      out.writeLong(1L);
+      out.writeInt(Integer.MAX_VALUE);
+      out.writeLong(5L);
+    }
+
+    assertThat(ValueWarmer.readHotKeys(file)).isEmpty();
+
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+      out.writeInt(1);
+      out.writeInt(-1);
+    }
+
+    assertThat(ValueWarmer.readHotKeys(file)).isEmpty();
+  }
+
+  private void awaitWarming(DiskStoreImpl diskStore) {
+    await().atMost(2, MINUTES).until(() -> diskStore.getStats().getValuesWarmed() > 0
+        && diskStore.getStats().getValuesToWarm() == 0);
+  }
+
+  private Cache createCache() {
+    return new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+  }
+
+  private DiskStoreImpl createDiskStore() {
+    DiskStoreFactoryImpl factory = (DiskStoreFactoryImpl) cache.createDiskStoreFactory();
+    return (DiskStoreImpl) factory.setDiskDirs(diskDirs).create(DISK_STORE_NAME);
+  }
+
+  private Region<Integer, String> createRegion() {
+    return createRegion("region");
+  }
+
+  private Region<Integer, String> createRegion(String name) {
+    return cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT_OVERFLOW)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(LRU_LIMIT, EvictionAction.OVERFLOW_TO_DISK))
+        .setDiskStoreName(DISK_STORE_NAME).create(name);
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OverflowWriteBehindIntegrationTest {
+  private static final String DISK_STORE_NAME = "testDiskStore";
+  private static final int ENTRIES = 2000;
+
+  @Rule
+  public TemporaryFolder temporaryDirectory = new TemporaryFolder();
+
+  private File diskDir;
+  private Cache cache;
+
+  @BeforeClass
+  public static void setWriteBehindBytes() {
+    // read once when the disk store classes are loaded, integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.overflowWriteBehindBytes",
+        String.valueOf(4 * OverflowOplog.getWriteBufSize()));
+  }
+
+  @Before
+  public void setup() throws Exception {
+    diskDir = temporaryDirectory.newFolder();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void evictedValuesAreReadBack() {
+    assertThat(DiskStoreImpl.OVERFLOW_WRITE_BEHIND_BYTES).isGreaterThan(0);
+    Region<Integer, byte[]> region = createRegion(false);
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i, size(i)));
+      if (i >= 20) {
+        // just evicted, so likely still queued to be written
+        assertThat(region.get(i - 20)).isEqualTo(value(i - 20, size(i - 20)));
+      }
+    }
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(region.get(i)).isEqualTo(value(i, size(i)));
+    }
+
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+    assertThat(diskStore.getStats().getWrites()).isGreaterThan(0);
+    assertThat(diskStore.overflowOplogs.getWriteBehind()).isNotNull();
+    await().atMost(2, MINUTES)
+        .until(() -> diskStore.getStats().getOverflowWriteBehindBytes() == 0);
+  }
+
+  @Test
+  public void largeOffHeapValuesAreReadBack() {
+    Region<Integer, byte[]> region = createRegion(true);
+    for (int i = 0; i < 200; i++) {
+      region.put(i, value(i, i % 10 == 0 ? 100 * 1024 + i : size(i)));
+    }
+    for (int i = 0; i < 200; i++) {
+      assertThat(region.get(i)).isEqualTo(value(i, i % 10 == 0 ? 100 * 1024 + i : size(i)));
+    }
+  }
+
+  @Test
+  public void valuesStillQueuedAreCompactedOnceWritten() throws Exception {
+    Region<Integer, byte[]> region = createRegion(false, OverflowOplog.getWriteBufSize(), 1);
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+    // the first eviction creates the overflow oplog set's writer
+    region.put(0, value(0, 1000));
+    region.put(1, value(1, 1000));
+    CountDownLatch writerBlocked = new CountDownLatch(1);
+    diskStore.overflowOplogs.getWriteBehind().testHookExecute(() -> {
+      try {
+        writerBlocked.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    Thread releaser = new Thread(() -> {
+      try {
+        Thread.sleep(2000);
+      } catch (InterruptedException ignore) {
+        // release the writer anyway
+      }
+      writerBlocked.countDown();
+    });
+    try {
+      // the first oplog rolls while its writes are queued behind the blocked writer
+      for (int i = 2; i < 40; i++) {
+        region.put(i, value(i, 1000));
+      }
+      releaser.start();
+      // leaves the first oplog with mostly garbage, so its live values are compacted
+      for (int i = 0; i < 20; i++) {
+        region.destroy(i);
+      }
+    } finally {
+      writerBlocked.countDown();
+      releaser.join();
+    }
+
+    await().atMost(2, MINUTES)
+        .until(() -> diskStore.getStats().getStats().getInt("compacts") > 0
+            && diskStore.getStats().getOverflowWriteBehindBytes() == 0);
+    for (int i = 20; i < 40; i++) {
+      assertThat(region.get(i)).isEqualTo(value(i, 1000));
+    }
+  }
+
+  private static int size(int i) {
+    // some values span write buffers
+    return i % 50 == 0 ? 3 * OverflowOplog.getWriteBufSize() + i : 500 + i;
+  }
+
+  private static byte[] value(int i, int size) {
+    byte[] value = new byte[size];
+    Arrays.fill(value, (byte) i);
+    value[size - 1] = (byte) -i;
+    return value;
+  }
+
+  private Region<Integer, byte[]> createRegion(boolean offHeap) {
+    return createRegion(offHeap, 1024 * 1024, 10);
+  }
+
+  private Region<Integer, byte[]> createRegion(boolean offHeap, long maxOplogSize,
+      int lruLimit) {
+    CacheFactory cacheFactory = new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0");
+    if (offHeap) {
+      cacheFactory.set(OFF_HEAP_MEMORY_SIZE, "32m");
+    }
+    cache = cacheFactory.create();
+    DiskStoreFactoryImpl factory = (DiskStoreFactoryImpl) cache.createDiskStoreFactory();
+    factory.setMaxOplogSizeInBytes(maxOplogSize);
+    factory.setDiskDirs(new File[] {diskDir}).create(DISK_STORE_NAME);
+    return cache.<Integer, byte[]>createRegionFactory(RegionShortcut.LOCAL_OVERFLOW)
+        .setEvictionAttributes(
+            EvictionAttributes.createLRUEntryAttributes(lruLimit, EvictionAction.OVERFLOW_TO_DISK))
+        .setOffHeap(offHeap).setDiskStoreName(DISK_STORE_NAME).create("region");
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.AttributesFactory;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class RegionMapFactoryIntegrationTest {
+
+  private InternalCache cache;
+
+  @Before
+  public void setUp() {
+    cache = (InternalCache) new CacheFactory().set("locators", "").set("mcast-port", "0").create();
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void primitiveKeyRegionMapIsChosenPerRegion() throws Exception {
+    AttributesFactory<Long, String> factory = new AttributesFactory<>();
+    factory.setKeyConstraint(Long.class);
+
+    LocalRegion primitive = (LocalRegion) cache.createVMRegion("primitive", factory.create(),
+        new InternalRegionArguments().setPrimitiveKeyRegionMap(true));
+    LocalRegion boxed = (LocalRegion) cache.createVMRegion("boxed", factory.create(),
+        new InternalRegionArguments().setPrimitiveKeyRegionMap(false));
+
+    assertThat(primitive.getRegionMap().getCustomEntryConcurrentHashMap())
+        .isInstanceOf(PrimitiveKeyConcurrentHashMap.class);
+    assertThat(boxed.getRegionMap().getCustomEntryConcurrentHashMap())
+        .isNotInstanceOf(PrimitiveKeyConcurrentHashMap.class);
+  }
+
+  @Test
+  public void bucketsUseThePrimitiveKeyRegionMapOfTheirPartitionedRegion() throws Exception {
+    AttributesFactory<Long, String> factory = new AttributesFactory<>();
+    factory.setKeyConstraint(Long.class);
+    factory.setDataPolicy(DataPolicy.PARTITION);
+    factory.setPartitionAttributes(new PartitionAttributesFactory<Long, String>().create());
+
+    PartitionedRegion region = (PartitionedRegion) cache.createVMRegion("partitioned",
+        factory.create(), new InternalRegionArguments().setPrimitiveKeyRegionMap(true));
+    region.put(1L, "one");
+
+    assertThat(region.getDataStore().getAllLocalBucketRegions()).isNotEmpty()
+        .allSatisfy(bucket -> assertThat(bucket.getRegionMap().getCustomEntryConcurrentHashMap())
+            .isInstanceOf(PrimitiveKeyConcurrentHashMap.class));
+    assertThat(region.get(1L)).isEqualTo("one");
+  }
+}
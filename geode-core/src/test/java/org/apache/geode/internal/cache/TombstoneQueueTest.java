@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.cache.versions.VersionTag;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class TombstoneQueueTest {
+
+  private final VersionSource member = new DiskStoreID(1, 2);
+
+  private TombstoneQueue queue;
+
+  @Before
+  public void setup() {
+    queue = new TombstoneQueue(mock(LocalRegion.class));
+  }
+
+  @Test
+  public void keepsVersionsOfTombstones() {
+    RegionEntry entry = addTombstone(1, 1000);
+
+    List<String> versions = new ArrayList<>();
+    queue.removeIf((e, version) -> {
+      assertThat(e).isSameAs(entry);
+      versions.add(version.getMemberID() + ":" + version.getEntryVersion() + ":"
+          + version.getRegionVersion() + ":" + version.getVersionTimeStamp());
+      return false;
+    }, true);
+
+    assertThat(versions).containsExactly(member + ":7:1:1000");
+  }
+
+  @Test
+  public void expiresOldestTombstonesFirst() {
+    for (int i = 1; i <= 100; i++) {
+      addTombstone(i, i * 10);
+    }
+
+    assertThat(queue.expire(500, Integer.MAX_VALUE)).isEqualTo(50);
+    assertThat(queue.expire(1000, 10)).isEqualTo(10);
+    assertThat(queue.expiredSize()).isEqualTo(60);
+    assertThat(queue.getOldestUnexpiredTimestamp()).isEqualTo(610);
+
+    TombstoneQueue expired = queue.drainExpired();
+
+    assertThat(regionVersions(expired)).hasSize(60).startsWith(1L).endsWith(60L);
+    assertThat(queue.size()).isEqualTo(40);
+    assertThat(queue.expiredSize()).isZero();
+    assertThat(queue.drainExpired()).isNull();
+    assertThat(regionVersions(queue)).startsWith(61L).endsWith(100L);
+  }
+
+  @Test
+  public void removeIfKeepsOrderAndExpiredTombstones() {
+    for (int i = 1; i <= 20; i++) {
+      addTombstone(i, i);
+    }
+    queue.expire(10, Integer.MAX_VALUE);
+
+    TombstoneQueue removedUnexpired =
+        queue.removeIf((entry, version) -> version.getRegionVersion() % 2 == 0, false);
+    assertThat(regionVersions(removedUnexpired)).containsExactly(12L, 14L, 16L, 18L, 20L);
+    assertThat(queue.expiredSize()).isEqualTo(10);
+
+    TombstoneQueue removedAll =
+        queue.removeIf((entry, version) -> version.getRegionVersion() % 3 == 0, true);
+    assertThat(regionVersions(removedAll)).containsExactly(3L, 6L, 9L, 15L);
+    assertThat(queue.expiredSize()).isEqualTo(7);
+    assertThat(regionVersions(queue)).containsExactly(1L, 2L, 4L, 5L, 7L, 8L, 10L, 11L, 13L, 17L,
+        19L);
+    assertThat(queue.removeIf((entry, version) -> false, true)).isNull();
+  }
+
+  @Test
+  public void memoryFootprintFollowsTombstones() {
+    long emptyFootprint = queue.getMemoryFootprint();
+    for (int i = 1; i <= 10_000; i++) {
+      addTombstone(i, i);
+    }
+    assertThat(queue.getMemoryFootprint())
+        .isGreaterThanOrEqualTo(emptyFootprint + 10_000L * TombstoneQueue.SLOT_SIZE);
+
+    queue.expire(Long.MAX_VALUE, Integer.MAX_VALUE);
+    queue.drainExpired();
+
+    assertThat(queue.size()).isZero();
+    assertThat(queue.getMemoryFootprint()).isEqualTo(emptyFootprint);
+  }
+
+  @Test
+  public void closedQueueRejectsTombstones() {
+    addTombstone(1, 1);
+    assertThat(queue.closeIfEmpty()).isFalse();
+
+    assertThat(queue.clear()).isEqualTo(1);
+    assertThat(queue.closeIfEmpty()).isTrue();
+    assertThat(queue.add(entry(2), versionTag(2, 2))).isFalse();
+  }
+
+  private RegionEntry addTombstone(long regionVersion, long timestamp) {
+    RegionEntry entry = entry(regionVersion);
+    assertThat(queue.add(entry, versionTag(regionVersion, timestamp))).isTrue();
+    return entry;
+  }
+
+  private RegionEntry entry(long key) {
+    RegionEntry entry = mock(RegionEntry.class);
+    when(entry.getKey()).thenReturn("key" + key);
+    return entry;
+  }
+
+  private VersionTag versionTag(long regionVersion, long timestamp) {
+    VersionTag tag = VersionTag.create(member);
+    tag.setEntryVersion(7);
+    tag.setRegionVersion(regionVersion);
+    tag.setVersionTimeStamp(timestamp);
+    return tag;
+  }
+
+  private static List<Long> regionVersions(TombstoneQueue queue) {
+    List<Long> regionVersions = new ArrayList<>();
+    queue.forEach((entry, version) -> regionVersions.add(version.getRegionVersion()));
+    return regionVersions;
+  }
+}
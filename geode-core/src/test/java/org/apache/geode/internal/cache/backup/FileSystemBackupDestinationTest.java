@@ -151,6 +151,52 @@ public class FileSystemBackupDestinationTest {
     assertThat(diskStoreDir.resolve("dir1").resolve("krf")).exists();
   }
 
+  @Test
+  public void oplogFilesOfSeveralDiskStoresAreBackedUpConcurrently() throws Exception {
+    DiskStoreImpl diskStore1 = mock(DiskStoreImpl.class);
+    when(diskStore1.getDiskStoreID()).thenReturn(new DiskStoreID(1, 2));
+    when(diskStore1.getInforFileDirIndex()).thenReturn(1);
+    DiskStoreImpl diskStore2 = mock(DiskStoreImpl.class);
+    when(diskStore2.getDiskStoreID()).thenReturn(new DiskStoreID(3, 4));
+    when(diskStore2.getInforFileDirIndex()).thenReturn(1);
+    backupDefinition.addOplogFileToBackup(diskStore1, tempDir.newFile("crf1").toPath());
+    backupDefinition.addOplogFileToBackup(diskStore2, tempDir.newFile("crf2").toPath());
+    Path baselineCrf = tempDir.newFolder("baseline").toPath().resolve("crf3");
+    Files.createFile(baselineCrf);
+    backupDefinition.addBaselineOplogFileToBackup(diskStore2, baselineCrf);
+
+    new FileSystemBackupDestination(targetDir, 2).backupFiles(backupDefinition);
+
+    Path diskStoresDir = targetDir.resolve(DATA_STORES_DIRECTORY);
+    String name = GemFireCacheImpl.getDefaultDiskStoreName();
+    assertThat(diskStoresDir.resolve(name + "_1-2").resolve("dir1").resolve("crf1")).exists();
+    assertThat(diskStoresDir.resolve(name + "_3-4").resolve("dir1").resolve("crf2")).exists();
+    assertThat(diskStoresDir.resolve(name + "_3-4").resolve("dir1").resolve("crf3")).exists();
+    assertThat(targetDir.resolve(INCOMPLETE_BACKUP_FILE)).doesNotExist();
+  }
+
+  @Test
+  @Parameters({"true", "false"})
+  public void baselineOplogFilesAreLinkedIntoBackup(boolean useRelativePath) throws Exception {
+    DiskStoreImpl diskStore = mock(DiskStoreImpl.class);
+    when(diskStore.getDiskStoreID()).thenReturn(new DiskStoreID(1, 2));
+    when(diskStore.getInforFileDirIndex()).thenReturn(1);
+    Path baselineCrf = Files.write(tempDir.newFolder("baseline").toPath().resolve("crf"),
+        new byte[] {1, 2, 3});
+
+    backupDefinition.addBaselineOplogFileToBackup(diskStore, baselineCrf);
+
+    executeBackup(useRelativePath);
+
+    Path backupCrf = getTargetDir(useRelativePath).resolve(DATA_STORES_DIRECTORY)
+        .resolve(GemFireCacheImpl.getDefaultDiskStoreName() + "_1-2").resolve("dir1")
+        .resolve("crf");
+    assertThat(backupCrf).exists();
+    assertThat(Files.readAllBytes(backupCrf)).containsExactly(1, 2, 3);
+    assertThat(baselineCrf).as("baseline is left in place").exists();
+    assertThat(Files.isSameFile(backupCrf, baselineCrf)).isTrue();
+  }
+
   @Test
   @Parameters({"true", "false"})
   public void diskInitFilesAreBackedUp(boolean useRelativePath) throws Exception {
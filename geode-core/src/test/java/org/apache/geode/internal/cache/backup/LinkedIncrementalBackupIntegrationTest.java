@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.backup;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.filefilter.DirectoryFileFilter;
+import org.apache.commons.io.filefilter.RegexFileFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class LinkedIncrementalBackupIntegrationTest {
+  private static final int ENTRIES = 1000;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File[] diskDirs;
+  private File backupDir;
+  private InternalCache cache;
+
+  @BeforeClass
+  public static void setLinkBaselineOplogs() {
+    // read once when the backup classes are loaded, integration tests run in their own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "backup.linkBaselineOplogs", "true");
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "backup.diskStoreThreads", "2");
+  }
+
+  @Before
+  public void setup() throws Exception {
+    diskDirs = new File[] {temporaryFolder.newFolder("disk1"), temporaryFolder.newFolder("disk2")};
+    backupDir = temporaryFolder.newFolder("backups");
+    createCache();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void incrementalBackupIsRestoredWithoutItsBaseline() throws Exception {
+    assertThat(BackupTask.LINK_BASELINE_OPLOGS).isTrue();
+    assertThat(FileSystemBackupDestination.DISK_STORE_THREADS).isEqualTo(2);
+    Region<Integer, String> region1 = createRegion(0);
+    Region<Integer, String> region2 = createRegion(1);
+    putEntries(region1, region2, 0, ENTRIES);
+    File fullBackup = new File(backupDir, "full");
+    backup(fullBackup, null);
+
+    putEntries(region1, region2, ENTRIES, 2 * ENTRIES);
+    File incrementalBackup = new File(backupDir, "incremental");
+    backup(incrementalBackup, fullBackup);
+
+    Set<String> fullOplogs = getOplogNames(fullBackup);
+    Set<String> incrementalOplogs = getOplogNames(incrementalBackup);
+    assertThat(fullOplogs).isNotEmpty();
+    assertThat(incrementalOplogs).containsAll(fullOplogs);
+    assertThat(incrementalOplogs.size()).isGreaterThan(fullOplogs.size());
+    assertThat(getRestoreScript(incrementalBackup)).doesNotContain(fullBackup.getName());
+    cache.close();
+
+    FileUtils.deleteDirectory(fullBackup);
+    for (File diskDir : diskDirs) {
+      FileUtils.deleteDirectory(diskDir);
+    }
+    restore(incrementalBackup);
+
+    createCache();
+    region1 = createRegion(0);
+    region2 = createRegion(1);
+    for (int i = 0; i < 2 * ENTRIES; i++) {
+      assertThat(region1.get(i)).isEqualTo("value" + i);
+      assertThat(region2.get(i)).isEqualTo("value" + i);
+    }
+  }
+
+  private void putEntries(Region<Integer, String> region1, Region<Integer, String> region2,
+      int start, int end) {
+    for (int i = start; i < end; i++) {
+      region1.put(i, "value" + i);
+      region2.put(i, "value" + i);
+    }
+  }
+
+  private void backup(File targetDir, File baselineDir) throws Exception {
+    BackupService backupService = cache.getBackupService();
+    backupService.prepareBackup(cache.getInternalDistributedSystem().getDistributedMember(),
+        targetDir, baselineDir);
+    assertThat(backupService.doBackup()).hasSize(2);
+  }
+
+  private Set<String> getOplogNames(File backup) {
+    Set<String> names = new HashSet<>();
+    for (File file : FileUtils.listFiles(backup, new String[] {"crf", "drf", "krf"}, true)) {
+      names.add(file.getName());
+    }
+    return names;
+  }
+
+  private File getRestoreScriptFile(File backup) {
+    Collection<File> restoreScripts = FileUtils.listFiles(backup,
+        new RegexFileFilter(".*restore.*"), DirectoryFileFilter.DIRECTORY);
+    assertThat(restoreScripts).hasSize(1);
+    return restoreScripts.iterator().next();
+  }
+
+  private String getRestoreScript(File backup) throws Exception {
+    return new String(Files.readAllBytes(getRestoreScriptFile(backup).toPath()));
+  }
+
+  private void restore(File backup) throws Exception {
+    File script = getRestoreScriptFile(backup);
+    ProcessBuilder processBuilder = new ProcessBuilder(script.getAbsolutePath());
+    processBuilder.redirectErrorStream(true);
+    processBuilder.inheritIO();
+    assertThat(processBuilder.start().waitFor()).isEqualTo(0);
+  }
+
+  private void createCache() {
+    cache = (InternalCache) new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+  }
+
+  private Region<Integer, String> createRegion(int index) {
+    String diskStoreName = "diskStore" + index;
+    if (cache.findDiskStore(diskStoreName) == null) {
+      cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDirs[index]})
+          .setMaxOplogSize(1).create(diskStoreName);
+    }
+    return cache.<Integer, String>createRegionFactory(RegionShortcut.LOCAL_PERSISTENT)
+        .setDiskStoreName(diskStoreName).create("region" + index);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.entries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.internal.cache.versions.VersionSource;
+import org.apache.geode.internal.cache.versions.VersionStamp;
+import org.apache.geode.internal.cache.versions.VersionTag;
+import org.apache.geode.internal.size.ObjectGraphSizer;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompactVersionedRegionEntryTest {
+
+  private RegionEntryContext context;
+  private DiskStoreID member;
+
+  @Before
+  public void setup() {
+    context = mock(RegionEntryContext.class);
+    member = new DiskStoreID(1234, 5678);
+  }
+
+  @Test
+  public void versionsMatchThoseOfRegularEntry() {
+    long[] regionVersions = {0, 1, 0xFFFFFFFFL, 0x7FFFFFFFFFFFL};
+    int[] entryVersions = {0, 1, 0xFFFF, 0xFFFFFF};
+    int[] dsids = {-1, 0, 7, 200};
+
+    for (int i = 0; i < regionVersions.length; i++) {
+      VersionTag tag = VersionTag.create(member);
+      tag.setRegionVersion(regionVersions[i]);
+      tag.setEntryVersion(entryVersions[i]);
+      tag.setDistributedSystemId(dsids[i]);
+      tag.setVersionTimeStamp(1000L + i);
+
+      VersionStamp regular = new VersionedThinRegionEntryHeapObjectKey(context, "key", "value");
+      VersionStamp compact =
+          new VersionedThinRegionEntryHeapCompactObjectKey(context, "key", "value");
+      regular.setVersions(tag);
+      compact.setVersions(tag);
+
+      assertThat(compact.getRegionVersion()).isEqualTo(regular.getRegionVersion());
+      assertThat(compact.getRegionVersionHighBytes())
+          .isEqualTo(regular.getRegionVersionHighBytes());
+      assertThat(compact.getRegionVersionLowBytes()).isEqualTo(regular.getRegionVersionLowBytes());
+      assertThat(compact.getEntryVersion()).isEqualTo(regular.getEntryVersion());
+      assertThat(compact.getDistributedSystemId()).isEqualTo(regular.getDistributedSystemId());
+      assertThat(compact.getVersionTimeStamp()).isEqualTo(regular.getVersionTimeStamp());
+      assertThat(compact.getMemberID()).isEqualTo(member);
+      assertThat(compact.asVersionTag()).isEqualTo(regular.asVersionTag());
+    }
+  }
+
+  @Test
+  public void setMemberIDKeepsVersions() {
+    VersionTag tag = VersionTag.create(member);
+    tag.setRegionVersion(0x123456789AL);
+    tag.setEntryVersion(42);
+    VersionStamp compact =
+        new VersionedStatsLRURegionEntryHeapCompactObjectKey(context, "key", "value");
+    compact.setVersions(tag);
+
+    DiskStoreID otherMember = new DiskStoreID(8765, 4321);
+    compact.setMemberID(otherMember);
+
+    assertThat(compact.getMemberID()).isEqualTo(otherMember);
+    assertThat(compact.getRegionVersion()).isEqualTo(0x123456789AL);
+    assertThat(compact.getEntryVersion()).isEqualTo(42);
+
+    compact.setMemberID(null);
+    assertThat(compact.getMemberID()).isNull();
+    assertThat(compact.getRegionVersion()).isEqualTo(0x123456789AL);
+  }
+
+  @Test
+  public void compactEntryIsSmallerThanRegularEntry() throws Exception {
+    VersionTag tag = VersionTag.create(member);
+    tag.setRegionVersion(1);
+    tag.setEntryVersion(1);
+    VersionStamp regular = new VersionedThinRegionEntryHeapObjectKey(context, "key", "value");
+    VersionStamp compact =
+        new VersionedThinRegionEntryHeapCompactObjectKey(context, "key", "value");
+    regular.setVersions(tag);
+    compact.setVersions(tag);
+
+    assertThat(sizeExcludingMembers(compact)).isLessThan(sizeExcludingMembers(regular));
+  }
+
+  @Test
+  public void compactEntriesAreNeverLarger() throws Exception {
+    assertThat(sizeExcludingMembers(
+        new VersionedStatsLRURegionEntryHeapCompactObjectKey(context, "key", "value")))
+            .isLessThanOrEqualTo(sizeExcludingMembers(
+                new VersionedStatsLRURegionEntryHeapObjectKey(context, "key", "value")));
+    assertThat(sizeExcludingMembers(
+        new VersionedThinLRURegionEntryHeapCompactIntKey(context, 1, "value")))
+            .isLessThanOrEqualTo(sizeExcludingMembers(
+                new VersionedThinLRURegionEntryHeapIntKey(context, 1, "value")));
+  }
+
+  /**
+   * Members are shared by all the entries they modified so they are not part of the entry size.
+   */
+  private static long sizeExcludingMembers(Object entry) throws Exception {
+    return ObjectGraphSizer.size(entry, (parent, object) -> !(object instanceof VersionSource),
+        false);
+  }
+}
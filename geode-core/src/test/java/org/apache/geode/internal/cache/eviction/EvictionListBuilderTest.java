@@ -55,6 +55,13 @@ public class EvictionListBuilderTest {
     assertThat(builder.create()).isInstanceOf(LIFOList.class);
   }
 
+  @Test
+  public void createsTinyLFUListWhenAlgorithmIsTinyLFU() {
+    when(controller.getEvictionAlgorithm()).thenReturn(EvictionAlgorithm.TINYLFU_MEMORY);
+
+    assertThat(builder.create()).isInstanceOf(TinyLFUList.class);
+  }
+
   @Test
   public void createsAsyncLruByDefault() {
 
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class FrequencySketchTest {
+
+  @Test
+  public void unseenKeyHasZeroFrequency() {
+    FrequencySketch sketch = new FrequencySketch(64);
+
+    assertThat(sketch.frequency("key".hashCode())).isZero();
+  }
+
+  @Test
+  public void frequencyCountsIncrementsUpToMaximum() {
+    FrequencySketch sketch = new FrequencySketch(64);
+    int hash = "key".hashCode();
+
+    for (int i = 1; i <= FrequencySketch.MAX_FREQUENCY; i++) {
+      sketch.increment(hash);
+      assertThat(sketch.frequency(hash)).isEqualTo(i);
+    }
+    sketch.increment(hash);
+
+    assertThat(sketch.frequency(hash)).isEqualTo(FrequencySketch.MAX_FREQUENCY);
+  }
+
+  @Test
+  public void sketchHalvesFrequenciesWhenSampleIsFull() {
+    FrequencySketch sketch = new FrequencySketch(16);
+    int hotHash = -1;
+    for (int i = 0; i < 8; i++) {
+      sketch.increment(hotHash);
+    }
+
+    int hash = 0;
+    while (sketch.getResets() == 0) {
+      sketch.increment(hash++);
+    }
+
+    assertThat(sketch.frequency(hotHash)).isBetween(4, 5);
+  }
+
+  @Test
+  public void growingDiscardsFrequencies() {
+    FrequencySketch sketch = new FrequencySketch(16);
+    sketch.increment(42);
+
+    sketch.ensureCapacity(1024);
+
+    assertThat(sketch.capacity()).isEqualTo(1024);
+    assertThat(sketch.frequency(42)).isZero();
+  }
+}
@@ -266,4 +266,156 @@ public class LRUListWithAsyncSortingTest {
     list.incrementRecentlyUsed();
     verify(executor).submit(any(Runnable.class));
   }
+
+  @Test
+  public void bufferedAppendsAreEvictedInOrder() {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    for (int i = 0; i < 3; i++) {
+      list.appendEntry(new LRUTestEntry(i));
+    }
+
+    assertThat(list.size()).isEqualTo(3);
+    assertThat(((LRUTestEntry) list.getEvictableEntry()).id()).isEqualTo(0);
+    assertThat(((LRUTestEntry) list.getEvictableEntry()).id()).isEqualTo(1);
+    assertThat(((LRUTestEntry) list.getEvictableEntry()).id()).isEqualTo(2);
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void bufferedAppendIsNotQueuedTwice() {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    LRUTestEntry node = new LRUTestEntry(0);
+
+    list.appendEntry(node);
+    list.appendEntry(node);
+
+    assertThat(list.size()).isEqualTo(1);
+    assertThat(list.getEvictableEntry()).isSameAs(node);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void destroyingQueuedNodeRemovesItBeforeItIsLinked() {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    LRUTestEntry destroyed = new LRUTestEntry(0);
+    LRUTestEntry kept = new LRUTestEntry(1);
+    list.appendEntry(destroyed);
+    list.appendEntry(kept);
+
+    list.destroyEntry(destroyed);
+
+    assertThat(destroyed.next()).isNull();
+    assertThat(list.getEvictableEntry()).isSameAs(kept);
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+    verify(stats).incDestroys();
+  }
+
+  @Test
+  public void destroyingQueuedNodeTakesItOutOfTheSize() {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    LRUTestEntry destroyed = new LRUTestEntry(0);
+    list.appendEntry(destroyed);
+    list.appendEntry(new LRUTestEntry(1));
+
+    list.destroyEntry(destroyed);
+    assertThat(list.size()).isEqualTo(1);
+
+    list.getEvictableEntry();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void queuedNodeDestroyedAndAppendedAgainIsLinkedOnce() {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    LRUTestEntry node = new LRUTestEntry(0);
+    list.appendEntry(node);
+    list.destroyEntry(node);
+    list.appendEntry(node);
+    assertThat(list.size()).isEqualTo(1);
+
+    assertThat(list.getEvictableEntry()).isSameAs(node);
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void appendsAreLinkedOnceDrainThresholdIsReached() {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    List<LRUTestEntry> nodes = new ArrayList<>();
+    for (int i = 0; i < LRUListWithAsyncSorting.APPEND_BUFFER_DRAIN_THRESHOLD; i++) {
+      LRUTestEntry node = new LRUTestEntry(i);
+      nodes.add(node);
+      list.appendEntry(node);
+    }
+
+    assertThat(nodes).allMatch(node -> node.next() != LRUListWithAsyncSorting.PENDING);
+    assertThat(list.size()).isEqualTo(LRUListWithAsyncSorting.APPEND_BUFFER_DRAIN_THRESHOLD);
+  }
+
+  @Test
+  public void clearDiscardsQueuedAppends() {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    LRUTestEntry node = new LRUTestEntry(0);
+    list.appendEntry(node);
+
+    list.clear(null, null);
+
+    assertThat(list.size()).isZero();
+    assertThat(node.next()).isNull();
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void concurrentBufferedAppendsAreAllLinked() throws Exception {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    int threads = 4;
+    int nodesPerThread = 10_000;
+    ExecutorService appenders = Executors.newFixedThreadPool(threads);
+    try {
+      for (int t = 0; t < threads; t++) {
+        int firstId = t * nodesPerThread;
+        appenders.submit(() -> IntStream.range(firstId, firstId + nodesPerThread)
+            .forEach(id -> list.appendEntry(new LRUTestEntry(id))));
+      }
+      appenders.shutdown();
+      assertThat(appenders.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    } finally {
+      appenders.shutdownNow();
+    }
+
+    assertThat(list.size()).isEqualTo(threads * nodesPerThread);
+    int evicted = 0;
+    while (list.getEvictableEntry() != null) {
+      evicted++;
+    }
+    assertThat(evicted).isEqualTo(threads * nodesPerThread);
+  }
+
+  @Test
+  public void concurrentAppendsOfTheSameNodesQueueEachNodeOnce() throws Exception {
+    LRUListWithAsyncSorting list = new LRUListWithAsyncSorting(controller, executor, 1, true);
+    int threads = 4;
+    List<LRUTestEntry> nodes = new ArrayList<>();
+    IntStream.range(0, 10_000).forEach(id -> nodes.add(new LRUTestEntry(id)));
+    ExecutorService appenders = Executors.newFixedThreadPool(threads);
+    try {
+      for (int t = 0; t < threads; t++) {
+        appenders.submit(() -> nodes.forEach(list::appendEntry));
+      }
+      appenders.shutdown();
+      assertThat(appenders.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    } finally {
+      appenders.shutdownNow();
+    }
+
+    assertThat(list.size()).isEqualTo(nodes.size());
+    int evicted = 0;
+    while (list.getEvictableEntry() != null) {
+      evicted++;
+    }
+    assertThat(evicted).isEqualTo(nodes.size());
+    assertThat(list.size()).isZero();
+  }
 }
@@ -258,6 +258,15 @@ class LRUTestEntry implements EvictableEntry {
     return this.next;
   }
 
+  @Override
+  public synchronized boolean casNext(EvictionNode expectedNext, EvictionNode newNext) {
+    if (this.next != expectedNext) {
+      return false;
+    }
+    this.next = newNext;
+    return true;
+  }
+
   @Override
   public void setPrevious(EvictionNode previous) {
     this.prev = previous;
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAlgorithm;
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.internal.cache.CachedDeserializable;
+import org.apache.geode.internal.cache.CachedDeserializableFactory;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.internal.cache.VMCachedDeserializable;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class MemoryLRUControllerTest {
+
+  private static final int ENTRY_OVERHEAD = 48;
+
+  @Test
+  public void serializedValueIsSizedByItsBytes() {
+    CachedDeserializable value = new VMCachedDeserializable(serializedList());
+
+    for (MemoryLRUController controller : new MemoryLRUController[] {createController(false),
+        createController(true)}) {
+      assertThat(controller.entrySize("key", value)).isEqualTo(
+          ENTRY_OVERHEAD + ObjectSizer.DEFAULT.sizeof("key") + value.getSizeInBytes());
+    }
+  }
+
+  @Test
+  public void deserializingInPlaceResizesDeserializedFormByDefault() {
+    MemoryLRUController controller = createController(false);
+    CachedDeserializable value = new VMCachedDeserializable(serializedList());
+    Object deserialized = value.getDeserializedForReading();
+
+    int size =
+        controller.entrySize("key", new CachedDeserializableValueWrapper(value, deserialized));
+
+    assertThat(size).isEqualTo(ENTRY_OVERHEAD + ObjectSizer.DEFAULT.sizeof("key")
+        + ObjectSizer.REFLECTION_SIZE.sizeof(deserialized)
+        + CachedDeserializableFactory.overhead());
+  }
+
+  @Test
+  public void deserializingInPlaceKeepsStoredSizeWhenSizingStoredForm() {
+    MemoryLRUController controller = createController(true);
+    CachedDeserializable value = new VMCachedDeserializable(serializedList());
+    int storedSize = controller.entrySize("key", value);
+
+    int size = controller.entrySize("key",
+        new CachedDeserializableValueWrapper(value, value.getDeserializedForReading()));
+
+    assertThat(size).isEqualTo(storedSize);
+  }
+
+  private static MemoryLRUController createController(boolean sizeStoredForm) {
+    MemoryLRUController controller = new MemoryLRUController(mock(EvictionCounters.class), 10,
+        ObjectSizer.REFLECTION_SIZE, EvictionAction.LOCAL_DESTROY, false,
+        EvictionAlgorithm.LRU_MEMORY, sizeStoredForm);
+    controller.setPerEntryOverhead(ENTRY_OVERHEAD);
+    return controller;
+  }
+
+  private static byte[] serializedList() {
+    List<String> list = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      list.add("value" + i);
+    }
+    return EntryEventImpl.serialize(list);
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class TinyLFUListTest {
+
+  private static final int MAXIMUM = 100;
+
+  private EvictionCounters stats;
+  private EvictionController controller;
+  private RegionEntryContext context;
+
+  @Before
+  public void setup() {
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    context = mock(RegionEntryContext.class);
+    when(controller.getCounters()).thenReturn(stats);
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    TinyLFUList list = new TinyLFUList(controller);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void evictsLeastRecentlyAddedEntryWhenNoneWereUsed() {
+    TinyLFUList list = new TinyLFUList(controller);
+    for (int i = 0; i < MAXIMUM; i++) {
+      list.appendEntry(new KeyedTestEntry(i));
+    }
+
+    assertThat(((LRUTestEntry) list.getEvictableEntry()).id()).isEqualTo(0);
+    assertThat(list.size()).isEqualTo(MAXIMUM - 1);
+  }
+
+  @Test
+  public void scanDoesNotDisplaceFrequentlyUsedEntries() {
+    TinyLFUList list = new TinyLFUList(controller);
+    List<LRUTestEntry> hotEntries = new ArrayList<>();
+    for (int i = 0; i < MAXIMUM; i++) {
+      LRUTestEntry entry = new KeyedTestEntry(i);
+      hotEntries.add(entry);
+      list.appendEntry(entry);
+    }
+
+    for (int i = 0; i < 10 * MAXIMUM; i++) {
+      if (i % 10 == 0) {
+        hotEntries.forEach(entry -> entry.setRecentlyUsed(context));
+      }
+      list.appendEntry(new KeyedTestEntry(MAXIMUM + i));
+      EvictableEntry evicted = list.getEvictableEntry();
+      hotEntries.remove(evicted);
+    }
+
+    assertThat(list.size()).isEqualTo(MAXIMUM);
+    assertThat(hotEntries.size()).isGreaterThanOrEqualTo(MAXIMUM * 9 / 10);
+  }
+
+  @Test
+  public void candidateWhoseKeyWasSeenBeforeIsAdmitted() {
+    TinyLFUList list = new TinyLFUList(controller);
+    for (int i = 0; i < 10; i++) {
+      list.appendEntry(new KeyedTestEntry(i));
+    }
+    list.getEvictableEntry();
+
+    LRUTestEntry first = new KeyedTestEntry(1000);
+    list.appendEntry(first);
+    list.getEvictableEntry();
+    list.appendEntry(new KeyedTestEntry(1001));
+    assertThat(list.getEvictableEntry()).isSameAs(first);
+
+    LRUTestEntry second = new KeyedTestEntry(1000);
+    list.appendEntry(second);
+    list.getEvictableEntry();
+    list.appendEntry(new KeyedTestEntry(1002));
+
+    assertThat(list.getEvictableEntry()).isNotSameAs(second);
+    assertThat(second.next()).isNotNull();
+  }
+
+  @Test
+  public void destroyedEntriesAreNotEvicted() {
+    TinyLFUList list = new TinyLFUList(controller);
+    LRUTestEntry destroyed = new KeyedTestEntry(0);
+    LRUTestEntry kept = new KeyedTestEntry(1);
+    list.appendEntry(destroyed);
+    list.appendEntry(kept);
+
+    list.destroyEntry(destroyed);
+
+    assertThat(list.getEvictableEntry()).isSameAs(kept);
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(stats).incDestroys();
+  }
+
+  @Test
+  public void clearEmptiesEverySegment() {
+    TinyLFUList list = new TinyLFUList(controller);
+    for (int i = 0; i < MAXIMUM; i++) {
+      LRUTestEntry entry = new KeyedTestEntry(i);
+      list.appendEntry(entry);
+      entry.setRecentlyUsed(context);
+    }
+    list.getEvictableEntry();
+    assertThat(list.getProtectedSize()).isPositive();
+
+    list.clear(null, null);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getWindowSize()).isZero();
+    assertThat(list.getProtectedSize()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void agingTheSketchPublishesHitRatio() {
+    TinyLFUList list = new TinyLFUList(controller);
+    for (int i = 0; list.getSketchResets() == 0; i++) {
+      list.appendEntry(new KeyedTestEntry(i));
+      list.incrementRecentlyUsed();
+      list.getEvictableEntry();
+    }
+
+    ArgumentCaptor<Double> hitRatio = ArgumentCaptor.forClass(Double.class);
+    verify(stats).incSketchResets();
+    verify(stats).setHitRatio(hitRatio.capture());
+    assertThat(hitRatio.getValue()).isCloseTo(0.5, offset(0.01));
+  }
+
+  /**
+   * The sketch counts keys, so the entries need one.
+   */
+  private static class KeyedTestEntry extends LRUTestEntry {
+    KeyedTestEntry(int id) {
+      super(id);
+    }
+
+    @Override
+    public Object getKey() {
+      return id();
+    }
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.snapshot;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.PartitionAttributesFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.snapshot.SnapshotIterator;
+import org.apache.geode.cache.snapshot.SnapshotOptions.SnapshotFormat;
+import org.apache.geode.cache.snapshot.SnapshotReader;
+import org.apache.geode.cache.util.CacheListenerAdapter;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class RegionSnapshotServiceImplIntegrationTest {
+  private static final int ENTRIES = 1000;
+  private static final int BUCKETS = 13;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Cache cache;
+  private File snapshotDirectory;
+
+  @Before
+  public void setup() throws Exception {
+    snapshotDirectory = temporaryFolder.newFolder("snapshots");
+    cache = new CacheFactory().set(LOCATORS, "").set(MCAST_PORT, "0").create();
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void compressedSnapshotIsReadAndImported() throws Exception {
+    Region<Integer, String> region =
+        cache.<Integer, String>createRegionFactory(RegionShortcut.REPLICATE).create("region");
+    putEntries(region);
+    File plain = new File(snapshotDirectory, "plain.gfd");
+    File compressed = new File(snapshotDirectory, "compressed.gfd");
+    region.getSnapshotService().save(plain, SnapshotFormat.GEMFIRE);
+    region.getSnapshotService().save(compressed, SnapshotFormat.GEMFIRE,
+        createOptions(region, false).setCompressed(true));
+
+    assertThat(readVersion(plain)).isEqualTo(GFSnapshot.SNAP_VER_2);
+    assertThat(readVersion(compressed)).isEqualTo(GFSnapshot.SNAP_VER_3);
+    assertThat(compressed.length()).isLessThan(plain.length());
+    int read = 0;
+    try (SnapshotIterator<Integer, String> iter = SnapshotReader.read(compressed)) {
+      while (iter.hasNext()) {
+        Map.Entry<Integer, String> entry = iter.next();
+        assertThat(entry.getValue()).isEqualTo(value(entry.getKey()));
+        read++;
+      }
+    }
+    assertThat(read).isEqualTo(ENTRIES);
+
+    region.clear();
+    region.getSnapshotService().load(compressed, SnapshotFormat.GEMFIRE);
+    assertEntries(region);
+  }
+
+  @Test
+  public void bucketFilesAreExportedAndImported() throws Exception {
+    Region<Integer, String> region = createPartitionedRegion();
+    putEntries(region);
+    File snapshot = new File(snapshotDirectory, "region.gfd");
+    SnapshotOptionsImpl<Integer, String> options = createOptions(region, true);
+    options.setCompressed(true);
+    region.getSnapshotService().save(snapshot, SnapshotFormat.GEMFIRE, options);
+
+    File[] bucketFiles = snapshotDirectory.listFiles();
+    assertThat(bucketFiles).hasSize(BUCKETS);
+    for (File bucketFile : bucketFiles) {
+      assertThat(bucketFile.getName())
+          .contains(RegionSnapshotServiceImpl.BUCKET_FILE_SUFFIX).endsWith(".gfd");
+    }
+
+    region.destroyRegion();
+    region = createPartitionedRegion();
+    AtomicInteger events = new AtomicInteger();
+    region.getAttributesMutator().addCacheListener(new CacheListenerAdapter<Integer, String>() {
+      @Override
+      public void afterCreate(EntryEvent<Integer, String> event) {
+        events.incrementAndGet();
+      }
+    });
+    region.getSnapshotService().load(snapshotDirectory, SnapshotFormat.GEMFIRE,
+        createOptions(region, true));
+
+    assertEntries(region);
+    assertThat(events.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void bucketFileNamesCarryTheBucketId() {
+    File bucketFile = RegionSnapshotServiceImpl.getBucketFile(new File("dir", "snap-10.gfd"), 7);
+    assertThat(bucketFile).isEqualTo(new File("dir", "snap-10-bucket7.gfd"));
+  }
+
+  private Region<Integer, String> createPartitionedRegion() {
+    return cache.<Integer, String>createRegionFactory(RegionShortcut.PARTITION)
+        .setPartitionAttributes(
+            new PartitionAttributesFactory<Integer, String>().setTotalNumBuckets(BUCKETS).create())
+        .create("region");
+  }
+
+  private SnapshotOptionsImpl<Integer, String> createOptions(Region<Integer, String> region,
+      boolean bucketFiles) {
+    SnapshotOptionsImpl<Integer, String> options =
+        (SnapshotOptionsImpl<Integer, String>) region.getSnapshotService().createOptions();
+    options.setBucketFiles(bucketFiles);
+    options.setParallelMode(bucketFiles);
+    return options;
+  }
+
+  private int readVersion(File snapshot) throws Exception {
+    try (DataInputStream in = new DataInputStream(new FileInputStream(snapshot))) {
+      return in.readByte();
+    }
+  }
+
+  private void putEntries(Region<Integer, String> region) {
+    for (int i = 0; i < ENTRIES; i++) {
+      region.put(i, value(i));
+    }
+  }
+
+  private void assertEntries(Region<Integer, String> region) {
+    assertThat(region.size()).isEqualTo(ENTRIES);
+    for (int i = 0; i < ENTRIES; i++) {
+      assertThat(region.get(i)).isEqualTo(value(i));
+    }
+  }
+
+  private static String value(int i) {
+    return "value of entry " + i + " in a snapshot that compresses well";
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.versions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.persistence.DiskStoreID;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class VersionSourceTableTest {
+
+  @After
+  public void tearDown() {
+    VersionSourceTable.clear();
+  }
+
+  @Test
+  public void nullMemberHasIndexZero() {
+    assertThat(VersionSourceTable.indexOf(null)).isZero();
+    assertThat(VersionSourceTable.get(0)).isNull();
+  }
+
+  @Test
+  public void equalMembersShareAnIndex() {
+    int index = VersionSourceTable.indexOf(new DiskStoreID(11, 12));
+
+    assertThat(index).isPositive();
+    assertThat(VersionSourceTable.indexOf(new DiskStoreID(11, 12))).isEqualTo(index);
+    assertThat(VersionSourceTable.get(index)).isEqualTo(new DiskStoreID(11, 12));
+  }
+
+  @Test
+  public void tableGrowsAsMembersAreAdded() {
+    int sizeBefore = VersionSourceTable.size();
+    for (int i = 0; i < 100; i++) {
+      DiskStoreID member = new DiskStoreID(21, i);
+      int index = VersionSourceTable.indexOf(member);
+      assertThat(index).isLessThanOrEqualTo(VersionSourceTable.MAX_INDEX);
+      assertThat(VersionSourceTable.get(index)).isEqualTo(member);
+    }
+    assertThat(VersionSourceTable.size()).isEqualTo(sizeBefore + 100);
+  }
+
+  @Test
+  public void membersOfAFullTableAreKeptByEntry() {
+    for (int i = VersionSourceTable.size(); i < VersionSourceTable.OVERFLOW_INDEX; i++) {
+      assertThat(VersionSourceTable.indexOf(new DiskStoreID(31, i))).isEqualTo(i);
+    }
+    Object entry = new Object();
+    DiskStoreID member = new DiskStoreID(32, 1);
+
+    int index = VersionSourceTable.indexOf(entry, 0L, member);
+
+    assertThat(index).isEqualTo(VersionSourceTable.OVERFLOW_INDEX);
+    assertThat(VersionSourceTable.get(entry, index)).isEqualTo(member);
+    assertThat(VersionSourceTable.get(new Object(), index)).isNull();
+    assertThat(VersionSourceTable.size()).isEqualTo(VersionSourceTable.OVERFLOW_INDEX);
+
+    // an indexed member replaces the kept one
+    DiskStoreID indexed = new DiskStoreID(31, VersionSourceTable.OVERFLOW_INDEX - 1);
+    int newIndex = VersionSourceTable.indexOf(entry, index, indexed);
+
+    assertThat(newIndex).isNotEqualTo(VersionSourceTable.OVERFLOW_INDEX);
+    assertThat(VersionSourceTable.get(entry, newIndex)).isEqualTo(indexed);
+    assertThat(VersionSourceTable.get(entry, VersionSourceTable.OVERFLOW_INDEX)).isNull();
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.OFF_HEAP_MEMORY_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.entries.OffHeapKeyRegionEntry;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapObjectKey;
+import org.apache.geode.internal.cache.entries.VMThinRegionEntryOffHeapSerializedKey;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class OffHeapKeyIntegrationTest {
+
+  private static final String KEY = "a key too long to be inlined in the region entry";
+
+  private boolean offHeapRegionKeys;
+  private Cache cache;
+  private Region<Object, String> region;
+
+  @Before
+  public void setUp() {
+    offHeapRegionKeys = OffHeapKeyHelper.OFF_HEAP_REGION_KEYS;
+    OffHeapKeyHelper.OFF_HEAP_REGION_KEYS = true;
+
+    Properties props = new Properties();
+    props.setProperty(LOCATORS, "");
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(OFF_HEAP_MEMORY_SIZE, "2m");
+    cache = new CacheFactory(props).create();
+    region = cache.<Object, String>createRegionFactory(RegionShortcut.LOCAL)
+        .setConcurrencyChecksEnabled(false).setOffHeap(true).create("offHeapKeyRegion");
+  }
+
+  @After
+  public void tearDown() {
+    OffHeapKeyHelper.OFF_HEAP_REGION_KEYS = offHeapRegionKeys;
+    if (cache != null) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void keyIsStoredOffHeapWithValue() {
+    region.put(KEY, "value");
+
+    OffHeapKeyRegionEntry entry = getEntry(KEY);
+    assertThat(entry).isInstanceOf(VMThinRegionEntryOffHeapSerializedKey.class);
+    assertThat(entry.getHeapKey()).isNull();
+    assertThat(entry.getKeyAddress()).isNotZero();
+    assertThat(entry.getKey()).isEqualTo(KEY);
+  }
+
+  @Test
+  public void lookupsCompareSerializedKey() {
+    region.put(KEY, "value");
+
+    assertThat(region.get(new String(KEY))).isEqualTo("value");
+    assertThat(region.containsKey(KEY + "!")).isFalse();
+    assertThat(region.containsKey(1)).isFalse();
+    assertThat(region.keySet()).containsExactly(KEY);
+  }
+
+  @Test
+  public void keyStaysOnHeapWithoutOffHeapValue() {
+    region.create(KEY, null);
+
+    OffHeapKeyRegionEntry entry = getEntry(KEY);
+    assertThat(entry.getHeapKey()).isEqualTo(KEY);
+    assertThat(entry.getKeyAddress()).isZero();
+    assertThat(region.containsKey(KEY)).isTrue();
+
+    region.put(KEY, "value");
+
+    assertThat(entry.getHeapKey()).isNull();
+    assertThat(entry.getKeyAddress()).isNotZero();
+    assertThat(region.get(KEY)).isEqualTo("value");
+  }
+
+  @Test
+  public void invalidateMovesKeyBackOnHeap() {
+    region.put(KEY, "value");
+    OffHeapKeyRegionEntry entry = getEntry(KEY);
+
+    region.invalidate(KEY);
+
+    assertThat(entry.getKeyAddress()).isZero();
+    assertThat(entry.getHeapKey()).isEqualTo(KEY);
+    assertThat(region.containsKey(KEY)).isTrue();
+    assertThat(MemoryAllocatorImpl.getAllocator().getUsedMemory()).isZero();
+  }
+
+  @Test
+  public void destroyReleasesKey() {
+    region.put(KEY, "value");
+    OffHeapKeyRegionEntry entry = getEntry(KEY);
+
+    region.destroy(KEY);
+
+    assertThat(entry.getKeyAddress()).isZero();
+    assertThat(entry.getKey()).isEqualTo(KEY);
+    assertThat(region.containsKey(KEY)).isFalse();
+    assertThat(MemoryAllocatorImpl.getAllocator().getUsedMemory()).isZero();
+  }
+
+  @Test
+  public void clearReleasesKeys() {
+    for (int i = 0; i < 100; i++) {
+      region.put(KEY + i, "value" + i);
+    }
+    assertThat(region.get(KEY + 50)).isEqualTo("value50");
+
+    region.clear();
+
+    assertThat(region).isEmpty();
+    // entries cleared from an off-heap region may be released by another thread
+    await().atMost(30, SECONDS)
+        .until(() -> assertThat(MemoryAllocatorImpl.getAllocator().getUsedMemory()).isZero());
+  }
+
+  @Test
+  public void keysThatAreNotDataSerializableStayOnHeap() {
+    Date key = new Date(1L);
+    region.put(key, "value");
+
+    assertThat(((LocalRegion) region).getRegionEntry(key))
+        .isInstanceOf(VMThinRegionEntryOffHeapObjectKey.class);
+    assertThat(region.get(new Date(1L))).isEqualTo("value");
+  }
+
+  @Test
+  public void keysSerializedAsUtfAreComparedDeserialized() {
+    String key = KEY + " \u00e9\u4e2d";
+    region.put(key, "value");
+
+    assertThat(getEntry(key).getKeyAddress()).isNotZero();
+    assertThat(region.get(new String(key))).isEqualTo("value");
+    assertThat(region.containsKey(KEY + " \u00e9")).isFalse();
+    assertThat(region.get(KEY)).isNull();
+  }
+
+  @Test
+  public void dataSerializableKeysAreStoredOffHeapAndComparedWithEquals() {
+    Key key = new Key(1, "ignored by equals");
+    region.put(key, "value");
+
+    OffHeapKeyRegionEntry entry = getEntry(key);
+    assertThat(entry.getKeyAddress()).isNotZero();
+    assertThat(region.get(new Key(1, "another"))).isEqualTo("value");
+    region.put(new Key(1, "another"), "value2");
+    assertThat(region.size()).isEqualTo(1);
+    assertThat(region.get(new Key(2, "ignored by equals"))).isNull();
+  }
+
+  @Test
+  public void deserializedKeyIsCachedWhileKeyIsOffHeap() {
+    region.put(new Key(1, "label"), "value");
+    OffHeapKeyRegionEntry entry = getEntry(new Key(1, "label"));
+
+    Object key = entry.getKey();
+
+    assertThat(key).isEqualTo(new Key(1, "label"));
+    assertThat(entry.getKey()).isSameAs(key);
+    assertThat(entry.getKeyAddress()).isNotZero();
+
+    region.invalidate(key);
+
+    assertThat(entry.getKeyAddress()).isZero();
+    assertThat(entry.getHeapKey()).isSameAs(key);
+    assertThat(MemoryAllocatorImpl.getAllocator().getUsedMemory()).isZero();
+  }
+
+  private OffHeapKeyRegionEntry getEntry(Object key) {
+    return (OffHeapKeyRegionEntry) ((LocalRegion) region).getRegionEntry(key);
+  }
+
+  /**
+   * A key whose serialized form contains a field that equals ignores.
+   */
+  public static class Key implements DataSerializable {
+    private int id;
+    private String label;
+
+    public Key() {}
+
+    Key(int id, String label) {
+      this.id = id;
+      this.label = label;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      out.writeInt(id);
+      DataSerializer.writeString(label, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException {
+      id = in.readInt();
+      label = DataSerializer.readString(in);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && ((Key) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return id;
+    }
+  }
+}
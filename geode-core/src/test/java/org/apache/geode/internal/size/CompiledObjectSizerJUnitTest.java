@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.size;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompiledObjectSizerJUnitTest {
+
+  private CompiledObjectSizer sizer;
+
+  @Before
+  public void setup() {
+    assertThat(CompiledObjectSizer.isSupported()).isTrue();
+    sizer = CompiledObjectSizer.getInstance();
+  }
+
+  @Test
+  public void sizesLeafObjectsLikeReflectionSizer() {
+    assertSameSizeAsReflectionSizer(new Object());
+    assertSameSizeAsReflectionSizer(42L);
+    assertSameSizeAsReflectionSizer(new int[0]);
+    assertSameSizeAsReflectionSizer(new byte[13]);
+    assertSameSizeAsReflectionSizer(new long[7]);
+  }
+
+  @Test
+  public void sizesObjectGraphsLikeReflectionSizer() {
+    assertSameSizeAsReflectionSizer("a string");
+    assertSameSizeAsReflectionSizer(new Object[] {"a", 1, null, new int[3]});
+    assertSameSizeAsReflectionSizer(new ArrayList<>(Arrays.asList("a", "bb", "ccc")));
+
+    Map<String, Object> map = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      map.put("key" + i, new Domain("name" + i, i));
+    }
+    assertSameSizeAsReflectionSizer(map);
+    assertSameSizeAsReflectionSizer(new ConcurrentHashMap<>(map));
+  }
+
+  @Test
+  public void sharedObjectsAndCyclesAreSizedOnce() {
+    Domain shared = new Domain("shared", 3);
+    Domain first = new Domain("first", 1);
+    Domain second = new Domain("second", 2);
+    first.children.add(shared);
+    first.children.add(second);
+    second.children.add(shared);
+    second.children.add(first);
+
+    assertSameSizeAsReflectionSizer(first);
+  }
+
+  @Test
+  public void doesNotSizeRegionsLoggersOrReferents() {
+    Domain withRegion = new Domain("name", 1);
+    withRegion.children.add(mock(Region.class));
+    withRegion.children.add(LogService.getLogger());
+    withRegion.children.add(new WeakReference<>(new Domain("referent", 2)));
+
+    assertSameSizeAsReflectionSizer(withRegion);
+    assertThat(sizer.sizeof(mock(Region.class))).isZero();
+  }
+
+  @Test
+  public void reusedContextDoesNotRememberPreviousGraphs() {
+    Domain domain = new Domain("name", 1);
+    int size = sizer.sizeof(domain);
+
+    assertThat(sizer.sizeof(domain)).isEqualTo(size);
+
+    List<Object> large = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      large.add(new Domain("name" + i, i));
+    }
+    assertSameSizeAsReflectionSizer(large);
+    assertThat(sizer.sizeof(domain)).isEqualTo(size);
+  }
+
+  private void assertSameSizeAsReflectionSizer(Object object) {
+    assertThat(sizer.sizeof(object))
+        .isEqualTo(ReflectionObjectSizer.getInstance().sizeof(object));
+  }
+
+  private static class Domain {
+    private final String name;
+    private final int id;
+    private final long[] history = new long[4];
+    private final List<Object> children = new ArrayList<>();
+
+    Domain(String name, int id) {
+      this.name = name;
+      this.id = id;
+    }
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.util.concurrent.PrimitiveKeyConcurrentHashMap.KeyType;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PrimitiveKeyConcurrentHashMapTest {
+
+  @Test
+  public void forClassMapsSupportedKeyClasses() {
+    assertThat(KeyType.forClass(Integer.class)).isEqualTo(KeyType.INT);
+    assertThat(KeyType.forClass(Long.class)).isEqualTo(KeyType.LONG);
+    assertThat(KeyType.forClass(UUID.class)).isEqualTo(KeyType.UUID);
+    assertThat(KeyType.forClass(String.class)).isNull();
+    assertThat(KeyType.forClass(null)).isNull();
+  }
+
+  @Test
+  public void putGetAndRemoveLongKeys() {
+    PrimitiveKeyConcurrentHashMap map =
+        new PrimitiveKeyConcurrentHashMap(KeyType.LONG, 0, 0.75f, 4);
+
+    assertThat(map.put(1L, "one")).isNull();
+    assertThat(map.put(0L, "zero")).isNull();
+    assertThat(map.put(-1L, "minusOne")).isNull();
+
+    assertThat(map.get(1L)).isEqualTo("one");
+    assertThat(map.get(0L)).isEqualTo("zero");
+    assertThat(map.get(-1L)).isEqualTo("minusOne");
+    assertThat(map.get(2L)).isNull();
+    assertThat(map.size()).isEqualTo(3);
+
+    assertThat(map.put(1L, "uno")).isEqualTo("one");
+    assertThat(map.remove(0L)).isEqualTo("zero");
+    assertThat(map.get(0L)).isNull();
+    assertThat(map.get(1L)).isEqualTo("uno");
+    assertThat(map.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void keysOfAnotherTypeMissOnReadAndAreRejectedOnWrite() {
+    PrimitiveKeyConcurrentHashMap map =
+        new PrimitiveKeyConcurrentHashMap(KeyType.INT, 0, 0.75f, 1);
+    map.put(7, "seven");
+
+    assertThat(map.get(7L)).isNull();
+    assertThat(map.containsKey("7")).isFalse();
+    assertThat(map.remove(7L)).isNull();
+    assertThatThrownBy(() -> map.put(7L, "seven")).isInstanceOf(ClassCastException.class);
+    assertThatThrownBy(() -> map.put(null, "seven")).isInstanceOf(NullPointerException.class);
+    assertThatThrownBy(() -> map.put(8, null)).isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  public void conditionalOperationsHonorCurrentValue() {
+    PrimitiveKeyConcurrentHashMap map =
+        new PrimitiveKeyConcurrentHashMap(KeyType.UUID, 0, 0.75f, 1);
+    UUID key = UUID.randomUUID();
+
+    assertThat(map.putIfAbsent(key, "a")).isNull();
+    assertThat(map.putIfAbsent(key, "b")).isEqualTo("a");
+    assertThat(map.replace(key, "b", "c")).isFalse();
+    assertThat(map.replace(key, "a", "c")).isTrue();
+    assertThat(map.replace(UUID.randomUUID(), "d")).isNull();
+    assertThat(map.remove(key, "a")).isFalse();
+    assertThat(map.remove(key, "c")).isTrue();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void behavesLikeHashMapUnderRandomOperations() {
+    PrimitiveKeyConcurrentHashMap map =
+        new PrimitiveKeyConcurrentHashMap(KeyType.INT, 0, 0.75f, 2);
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(17);
+
+    for (int i = 0; i < 200_000; i++) {
+      Integer key = random.nextInt(5_000);
+      if (random.nextInt(3) == 0) {
+        assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+      } else {
+        assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    assertThat(map).isEqualTo(expected);
+    assertThat(map.keySet()).isEqualTo(expected.keySet());
+  }
+
+  @Test
+  public void iteratorRemoveRemovesLastReturnedEntry() {
+    PrimitiveKeyConcurrentHashMap map =
+        new PrimitiveKeyConcurrentHashMap(KeyType.LONG, 0, 0.75f, 4);
+    for (long i = 0; i < 100; i++) {
+      map.put(i, i);
+    }
+
+    Iterator<Map.Entry<Object, Object>> it = map.entrySetWithReusableEntries().iterator();
+    int seen = 0;
+    while (it.hasNext()) {
+      Map.Entry<Object, Object> entry = it.next();
+      assertThat(entry.getValue()).isEqualTo(entry.getKey());
+      if ((Long) entry.getKey() % 2 == 0) {
+        it.remove();
+      }
+      seen++;
+    }
+
+    assertThat(seen).isEqualTo(100);
+    assertThat(map.size()).isEqualTo(50);
+    assertThat(map.keySet()).allMatch(k -> (Long) k % 2 == 1);
+  }
+
+  @Test
+  public void clearEmptiesTheMap() {
+    PrimitiveKeyConcurrentHashMap map =
+        new PrimitiveKeyConcurrentHashMap(KeyType.LONG, 0, 0.75f, 4);
+    for (long i = 0; i < 1000; i++) {
+      map.put(i, i);
+    }
+
+    map.clearWithExecutor(null);
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get(5L)).isNull();
+    assertThat(map.entrySet().iterator().hasNext()).isFalse();
+  }
+
+  @Test
+  public void concurrentWritersAndReadersSeeConsistentValues() throws Exception {
+    final PrimitiveKeyConcurrentHashMap map =
+        new PrimitiveKeyConcurrentHashMap(KeyType.LONG, 0, 0.75f, 8);
+    final int threads = 4;
+    final int keysPerThread = 20_000;
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+    try {
+      Future<?>[] futures = new Future<?>[threads * 2];
+      for (int t = 0; t < threads; t++) {
+        final long base = (long) t * keysPerThread;
+        futures[t] = executor.submit(() -> {
+          start.await();
+          for (long k = base; k < base + keysPerThread; k++) {
+            map.put(k, k);
+          }
+          return null;
+        });
+        futures[threads + t] = executor.submit(() -> {
+          start.await();
+          for (long k = base; k < base + keysPerThread; k++) {
+            Object v = map.get(k);
+            assertThat(v == null || v.equals(k)).isTrue();
+          }
+          return null;
+        });
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(map.size()).isEqualTo(threads * keysPerThread);
+    for (long k = 0; k < threads * keysPerThread; k++) {
+      assertThat(map.get(k)).isEqualTo(k);
+    }
+  }
+}
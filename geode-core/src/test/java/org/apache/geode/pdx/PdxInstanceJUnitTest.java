@@ -37,6 +37,9 @@ import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
 import org.apache.geode.pdx.internal.PdxInstanceFactoryImpl;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxString;
+import org.apache.geode.pdx.internal.PdxType;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 import org.apache.geode.test.junit.categories.SerializationTest;
 
@@ -85,6 +88,46 @@ public class PdxInstanceJUnitTest {
     assertEquals("hello", fieldInstance.getField("afield"));
   }
 
+  @Test
+  public void testGetRawFieldOfType() throws IOException, ClassNotFoundException {
+    PdxInstanceImpl instance = (PdxInstanceImpl) getPdx(new TestPdx() {
+      public void toData(PdxWriter out) {
+        out.writeInt("intField", 53);
+        out.writeString("stringField", "hello");
+        out.writeObject("objectField", "world");
+        out.writeIntArray("intArrayField", new int[] {1, 2});
+      }
+    });
+    PdxType type = instance.getPdxType();
+
+    assertEquals(53, instance.getRawField(type.getPdxField("intField")));
+    assertEquals(new PdxString("hello"), instance.getRawField(type.getPdxField("stringField")));
+    assertEquals(new PdxString("world"), instance.getRawField(type.getPdxField("objectField")));
+    assertArrayEquals(new int[] {1, 2},
+        (int[]) instance.getRawField(type.getPdxField("intArrayField")));
+  }
+
+  @Test
+  public void testFixedWidthFieldsAreReadWithoutLocking() throws Exception {
+    PdxInstance instance = getPdx(new TestPdx() {
+      public void toData(PdxWriter out) {
+        out.writeLong("longField", 37L);
+        out.writeString("stringField", "hello");
+      }
+    });
+    Object[] read = new Object[1];
+    Thread reader = new Thread(() -> read[0] = instance.getField("longField"));
+
+    synchronized (instance) {
+      reader.start();
+      reader.join(60000);
+    }
+
+    assertFalse(reader.isAlive());
+    assertEquals(37L, read[0]);
+    assertEquals("hello", instance.getField("stringField"));
+  }
+
   @Test
   public void testHashCodeAndEqualsSameType() throws IOException, ClassNotFoundException {
     PdxInstance instance = getAllFields(0);
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.ToDataException;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.PdxSerializerObject;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.pdx.PdxSerializationException;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({IntegrationTest.class, SerializationTest.class})
+public class AutoClassAccessorIntegrationTest {
+  private static final String CLASS_PATTERN = ".*\\$AllTypes";
+
+  private Cache cache;
+
+  private AutoSerializableManager manager;
+
+  @BeforeClass
+  public static void setGenerateAccessors() {
+    // read once when the auto serializer classes are loaded, integration tests run in their own
+    // JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "AutoSerializer.generateAccessors",
+        "true");
+    System.setProperty(
+        DistributionConfig.GEMFIRE_PREFIX + "auto.serialization.no.hardcoded.excludes", "true");
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void allFieldTypesAreWrittenAndRead() throws Exception {
+    createCache(new ReflectionBasedAutoSerializer(CLASS_PATTERN));
+    AllTypes original = new AllTypes(7);
+
+    // the first write defines the type, the second one is written in order
+    assertThat(roundTrip(original)).isEqualTo(original);
+    assertThat(manager.getClassInfo(AllTypes.class).getAccessor()).isNotNull();
+    AllTypes read = roundTrip(original);
+
+    assertThat(read).isEqualTo(original);
+    assertThat(read.finalValue).isEqualTo(7);
+    assertThat(read.transientValue).isEqualTo(0);
+  }
+
+  @Test
+  public void transformedFieldsAreWrittenAndRead() throws Exception {
+    createCache(new ReflectionBasedAutoSerializer(CLASS_PATTERN) {
+      @Override
+      public boolean transformFieldValue(Field f, Class<?> clazz) {
+        return f.getName().equals("stringValue");
+      }
+
+      @Override
+      public Object writeTransform(Field f, Class<?> clazz, Object originalValue) {
+        return ((String) originalValue).toUpperCase();
+      }
+
+      @Override
+      public Object readTransform(Field f, Class<?> clazz, Object serializedValue) {
+        return serializedValue + "!";
+      }
+    });
+    AllTypes original = new AllTypes(3);
+
+    roundTrip(original);
+    AllTypes read = roundTrip(original);
+
+    assertThat(read.stringValue).isEqualTo("STRING!");
+    assertThat(read.intValue).isEqualTo(original.intValue);
+  }
+
+  @Test
+  public void fieldExceptionsNameTheField() throws Exception {
+    createCache(new ReflectionBasedAutoSerializer(CLASS_PATTERN));
+    AllTypes original = new AllTypes(1);
+    roundTrip(original);
+
+    original.objectValue = new Object();
+
+    assertThatThrownBy(() -> BlobHelper.serializeToBlob(original))
+        .isInstanceOf(ToDataException.class).hasCauseInstanceOf(PdxSerializationException.class)
+        .satisfies(e -> assertThat(e.getCause()).hasMessageContaining("objectValue"));
+  }
+
+  private void createCache(ReflectionBasedAutoSerializer serializer) {
+    manager = (AutoSerializableManager) serializer.getManager();
+    cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "")
+        .setPdxSerializer(serializer).create();
+  }
+
+  private AllTypes roundTrip(AllTypes original) throws Exception {
+    return (AllTypes) BlobHelper.deserializeBlob(BlobHelper.serializeToBlob(original));
+  }
+
+  public static class AllTypes implements PdxSerializerObject {
+    private boolean booleanValue;
+    private byte byteValue;
+    private char charValue;
+    private short shortValue;
+    private int intValue;
+    private long longValue;
+    private float floatValue;
+    private double doubleValue;
+    private Date dateValue;
+    private String stringValue;
+    private Object objectValue;
+    private List<String> listValue;
+    private boolean[] booleanArray;
+    private char[] charArray;
+    private byte[] byteArray;
+    private short[] shortArray;
+    private int[] intArray;
+    private long[] longArray;
+    private float[] floatArray;
+    private double[] doubleArray;
+    private String[] stringArray;
+    private Object[] objectArray;
+    private byte[][] arrayOfByteArrays;
+    private final int finalValue;
+    private transient int transientValue;
+
+    public AllTypes() {
+      this.finalValue = 0;
+    }
+
+    AllTypes(int i) {
+      this.finalValue = i;
+      this.transientValue = i;
+      this.booleanValue = true;
+      this.byteValue = (byte) i;
+      this.charValue = 'c';
+      this.shortValue = (short) i;
+      this.intValue = i;
+      this.longValue = i * 1000L;
+      this.floatValue = i / 2f;
+      this.doubleValue = i / 4d;
+      this.dateValue = new Date(i);
+      this.stringValue = "string";
+      this.objectValue = Integer.valueOf(i);
+      this.listValue = new ArrayList<>(Arrays.asList("a", "b"));
+      this.booleanArray = new boolean[] {true, false};
+      this.charArray = new char[] {'a', 'b'};
+      this.byteArray = new byte[] {1, 2};
+      this.shortArray = new short[] {3, 4};
+      this.intArray = new int[] {5, 6};
+      this.longArray = new long[] {7, 8};
+      this.floatArray = new float[] {9, 10};
+      this.doubleArray = new double[] {11, 12};
+      this.stringArray = new String[] {"x", null};
+      this.objectArray = new Object[] {"y", 13};
+      this.arrayOfByteArrays = new byte[][] {{14}, null};
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof AllTypes)) {
+        return false;
+      }
+      AllTypes other = (AllTypes) o;
+      return booleanValue == other.booleanValue && byteValue == other.byteValue
+          && charValue == other.charValue && shortValue == other.shortValue
+          && intValue == other.intValue && longValue == other.longValue
+          && floatValue == other.floatValue && doubleValue == other.doubleValue
+          && dateValue.equals(other.dateValue) && stringValue.equals(other.stringValue)
+          && objectValue.equals(other.objectValue) && listValue.equals(other.listValue)
+          && Arrays.equals(booleanArray, other.booleanArray)
+          && Arrays.equals(charArray, other.charArray) && Arrays.equals(byteArray, other.byteArray)
+          && Arrays.equals(shortArray, other.shortArray) && Arrays.equals(intArray, other.intArray)
+          && Arrays.equals(longArray, other.longArray)
+          && Arrays.equals(floatArray, other.floatArray)
+          && Arrays.equals(doubleArray, other.doubleArray)
+          && Arrays.equals(stringArray, other.stringArray)
+          && Arrays.equals(objectArray, other.objectArray)
+          && Arrays.deepEquals(arrayOfByteArrays, other.arrayOfByteArrays)
+          && finalValue == other.finalValue;
+    }
+
+    @Override
+    public int hashCode() {
+      return intValue;
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal.json;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.pdx.JSONFormatter;
+import org.apache.geode.pdx.JSONFormatterException;
+import org.apache.geode.pdx.PdxFieldAlreadyExistsException;
+import org.apache.geode.pdx.PdxInstance;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxType;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+import org.apache.geode.test.junit.categories.SerializationTest;
+
+@Category({IntegrationTest.class, SerializationTest.class})
+public class JSONToPdxStreamerIntegrationTest {
+  private static final String DOCUMENT = "{\"name\": \"Tom\", \"age\": 30, \"small\": -5,"
+      + " \"medium\": 1000, \"big\": 3000000000, \"huge\": 123456789012345678901234567890,"
+      + " \"ratio\": 0.5, \"precise\": 1.23456789012345678901234567890e5, \"active\": true,"
+      + " \"retired\": false, \"spouse\": null, \"empty\": {}, \"none\": [],"
+      + " \"address\": {\"street\": \"Main\", \"number\": 12, \"geo\": {\"lat\": 1.5}},"
+      + " \"values\": [1, 300, 70000, 3000000000, 2.5, \"s\", true, false, null,"
+      + " 123456789012345678901234567890, [1, [2, {\"y\": []}]], {\"x\": 1}, {}],"
+      + " \"unicode\": \"caf\\u00e9\", unquoted: 1}";
+
+  private GemFireCacheImpl cache;
+
+  @Before
+  public void setUp() {
+    cache = (GemFireCacheImpl) new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "")
+        .setPdxReadSerialized(true).create();
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty(JSONFormatter.DISABLE_STREAMING_PROPERTY);
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void streamedDocumentHasTheBytesOfTheMappedOne() {
+    PdxInstance mapped = fromMappedJSON(DOCUMENT);
+    PdxInstance streamed = JSONFormatter.fromJSON(DOCUMENT);
+
+    assertThat(streamed).isEqualTo(mapped);
+    assertThat(((PdxInstanceImpl) streamed).toBytes())
+        .isEqualTo(((PdxInstanceImpl) mapped).toBytes());
+    assertThat(JSONFormatter.toJSON(streamed)).isEqualTo(JSONFormatter.toJSON(mapped));
+  }
+
+  @Test
+  public void streamedByteArrayHasTheBytesOfTheMappedOne() {
+    byte[] json = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+
+    PdxInstance mapped = fromMappedJSON(DOCUMENT);
+    PdxInstance streamed = JSONFormatter.fromJSON(json);
+
+    assertThat(((PdxInstanceImpl) streamed).toBytes())
+        .isEqualTo(((PdxInstanceImpl) mapped).toBytes());
+  }
+
+  @Test
+  public void streamedFieldsAreRead() {
+    PdxInstance streamed = JSONFormatter.fromJSON(DOCUMENT);
+
+    assertThat(streamed.getField("name")).isEqualTo("Tom");
+    assertThat(streamed.getField("age")).isEqualTo((byte) 30);
+    assertThat(streamed.getField("medium")).isEqualTo((short) 1000);
+    assertThat(streamed.getField("big")).isEqualTo(3000000000L);
+    assertThat(streamed.getField("spouse")).isNull();
+    PdxInstance address = (PdxInstance) streamed.getField("address");
+    assertThat(address.getField("street")).isEqualTo("Main");
+    assertThat(((PdxInstance) address.getField("geo")).getField("lat")).isEqualTo(1.5);
+    List<?> values = (List<?>) streamed.getField("values");
+    assertThat(values).hasSize(13);
+    assertThat(values.subList(0, 9)).containsExactly((byte) 1, (short) 300, 70000, 3000000000L,
+        2.5, "s", true, false, null);
+    assertThat(((PdxInstance) values.get(11)).getField("x")).isEqualTo((byte) 1);
+  }
+
+  @Test
+  public void arraysFollowingObjectsInArraysAreStreamed() {
+    PdxInstance streamed = JSONFormatter.fromJSON("{\"a\": [{\"b\": 1}, [2]]}");
+
+    List<?> values = (List<?>) streamed.getField("a");
+    assertThat(((PdxInstance) values.get(0)).getField("b")).isEqualTo((byte) 1);
+    assertThat((List<?>) values.get(1)).containsExactly((byte) 2);
+  }
+
+  @Test
+  public void documentsOfTheSameShapeShareTheirType() {
+    PdxInstanceImpl first = (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\": 1, \"b\": \"x\"}");
+    PdxInstanceImpl second = (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\": 2, \"b\": \"y\"}");
+    PdxInstanceImpl otherType =
+        (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\": 2000, \"b\": \"y\"}");
+    PdxInstanceImpl prefix = (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\": 3}");
+
+    PdxType type = first.getPdxType();
+    assertThat(second.getPdxType()).isSameAs(type);
+    assertThat(otherType.getPdxType().getTypeId()).isNotEqualTo(type.getTypeId());
+    assertThat(prefix.getPdxType().getTypeId()).isNotEqualTo(type.getTypeId());
+    assertThat(cache.getPdxRegistry().getType(type.getTypeId())).isEqualTo(type);
+  }
+
+  @Test
+  public void typesAreForgottenWhenTheRegistryIsCleared() {
+    PdxInstanceImpl first = (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\": 1}");
+
+    cache.getPdxRegistry().testClearTypeRegistry();
+    PdxInstanceImpl second = (PdxInstanceImpl) JSONFormatter.fromJSON("{\"a\": 1}");
+
+    assertThat(second.getPdxType()).isNotSameAs(first.getPdxType());
+    assertThat(cache.getPdxRegistry().getType(second.getPdxType().getTypeId()))
+        .isEqualTo(second.getPdxType());
+  }
+
+  @Test
+  public void duplicateFieldNamesAreRejected() {
+    assertThatThrownBy(() -> JSONFormatter.fromJSON("{\"a\": 1, \"a\": 2}"))
+        .isInstanceOf(JSONFormatterException.class)
+        .hasCauseInstanceOf(PdxFieldAlreadyExistsException.class);
+  }
+
+  @Test
+  public void documentsThatAreNotObjectsAreRejected() {
+    assertThatThrownBy(() -> JSONFormatter.fromJSON("[1, 2]"))
+        .isInstanceOf(JSONFormatterException.class);
+    assertThatThrownBy(() -> JSONFormatter.fromJSON(""))
+        .isInstanceOf(JSONFormatterException.class);
+  }
+
+  @Test
+  public void truncatedDocumentsAreRejected() {
+    assertThatThrownBy(() -> JSONFormatter.fromJSON("{\"a\": [1, {\"b\": 2}"))
+        .isInstanceOf(JSONFormatterException.class);
+  }
+
+  private PdxInstance fromMappedJSON(String json) {
+    System.setProperty(JSONFormatter.DISABLE_STREAMING_PROPERTY, "true");
+    try {
+      return JSONFormatter.fromJSON(json);
+    } finally {
+      System.clearProperty(JSONFormatter.DISABLE_STREAMING_PROPERTY);
+    }
+  }
+}